@@ -0,0 +1,198 @@
+package com.example.kalban_greenbag.auth;
+
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.dto.response.metrics.LoginStatsResponse;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps password logins from taking over the CPU. Hashes run on a small fixed pool with a bounded queue, so at most
+ * {@code hash-threads} hashes run at once and a burst beyond the queue is turned away with a 503. The pool bounds
+ * CPU, not request threads: the request thread still waits for its hash, for up to {@code timeout-ms}, and a
+ * queued login holds its request thread for that long. Before any hash is computed, the client IP (all attempts)
+ * and the account (failed attempts) are checked against sliding-window limits and rejected with a 429.
+ */
+@Component
+public class LoginGuard {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${auth.login.hash-threads:4}")
+    private int hashThreads;
+
+    @Value("${auth.login.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${auth.login.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Value("${auth.login.window-seconds:300}")
+    private long windowSeconds;
+
+    @Value("${auth.login.max-attempts-per-ip:50}")
+    private int maxAttemptsPerIp;
+
+    @Value("${auth.login.max-failures-per-account:5}")
+    private int maxFailuresPerAccount;
+
+    private ThreadPoolExecutor executor;
+
+    private SlidingWindowThrottle ipThrottle;
+
+    private SlidingWindowThrottle accountThrottle;
+
+    private final AtomicLong hashes = new AtomicLong();
+
+    private final AtomicLong hashNanos = new AtomicLong();
+
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    private final AtomicLong failedPasswords = new AtomicLong();
+
+    private final AtomicLong rejectedBusy = new AtomicLong();
+
+    private final AtomicLong rejectedTimeout = new AtomicLong();
+
+    private final AtomicLong throttledByIp = new AtomicLong();
+
+    private final AtomicLong throttledByAccount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        long windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        ipThrottle = new SlidingWindowThrottle(maxAttemptsPerIp, windowMillis);
+        accountThrottle = new SlidingWindowThrottle(maxFailuresPerAccount, windowMillis);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(hashThreads, hashThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Counts the attempt against the client IP; called before the user is looked up
+    public void admit(String clientIp) throws BaseException {
+        if (clientIp != null && !ipThrottle.tryAcquire(clientIp)) {
+            throttledByIp.incrementAndGet();
+            throw throttled();
+        }
+    }
+
+    public void checkAccount(String accountKey) throws BaseException {
+        if (accountThrottle.isLimited(accountKey)) {
+            throttledByAccount.incrementAndGet();
+            throw throttled();
+        }
+    }
+
+    /**
+     * Runs the password check on the hash pool and records a failure against the account when it does not match.
+     * A successful login clears the account's failures.
+     */
+    public boolean verifyPassword(String accountKey, String rawPassword, String encodedPassword) throws BaseException {
+        if (rawPassword == null || encodedPassword == null) {
+            onFailure(accountKey);
+            return false;
+        }
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    hashes.incrementAndGet();
+                    hashNanos.addAndGet(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedBusy.incrementAndGet();
+            throw busy();
+        }
+        try {
+            boolean matches = result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (matches) {
+                accountThrottle.reset(accountKey);
+            } else {
+                onFailure(accountKey);
+            }
+            return matches;
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejectedTimeout.incrementAndGet();
+            throw busy();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), e.getCause().getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        ipThrottle.evictIdle();
+        accountThrottle.evictIdle();
+    }
+
+    public LoginStatsResponse getStats() {
+        long hashCount = hashes.get();
+        return LoginStatsResponse.builder()
+                .hashThreads(hashThreads)
+                .activeHashes(executor.getActiveCount())
+                .queuedHashes(executor.getQueue().size())
+                .hashes(hashCount)
+                .averageHashMillis(hashCount == 0 ? 0 : hashNanos.get() / 1_000_000.0 / hashCount)
+                .maxHashMillis(maxHashNanos.get() / 1_000_000.0)
+                .failedPasswords(failedPasswords.get())
+                .rejectedBusy(rejectedBusy.get())
+                .rejectedTimeout(rejectedTimeout.get())
+                .throttledByIp(throttledByIp.get())
+                .throttledByAccount(throttledByAccount.get())
+                .trackedIps(ipThrottle.size())
+                .trackedAccounts(accountThrottle.size())
+                .build();
+    }
+
+    private void onFailure(String accountKey) {
+        failedPasswords.incrementAndGet();
+        accountThrottle.record(accountKey);
+    }
+
+    private static BaseException throttled() {
+        return new BaseException(ErrorCode.ERROR_429.getCode(), ConstError.User.TOO_MANY_LOGIN_ATTEMPTS, ErrorCode.ERROR_429.getMessage());
+    }
+
+    private static BaseException busy() {
+        return new BaseException(ErrorCode.ERROR_503.getCode(), ConstError.User.LOGIN_BUSY, ErrorCode.ERROR_503.getMessage());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.kalban_greenbag.auth;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sliding-window counter per key. The count of the previous fixed window is weighted by how much of it still
+ * overlaps the sliding window, which keeps two numbers per key instead of one timestamp per event.
+ */
+public class SlidingWindowThrottle {
+
+    private final int limit;
+
+    private final long windowMillis;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public SlidingWindowThrottle(int limit, long windowMillis) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+    }
+
+    public boolean isLimited(String key) {
+        Window window = windows.get(key);
+        return window != null && window.estimate(System.currentTimeMillis(), windowMillis) >= limit;
+    }
+
+    public void record(String key) {
+        long now = System.currentTimeMillis();
+        windows.compute(key, (k, window) -> {
+            Window counted = window == null ? new Window(now) : window;
+            counted.add(now, windowMillis);
+            return counted;
+        });
+    }
+
+    // Records the attempt only when the key is under its limit
+    public boolean tryAcquire(String key) {
+        long now = System.currentTimeMillis();
+        boolean[] acquired = new boolean[1];
+        windows.compute(key, (k, window) -> {
+            Window counted = window == null ? new Window(now) : window;
+            acquired[0] = counted.tryAdd(now, windowMillis, limit);
+            return counted;
+        });
+        return acquired[0];
+    }
+
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    // Keys without events in the last two windows no longer affect any estimate. Counting and eviction both run
+    // under the map's lock for the key, so an attempt is never added to a window that is being dropped.
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, window) -> window.isIdle(now, windowMillis) ? null : window);
+        }
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private static final class Window {
+        private long start;
+        private int previous;
+        private int current;
+
+        private Window(long now) {
+            this.start = now;
+        }
+
+        private synchronized void add(long now, long windowMillis) {
+            roll(now, windowMillis);
+            current++;
+        }
+
+        private synchronized boolean tryAdd(long now, long windowMillis, int limit) {
+            roll(now, windowMillis);
+            if (estimateRolled(now, windowMillis) >= limit) {
+                return false;
+            }
+            current++;
+            return true;
+        }
+
+        private synchronized double estimate(long now, long windowMillis) {
+            roll(now, windowMillis);
+            return estimateRolled(now, windowMillis);
+        }
+
+        private synchronized boolean isIdle(long now, long windowMillis) {
+            return now - start >= 2 * windowMillis;
+        }
+
+        private double estimateRolled(long now, long windowMillis) {
+            double previousWeight = 1.0 - (double) (now - start) / windowMillis;
+            return previous * previousWeight + current;
+        }
+
+        private void roll(long now, long windowMillis) {
+            long elapsed = now - start;
+            if (elapsed < windowMillis) {
+                return;
+            }
+            if (elapsed < 2 * windowMillis) {
+                previous = current;
+                start += windowMillis;
+            } else {
+                previous = 0;
+                start = now;
+            }
+            current = 0;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.kalban_greenbag.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    public static final String ALL_REGIONS = "*";
+
+    private static final String SEPARATOR = "\n";
+
+    private final String nodeId;
+
+    private final String region;
+
+    // null means the whole region
+    private final String key;
+
+    public static CacheInvalidation allRegions(String nodeId) {
+        return new CacheInvalidation(nodeId, ALL_REGIONS, null);
+    }
+
+    public boolean isAllRegions() {
+        return ALL_REGIONS.equals(region);
+    }
+
+    public String encode() {
+        return nodeId + SEPARATOR + region + SEPARATOR + (key == null ? "" : key);
+    }
+
+    public static CacheInvalidation decode(String message) {
+        String[] parts = message.split(SEPARATOR, 3);
+        if (parts.length != 3) {
+            return null;
+        }
+        return new CacheInvalidation(parts[0], parts[1], parts[2].isEmpty() ? null : parts[2]);
+    }
+}
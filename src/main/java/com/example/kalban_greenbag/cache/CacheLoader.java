@@ -0,0 +1,8 @@
+package com.example.kalban_greenbag.cache;
+
+import com.example.kalban_greenbag.exception.BaseException;
+
+@FunctionalInterface
+public interface CacheLoader<V> {
+    V load() throws BaseException;
+}
@@ -0,0 +1,213 @@
+package com.example.kalban_greenbag.cache;
+
+import com.example.kalban_greenbag.dto.response.cache.CacheStatsResponse;
+import com.example.kalban_greenbag.exception.BaseException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CacheRegion<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, CacheEntry<V>> entries;
+
+    // null when the region is local-only
+    private final SharedCacheTier sharedTier;
+    private final String nodeId;
+
+    // Bumped on every evict/clear so a load that raced with a write does not put a stale value back
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public CacheRegion(String name, int maxEntries, long ttlMillis) {
+        this(name, maxEntries, ttlMillis, null, null);
+    }
+
+    public CacheRegion(String name, int maxEntries, long ttlMillis, SharedCacheTier sharedTier, String nodeId) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.sharedTier = sharedTier;
+        this.nodeId = nodeId;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<V>> eldest) {
+                if (size() > CacheRegion.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(K key, CacheLoader<V> loader) throws BaseException {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long invalidationsBeforeLoad = invalidations.get();
+        String cacheKey = toCacheKey(key);
+
+        V shared = getShared(cacheKey);
+        if (shared != null) {
+            sharedHits.increment();
+            if (invalidations.get() == invalidationsBeforeLoad) {
+                putLocal(cacheKey, shared);
+            }
+            return shared;
+        }
+
+        // Read before loading: another node's evict only reaches our counter once its message arrives, so the
+        // shared write is checked against the tier's own version instead
+        String sharedVersion = isShared() ? sharedTier.version(name, cacheKey) : null;
+        V loaded = loader.load();
+        loads.increment();
+        if (loaded != null && invalidations.get() == invalidationsBeforeLoad) {
+            putLocal(cacheKey, loaded);
+            if (sharedVersion != null) {
+                sharedTier.putIfUnchanged(name, cacheKey, loaded, ttlMillis, sharedVersion);
+            }
+        }
+        return loaded;
+    }
+
+    public V getIfPresent(K key) {
+        String cacheKey = toCacheKey(key);
+        synchronized (entries) {
+            CacheEntry<V> entry = entries.get(cacheKey);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                entries.remove(cacheKey);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        String cacheKey = toCacheKey(key);
+        putLocal(cacheKey, value);
+        if (isShared()) {
+            sharedTier.put(name, cacheKey, value, ttlMillis);
+        }
+    }
+
+    public void evict(K key) {
+        String cacheKey = toCacheKey(key);
+        evictLocal(cacheKey);
+        if (isShared()) {
+            sharedTier.evict(name, cacheKey);
+            sharedTier.publish(new CacheInvalidation(nodeId, name, cacheKey));
+        }
+    }
+
+    public void clear() {
+        clearLocal();
+        if (isShared()) {
+            sharedTier.clear(name);
+            sharedTier.publish(new CacheInvalidation(nodeId, name, null));
+        }
+    }
+
+    // Applies an invalidation received from another node; the shared tier has already been updated by the sender
+    void evictLocal(String cacheKey) {
+        invalidations.incrementAndGet();
+        synchronized (entries) {
+            entries.remove(cacheKey);
+        }
+    }
+
+    void clearLocal() {
+        invalidations.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public boolean isShared() {
+        return sharedTier != null;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return CacheStatsResponse.builder()
+                .region(name)
+                .size(size())
+                .maxEntries(maxEntries)
+                .ttlSeconds(ttlMillis / 1000)
+                .shared(isShared())
+                .hits(hitCount)
+                .sharedHits(sharedHits.sum())
+                .misses(missCount)
+                .loads(loads.sum())
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .hitRate(requests == 0 ? 0.0 : (double) hitCount / requests)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V getShared(String cacheKey) {
+        if (!isShared() || !sharedTier.isAvailable()) {
+            return null;
+        }
+        try {
+            return (V) sharedTier.get(name, cacheKey);
+        } catch (ClassCastException e) {
+            return null;
+        }
+    }
+
+    private void putLocal(String cacheKey, V value) {
+        synchronized (entries) {
+            entries.put(cacheKey, new CacheEntry<>(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    private static String toCacheKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
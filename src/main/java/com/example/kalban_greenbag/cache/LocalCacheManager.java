@@ -0,0 +1,110 @@
+package com.example.kalban_greenbag.cache;
+
+import com.example.kalban_greenbag.dto.response.cache.CacheStatsResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+public class LocalCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalCacheManager.class);
+
+    @Value("${cache.local.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${cache.local.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    // Regions listed here stay node-local even when the shared tier is configured
+    @Value("${cache.shared.local-only-regions:}")
+    private Set<String> localOnlyRegions;
+
+    // Only present when redis.enabled=true
+    @Autowired(required = false)
+    private SharedCacheTier sharedCacheTier;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, CacheRegion<?, ?>> regions = new ConcurrentHashMap<>();
+
+    // Caches outside this manager that hold copies of the same data and must follow other nodes' invalidations
+    private final List<Consumer<CacheInvalidation>> remoteInvalidationListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        if (sharedCacheTier != null) {
+            sharedCacheTier.subscribe(this::onInvalidation);
+        }
+    }
+
+    public <K, V> CacheRegion<K, V> getRegion(String name) {
+        return getRegion(name, ttlSeconds);
+    }
+
+    // The TTL only applies when this call creates the region
+    @SuppressWarnings("unchecked")
+    public <K, V> CacheRegion<K, V> getRegion(String name, long regionTtlSeconds) {
+        return (CacheRegion<K, V>) regions.computeIfAbsent(name, regionName -> createRegion(regionName, regionTtlSeconds));
+    }
+
+    public void clearAll() {
+        regions.values().forEach(CacheRegion::clear);
+    }
+
+    public List<CacheStatsResponse> getStats() {
+        return regions.values().stream()
+                .map(CacheRegion::stats)
+                .sorted(Comparator.comparing(CacheStatsResponse::getRegion))
+                .toList();
+    }
+
+    public void addRemoteInvalidationListener(Consumer<CacheInvalidation> listener) {
+        remoteInvalidationListeners.add(listener);
+    }
+
+    public boolean isSharedTierAvailable() {
+        return sharedCacheTier != null && sharedCacheTier.isAvailable();
+    }
+
+    private CacheRegion<?, ?> createRegion(String name, long regionTtlSeconds) {
+        long ttlMillis = regionTtlSeconds * 1000;
+        if (sharedCacheTier == null || localOnlyRegions.contains(name)) {
+            return new CacheRegion<>(name, maxEntries, ttlMillis);
+        }
+        return new CacheRegion<>(name, maxEntries, ttlMillis, sharedCacheTier, nodeId);
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getNodeId())) {
+            return;
+        }
+        remoteInvalidationListeners.forEach(listener -> listener.accept(invalidation));
+        if (invalidation.isAllRegions()) {
+            logger.info("Clearing all local cache regions after shared tier resync");
+            regions.values().forEach(CacheRegion::clearLocal);
+            return;
+        }
+        CacheRegion<?, ?> region = regions.get(invalidation.getRegion());
+        if (region == null) {
+            return;
+        }
+        if (invalidation.getKey() == null) {
+            region.clearLocal();
+        } else {
+            region.evictLocal(invalidation.getKey());
+        }
+    }
+}
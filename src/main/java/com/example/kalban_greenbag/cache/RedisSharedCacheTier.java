@@ -0,0 +1,289 @@
+package com.example.kalban_greenbag.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Redis backed shared tier. Values are stored with JDK serialization under "cache:" + region + key, and
+ * invalidations are fanned out over a pub/sub channel.
+ *
+ * Evicts and clears bump a counter under "cachever:" before deleting, and a loaded value is checked against those
+ * counters after it is written: if they moved, the load may have read the database before that write and the
+ * value is deleted again. Either the check sees the bump or the bump's own delete comes after the write, so a
+ * stale value never outlives the race.
+ *
+ * Any Redis failure opens a back-off window during which the tier reports itself unavailable and every call is
+ * a no-op, so the application keeps serving from the local cache and the database.
+ */
+public class RedisSharedCacheTier implements SharedCacheTier, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisSharedCacheTier.class);
+
+    private static final String KEY_PREFIX = "cache:";
+    private static final String VERSION_PREFIX = "cachever:";
+    // Outlives any load; a counter that expires mid-load only makes that load's write be dropped
+    private static final long VERSION_TTL_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final int SCAN_BATCH_SIZE = 500;
+    private static final long MIN_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    // Only our own DTOs and JDK value types may be deserialized from the shared tier
+    private static final ObjectInputFilter DESERIALIZATION_FILTER =
+            ObjectInputFilter.Config.createFilter("com.example.kalban_greenbag.**;java.**;!*");
+
+    private final JedisPool jedisPool;
+    private final String channel;
+
+    private volatile long unavailableUntil;
+    private volatile long backoffMillis = MIN_BACKOFF_MILLIS;
+
+    private volatile boolean running = true;
+    private volatile JedisPubSub pubSub;
+    private Thread subscriberThread;
+
+    public RedisSharedCacheTier(JedisPool jedisPool, String channel) {
+        this.jedisPool = jedisPool;
+        this.channel = channel;
+    }
+
+    @Override
+    public Object get(String region, String key) {
+        if (!isAvailable()) {
+            return null;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            byte[] bytes = jedis.get(redisKey(region, key));
+            markAvailable();
+            return bytes == null ? null : deserialize(bytes);
+        } catch (JedisException e) {
+            markUnavailable(e);
+            return null;
+        } catch (IOException | ClassNotFoundException e) {
+            // Written by an incompatible build; treat as a miss and let the loader overwrite it
+            logger.debug("Ignoring unreadable shared cache entry {}{}: {}", region, key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String region, String key, Object value, long ttlMillis) {
+        if (!isAvailable()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.psetex(redisKey(region, key), ttlMillis, serialize(value));
+            markAvailable();
+        } catch (JedisException e) {
+            markUnavailable(e);
+        } catch (IOException e) {
+            logger.warn("Value for shared cache region {} is not serializable: {}", region, e.getMessage());
+        }
+    }
+
+    @Override
+    public String version(String region, String key) {
+        if (!isAvailable()) {
+            return null;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            String version = readVersion(jedis, region, key);
+            markAvailable();
+            return version;
+        } catch (JedisException e) {
+            markUnavailable(e);
+            return null;
+        }
+    }
+
+    @Override
+    public void putIfUnchanged(String region, String key, Object value, long ttlMillis, String version) {
+        if (!isAvailable()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            byte[] redisKey = redisKey(region, key);
+            jedis.psetex(redisKey, ttlMillis, serialize(value));
+            if (!version.equals(readVersion(jedis, region, key))) {
+                jedis.del(redisKey);
+            }
+            markAvailable();
+        } catch (JedisException e) {
+            markUnavailable(e);
+        } catch (IOException e) {
+            logger.warn("Value for shared cache region {} is not serializable: {}", region, e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(String region, String key) {
+        if (!isAvailable()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            bumpVersion(jedis, VERSION_PREFIX + region + key);
+            jedis.del(redisKey(region, key));
+            markAvailable();
+        } catch (JedisException e) {
+            markUnavailable(e);
+        }
+    }
+
+    @Override
+    public void clear(String region) {
+        if (!isAvailable()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            bumpVersion(jedis, VERSION_PREFIX + region);
+            ScanParams scanParams = new ScanParams().match(KEY_PREFIX + region + "*").count(SCAN_BATCH_SIZE);
+            String cursor = ScanParams.SCAN_POINTER_START;
+            do {
+                ScanResult<String> scanResult = jedis.scan(cursor, scanParams);
+                List<String> keys = scanResult.getResult();
+                if (!keys.isEmpty()) {
+                    jedis.unlink(keys.toArray(new String[0]));
+                }
+                cursor = scanResult.getCursor();
+            } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+            markAvailable();
+        } catch (JedisException e) {
+            markUnavailable(e);
+        }
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        if (!isAvailable()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.publish(channel, invalidation.encode());
+            markAvailable();
+        } catch (JedisException e) {
+            markUnavailable(e);
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<CacheInvalidation> listener) {
+        if (subscriberThread != null) {
+            throw new IllegalStateException("Cache invalidation listener already registered");
+        }
+        subscriberThread = new Thread(() -> listen(listener), "cache-invalidation-subscriber");
+        subscriberThread.setDaemon(true);
+        subscriberThread.start();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        JedisPubSub currentPubSub = pubSub;
+        if (currentPubSub != null && currentPubSub.isSubscribed()) {
+            currentPubSub.unsubscribe();
+        }
+    }
+
+    private void listen(Consumer<CacheInvalidation> listener) {
+        boolean resync = false;
+        while (running) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                // Messages published while we were disconnected are lost, so drop everything cached locally
+                if (resync) {
+                    listener.accept(CacheInvalidation.allRegions(null));
+                }
+                pubSub = new JedisPubSub() {
+                    @Override
+                    public void onMessage(String messageChannel, String message) {
+                        CacheInvalidation invalidation = CacheInvalidation.decode(message);
+                        if (invalidation != null) {
+                            listener.accept(invalidation);
+                        }
+                    }
+                };
+                markAvailable();
+                jedis.subscribe(pubSub, channel);
+            } catch (JedisException e) {
+                if (!running) {
+                    return;
+                }
+                markUnavailable(e);
+                sleepQuietly(backoffMillis);
+            }
+            resync = true;
+        }
+    }
+
+    private void markAvailable() {
+        if (unavailableUntil != 0) {
+            logger.info("Redis shared cache tier is reachable again");
+            unavailableUntil = 0;
+            backoffMillis = MIN_BACKOFF_MILLIS;
+        }
+    }
+
+    private void markUnavailable(Exception e) {
+        long delay = backoffMillis;
+        unavailableUntil = System.currentTimeMillis() + delay;
+        backoffMillis = Math.min(delay * 2, MAX_BACKOFF_MILLIS);
+        logger.warn("Redis shared cache tier unavailable, serving local-only for {} ms: {}", delay, e.getMessage());
+    }
+
+    // The region's clear count and the key's evict count
+    private static String readVersion(Jedis jedis, String region, String key) {
+        List<String> counters = jedis.mget(VERSION_PREFIX + region, VERSION_PREFIX + region + key);
+        return counters.get(0) + ":" + counters.get(1);
+    }
+
+    private static void bumpVersion(Jedis jedis, String versionKey) {
+        jedis.incr(versionKey);
+        jedis.pexpire(versionKey, VERSION_TTL_MILLIS);
+    }
+
+    private static byte[] redisKey(String region, String key) {
+        return (KEY_PREFIX + region + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(DESERIALIZATION_FILTER);
+            return in.readObject();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.kalban_greenbag.cache;
+
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.dto.response.metrics.SecondLevelCacheRegionStatsResponse;
+import com.example.kalban_greenbag.dto.response.metrics.SecondLevelCacheStatsResponse;
+import com.example.kalban_greenbag.entity.BaseModel;
+import com.example.kalban_greenbag.entity.Category;
+import com.example.kalban_greenbag.entity.CustomizationOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hibernate's second-level cache for reference data, with regions configured in ehcache.xml. Hibernate keeps
+ * cached rows up to date on every write made through a session. Two cases are handled here instead:
+ *
+ * Inverse collections (Category.baseModels, BaseModel.customizationOptions) are not refreshed when a child is
+ * moved through its owning side, so the services evict them after such a write.
+ *
+ * Writes on other nodes are invisible to this node's cache. The reference data regions are dropped whenever
+ * another node invalidates one of the matching response caches; the TTL in ehcache.xml bounds the rest.
+ */
+@Component
+public class SecondLevelCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCache.class);
+
+    // Response cache regions holding data that is also in the second-level cache; page regions share the prefix
+    private static final List<String> REFERENCE_DATA_REGIONS = List.of(
+            ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY,
+            ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL,
+            ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LocalCacheManager cacheManager;
+
+    private SessionFactory sessionFactory;
+
+    @PostConstruct
+    public void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        cacheManager.addRemoteInvalidationListener(this::onRemoteInvalidation);
+    }
+
+    public void evictCollection(Class<?> ownerClass, String collection, Object ownerId) {
+        if (ownerId != null) {
+            sessionFactory.getCache().evictCollectionData(ownerClass.getName() + "." + collection, ownerId);
+        }
+    }
+
+    public SecondLevelCacheStatsResponse getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<SecondLevelCacheRegionStatsResponse> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toRegionStats(region, statistics.getCacheRegionStatistics(region)))
+                .toList();
+        return SecondLevelCacheStatsResponse.builder()
+                .statisticsEnabled(statistics.isStatisticsEnabled())
+                .queryCacheHits(statistics.getQueryCacheHitCount())
+                .queryCacheMisses(statistics.getQueryCacheMissCount())
+                .queryCachePuts(statistics.getQueryCachePutCount())
+                .regions(regions)
+                .build();
+    }
+
+    private void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.isAllRegions()
+                || REFERENCE_DATA_REGIONS.stream().anyMatch(region -> invalidation.getRegion().startsWith(region))) {
+            logger.debug("Evicting reference data from the second-level cache after invalidation of {}", invalidation.getRegion());
+            Cache cache = sessionFactory.getCache();
+            cache.evictEntityData(Category.class);
+            cache.evictEntityData(BaseModel.class);
+            cache.evictEntityData(CustomizationOption.class);
+            cache.evictCollectionData(Category.class.getName() + ".baseModels");
+            cache.evictCollectionData(BaseModel.class.getName() + ".customizationOptions");
+        }
+    }
+
+    private static SecondLevelCacheRegionStatsResponse toRegionStats(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return SecondLevelCacheRegionStatsResponse.builder().region(region).build();
+        }
+        long hits = regionStatistics.getHitCount();
+        long requests = hits + regionStatistics.getMissCount();
+        return SecondLevelCacheRegionStatsResponse.builder()
+                .region(region)
+                // Negative when the cache provider does not report it
+                .elementsInMemory(regionStatistics.getElementCountInMemory())
+                .hits(hits)
+                .misses(regionStatistics.getMissCount())
+                .puts(regionStatistics.getPutCount())
+                .hitRate(requests == 0 ? 0.0 : (double) hits / requests)
+                .build();
+    }
+}
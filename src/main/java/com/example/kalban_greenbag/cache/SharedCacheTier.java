@@ -0,0 +1,33 @@
+package com.example.kalban_greenbag.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Cache tier shared by every node. Implementations must never throw: when the backing store is unreachable
+ * reads return null and writes are dropped, so callers fall back to the local cache and the database.
+ */
+public interface SharedCacheTier {
+
+    Object get(String region, String key);
+
+    void put(String region, String key, Object value, long ttlMillis);
+
+    // Opaque marker of the evictions and clears applied to the key so far; null when the tier is unavailable
+    String version(String region, String key);
+
+    /**
+     * Stores a value loaded after {@link #version} returned {@code version}. If the key was evicted or its region
+     * cleared in the meantime the value may predate that write, so it does not stay in the tier.
+     */
+    void putIfUnchanged(String region, String key, Object value, long ttlMillis, String version);
+
+    void evict(String region, String key);
+
+    void clear(String region);
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+
+    boolean isAvailable();
+}
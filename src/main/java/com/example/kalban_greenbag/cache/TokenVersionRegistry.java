@@ -0,0 +1,71 @@
+package com.example.kalban_greenbag.cache;
+
+import com.example.kalban_greenbag.model.TokenClaims;
+import com.example.kalban_greenbag.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Current token version of every user whose tokens were revoked at least once. A token carrying an older version,
+ * or none at all, is rejected, which is a single map lookup on the request path.
+ *
+ * The first refresh loads all such users; later refreshes only read users modified since the previous one (with
+ * some overlap for clocks and late commits). Versions only grow, so entries are merged with max. Changes made on
+ * this node are recorded immediately, other nodes see them after the next refresh.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    private static final long OVERLAP_MILLIS = 60_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentMap<UUID, Integer> versions = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    private volatile long lastRefreshMillis;
+
+    @Scheduled(fixedDelayString = "${jwt.token-version.refresh-interval-ms:5000}")
+    public void refresh() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            Iterable<Object[]> rows = loaded
+                    ? userRepository.findTokenVersionsModifiedSince(new Date(lastRefreshMillis - OVERLAP_MILLIS))
+                    : userRepository.findTokenVersions();
+            for (Object[] row : rows) {
+                record((UUID) row[0], ((Number) row[1]).intValue());
+            }
+            lastRefreshMillis = startedAt;
+            loaded = true;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh token versions: {}", e.getMessage());
+        }
+    }
+
+    public void record(UUID userId, int version) {
+        if (version > 0) {
+            versions.merge(userId, version, Math::max);
+        }
+    }
+
+    // Tokens without a user id or version predate revocation and cannot be checked, so they are refused; the
+    // client gets a new access token from its refresh token, which is checked against the user row instead
+    public boolean isCurrent(TokenClaims claims) {
+        if (claims.getUserId() == null || claims.getTokenVersion() == null) {
+            return false;
+        }
+        return claims.getTokenVersion() >= versions.getOrDefault(claims.getUserId(), 0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.kalban_greenbag.cache;
+
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.UserPrincipal;
+import com.example.kalban_greenbag.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Principals for token-authenticated requests, so a request with a known user costs no query on Users/Roles.
+ * Entries live for a short TTL and are evicted by UserServiceImpl when a user's name, password or role changes;
+ * with the shared tier configured the eviction reaches every node.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Autowired
+    private LocalCacheManager cacheManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${cache.user-principal.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private CacheRegion<String, UserPrincipal> principals;
+
+    @PostConstruct
+    public void initCaches() {
+        principals = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_USER_PRINCIPAL, ttlSeconds);
+    }
+
+    public UserPrincipal get(String username) throws BaseException {
+        return principals.get(username, () -> userRepository.findByUsername(username)
+                .map(UserPrincipal::of)
+                .orElseThrow(() -> new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.USER_NOT_FOUND,
+                        ErrorCode.ERROR_401.getMessage())));
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            principals.evict(username);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.kalban_greenbag.config;
+
+import com.example.kalban_greenbag.sequence.EntityIds;
+import com.example.kalban_greenbag.sequence.TimeOrderedIdGenerator;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+@Configuration
+public class EntityIdConfig {
+
+    @Value("${entity.id.generator:sql-server}")
+    private String generator;
+
+    @PostConstruct
+    public void init() {
+        switch (generator) {
+            case "sql-server" -> EntityIds.use(new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Layout.SQL_SERVER));
+            case "rfc-9562" -> EntityIds.use(new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Layout.RFC_9562));
+            case "random" -> EntityIds.use(UUID::randomUUID);
+            default -> throw new IllegalStateException("Unknown entity.id.generator: " + generator);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.kalban_greenbag.config;
+
+import com.example.kalban_greenbag.resilience.GatewayGuard;
+import com.example.kalban_greenbag.resilience.GatewayRejectedException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import vn.payos.exception.PayOSException;
+
+import java.util.function.Predicate;
+
+/**
+ * One {@link GatewayGuard} per payment gateway, each with its own threads, limits and circuit breaker, tuned with
+ * {@code gateway.<name>.*} properties.
+ */
+@Configuration
+public class GatewayResilienceConfig {
+
+    public static final String PAYOS = "payos";
+
+    public static final String MOMO = "momo";
+
+    @Bean(destroyMethod = "shutdown")
+    public GatewayGuard payOSGatewayGuard(Environment environment) {
+        // The SDK throws PayOSException for a reply with an error code, and plain exceptions when the call itself fails
+        return gatewayGuard(PAYOS, environment, exception -> exception instanceof PayOSException);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public GatewayGuard momoGatewayGuard(Environment environment) {
+        return gatewayGuard(MOMO, environment, exception -> exception instanceof GatewayRejectedException);
+    }
+
+    private static GatewayGuard gatewayGuard(String name, Environment environment, Predicate<Exception> rejection) {
+        String prefix = "gateway." + name + ".";
+        return new GatewayGuard(name,
+                environment.getProperty(prefix + "max-concurrent", Integer.class, 10),
+                environment.getProperty(prefix + "max-wait-ms", Long.class, 100L),
+                environment.getProperty(prefix + "timeout-ms", Long.class, 5000L),
+                environment.getProperty(prefix + "hedge-delay-ms", Long.class, 1000L),
+                environment.getProperty(prefix + "failure-threshold", Integer.class, 5),
+                environment.getProperty(prefix + "open-ms", Long.class, 30000L),
+                rejection);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.kalban_greenbag.config;
+
+import com.example.kalban_greenbag.http.CountingConnectionSocketFactory;
+import com.example.kalban_greenbag.http.HttpClientPoolMetrics;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One pooled, keep-alive HTTP client shared by the outbound payment gateway calls.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.max-total:50}")
+    private int maxTotal;
+
+    @Value("${http.client.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${http.client.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${http.client.connection-request-timeout-ms:2000}")
+    private int connectionRequestTimeoutMs;
+
+    @Value("${http.client.socket-timeout-ms:10000}")
+    private int socketTimeoutMs;
+
+    @Value("${http.client.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new CountingConnectionSocketFactory(PlainConnectionSocketFactory.getSocketFactory(), connectionsOpened))
+                .register("https", new CountingConnectionSocketFactory(SSLConnectionSocketFactory.getSocketFactory(), connectionsOpened))
+                .build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactories);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        // Re-check connections that sat idle, the gateway may have closed them on its side
+        connectionManager.setValidateAfterInactivity(2000);
+        return connectionManager;
+    }
+
+    // Closing the client also closes the pool and stops its idle connection evictor
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setConnectionRequestTimeout(connectionRequestTimeoutMs)
+                .setSocketTimeout(socketTimeoutMs)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMs) : keepAliveMs;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public HttpClientPoolMetrics httpClientPoolMetrics(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return new HttpClientPoolMetrics(httpConnectionManager, connectionsOpened);
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.kalban_greenbag.config;
 
+import com.example.kalban_greenbag.cache.TokenVersionRegistry;
+import com.example.kalban_greenbag.cache.UserPrincipalCache;
+import com.example.kalban_greenbag.constant.ConstError;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
 import com.example.kalban_greenbag.exception.ErrorResponse;
+import com.example.kalban_greenbag.model.TokenClaims;
+import com.example.kalban_greenbag.model.UserPrincipal;
 import com.example.kalban_greenbag.service.IJWTService;
 import com.example.kalban_greenbag.service.impl.UserServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,7 +23,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -34,7 +38,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     IJWTService jwtService;
 
     @Autowired
-    UserDetailsService userDetailsService;
+    UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    TokenVersionRegistry tokenVersionRegistry;
 //private final UserServiceImpl userService;
 
     @Override
@@ -50,9 +57,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUserName(jwt);
+            final TokenClaims claims = jwtService.parseToken(jwt);
+            userEmail = claims.getSubject();
             if (!StringUtils.isEmpty(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                if (claims.isRefreshToken()) {
+                    throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.REFRESH_TOKEN_NOT_ALLOWED, ErrorCode.ERROR_401.getMessage());
+                }
+                if (!tokenVersionRegistry.isCurrent(claims)) {
+                    throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.TOKEN_REVOKED, ErrorCode.ERROR_401.getMessage());
+                }
+                // Self-contained tokens already carry what the principal needs; older tokens go through the cache
+                UserDetails userDetails = claims.isSelfContained() ? UserPrincipal.of(claims) : this.userPrincipalCache.get(userEmail);
+                if (!userDetails.isEnabled()) {
+                    throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.USER_DISABLED, ErrorCode.ERROR_401.getMessage());
+                }
                 if (jwtService.isTokenValid(jwt, userDetails)) {
                     SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
 
@@ -0,0 +1,83 @@
+package com.example.kalban_greenbag.config;
+
+import com.example.kalban_greenbag.constant.ConstAPI;
+import com.example.kalban_greenbag.ratelimit.LocalRateLimiter;
+import com.example.kalban_greenbag.ratelimit.RateLimitFilter;
+import com.example.kalban_greenbag.ratelimit.RateLimitPolicy;
+import com.example.kalban_greenbag.ratelimit.RateLimiter;
+import com.example.kalban_greenbag.ratelimit.RedisRateLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import redis.clients.jedis.JedisPool;
+
+import java.util.List;
+import java.util.Set;
+
+@Configuration
+public class RateLimitConfig {
+
+    private static final Set<String> READ_METHODS = Set.of("GET");
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    @Bean
+    public RateLimiter rateLimiter(@Value("${rate-limit.redis.enabled:false}") boolean redisEnabled,
+                                   ObjectProvider<JedisPool> jedisPool) {
+        JedisPool pool = jedisPool.getIfAvailable();
+        if (redisEnabled && pool != null) {
+            return new RedisRateLimiter(pool, new LocalRateLimiter());
+        }
+        return new LocalRateLimiter();
+    }
+
+    // Payment gateway callbacks are left out on purpose: throttling them would only delay settlement
+    @Bean
+    public RateLimitPolicy authRateLimit(@Value("${rate-limit.auth.permits-per-second:1}") double permitsPerSecond,
+                                         @Value("${rate-limit.auth.burst:10}") int burst) {
+        return new RateLimitPolicy("auth", permitsPerSecond, burst, Set.of("POST"), List.of(
+                ConstAPI.AuthenticationAPI.LOGIN_WITH_PASSWORD_USERNAME,
+                ConstAPI.AuthenticationAPI.LOGIN_WITH_GOOGLE,
+                ConstAPI.AuthenticationAPI.REFRESH_TOKEN,
+                ConstAPI.UserAPI.CREATE_ACCOUNT));
+    }
+
+    @Bean
+    public RateLimitPolicy paymentRateLimit(@Value("${rate-limit.payment.permits-per-second:0.5}") double permitsPerSecond,
+                                            @Value("${rate-limit.payment.burst:5}") int burst) {
+        return new RateLimitPolicy("payment", permitsPerSecond, burst, Set.of("POST"), List.of(
+                ConstAPI.PAYosAPI.CHECKOUT,
+                ConstAPI.PAYosAPI.CREATE_ORDER,
+                ConstAPI.MoMoAPI.CREATE_PAYMENT));
+    }
+
+    @Bean
+    public RateLimitPolicy orderWriteRateLimit(@Value("${rate-limit.order-write.permits-per-second:2}") double permitsPerSecond,
+                                               @Value("${rate-limit.order-write.burst:20}") int burst) {
+        return new RateLimitPolicy("order-write", permitsPerSecond, burst, WRITE_METHODS, List.of(
+                ConstAPI.OrderAPI.GET_ALL_ORDERS,
+                ConstAPI.OderItemAPI.GET_ALL_ORDER_ITEMS));
+    }
+
+    @Bean
+    public RateLimitPolicy catalogRateLimit(@Value("${rate-limit.catalog.permits-per-second:20}") double permitsPerSecond,
+                                            @Value("${rate-limit.catalog.burst:100}") int burst) {
+        return new RateLimitPolicy("catalog", permitsPerSecond, burst, READ_METHODS, List.of(
+                ConstAPI.ProductAPI.GET_ALL_PRODUCT,
+                ConstAPI.CategoryAPI.GET_ALL_CATEGORY,
+                ConstAPI.BaseModelAPI.GET_ALL_BASE_MODELS,
+                ConstAPI.ReviewAPI.GET_ALL_REVIEWS,
+                ConstAPI.CustomizationOptionAPI.GET_ALL_CUSTOMIZATION_OPTION,
+                ConstAPI.ProductCustomizationAPI.GET_ALL_PRODUCT_CUSTOMIZATIONS));
+    }
+
+    // The filter runs inside the security chain, after the JWT filter; keep Boot from also adding it in front of it
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.kalban_greenbag.config;
 
 import com.example.kalban_greenbag.exception.GlobalExceptionHandler;
+import com.example.kalban_greenbag.ratelimit.RateLimitFilter;
 import com.example.kalban_greenbag.service.impl.JWTServiceImpl;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -35,6 +36,7 @@ import javax.crypto.spec.SecretKeySpec;
 @EnableMethodSecurity
 public class SecurityConfiguration implements WebMvcConfigurer {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final AuthenticationProvider authenticationProvider;
     private final GlobalExceptionHandler globalExceptionHandler;
 //    private final JWTServiceImpl jwtService;
@@ -60,6 +62,8 @@ public class SecurityConfiguration implements WebMvcConfigurer {
                 .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // After the JWT filter, so authenticated callers are limited per user instead of per IP
+                .addFilterAfter(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling(handling -> handling
                         .accessDeniedHandler(globalExceptionHandler::handleAccessDeniedException)
                         .authenticationEntryPoint(globalExceptionHandler::handleAuthenticationException)
@@ -4,6 +4,7 @@ public class ConstAPI {
     public static class AuthenticationAPI {
         public static final String LOGIN_WITH_PASSWORD_USERNAME = "api/v1/auth/login";
         public static final String LOGIN_WITH_GOOGLE = "api/v1/auth/login-google";
+        public static final String REFRESH_TOKEN = "api/v1/auth/refresh";
     }
 
     public static class UserAPI {
@@ -18,6 +19,16 @@ public class ConstAPI {
 
     public static class CacheAPI{
         public static final String CLEAR_CACHE = "api/v1/cache/clear/";
+        public static final String CACHE_STATS = "api/v1/cache/stats";
+    }
+
+    public static class MetricsAPI {
+        public static final String HTTP_CLIENT_STATS = "api/v1/metrics/http-client";
+        public static final String PAYMENT_RECONCILIATION = "api/v1/metrics/payment-reconciliation";
+        public static final String GATEWAYS = "api/v1/metrics/gateways";
+        public static final String LOGIN = "api/v1/metrics/login";
+        public static final String RATE_LIMITS = "api/v1/metrics/rate-limits";
+        public static final String SECOND_LEVEL_CACHE = "api/v1/metrics/second-level-cache";
     }
 
     public static class ProductAPI {
@@ -27,6 +38,10 @@ public class ConstAPI {
         public static final String GET_PRODUCT_BY_ID = "api/v1/product/";
         public static final String GET_ALL_PRODUCT = "api/v1/product";
         public static final String GET_ALL_PRODUCT_STATUS_TRUE = "api/v1/product/product-status-active";
+        public static final String GET_PRODUCT_BY_NAME = "api/v1/product/search-by-name";
+        public static final String GET_PRODUCT_BY_PRICE_RANGE = "api/v1/product/search-by-price";
+        public static final String ENABLE_FLASH_SALE = "api/v1/product/flash-sale/enable/";
+        public static final String DISABLE_FLASH_SALE = "api/v1/product/flash-sale/disable/";
     }
 
     public static class CategoryAPI {
@@ -91,6 +106,7 @@ public class ConstAPI {
         public static final String GET_ORDER_BY_ORDER_CODE = "api/v1/order/order-code/";
         public static  final String GET_PIE_CHART_DATA = "api/v1/order/get-pie-chart";
         public static final  String GET_TOTAL_AMOUNT_AND_COUNT_BY_STATUS_AND_DATE_RANGE = "api/v1/order/line-chart";
+        public static final String CHECKOUT = "api/v1/order/checkout";
     }
 
     public static class PAYosAPI {
@@ -110,6 +126,12 @@ public class ConstAPI {
         public static final String HANDLE_PAYMENT_STATUS = "api/v1/payment/handle-payment-status/";
     }
 
+    public static class MoMoAPI {
+        public static final String CREATE_PAYMENT = "api/v1/momo-payment";
+        public static final String GET_STATUS = "api/v1/get-status";
+        public static final String CALLBACK = "api/v1/callback";
+    }
+
     public static class ProductCustomizationAPI {
         public static final String CREATE_PRODUCT_CUSTOMIZATION = "api/v1/product-customization/create";
         public static final String UPDATE_PRODUCT_CUSTOMIZATION = "api/v1/product-customization/update";
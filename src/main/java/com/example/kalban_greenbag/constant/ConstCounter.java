@@ -0,0 +1,11 @@
+package com.example.kalban_greenbag.constant;
+
+public class ConstCounter {
+    public static final String ORDER = "Order";
+    public static final String ORDER_ITEM = "OrderItem";
+    public static final String PRODUCT = "Product";
+    public static final String REVIEW = "Review";
+    public static final String USER = "User";
+
+    public static final String REVIEW_BY_PRODUCT = "Review:product:";
+}
@@ -3,6 +3,7 @@ package com.example.kalban_greenbag.constant;
 public class ConstError {
     public static class Input{
         public static final String NO_INPUT = "No input";
+        public static final String INVALID_CURSOR = "Invalid cursor";
     }
     public static class User {
         public static final String USER_NOT_FOUND = "User not found";
@@ -10,6 +11,14 @@ public class ConstError {
         public static final String EMAIL_EXISTED = "Email existed";
         public static final String INVALID_AUTHORIZATION_HEADER = "Invalid authorization header";
         public static final String USER_NOT_AUTHENTICATED = "User not authenticated";
+        public static final String TOKEN_EXPIRED = "Token expired";
+        public static final String TOKEN_REVOKED = "Token revoked";
+        public static final String INVALID_REFRESH_TOKEN = "Invalid refresh token";
+        public static final String REFRESH_TOKEN_NOT_ALLOWED = "Refresh token cannot be used as an access token";
+        public static final String USER_DISABLED = "User is disabled";
+        public static final String BAD_CREDENTIALS = "Bad credentials";
+        public static final String TOO_MANY_LOGIN_ATTEMPTS = "Too many login attempts, try again later";
+        public static final String LOGIN_BUSY = "Login is busy, try again later";
     }
 
     public static class Role {
@@ -23,6 +32,10 @@ public class ConstError {
     public static class Product {
         public static final String PRODUCT_NOT_FOUND = "Product not found";
         public static final String PRODUCT_STOCK_NOT_ENOUGH = "Product stock not enough";
+        public static final String PRODUCT_NOT_AVAILABLE = "Product not available";
+        public static final String FLASH_SALE_ALREADY_ENABLED = "Flash sale already enabled";
+        public static final String FLASH_SALE_NOT_ENABLED = "Flash sale not enabled";
+        public static final String INVALID_SHARD_COUNT = "Invalid shard count";
     }
 
     public static class BaseModel {
@@ -54,6 +67,20 @@ public class ConstError {
         public static final String HANDLE_PAYMENT_FAILED = "Handle payment failed";
     }
 
+    public static class MoMo {
+        public static final String INVALID_SIGNATURE = "Invalid MoMo signature";
+    }
+
+    public static class Gateway {
+        public static final String GATEWAY_CIRCUIT_OPEN = "Payment gateway is temporarily unavailable";
+        public static final String GATEWAY_BUSY = "Payment gateway is busy";
+        public static final String GATEWAY_TIMEOUT = "Payment gateway did not respond in time";
+    }
+
+    public static class RateLimit {
+        public static final String TOO_MANY_REQUESTS = "Too many requests, try again later";
+    }
+
     public static class ProductCustomization {
         public static final String PRODUCT_CUSTOMIZATION_NOT_FOUND = "Product customization not found";
     }
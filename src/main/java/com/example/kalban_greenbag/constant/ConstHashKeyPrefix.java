@@ -1,15 +1,31 @@
-//package com.example.kalban_greenbag.constant;
-//
-//public class ConstHashKeyPrefix {
-//    public static final String HASH_KEY_PREFIX_FOR_CATEGORY = "Category:";
-//
-//    public static final String HASH_KEY_PREFIX_FOR_BASE_MODEL = "BaseModel:";
-//
-//    public static final String HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION = "CustomizationOption:";
-//
-//    public static final String HASH_KEY_PREFIX_FOR_PRODUCT = "Product:";
-//
-//    public static final String HASH_KEY_PREFIX_FOR_ORDER = "Order:";
-//
-//    public static final String HASH_KEY_PREFIX_FOR_ORDER_ITEM = "OrderItem:";
-//}
+package com.example.kalban_greenbag.constant;
+
+public class ConstHashKeyPrefix {
+    public static final String HASH_KEY_PREFIX_FOR_CATEGORY = "Category:";
+
+    public static final String HASH_KEY_PREFIX_FOR_CATEGORY_PAGE = "Category:all:";
+
+    public static final String HASH_KEY_PREFIX_FOR_BASE_MODEL = "BaseModel:";
+
+    public static final String HASH_KEY_PREFIX_FOR_BASE_MODEL_PAGE = "BaseModel:all:";
+
+    public static final String HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION = "CustomizationOption:";
+
+    public static final String HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION_PAGE = "CustomizationOption:all:";
+
+    public static final String HASH_KEY_PREFIX_FOR_PRODUCT = "Product:";
+
+    public static final String HASH_KEY_PREFIX_FOR_PRODUCT_PAGE = "Product:all:";
+
+    public static final String HASH_KEY_PREFIX_FOR_ORDER = "Order:";
+
+    public static final String HASH_KEY_PREFIX_FOR_ORDER_ITEM = "OrderItem:";
+
+    public static final String HASH_KEY_PREFIX_FOR_JWT_CLAIMS = "JwtClaims:";
+
+    public static final String HASH_KEY_PREFIX_FOR_USER_PRINCIPAL = "UserPrincipal:";
+
+    public static final String PAGE_KEY_ALL = "all:";
+
+    public static final String PAGE_KEY_ACTIVE = "active:";
+}
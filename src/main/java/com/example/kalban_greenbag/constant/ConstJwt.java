@@ -0,0 +1,15 @@
+package com.example.kalban_greenbag.constant;
+
+public class ConstJwt {
+    public static class Claim {
+        public static final String USER_ID = "uid";
+        public static final String ROLE = "role";
+        public static final String STATUS = "status";
+        public static final String TOKEN_VERSION = "ver";
+        public static final String TOKEN_TYPE = "typ";
+    }
+
+    public static class TokenType {
+        public static final String REFRESH = "refresh";
+    }
+}
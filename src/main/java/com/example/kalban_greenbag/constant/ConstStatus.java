@@ -13,11 +13,28 @@ public class ConstStatus {
         public static final String ORDER_STATUS_SHIPPING = "SHIPPING";
         public static final String ORDER_STATUS_DELIVERED = "DELIVERED";
         public static final String ORDER_STATUS_CANCELLED = "CANCELLED";
+        // Paid after its stock hold ran out and the stock was sold meanwhile; the payment has to be refunded
+        public static final String ORDER_STATUS_REFUND_REQUIRED = "REFUND_REQUIRED";
+    }
+
+    public static class ReservationStatus {
+        public static final String HELD = "HELD";
+        public static final String CONFIRMED = "CONFIRMED";
+        public static final String RELEASED = "RELEASED";
+    }
+
+    public static class WebhookEventStatus {
+        public static final String PENDING = "PENDING";
+        public static final String PROCESSING = "PROCESSING";
+        public static final String PROCESSED = "PROCESSED";
+        public static final String FAILED = "FAILED";
     }
 
     public static class PayOsStatus {
         public static final String PAYOS_STATUS_PENDING = "PENDING";
         public static final String PAYOS_STATUS_CANCELLED = "CANCELLED";
         public static final String PAYOS_STATUS_PAID = "PAID";
+        // The link's expiredAt passed unpaid
+        public static final String PAYOS_STATUS_EXPIRED = "EXPIRED";
     }
 }
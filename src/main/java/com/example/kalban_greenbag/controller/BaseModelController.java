@@ -58,13 +58,19 @@ public class BaseModelController {
 
     @Operation(summary = "Get all base model", description = "API get all base model")
     @GetMapping(value = ConstAPI.BaseModelAPI.GET_ALL_BASE_MODELS)
-    public PagingModel getAll(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+    public PagingModel getAll(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit, @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return baseModelService.getAllByCursor(cursor, limit);
+        }
         return baseModelService.getAll(page, limit);
     }
 
     @Operation(summary = "Get all active base model", description = "API get all active base model")
     @GetMapping(value = ConstAPI.BaseModelAPI.GET_ALL_BASE_MODELS_STATUS_ACTIVE)
-    public PagingModel getAllStatusTrue(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+    public PagingModel getAllStatusTrue(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit, @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return baseModelService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return baseModelService.findAllByStatusTrue(page, limit);
     }
 }
@@ -64,15 +64,21 @@ public class CategoryController {
 
     @Operation(summary = "Get all categories", description = "API get all categories")
     @GetMapping(value = ConstAPI.CategoryAPI.GET_ALL_CATEGORY)
-    public PagingModel getAll(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+    public PagingModel getAll(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit, @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
         log.info("Getting all categories with page: {}, limit: {}", page, limit);
+        if (cursor != null) {
+            return categoryService.getAllByCursor(cursor, limit);
+        }
         return categoryService.getAll(page, limit);
     }
 
     @Operation(summary = "Get all categories by status active", description = "API get all categories by status active")
     @GetMapping(value = ConstAPI.CategoryAPI.GET_ALL_CATEGORY_STATUS_TRUE)
-    public PagingModel getAllByStatusActive(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+    public PagingModel getAllByStatusActive(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit, @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
         log.info("Getting all categories with page: {}, limit: {}", page, limit);
+        if (cursor != null) {
+            return categoryService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return categoryService.findAllByStatusTrue(page, limit);
     }
 
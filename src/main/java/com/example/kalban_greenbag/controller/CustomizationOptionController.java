@@ -56,14 +56,22 @@ public class CustomizationOptionController {
     @Operation(summary = "Get all customization options", description = "API get all customization options")
     @GetMapping(value = ConstAPI.CustomizationOptionAPI.GET_ALL_CUSTOMIZATION_OPTION)
     public PagingModel<CustomizationOptionResponse> getAll(@RequestParam(value = "page", required = false) Integer page,
-                                                           @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+                                                           @RequestParam(value = "limit", required = false) Integer limit,
+                                                           @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return customizationOptionService.getAllByCursor(cursor, limit);
+        }
         return customizationOptionService.getAll(page, limit);
     }
 
     @Operation(summary = "Get all customization options by status active", description = "API get all customization options by status active")
     @GetMapping(value = ConstAPI.CustomizationOptionAPI.GET_ALL_CUSTOMIZATION_OPTION_STATUS_TRUE)
     public PagingModel<CustomizationOptionResponse> getAllByStatusActive(@RequestParam(value = "page", required = false) Integer page,
-                                                                         @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+                                                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                                                         @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return customizationOptionService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return customizationOptionService.findAllByStatusTrue(page, limit);
     }
 }
@@ -0,0 +1,89 @@
+package com.example.kalban_greenbag.controller;
+
+import com.example.kalban_greenbag.auth.LoginGuard;
+import com.example.kalban_greenbag.cache.SecondLevelCache;
+import com.example.kalban_greenbag.constant.ConstAPI;
+import com.example.kalban_greenbag.dto.response.metrics.GatewayStatsResponse;
+import com.example.kalban_greenbag.dto.response.metrics.HttpClientStatsResponse;
+import com.example.kalban_greenbag.dto.response.metrics.LoginStatsResponse;
+import com.example.kalban_greenbag.dto.response.metrics.RateLimitStatsResponse;
+import com.example.kalban_greenbag.dto.response.metrics.ReconciliationRunResponse;
+import com.example.kalban_greenbag.dto.response.metrics.SecondLevelCacheStatsResponse;
+import com.example.kalban_greenbag.http.HttpClientPoolMetrics;
+import com.example.kalban_greenbag.ratelimit.RateLimitFilter;
+import com.example.kalban_greenbag.resilience.GatewayGuard;
+import com.example.kalban_greenbag.service.IPaymentReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@Slf4j
+@Tag(name = "Metrics Controller")
+public class MetricsController {
+
+    @Autowired
+    private HttpClientPoolMetrics httpClientPoolMetrics;
+
+    @Autowired
+    private IPaymentReconciliationService paymentReconciliationService;
+
+    @Autowired
+    private LoginGuard loginGuard;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Autowired
+    @Qualifier("payOSGatewayGuard")
+    private GatewayGuard payOSGatewayGuard;
+
+    @Autowired
+    @Qualifier("momoGatewayGuard")
+    private GatewayGuard momoGatewayGuard;
+
+    @Operation(summary = "HTTP client statistics", description = "API to get connection pool usage and reuse of the outbound HTTP client")
+    @GetMapping(value = ConstAPI.MetricsAPI.HTTP_CLIENT_STATS)
+    public HttpClientStatsResponse getHttpClientStats() {
+        return httpClientPoolMetrics.getStats();
+    }
+
+    @Operation(summary = "Payment gateway statistics", description = "API to get circuit breaker state and bulkhead usage per payment gateway")
+    @GetMapping(value = ConstAPI.MetricsAPI.GATEWAYS)
+    public List<GatewayStatsResponse> getGatewayStats() {
+        return List.of(payOSGatewayGuard.getStats(), momoGatewayGuard.getStats());
+    }
+
+    @Operation(summary = "Login statistics", description = "API to get password hash latency, hash pool usage and throttled login attempts")
+    @GetMapping(value = ConstAPI.MetricsAPI.LOGIN)
+    public LoginStatsResponse getLoginStats() {
+        return loginGuard.getStats();
+    }
+
+    @Operation(summary = "Rate limit statistics", description = "API to get allowed and rejected requests per rate-limited route group")
+    @GetMapping(value = ConstAPI.MetricsAPI.RATE_LIMITS)
+    public RateLimitStatsResponse getRateLimitStats() {
+        return rateLimitFilter.getStats();
+    }
+
+    @Operation(summary = "Second-level cache statistics", description = "API to get hits, misses and size of the Hibernate second-level and query cache regions")
+    @GetMapping(value = ConstAPI.MetricsAPI.SECOND_LEVEL_CACHE)
+    public SecondLevelCacheStatsResponse getSecondLevelCacheStats() {
+        return secondLevelCache.getStats();
+    }
+
+    @Operation(summary = "Payment reconciliation run", description = "API to get the counters of the last payment reconciliation run")
+    @GetMapping(value = ConstAPI.MetricsAPI.PAYMENT_RECONCILIATION)
+    public ReconciliationRunResponse getLastReconciliationRun() {
+        return paymentReconciliationService.getLastRun();
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.kalban_greenbag.controller;
 
+import com.example.kalban_greenbag.constant.ConstAPI;
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.dto.momo.MoMoCreateOrderResponse;
+import com.example.kalban_greenbag.dto.momo.MoMoPaymentStatusResponse;
 import com.example.kalban_greenbag.dto.momo.OrderRequestDTO;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
 import com.example.kalban_greenbag.service.momo.CreateOrderPaymentService;
 import com.example.kalban_greenbag.service.momo.GetPaymentStatusService;
+import com.example.kalban_greenbag.service.momo.MoMoSigner;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,8 +18,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,22 +32,28 @@ public class MomoPaymentController {
     @Autowired
     private CreateOrderPaymentService paymentService;
 
-    @PostMapping("/api/v1/momo-payment")
-    public ResponseEntity<Map<String, Object>> momoPayment(@RequestBody OrderRequestDTO orderRequest) throws NoSuchAlgorithmException, InvalidKeyException, IOException {
+    @Autowired
+    private MoMoSigner signer;
+
+    @PostMapping(ConstAPI.MoMoAPI.CREATE_PAYMENT)
+    public ResponseEntity<MoMoCreateOrderResponse> momoPayment(@RequestBody OrderRequestDTO orderRequest) throws IOException, BaseException {
 
-        Map<String, Object> result = this.paymentService.createOrder(orderRequest);
+        MoMoCreateOrderResponse result = this.paymentService.createOrder(orderRequest);
         return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
-    @PostMapping("/api/v1/get-status")
-    public ResponseEntity<Map<String, Object>> getStatus(@RequestBody OrderRequestDTO requestDTO) throws IOException {
+    @PostMapping(ConstAPI.MoMoAPI.GET_STATUS)
+    public ResponseEntity<MoMoPaymentStatusResponse> getStatus(@RequestBody OrderRequestDTO requestDTO) throws IOException, BaseException {
 
-        Map<String, Object> result = this.paymentStatusService.getStatus(requestDTO);
+        MoMoPaymentStatusResponse result = this.paymentStatusService.getStatus(requestDTO);
         return new ResponseEntity<>(result, HttpStatus.OK);
 
     }
-    @GetMapping("api/v1/callback")
-    public ResponseEntity<Map<String, Object>> callBack(@RequestParam Map<String, Object> callbackRequestDTO) {
+    @GetMapping(ConstAPI.MoMoAPI.CALLBACK)
+    public ResponseEntity<Map<String, Object>> callBack(@RequestParam Map<String, Object> callbackRequestDTO) throws BaseException {
+        if (!signer.verifyCallback(callbackRequestDTO)) {
+            throw new BaseException(ErrorCode.ERROR_400.getCode(), ConstError.MoMo.INVALID_SIGNATURE, ErrorCode.ERROR_400.getMessage());
+        }
 
         Map<String, Object> result = new HashMap<>();
         if (callbackRequestDTO.containsKey("message")
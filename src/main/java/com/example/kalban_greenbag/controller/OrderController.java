@@ -2,6 +2,7 @@ package com.example.kalban_greenbag.controller;
 
 import com.example.kalban_greenbag.constant.ConstAPI;
 import com.example.kalban_greenbag.dto.request.order.AddOrderRequest;
+import com.example.kalban_greenbag.dto.request.order.CheckoutRequest;
 import com.example.kalban_greenbag.dto.request.order.UpdateOrderRequest;
 import com.example.kalban_greenbag.dto.response.order.OrderResponse;
 import com.example.kalban_greenbag.dto.response.order.OrderStatusTotalResponse;
@@ -37,6 +38,12 @@ public class OrderController {
         return orderService.create(addOrderRequest);
     }
 
+    @Operation(summary = "Checkout", description = "API create an order with all of its items in one transaction")
+    @PostMapping(value = ConstAPI.OrderAPI.CHECKOUT)
+    public OrderResponse checkout(@Valid @RequestBody CheckoutRequest checkoutRequest) throws BaseException {
+        return orderService.checkout(checkoutRequest);
+    }
+
     @Operation(summary = "Update order", description = "API update order")
     @PatchMapping(value = ConstAPI.OrderAPI.UPDATE_ORDER)
     public OrderResponse updateOrder(@Valid @RequestBody UpdateOrderRequest updateOrderRequest) throws BaseException {
@@ -59,7 +66,11 @@ public class OrderController {
     @GetMapping(value = ConstAPI.OrderAPI.GET_ALL_ORDERS)
     public PagingModel<OrderResponse> getAllOrders(
             @RequestParam(value = "page", required = false) Integer page,
-            @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return orderService.getAllByCursor(cursor, limit);
+        }
         return orderService.getAll(page, limit);
     }
 
@@ -67,7 +78,11 @@ public class OrderController {
     @GetMapping(value = ConstAPI.OrderAPI.GET_ALL_ACTIVE_ORDERS)
     public PagingModel<OrderResponse> getAllActiveOrders(
             @RequestParam(value = "page", required = false) Integer page,
-            @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return orderService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return orderService.findAllByStatusTrue(page, limit);
     }
 
@@ -58,7 +58,11 @@ public class OrderItemController {
     @GetMapping(value = ConstAPI.OderItemAPI.GET_ALL_ORDER_ITEMS)
     public PagingModel<OrderItemResponse> getAllOrderItems(
             @RequestParam(value = "page", required = false) Integer page,
-            @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return orderItemService.getAllByCursor(cursor, limit);
+        }
         return orderItemService.getAll(page, limit);
     }
 
@@ -66,7 +70,11 @@ public class OrderItemController {
     @GetMapping(value = ConstAPI.OderItemAPI.GET_ALL_ORDER_ITEMS_STATUS_TRUE)
     public PagingModel<OrderItemResponse> getAllActiveOrderItems(
             @RequestParam(value = "page", required = false) Integer page,
-            @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return orderItemService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return orderItemService.findAllByStatusTrue(page, limit);
     }
 
@@ -6,6 +6,7 @@ import com.example.kalban_greenbag.dto.request.product.UpdateProductRequest;
 import com.example.kalban_greenbag.dto.response.product.ProductResponse;
 import com.example.kalban_greenbag.exception.BaseException;
 import com.example.kalban_greenbag.model.PagingModel;
+import com.example.kalban_greenbag.service.IFlashSaleService;
 import com.example.kalban_greenbag.service.IProductService;
 import com.example.kalban_greenbag.service.IJWTService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +32,9 @@ public class ProductController {
     @Autowired
     private IJWTService jwtService;
 
+    @Autowired
+    private IFlashSaleService flashSaleService;
+
     @Operation(summary = "Create product", description = "API create product")
     @PostMapping(value = ConstAPI.ProductAPI.CREATE_PRODUCT)
     public ProductResponse createProduct(@Valid @RequestBody CreateProductRequest createProductRequest,
@@ -52,6 +56,19 @@ public class ProductController {
         return productService.changeStatus(id);
     }
 
+    @Operation(summary = "Enable flash sale", description = "API split product stock into shards for a flash sale")
+    @PostMapping(value = ConstAPI.ProductAPI.ENABLE_FLASH_SALE + "{id}")
+    public Boolean enableFlashSale(@PathVariable("id") UUID id,
+                                   @RequestParam(value = "shards", defaultValue = "16") Integer shards) throws BaseException {
+        return flashSaleService.enable(id, shards);
+    }
+
+    @Operation(summary = "Disable flash sale", description = "API merge product stock shards back into the product")
+    @PostMapping(value = ConstAPI.ProductAPI.DISABLE_FLASH_SALE + "{id}")
+    public Boolean disableFlashSale(@PathVariable("id") UUID id) throws BaseException {
+        return flashSaleService.disable(id);
+    }
+
     @Operation(summary = "Get product by id", description = "API find product by id")
     @GetMapping(value = ConstAPI.ProductAPI.GET_PRODUCT_BY_ID + "{id}")
     public ProductResponse findById(@PathVariable("id") UUID id) throws BaseException {
@@ -67,16 +84,24 @@ public class ProductController {
     @Operation(summary = "Get all products", description = "API get all products")
     @GetMapping(value = ConstAPI.ProductAPI.GET_ALL_PRODUCT)
     public PagingModel getAllProducts(@RequestParam(value = "page", required = false) Integer page,
-                                      @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+                                      @RequestParam(value = "limit", required = false) Integer limit,
+                                      @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
         log.info("Getting all products with page: {}, limit: {}", page, limit);
+        if (cursor != null) {
+            return productService.getAllByCursor(cursor, limit);
+        }
         return productService.getAll(page, limit);
     }
 
     @Operation(summary = "Get all products by status active", description = "API get all products by status active")
     @GetMapping(value = ConstAPI.ProductAPI.GET_ALL_PRODUCT_STATUS_TRUE)
     public PagingModel getAllProductsByStatusActive(@RequestParam(value = "page", required = false) Integer page,
-                                                    @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+                                                    @RequestParam(value = "limit", required = false) Integer limit,
+                                                    @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
         log.info("Getting all active products with page: {}, limit: {}", page, limit);
+        if (cursor != null) {
+            return productService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return productService.findAllByStatusTrue(page, limit);
     }
 
@@ -57,16 +57,24 @@ public class ProductCustomizationController {
     @Operation(summary = "Get all product customizations", description = "API to get all product customizations")
     @GetMapping(value = ConstAPI.ProductCustomizationAPI.GET_ALL_PRODUCT_CUSTOMIZATIONS)
     public PagingModel<ProductCustomizationResponse> getAllCustomizations(@RequestParam(value = "page", required = false) Integer page,
-                                                                          @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+                                                                          @RequestParam(value = "limit", required = false) Integer limit,
+                                                                          @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
         log.info("Fetching all product customizations with page: {}, limit: {}", page, limit);
+        if (cursor != null) {
+            return productCustomizationService.getAllByCursor(cursor, limit);
+        }
         return productCustomizationService.getAll(page, limit);
     }
 
     @Operation(summary = "Get all active product customizations", description = "API to get all active product customizations")
     @GetMapping(value = ConstAPI.ProductCustomizationAPI.GET_ACTIVE_PRODUCT_CUSTOMIZATIONS)
     public PagingModel<ProductCustomizationResponse> getActiveCustomizations(@RequestParam(value = "page", required = false) Integer page,
-                                                                             @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+                                                                             @RequestParam(value = "limit", required = false) Integer limit,
+                                                                             @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
         log.info("Fetching all active product customizations with page: {}, limit: {}", page, limit);
+        if (cursor != null) {
+            return productCustomizationService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return productCustomizationService.findAllByStatusTrue(page, limit);
     }
 
@@ -44,14 +44,22 @@ public class ReviewController {
     @Operation(summary = "Get all reviews", description = "API to get a paginated list of all reviews")
     @GetMapping(value = ConstAPI.ReviewAPI.GET_ALL_REVIEWS)
     public PagingModel<ReviewResponse> getAllReviews(@RequestParam(value = "page", required = false) Integer page,
-                                                     @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+                                                     @RequestParam(value = "limit", required = false) Integer limit,
+                                                     @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return reviewService.getAllByCursor(cursor, limit);
+        }
         return reviewService.getAll(page, limit);
     }
 
     @Operation(summary = "Get all active reviews", description = "API to get a paginated list of active reviews")
     @GetMapping(value = ConstAPI.ReviewAPI.GET_ALL_REVIEWS_STATUS_ACTIVE)
     public PagingModel<ReviewResponse> getAllActiveReviews(@RequestParam(value = "page", required = false) Integer page,
-                                                           @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+                                                           @RequestParam(value = "limit", required = false) Integer limit,
+                                                           @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
+        if (cursor != null) {
+            return reviewService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return reviewService.findAllByStatusTrue(page, limit);
     }
 
@@ -3,6 +3,7 @@ package com.example.kalban_greenbag.controller;
 import com.example.kalban_greenbag.constant.ConstAPI;
 import com.example.kalban_greenbag.dto.request.user.CreateUserRequest;
 import com.example.kalban_greenbag.dto.request.user.LoginRequest;
+import com.example.kalban_greenbag.dto.request.user.RefreshTokenRequest;
 import com.example.kalban_greenbag.dto.request.user.UpdateUserRequest;
 import com.example.kalban_greenbag.dto.response.JwtAuthenticationResponse;
 import com.example.kalban_greenbag.dto.response.user.UserResponse;
@@ -11,6 +12,7 @@ import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.service.IUserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,9 +33,15 @@ public class UserController {
 
     @Operation(summary = "Login", description = "API login ")
     @PostMapping(value = ConstAPI.AuthenticationAPI.LOGIN_WITH_PASSWORD_USERNAME)
-    public JwtAuthenticationResponse login(@RequestBody LoginRequest request) throws BaseException {
-        log.info("Creating new account with request: {}", request);
-        return userService.login(request);
+    public JwtAuthenticationResponse login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) throws BaseException {
+        log.info("Login with username: {}", request.getEmailOrUsername());
+        return userService.login(request, httpRequest.getRemoteAddr());
+    }
+
+    @Operation(summary = "Refresh token", description = "API issue new tokens from a refresh token")
+    @PostMapping(value = ConstAPI.AuthenticationAPI.REFRESH_TOKEN)
+    public JwtAuthenticationResponse refreshToken(@Valid @RequestBody RefreshTokenRequest request) throws BaseException {
+        return userService.refreshToken(request);
     }
 
     @Operation(summary = "Create account", description = "API create new account")
@@ -53,18 +61,24 @@ public class UserController {
     @PreAuthorize("hasRole('admin')")
     @Operation(summary =  "Get all user", description = "API get all user")
     @GetMapping(value = ConstAPI.UserAPI.GET_ALL_ACCOUNT)
-    public PagingModel<UserResponse> getAll(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+    public PagingModel<UserResponse> getAll(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit, @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
         log.info("Getting all accounts with page: {}, limit: {}", page, limit);
 
+        if (cursor != null) {
+            return userService.getAllByCursor(cursor, limit);
+        }
         return userService.getAll(page, limit);
     }
 
     @PreAuthorize("hasRole('user')")
     @Operation(summary =  "Get all user", description = "API get all user")
     @GetMapping(value = ConstAPI.UserAPI.GET_ALL_ACCOUNT_ACTIVE)
-    public PagingModel<UserResponse> getAllByStatusIsActive(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit) throws BaseException {
+    public PagingModel<UserResponse> getAllByStatusIsActive(@RequestParam(value = "page", required = false) Integer page, @RequestParam(value = "limit", required = false) Integer limit, @RequestParam(value = "cursor", required = false) String cursor) throws BaseException {
         log.info("Getting all accounts with page: {}, limit: {}", page, limit);
 
+        if (cursor != null) {
+            return userService.findAllByStatusTrueByCursor(cursor, limit);
+        }
         return userService.findAllByStatusTrue(page, limit);
     }
 
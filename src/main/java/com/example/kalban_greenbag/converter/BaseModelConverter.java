@@ -0,0 +1,36 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.dto.response.base_model.BaseModelResponse;
+import com.example.kalban_greenbag.dto.response.customization_option.CustomizationOptionResponse;
+import com.example.kalban_greenbag.dto.response.product.ProductResponse;
+import com.example.kalban_greenbag.entity.BaseModel;
+import com.example.kalban_greenbag.entity.CustomizationOption;
+import com.example.kalban_greenbag.entity.Product;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class BaseModelConverter {
+    public static BaseModelResponse toResponse(BaseModel baseModel) {
+        BaseModelResponse baseModelResponse = BaseResponseConverter.fill(new BaseModelResponse(), baseModel);
+        baseModelResponse.setModelName(baseModel.getModelName());
+        baseModelResponse.setDescription(baseModel.getDescription());
+        baseModelResponse.setBasePrice(baseModel.getBasePrice());
+        baseModelResponse.setCategoryId(BaseResponseConverter.idOf(baseModel.getCategory()));
+        if (BaseResponseConverter.isLoaded(baseModel.getCustomizationOptions())) {
+            Set<CustomizationOptionResponse> customizationOptions = new LinkedHashSet<>();
+            for (CustomizationOption customizationOption : baseModel.getCustomizationOptions()) {
+                customizationOptions.add(CustomizationOptionConverter.toResponse(customizationOption));
+            }
+            baseModelResponse.setCustomizationOptions(customizationOptions);
+        }
+        if (BaseResponseConverter.isLoaded(baseModel.getProducts())) {
+            Set<ProductResponse> products = new LinkedHashSet<>();
+            for (Product product : baseModel.getProducts()) {
+                products.add(ProductConverter.toResponse(product));
+            }
+            baseModelResponse.setProducts(products);
+        }
+        return baseModelResponse;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.dto.response.BaseResponse;
+import com.example.kalban_greenbag.entity.BaseEntity;
+import com.example.kalban_greenbag.repository.projection.BaseSummary;
+import org.hibernate.Hibernate;
+
+import java.util.UUID;
+
+class BaseResponseConverter {
+    static <R extends BaseResponse> R fill(R response, BaseEntity entity) {
+        response.setId(entity.getId());
+        response.setCreatedDate(entity.getCreatedDate());
+        response.setModifiedDate(entity.getModifiedDate());
+        response.setCreatedBy(entity.getCreatedBy());
+        response.setModifiedBy(entity.getModifiedBy());
+        response.setStatus(entity.getStatus());
+        return response;
+    }
+
+    static <R extends BaseResponse> R fill(R response, BaseSummary summary) {
+        response.setId(summary.getId());
+        response.setCreatedDate(summary.getCreatedDate());
+        response.setModifiedDate(summary.getModifiedDate());
+        response.setCreatedBy(summary.getCreatedBy());
+        response.setModifiedBy(summary.getModifiedBy());
+        response.setStatus(summary.getStatus());
+        return response;
+    }
+
+    // Reading the id of a lazy reference does not initialize it
+    static UUID idOf(BaseEntity entity) {
+        return entity == null ? null : entity.getId();
+    }
+
+    // Associations are only mapped when already loaded, so mapping never issues a query
+    static boolean isLoaded(Object association) {
+        return association != null && Hibernate.isInitialized(association);
+    }
+
+    // Same for lazy basic attributes, which are only loaded by the detail converters
+    static boolean isLoaded(Object entity, String attribute) {
+        return Hibernate.isPropertyInitialized(entity, attribute);
+    }
+}
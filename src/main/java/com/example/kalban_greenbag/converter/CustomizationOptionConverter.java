@@ -0,0 +1,14 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.dto.response.customization_option.CustomizationOptionResponse;
+import com.example.kalban_greenbag.entity.CustomizationOption;
+
+public class CustomizationOptionConverter {
+    public static CustomizationOptionResponse toResponse(CustomizationOption customizationOption) {
+        CustomizationOptionResponse customizationOptionResponse = BaseResponseConverter.fill(new CustomizationOptionResponse(), customizationOption);
+        customizationOptionResponse.setOptionName(customizationOption.getOptionName());
+        customizationOptionResponse.setOptionType(customizationOption.getOptionType());
+        customizationOptionResponse.setAdditionalPrice(customizationOption.getAdditionalPrice());
+        return customizationOptionResponse;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.dto.response.order.OrderResponse;
+import com.example.kalban_greenbag.dto.response.order_item.OrderItemResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.repository.projection.OrderSummary;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class OrderConverter {
+    public static OrderResponse toResponse(Order order) {
+        OrderResponse orderResponse = BaseResponseConverter.fill(new OrderResponse(), order);
+        orderResponse.setUserId(BaseResponseConverter.idOf(order.getUserID()));
+        orderResponse.setOrderDate(order.getOrderDate());
+        orderResponse.setTotalAmount(order.getTotalAmount());
+        if (BaseResponseConverter.isLoaded(order, "shippingAddress")) {
+            orderResponse.setShippingAddress(order.getShippingAddress());
+        }
+        orderResponse.setOrderStatus(order.getOrderStatus());
+        orderResponse.setOrderCode(order.getOrderCode() == null ? null : order.getOrderCode().toString());
+        orderResponse.setReason(order.getReason());
+        if (BaseResponseConverter.isLoaded(order.getOrderItems())) {
+            Set<OrderItemResponse> orderItems = new LinkedHashSet<>();
+            for (OrderItem orderItem : order.getOrderItems()) {
+                orderItems.add(OrderItemConverter.toResponse(orderItem));
+            }
+            orderResponse.setOrderItems(orderItems);
+        }
+        return orderResponse;
+    }
+
+    // Single-order responses; reads the shipping address even when it is still lazy
+    public static OrderResponse toDetailResponse(Order order) {
+        OrderResponse orderResponse = toResponse(order);
+        orderResponse.setShippingAddress(order.getShippingAddress());
+        return orderResponse;
+    }
+
+    public static OrderResponse toResponse(OrderSummary order, Set<OrderItemResponse> orderItems) {
+        OrderResponse orderResponse = BaseResponseConverter.fill(new OrderResponse(), order);
+        orderResponse.setUserId(order.getUserId());
+        orderResponse.setOrderDate(order.getOrderDate());
+        orderResponse.setTotalAmount(order.getTotalAmount());
+        orderResponse.setOrderStatus(order.getOrderStatus());
+        orderResponse.setOrderCode(order.getOrderCode() == null ? null : order.getOrderCode().toString());
+        orderResponse.setReason(order.getReason());
+        orderResponse.setOrderItems(orderItems);
+        return orderResponse;
+    }
+}
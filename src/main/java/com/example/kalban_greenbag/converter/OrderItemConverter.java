@@ -0,0 +1,17 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.dto.response.order_item.OrderItemResponse;
+import com.example.kalban_greenbag.entity.OrderItem;
+
+public class OrderItemConverter {
+    public static OrderItemResponse toResponse(OrderItem orderItem) {
+        OrderItemResponse orderItemResponse = BaseResponseConverter.fill(new OrderItemResponse(), orderItem);
+        orderItemResponse.setOrderID(BaseResponseConverter.idOf(orderItem.getOrderID()));
+        orderItemResponse.setQuantity(orderItem.getQuantity());
+        orderItemResponse.setUnitPrice(orderItem.getUnitPrice());
+        if (BaseResponseConverter.isLoaded(orderItem.getProductID())) {
+            orderItemResponse.setProduct(ProductConverter.toResponse(orderItem.getProductID()));
+        }
+        return orderItemResponse;
+    }
+}
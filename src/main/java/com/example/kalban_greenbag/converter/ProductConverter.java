@@ -0,0 +1,37 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.dto.response.product.ProductResponse;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.repository.projection.ProductSummary;
+
+public class ProductConverter {
+    public static ProductResponse toResponse(Product product) {
+        ProductResponse productResponse = BaseResponseConverter.fill(new ProductResponse(), product);
+        productResponse.setBaseModelID(BaseResponseConverter.idOf(product.getBaseModelID()));
+        productResponse.setProductName(product.getProductName());
+        productResponse.setStock(product.getStock());
+        if (BaseResponseConverter.isLoaded(product, "desciption")) {
+            productResponse.setDescription(product.getDesciption());
+        }
+        productResponse.setImg(product.getImg());
+        productResponse.setFinalPrice(product.getFinalPrice());
+        return productResponse;
+    }
+
+    // Single-product responses; reads the description even when it is still lazy
+    public static ProductResponse toDetailResponse(Product product) {
+        ProductResponse productResponse = toResponse(product);
+        productResponse.setDescription(product.getDesciption());
+        return productResponse;
+    }
+
+    public static ProductResponse toResponse(ProductSummary product) {
+        ProductResponse productResponse = BaseResponseConverter.fill(new ProductResponse(), product);
+        productResponse.setBaseModelID(product.getBaseModelID());
+        productResponse.setProductName(product.getProductName());
+        productResponse.setStock(product.getStock());
+        productResponse.setImg(product.getImg());
+        productResponse.setFinalPrice(product.getFinalPrice());
+        return productResponse;
+    }
+}
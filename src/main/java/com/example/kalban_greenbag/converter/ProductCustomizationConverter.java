@@ -0,0 +1,20 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.dto.response.product_customization.ProductCustomizationResponse;
+import com.example.kalban_greenbag.entity.ProductCustomization;
+
+public class ProductCustomizationConverter {
+    public static ProductCustomizationResponse toResponse(ProductCustomization productCustomization) {
+        ProductCustomizationResponse productCustomizationResponse = BaseResponseConverter.fill(new ProductCustomizationResponse(), productCustomization);
+        productCustomizationResponse.setOptionID(BaseResponseConverter.idOf(productCustomization.getOptionID()));
+        productCustomizationResponse.setImageURL(productCustomization.getImageURL());
+        productCustomizationResponse.setCustomValue(productCustomization.getCustomValue());
+        productCustomizationResponse.setUserId(productCustomization.getUserId());
+        productCustomizationResponse.setTotalPrice(productCustomization.getTotalPrice());
+        if (BaseResponseConverter.isLoaded(productCustomization.getProductID())) {
+            productCustomizationResponse.setProductID(ProductConverter.toResponse(productCustomization.getProductID()));
+        }
+        productCustomizationResponse.setReason(productCustomization.getReason());
+        return productCustomizationResponse;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.dto.response.review.ReviewResponse;
+import com.example.kalban_greenbag.dto.response.user.UserResponse;
+import com.example.kalban_greenbag.entity.Review;
+import com.example.kalban_greenbag.repository.projection.ReviewSummary;
+
+public class ReviewConverter {
+    public static ReviewResponse toResponse(Review review) {
+        ReviewResponse reviewResponse = BaseResponseConverter.fill(new ReviewResponse(), review);
+        reviewResponse.setProductID(BaseResponseConverter.idOf(review.getProductID()));
+        if (BaseResponseConverter.isLoaded(review.getUserID()) && BaseResponseConverter.isLoaded(review.getUserID().getRole())) {
+            reviewResponse.setUser(UserConverter.toResponse(review.getUserID()));
+        }
+        reviewResponse.setRating(review.getRating());
+        reviewResponse.setComment(review.getComment());
+        return reviewResponse;
+    }
+
+    public static ReviewResponse toResponse(ReviewSummary review) {
+        ReviewResponse reviewResponse = BaseResponseConverter.fill(new ReviewResponse(), review);
+        reviewResponse.setProductID(review.getProductID());
+        if (review.getUserId() != null) {
+            UserResponse userResponse = new UserResponse();
+            userResponse.setId(review.getUserId());
+            userResponse.setUsername(review.getUsername());
+            userResponse.setCreatedDate(review.getUserCreatedDate());
+            userResponse.setFullName(review.getFullName());
+            userResponse.setModifiedDate(review.getUserModifiedDate());
+            userResponse.setCreatedBy(review.getUserCreatedBy());
+            userResponse.setModifiedBy(review.getUserModifiedBy());
+            userResponse.setStatus(review.getUserStatus());
+            userResponse.setEmail(review.getEmail());
+            userResponse.setRoleName(review.getRoleName());
+            reviewResponse.setUser(userResponse);
+        }
+        reviewResponse.setRating(review.getRating());
+        reviewResponse.setComment(review.getComment());
+        return reviewResponse;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.kalban_greenbag.counter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory row counts per entity and per entity/status, so list endpoints can compute totalPage without a COUNT(*).
+ *
+ * A counter is loaded from its loader the first time it is read and afterwards moved by {@link #onCreate} and
+ * {@link #onStatusChange}. Deltas for counters that were never loaded are dropped, because the first read loads
+ * the real value anyway. Writes that bypass the services (other nodes, manual SQL, rolled back saves) are
+ * corrected by {@link #reconcile()}.
+ */
+@Component
+public class RowCounterRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCounterRegistry.class);
+
+    private final ConcurrentMap<String, LongSupplier> loaders = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public static String statusKey(String entity, String status) {
+        return entity + ":" + status;
+    }
+
+    public void register(String key, LongSupplier loader) {
+        loaders.put(key, loader);
+    }
+
+    public long get(String key) {
+        LongSupplier loader = loaders.get(key);
+        if (loader == null) {
+            throw new IllegalStateException("No row counter registered for " + key);
+        }
+        return get(key, loader);
+    }
+
+    // For keys that depend on request data (e.g. reviews of one product); these are dropped on reconcile
+    public long get(String key, LongSupplier loader) {
+        return counters.computeIfAbsent(key, k -> new AtomicLong(loader.getAsLong())).get();
+    }
+
+    public void add(String key, long delta) {
+        AtomicLong counter = counters.get(key);
+        if (counter != null) {
+            counter.addAndGet(delta);
+        }
+    }
+
+    public void onCreate(String entity, String status) {
+        add(entity, 1);
+        if (status != null) {
+            add(statusKey(entity, status), 1);
+        }
+    }
+
+    public void onStatusChange(String entity, String oldStatus, String newStatus) {
+        if (Objects.equals(oldStatus, newStatus)) {
+            return;
+        }
+        if (oldStatus != null) {
+            add(statusKey(entity, oldStatus), -1);
+        }
+        if (newStatus != null) {
+            add(statusKey(entity, newStatus), 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${counter.reconcile-interval-ms:300000}",
+            initialDelayString = "${counter.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            String key = entry.getKey();
+            LongSupplier loader = loaders.get(key);
+            if (loader == null) {
+                counters.remove(key);
+                continue;
+            }
+            try {
+                long actual = loader.getAsLong();
+                long cached = entry.getValue().getAndSet(actual);
+                if (cached != actual) {
+                    logger.info("Row counter {} drifted from {} to {}", key, cached, actual);
+                }
+            } catch (RuntimeException e) {
+                // Force a fresh load on the next read instead of serving a value we could not verify
+                counters.remove(key);
+                logger.warn("Failed to reconcile row counter {}: {}", key, e.getMessage());
+            }
+        }
+    }
+}
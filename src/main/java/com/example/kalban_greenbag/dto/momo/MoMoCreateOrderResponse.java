@@ -0,0 +1,26 @@
+package com.example.kalban_greenbag.dto.momo;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MoMoCreateOrderResponse {
+
+    private String requestId;
+    private Integer errorCode;
+    private String orderId;
+    private String message;
+    private String localMessage;
+    private String requestType;
+    private String payUrl;
+    private String qrCodeUrl;
+    private String deeplink;
+    private String deeplinkWebInApp;
+    private String signature;
+
+}
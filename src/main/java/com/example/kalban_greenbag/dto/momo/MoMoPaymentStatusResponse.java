@@ -0,0 +1,28 @@
+package com.example.kalban_greenbag.dto.momo;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MoMoPaymentStatusResponse {
+
+    private String partnerCode;
+    private String accessKey;
+    private String requestId;
+    private String orderId;
+    private Integer errorCode;
+    private String transId;
+    private String amount;
+    private String message;
+    private String localMessage;
+    private String requestType;
+    private String payType;
+    private String extraData;
+    private String signature;
+
+}
@@ -0,0 +1,21 @@
+package com.example.kalban_greenbag.dto.request.order;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CheckoutItemRequest {
+
+    @NotNull(message = "ProductID is required")
+    private UUID productID;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be greater than or equal to 1")
+    private Integer quantity;
+}
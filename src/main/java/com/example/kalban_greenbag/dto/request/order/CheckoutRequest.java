@@ -0,0 +1,29 @@
+package com.example.kalban_greenbag.dto.request.order;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CheckoutRequest {
+
+    @NotNull(message = "UserID is required")
+    private UUID userID;
+
+    @NotBlank(message = "Shipping address is required")
+    @Size(max = 255, message = "Shipping address cannot exceed 255 characters")
+    private String shippingAddress;
+
+    private String reason;
+
+    @NotEmpty(message = "Cart is empty")
+    @Valid
+    private List<CheckoutItemRequest> items;
+}
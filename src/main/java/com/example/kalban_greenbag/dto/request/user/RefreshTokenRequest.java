@@ -0,0 +1,10 @@
+package com.example.kalban_greenbag.dto.request.user;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    @NotBlank(message = "refreshToken must not be blank")
+    private String refreshToken;
+}
@@ -0,0 +1,27 @@
+package com.example.kalban_greenbag.dto.response.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CacheStatsResponse {
+    private String region;
+    private int size;
+    private int maxEntries;
+    private long ttlSeconds;
+    private boolean shared;
+    private long hits;
+    private long sharedHits;
+    private long misses;
+    private long loads;
+    private long evictions;
+    private long expirations;
+    private double hitRate;
+}
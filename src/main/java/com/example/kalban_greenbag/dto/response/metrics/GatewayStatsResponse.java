@@ -0,0 +1,24 @@
+package com.example.kalban_greenbag.dto.response.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GatewayStatsResponse {
+    private String gateway;
+    private String circuitState;
+    private int maxConcurrent;
+    private int inFlight;
+    private long calls;
+    private long failures;
+    private long timeouts;
+    private long rejected;
+    private long hedges;
+}
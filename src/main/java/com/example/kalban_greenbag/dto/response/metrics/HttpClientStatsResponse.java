@@ -0,0 +1,23 @@
+package com.example.kalban_greenbag.dto.response.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HttpClientStatsResponse {
+    private int maxConnections;
+    private int leasedConnections;
+    private int availableConnections;
+    private int pendingRequests;
+    private long requests;
+    private long failures;
+    private long connectionsOpened;
+    private double reuseRate;
+}
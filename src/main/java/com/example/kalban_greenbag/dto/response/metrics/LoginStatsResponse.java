@@ -0,0 +1,28 @@
+package com.example.kalban_greenbag.dto.response.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoginStatsResponse {
+    private int hashThreads;
+    private int activeHashes;
+    private int queuedHashes;
+    private long hashes;
+    private double averageHashMillis;
+    private double maxHashMillis;
+    private long failedPasswords;
+    private long rejectedBusy;
+    private long rejectedTimeout;
+    private long throttledByIp;
+    private long throttledByAccount;
+    private int trackedIps;
+    private int trackedAccounts;
+}
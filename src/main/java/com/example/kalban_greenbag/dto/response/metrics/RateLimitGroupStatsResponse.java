@@ -0,0 +1,20 @@
+package com.example.kalban_greenbag.dto.response.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RateLimitGroupStatsResponse {
+    private String group;
+    private double permitsPerSecond;
+    private int burst;
+    private long allowed;
+    private long rejected;
+}
@@ -0,0 +1,22 @@
+package com.example.kalban_greenbag.dto.response.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RateLimitStatsResponse {
+    private boolean enabled;
+    private String mode;
+    private int trackedKeys;
+    private long redisFallbacks;
+    private List<RateLimitGroupStatsResponse> groups;
+}
@@ -0,0 +1,23 @@
+package com.example.kalban_greenbag.dto.response.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReconciliationRunResponse {
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long scanned;
+    private long settled;
+    private long expired;
+    private long errors;
+}
@@ -0,0 +1,21 @@
+package com.example.kalban_greenbag.dto.response.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SecondLevelCacheRegionStatsResponse {
+    private String region;
+    private long elementsInMemory;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRate;
+}
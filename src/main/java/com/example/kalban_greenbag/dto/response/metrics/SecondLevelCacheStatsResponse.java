@@ -0,0 +1,22 @@
+package com.example.kalban_greenbag.dto.response.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SecondLevelCacheStatsResponse {
+    private boolean statisticsEnabled;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private long queryCachePuts;
+    private List<SecondLevelCacheRegionStatsResponse> regions;
+}
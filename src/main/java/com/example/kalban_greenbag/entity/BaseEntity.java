@@ -1,5 +1,6 @@
 package com.example.kalban_greenbag.entity;
 
+import com.example.kalban_greenbag.sequence.EntityIds;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -42,7 +43,7 @@ public abstract class BaseEntity implements Serializable {
 
     @PrePersist
     protected void onCreate() {
-        id = UUID.randomUUID();
+        id = EntityIds.next();
         createdDate = new Date();
         modifiedDate = new Date();
     }
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Nationalized;
 
 import java.util.LinkedHashSet;
@@ -13,7 +15,12 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "Categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "Category")
+@Table(name = "Categories", indexes = {
+        @Index(name = "IX_Categories_created_date_id", columnList = "created_date, id"),
+        @Index(name = "IX_Categories_status_created_date_id", columnList = "status, created_date, id")
+})
 public class Category extends BaseEntity{
 
     @Size(max = 50)
@@ -27,6 +34,7 @@ public class Category extends BaseEntity{
     @Column(name = "Description")
     private String description;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "Category.baseModels")
     @OneToMany(mappedBy = "category", fetch= FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<BaseModel> baseModels = new LinkedHashSet<>();
 
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Nationalized;
 
 import java.math.BigDecimal;
@@ -14,7 +16,12 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "CustomizationOptions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "CustomizationOption")
+@Table(name = "CustomizationOptions", indexes = {
+        @Index(name = "IX_CustomizationOptions_created_date_id", columnList = "created_date, id"),
+        @Index(name = "IX_CustomizationOptions_status_created_date_id", columnList = "status, created_date, id")
+})
 public class CustomizationOption extends BaseEntity{
 
 
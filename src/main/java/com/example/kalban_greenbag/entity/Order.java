@@ -15,7 +15,10 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "Orders")
+@Table(name = "Orders", indexes = {
+        @Index(name = "IX_Orders_created_date_id", columnList = "created_date, id"),
+        @Index(name = "IX_Orders_status_created_date_id", columnList = "status, created_date, id")
+})
 public class Order extends BaseEntity{
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,6 +31,8 @@ public class Order extends BaseEntity{
     @Column(name = "TotalAmount", precision = 10, scale = 2)
     private BigDecimal totalAmount;
 
+    // Only read for a single order; loaded on first access through bytecode enhancement
+    @Basic(fetch = FetchType.LAZY)
     @Nationalized
     @Lob
     @Column(name = "ShippingAddress")
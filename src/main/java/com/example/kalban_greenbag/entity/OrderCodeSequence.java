@@ -0,0 +1,27 @@
+package com.example.kalban_greenbag.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "OrderCodeSequence")
+public class OrderCodeSequence {
+
+    @Id
+    @Column(name = "Name", length = 50, updatable = false)
+    private String name;
+
+    // First code of the next block that has not been handed to any node yet
+    @Column(name = "NextValue", nullable = false)
+    private long nextValue;
+
+    public OrderCodeSequence(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.kalban_greenbag.entity;
+
+import com.example.kalban_greenbag.sequence.EntityIds;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "OrderDailyRollup", uniqueConstraints = {
+        @UniqueConstraint(name = "UX_OrderDailyRollup_day_status_order_status", columnNames = {"Day", "Status", "OrderStatus"})
+})
+public class OrderDailyRollup {
+
+    @Id
+    @Column(updatable = false)
+    private UUID id;
+
+    @Column(name = "Day", nullable = false, updatable = false)
+    private LocalDate day;
+
+    // Empty string stands for a null status so the unique key and equality lookups work
+    @Column(name = "Status", nullable = false, updatable = false)
+    private String status;
+
+    @Column(name = "OrderStatus", nullable = false, updatable = false)
+    private String orderStatus;
+
+    @Column(name = "OrderCount", nullable = false)
+    private long orderCount;
+
+    @Column(name = "TotalAmount", precision = 18, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    public OrderDailyRollup(LocalDate day, String status, String orderStatus, Long orderCount, BigDecimal totalAmount) {
+        this.day = day;
+        this.status = status;
+        this.orderStatus = orderStatus;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        id = EntityIds.next();
+    }
+}
@@ -9,7 +9,10 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 @Entity
-@Table(name = "OrderItems")
+@Table(name = "OrderItems", indexes = {
+        @Index(name = "IX_OrderItems_created_date_id", columnList = "created_date, id"),
+        @Index(name = "IX_OrderItems_status_created_date_id", columnList = "status, created_date, id")
+})
 public class OrderItem extends BaseEntity{
 
     @ManyToOne(fetch = FetchType.LAZY)
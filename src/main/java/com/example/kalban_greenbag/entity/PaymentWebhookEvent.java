@@ -0,0 +1,71 @@
+package com.example.kalban_greenbag.entity;
+
+import com.example.kalban_greenbag.sequence.EntityIds;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "PaymentWebhookEvents", uniqueConstraints = {
+        @UniqueConstraint(name = "UX_PaymentWebhookEvents_order_code_reference", columnNames = {"OrderCode", "Reference"})
+}, indexes = {
+        @Index(name = "IX_PaymentWebhookEvents_event_status_received_at", columnList = "EventStatus, ReceivedAt")
+})
+public class PaymentWebhookEvent {
+
+    @Id
+    @Column(updatable = false)
+    private UUID id;
+
+    @Column(name = "OrderCode", nullable = false, updatable = false)
+    private Long orderCode;
+
+    // Bank transaction reference; PayOS redelivers the same reference for the same transfer
+    @Column(name = "Reference", length = 100, nullable = false, updatable = false)
+    private String reference;
+
+    @Column(name = "PaymentStatus", length = 20, nullable = false, updatable = false)
+    private String paymentStatus;
+
+    @Column(name = "EventStatus", length = 20, nullable = false)
+    private String eventStatus;
+
+    @Column(name = "Attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "LastError", length = 500)
+    private String lastError;
+
+    @Column(name = "ReceivedAt", nullable = false, updatable = false)
+    private Instant receivedAt;
+
+    @Column(name = "ClaimedAt")
+    private Instant claimedAt;
+
+    @Column(name = "ProcessedAt")
+    private Instant processedAt;
+
+    // When a failed event may be retried; null until the first failure
+    @Column(name = "NextAttemptAt")
+    private Instant nextAttemptAt;
+
+    public PaymentWebhookEvent(Long orderCode, String reference, String paymentStatus, String eventStatus) {
+        this.orderCode = orderCode;
+        this.reference = reference;
+        this.paymentStatus = paymentStatus;
+        this.eventStatus = eventStatus;
+        this.receivedAt = Instant.now();
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        id = EntityIds.next();
+    }
+}
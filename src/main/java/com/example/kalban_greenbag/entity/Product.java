@@ -12,7 +12,10 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "Products")
+@Table(name = "Products", indexes = {
+        @Index(name = "IX_Products_created_date_id", columnList = "created_date, id"),
+        @Index(name = "IX_Products_status_created_date_id", columnList = "status, created_date, id")
+})
 public class Product extends BaseEntity{
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,6 +31,8 @@ public class Product extends BaseEntity{
     @Column(name = "ProductName", length = 100, unique = true)
     private String productName;
 
+    // Only read for a single product; loaded on first access through bytecode enhancement
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "Desciption", columnDefinition = "nvarchar(max)")
     private String desciption;
 
@@ -37,6 +42,10 @@ public class Product extends BaseEntity{
     @Column(name = "Stock")
     private Integer stock;
 
+    // Number of ProductStockShard rows holding this product's stock during a flash sale; null or 0 when off
+    @Column(name = "StockShards")
+    private Integer stockShards;
+
     @OneToMany(mappedBy = "productID")
     private Set<OrderItem> orderItems = new LinkedHashSet<>();
 
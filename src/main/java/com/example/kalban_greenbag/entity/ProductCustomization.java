@@ -12,7 +12,10 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "ProductCustomizations")
+@Table(name = "ProductCustomizations", indexes = {
+        @Index(name = "IX_ProductCustomizations_created_date_id", columnList = "created_date, id"),
+        @Index(name = "IX_ProductCustomizations_status_created_date_id", columnList = "status, created_date, id")
+})
 public class ProductCustomization extends BaseEntity{
 
     @ManyToOne(fetch = FetchType.LAZY)
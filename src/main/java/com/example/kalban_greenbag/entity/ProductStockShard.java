@@ -0,0 +1,43 @@
+package com.example.kalban_greenbag.entity;
+
+import com.example.kalban_greenbag.sequence.EntityIds;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "ProductStockShards", uniqueConstraints = {
+        @UniqueConstraint(name = "UX_ProductStockShards_product_id_shard_index", columnNames = {"ProductID", "ShardIndex"})
+})
+public class ProductStockShard {
+
+    @Id
+    @Column(updatable = false)
+    private UUID id;
+
+    @Column(name = "ProductID", nullable = false, updatable = false)
+    private UUID productId;
+
+    @Column(name = "ShardIndex", nullable = false, updatable = false)
+    private int shardIndex;
+
+    @Column(name = "Stock", nullable = false)
+    private int stock;
+
+    public ProductStockShard(UUID productId, int shardIndex, int stock) {
+        this.productId = productId;
+        this.shardIndex = shardIndex;
+        this.stock = stock;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        id = EntityIds.next();
+    }
+}
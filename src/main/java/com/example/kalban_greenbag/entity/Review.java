@@ -10,7 +10,10 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "Reviews")
+@Table(name = "Reviews", indexes = {
+        @Index(name = "IX_Reviews_created_date_id", columnList = "created_date, id"),
+        @Index(name = "IX_Reviews_status_created_date_id", columnList = "status, created_date, id")
+})
 public class Review extends BaseEntity{
 
 
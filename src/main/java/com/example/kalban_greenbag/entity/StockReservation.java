@@ -0,0 +1,34 @@
+package com.example.kalban_greenbag.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "StockReservations", indexes = {
+        @Index(name = "IX_StockReservations_order_id", columnList = "OrderID"),
+        @Index(name = "IX_StockReservations_reservation_status_expires_at", columnList = "ReservationStatus, ExpiresAt")
+})
+public class StockReservation extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "OrderID")
+    private Order orderID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ProductID")
+    private Product productID;
+
+    @Column(name = "Quantity")
+    private Integer quantity;
+
+    @Column(name = "ReservationStatus", length = 20)
+    private String reservationStatus;
+
+    @Column(name = "ExpiresAt")
+    private Instant expiresAt;
+}
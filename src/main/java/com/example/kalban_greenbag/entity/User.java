@@ -17,7 +17,11 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "Users")
+@Table(name = "Users", indexes = {
+        @Index(name = "IX_Users_created_date_id", columnList = "created_date, id"),
+        @Index(name = "IX_Users_status_created_date_id", columnList = "status, created_date, id"),
+        @Index(name = "IX_Users_modified_date", columnList = "modified_date")
+})
 public class User extends BaseEntity implements UserDetails {
 
     @Size(max = 50)
@@ -59,6 +63,18 @@ public class User extends BaseEntity implements UserDetails {
     @JoinColumn(name = "RoleID", nullable = false)
     private Role role;
 
+    // Raised when tokens issued so far must stop working; null on rows created before the column existed
+    @Column(name = "TokenVersion")
+    private Integer tokenVersion;
+
+    public int currentTokenVersion() {
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    public void revokeTokens() {
+        tokenVersion = currentTokenVersion() + 1;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.getRoleName()));
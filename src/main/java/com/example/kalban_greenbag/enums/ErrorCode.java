@@ -12,7 +12,8 @@ public enum ErrorCode {
     ERROR_415(415, "Unsupported Media Type"),
     ERROR_422(422, "Unprocessable Entity"),
     ERROR_429(429, "Too Many Requests"),
-    ERROR_500(500, "Internal Server Error");
+    ERROR_500(500, "Internal Server Error"),
+    ERROR_503(503, "Service Unavailable");
 
     private final int code;
     private final String message;
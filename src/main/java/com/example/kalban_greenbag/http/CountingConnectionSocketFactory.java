@@ -0,0 +1,47 @@
+package com.example.kalban_greenbag.http;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the sockets the connection pool really opens, so pool metrics can tell reused connections from new ones.
+ */
+public class CountingConnectionSocketFactory implements LayeredConnectionSocketFactory {
+
+    private final ConnectionSocketFactory delegate;
+
+    private final AtomicLong connectionsOpened;
+
+    public CountingConnectionSocketFactory(ConnectionSocketFactory delegate, AtomicLong connectionsOpened) {
+        this.delegate = delegate;
+        this.connectionsOpened = connectionsOpened;
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return delegate.createSocket(context);
+    }
+
+    @Override
+    public Socket connectSocket(int connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        Socket socket = delegate.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+        connectionsOpened.incrementAndGet();
+        return socket;
+    }
+
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+        if (!(delegate instanceof LayeredConnectionSocketFactory layered)) {
+            throw new IOException("Layered sockets are not supported by " + delegate.getClass().getSimpleName());
+        }
+        return layered.createLayeredSocket(socket, target, port, context);
+    }
+}
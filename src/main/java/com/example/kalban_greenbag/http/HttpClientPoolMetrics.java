@@ -0,0 +1,47 @@
+package com.example.kalban_greenbag.http;
+
+import com.example.kalban_greenbag.dto.response.metrics.HttpClientStatsResponse;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HttpClientPoolMetrics {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final AtomicLong connectionsOpened;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    public HttpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager, AtomicLong connectionsOpened) {
+        this.connectionManager = connectionManager;
+        this.connectionsOpened = connectionsOpened;
+    }
+
+    public void recordRequest() {
+        requests.incrementAndGet();
+    }
+
+    public void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    public HttpClientStatsResponse getStats() {
+        PoolStats pool = connectionManager.getTotalStats();
+        long requestCount = requests.get();
+        long opened = connectionsOpened.get();
+        return HttpClientStatsResponse.builder()
+                .maxConnections(pool.getMax())
+                .leasedConnections(pool.getLeased())
+                .availableConnections(pool.getAvailable())
+                .pendingRequests(pool.getPending())
+                .requests(requestCount)
+                .failures(failures.get())
+                .connectionsOpened(opened)
+                .reuseRate(requestCount == 0 ? 0 : Math.max(0, (double) (requestCount - opened) / requestCount))
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.kalban_greenbag.model;
+
+import com.example.kalban_greenbag.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The part of an order that the daily rollup aggregates, captured before a change so the old contribution can be
+ * taken back out. The rollup service turns the creation time into a day in {@code app.time-zone}.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderRollupSnapshot {
+    private Instant createdAt;
+    private String status;
+    private String orderStatus;
+    private BigDecimal totalAmount;
+
+    public static OrderRollupSnapshot of(Order order) {
+        if (order == null || order.getCreatedDate() == null) {
+            return null;
+        }
+        return new OrderRollupSnapshot(order.getCreatedDate().toInstant(), order.getStatus(), order.getOrderStatus(),
+                order.getTotalAmount() == null ? BigDecimal.ZERO : order.getTotalAmount());
+    }
+
+    public OrderRollupSnapshot withTotalAmount(BigDecimal totalAmount) {
+        return new OrderRollupSnapshot(createdAt, status, orderStatus, totalAmount == null ? BigDecimal.ZERO : totalAmount);
+    }
+
+    public boolean sameBucket(OrderRollupSnapshot other) {
+        return other != null && createdAt.equals(other.createdAt)
+                && Objects.equals(status, other.status)
+                && Objects.equals(orderStatus, other.orderStatus);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.kalban_greenbag.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+    private Date createdDate;
+    private UUID id;
+}
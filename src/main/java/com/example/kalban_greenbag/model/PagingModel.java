@@ -2,6 +2,7 @@ package com.example.kalban_greenbag.model;
 
 import lombok.*;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,12 +11,14 @@ import java.util.List;
 @NoArgsConstructor
 @Getter
 @Setter
-public class PagingModel<T> {
+public class PagingModel<T> implements Serializable {
 
     private int page;
     private int totalPage;
     private int limit;
     private List<T> listResult = new ArrayList<>();
+    // Only set in cursor mode; pass it back as ?cursor= to fetch the next page, null on the last page
+    private String nextCursor;
 
 
 }
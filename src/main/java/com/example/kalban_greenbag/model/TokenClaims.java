@@ -0,0 +1,30 @@
+package com.example.kalban_greenbag.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+// The parts of a verified JWT the request path needs, cached so the token is not parsed and verified again
+@Getter
+@AllArgsConstructor
+public class TokenClaims implements Serializable {
+    private final String subject;
+    private final long expiresAtMillis;
+    // Null on tokens issued before these claims existed
+    private final UUID userId;
+    private final Integer tokenVersion;
+    // Only present on self-contained access tokens
+    private final String roleName;
+    private final String status;
+    private final boolean refreshToken;
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+
+    public boolean isSelfContained() {
+        return userId != null && roleName != null;
+    }
+}
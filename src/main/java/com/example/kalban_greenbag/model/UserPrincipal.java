@@ -0,0 +1,62 @@
+package com.example.kalban_greenbag.model;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Cached stand-in for the User entity on token-authenticated requests; it carries no password hash
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails, Serializable {
+    private final UUID id;
+    private final String username;
+    private final String status;
+    private final String roleName;
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getStatus(), user.getRole().getRoleName());
+    }
+
+    public static UserPrincipal of(TokenClaims claims) {
+        return new UserPrincipal(claims.getUserId(), claims.getSubject(), claims.getStatus(), claims.getRoleName());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + roleName));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !ConstStatus.INACTIVE_STATUS.equals(status);
+    }
+}
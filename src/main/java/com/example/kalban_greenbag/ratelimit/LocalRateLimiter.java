@@ -0,0 +1,41 @@
+package com.example.kalban_greenbag.ratelimit;
+
+import com.example.kalban_greenbag.utils.TokenBucket;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One lock-free {@link TokenBucket} per key on this node. With several nodes behind a load balancer each node
+ * enforces the full limit on its own.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryAcquire(String key, RateLimitPolicy policy) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(policy.getPermitsPerSecond(), policy.getBurst()))
+                .tryAcquireOrDelay();
+    }
+
+    @Override
+    public void evictIdle() {
+        buckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    @Override
+    public String getMode() {
+        return "local";
+    }
+
+    @Override
+    public int getTrackedKeys() {
+        return buckets.size();
+    }
+
+    @Override
+    public long getFallbacks() {
+        return 0;
+    }
+}
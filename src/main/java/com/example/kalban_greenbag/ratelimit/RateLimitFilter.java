@@ -0,0 +1,105 @@
+package com.example.kalban_greenbag.ratelimit;
+
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.dto.response.metrics.RateLimitStatsResponse;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the first {@link RateLimitPolicy} whose route matches the request. Buckets are keyed by route group and
+ * caller: the user name once the JWT filter has authenticated the request, the client IP otherwise. A rejected
+ * request gets a 429 with a Retry-After header. Requests outside every group are not limited.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private List<RateLimitPolicy> policies;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RateLimitPolicy policy = enabled ? match(request) : null;
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long delayNanos = rateLimiter.tryAcquire(policy.getGroup() + ":" + callerKey(request), policy);
+        if (delayNanos == 0) {
+            policy.onAllowed();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        policy.onRejected();
+        long retryAfterSeconds = Math.max(1, (delayNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(ErrorCode.ERROR_429.getCode());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse errorResponse = new ErrorResponse(ErrorCode.ERROR_429.getCode(), ConstError.RateLimit.TOO_MANY_REQUESTS,
+                ErrorCode.ERROR_429.getMessage());
+        response.getWriter().write(OBJECT_MAPPER.writeValueAsString(errorResponse));
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        rateLimiter.evictIdle();
+    }
+
+    public RateLimitStatsResponse getStats() {
+        return RateLimitStatsResponse.builder()
+                .enabled(enabled)
+                .mode(rateLimiter.getMode())
+                .trackedKeys(rateLimiter.getTrackedKeys())
+                .redisFallbacks(rateLimiter.getFallbacks())
+                .groups(policies.stream().map(RateLimitPolicy::getStats).toList())
+                .build();
+    }
+
+    private RateLimitPolicy match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        for (RateLimitPolicy policy : policies) {
+            if (policy.matches(request.getMethod(), path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private static String callerKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        // The client address from X-Forwarded-For once server.forward-headers-strategy has Tomcat resolve it
+        return "ip:" + request.getRemoteAddr();
+    }
+}
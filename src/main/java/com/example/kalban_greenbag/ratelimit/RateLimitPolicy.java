@@ -0,0 +1,87 @@
+package com.example.kalban_greenbag.ratelimit;
+
+import com.example.kalban_greenbag.dto.response.metrics.RateLimitGroupStatsResponse;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit for one group of routes. Each caller of the group gets its own bucket of {@code burst} permits refilled at
+ * {@code permitsPerSecond}.
+ */
+public class RateLimitPolicy {
+
+    private final String group;
+
+    private final double permitsPerSecond;
+
+    private final int burst;
+
+    private final Set<String> methods;
+
+    private final List<String> pathPrefixes;
+
+    private final AtomicLong allowed = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public RateLimitPolicy(String group, double permitsPerSecond, int burst, Set<String> methods, List<String> pathPrefixes) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit of " + group + " needs positive permitsPerSecond and burst");
+        }
+        this.group = group;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.methods = methods;
+        this.pathPrefixes = pathPrefixes;
+    }
+
+    // Paths are compared without their leading slash, like the constants in ConstAPI
+    public boolean matches(String method, String path) {
+        if (!methods.contains(method)) {
+            return false;
+        }
+        for (String prefix : pathPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public long getIntervalNanos() {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void onAllowed() {
+        allowed.incrementAndGet();
+    }
+
+    public void onRejected() {
+        rejected.incrementAndGet();
+    }
+
+    public RateLimitGroupStatsResponse getStats() {
+        return RateLimitGroupStatsResponse.builder()
+                .group(group)
+                .permitsPerSecond(permitsPerSecond)
+                .burst(burst)
+                .allowed(allowed.get())
+                .rejected(rejected.get())
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.kalban_greenbag.ratelimit;
+
+public interface RateLimiter {
+
+    // 0 when the request may go ahead, otherwise the nanoseconds until the caller may try again
+    long tryAcquire(String key, RateLimitPolicy policy);
+
+    void evictIdle();
+
+    String getMode();
+
+    int getTrackedKeys();
+
+    long getFallbacks();
+}
@@ -0,0 +1,129 @@
+package com.example.kalban_greenbag.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets kept in Redis so a limit holds across every node. Each bucket is one key with its theoretical
+ * arrival time (the same GCRA form as {@link com.example.kalban_greenbag.utils.TokenBucket}), updated by a script
+ * that uses the Redis clock so node clocks do not matter.
+ *
+ * When Redis fails the limiter backs off and uses the local buckets, so requests are never rejected because
+ * Redis is down.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final String KEY_PREFIX = "ratelimit:";
+    private static final long MIN_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    // Times are in microseconds; returns 0 when a permit was taken, otherwise the wait in microseconds
+    private static final String SCRIPT =
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000000 + tonumber(t[2]) " +
+            "local interval = tonumber(ARGV[1]) " +
+            "local burst = tonumber(ARGV[2]) " +
+            "local tat = tonumber(redis.call('GET', KEYS[1]) or now) " +
+            "if tat < now then tat = now end " +
+            "local delay = tat - burst - now " +
+            "if delay > 0 then return math.ceil(delay) end " +
+            "tat = tat + interval " +
+            "redis.call('SET', KEYS[1], string.format('%.0f', tat), 'PX', math.ceil((tat - now) / 1000) + 1) " +
+            "return 0";
+
+    private final JedisPool jedisPool;
+
+    private final LocalRateLimiter fallback;
+
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    private volatile String scriptSha;
+
+    private volatile long unavailableUntil;
+
+    private volatile long backoffMillis = MIN_BACKOFF_MILLIS;
+
+    public RedisRateLimiter(JedisPool jedisPool, LocalRateLimiter fallback) {
+        this.jedisPool = jedisPool;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitPolicy policy) {
+        if (System.currentTimeMillis() < unavailableUntil) {
+            fallbacks.incrementAndGet();
+            return fallback.tryAcquire(key, policy);
+        }
+        long intervalMicros = TimeUnit.NANOSECONDS.toMicros(policy.getIntervalNanos());
+        List<String> args = List.of(Long.toString(intervalMicros), Long.toString(intervalMicros * (policy.getBurst() - 1)));
+        try (Jedis jedis = jedisPool.getResource()) {
+            long delayMicros = ((Number) eval(jedis, List.of(KEY_PREFIX + key), args)).longValue();
+            markAvailable();
+            return TimeUnit.MICROSECONDS.toNanos(delayMicros);
+        } catch (JedisException e) {
+            markUnavailable(e);
+            fallbacks.incrementAndGet();
+            return fallback.tryAcquire(key, policy);
+        }
+    }
+
+    @Override
+    public void evictIdle() {
+        // Redis expires full buckets on its own
+        fallback.evictIdle();
+    }
+
+    @Override
+    public String getMode() {
+        return System.currentTimeMillis() < unavailableUntil ? "redis-fallback-local" : "redis";
+    }
+
+    @Override
+    public int getTrackedKeys() {
+        return fallback.getTrackedKeys();
+    }
+
+    @Override
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    private Object eval(Jedis jedis, List<String> keys, List<String> args) {
+        String sha = scriptSha;
+        if (sha == null) {
+            sha = scriptSha = jedis.scriptLoad(SCRIPT);
+        }
+        try {
+            return jedis.evalsha(sha, keys, args);
+        } catch (JedisNoScriptException e) {
+            // Redis was restarted or flushed its script cache
+            scriptSha = jedis.scriptLoad(SCRIPT);
+            return jedis.evalsha(scriptSha, keys, args);
+        }
+    }
+
+    private void markAvailable() {
+        if (unavailableUntil != 0) {
+            logger.info("Redis rate limiter is reachable again");
+            unavailableUntil = 0;
+            backoffMillis = MIN_BACKOFF_MILLIS;
+        }
+    }
+
+    private void markUnavailable(Exception e) {
+        long delay = backoffMillis;
+        unavailableUntil = System.currentTimeMillis() + delay;
+        backoffMillis = Math.min(delay * 2, MAX_BACKOFF_MILLIS);
+        logger.warn("Redis rate limiter unavailable, limiting per node for {} ms: {}", delay, e.getMessage());
+    }
+}
@@ -3,14 +3,32 @@ package com.example.kalban_greenbag.repository;
 import com.example.kalban_greenbag.entity.BaseModel;
 import com.example.kalban_greenbag.entity.Category;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface BaseModelRepository extends JpaRepository<BaseModel, UUID> {
     List<BaseModel> findAllByOrderByCreatedDate(Pageable pageable);
+
+    // Single reads return the options and products too; list reads leave them out
+    @EntityGraph(attributePaths = {"customizationOptions", "products"})
+    Optional<BaseModel> findWithDetailsById(UUID id);
+
     List<BaseModel> findAllByStatusOrderByCreatedDate(String status, Pageable pageable);
+
+    @Query("SELECT b FROM BaseModel b WHERE (b.createdDate > :createdDate OR (b.createdDate = :createdDate AND b.id > :id)) " +
+            "ORDER BY b.createdDate ASC, b.id ASC")
+    List<BaseModel> findAllAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT b FROM BaseModel b WHERE b.status = :status AND (b.createdDate > :createdDate OR (b.createdDate = :createdDate AND b.id > :id)) " +
+            "ORDER BY b.createdDate ASC, b.id ASC")
+    List<BaseModel> findAllByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 }
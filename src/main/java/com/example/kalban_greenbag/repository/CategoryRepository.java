@@ -3,8 +3,11 @@ package com.example.kalban_greenbag.repository;
 import com.example.kalban_greenbag.entity.Category;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,4 +16,12 @@ import java.util.UUID;
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
     List<Category> findAllByOrderByCreatedDate(Pageable pageable);
     List<Category> findAllByStatusOrderByCreatedDate(String status, Pageable pageable);
+
+    @Query("SELECT c FROM Category c WHERE (c.createdDate > :createdDate OR (c.createdDate = :createdDate AND c.id > :id)) " +
+            "ORDER BY c.createdDate ASC, c.id ASC")
+    List<Category> findAllAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT c FROM Category c WHERE c.status = :status AND (c.createdDate > :createdDate OR (c.createdDate = :createdDate AND c.id > :id)) " +
+            "ORDER BY c.createdDate ASC, c.id ASC")
+    List<Category> findAllByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 }
@@ -4,8 +4,11 @@ import com.example.kalban_greenbag.entity.Category;
 import com.example.kalban_greenbag.entity.CustomizationOption;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +16,12 @@ import java.util.UUID;
 public interface CustomizationOptionRepository extends JpaRepository<CustomizationOption, UUID> {
     List<CustomizationOption> findAllByOrderByCreatedDate(Pageable pageable);
     List<CustomizationOption> findAllByStatusOrderByCreatedDate(String status, Pageable pageable);
+
+    @Query("SELECT co FROM CustomizationOption co WHERE (co.createdDate > :createdDate OR (co.createdDate = :createdDate AND co.id > :id)) " +
+            "ORDER BY co.createdDate ASC, co.id ASC")
+    List<CustomizationOption> findAllAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT co FROM CustomizationOption co WHERE co.status = :status AND (co.createdDate > :createdDate OR (co.createdDate = :createdDate AND co.id > :id)) " +
+            "ORDER BY co.createdDate ASC, co.id ASC")
+    List<CustomizationOption> findAllByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 }
@@ -0,0 +1,19 @@
+package com.example.kalban_greenbag.repository;
+
+import com.example.kalban_greenbag.entity.OrderCodeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderCodeSequenceRepository extends JpaRepository<OrderCodeSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderCodeSequence s WHERE s.name = :name")
+    Optional<OrderCodeSequence> findByNameForUpdate(@Param("name") String name);
+}
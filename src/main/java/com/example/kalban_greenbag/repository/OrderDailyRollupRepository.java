@@ -0,0 +1,31 @@
+package com.example.kalban_greenbag.repository;
+
+import com.example.kalban_greenbag.entity.OrderDailyRollup;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderDailyRollupRepository extends JpaRepository<OrderDailyRollup, UUID> {
+
+    List<OrderDailyRollup> findAllByDayBetween(LocalDate fromDay, LocalDate toDay);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderDailyRollup r SET r.orderCount = r.orderCount + :countDelta, r.totalAmount = r.totalAmount + :amountDelta " +
+            "WHERE r.day = :day AND r.status = :status AND r.orderStatus = :orderStatus")
+    int increment(@Param("day") LocalDate day, @Param("status") String status, @Param("orderStatus") String orderStatus,
+                  @Param("countDelta") long countDelta, @Param("amountDelta") BigDecimal amountDelta);
+
+    @Modifying
+    @Query("DELETE FROM OrderDailyRollup r WHERE r.day BETWEEN :fromDay AND :toDay")
+    void deleteAllByDayBetween(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+}
@@ -2,15 +2,41 @@ package com.example.kalban_greenbag.repository;
 
 import com.example.kalban_greenbag.entity.OrderItem;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
+    @EntityGraph(attributePaths = "productID")
     List<OrderItem> findAllByOrderByCreatedDate(Pageable pageable);
+    @EntityGraph(attributePaths = "productID")
     List<OrderItem> findAllByStatusOrderByCreatedDate(String status, Pageable pageable);
+    @EntityGraph(attributePaths = "productID")
+    Optional<OrderItem> findWithProductById(UUID id);
+    @EntityGraph(attributePaths = "productID")
     List<OrderItem> findByOrderID_Id(UUID orderId);
+    @EntityGraph(attributePaths = "productID")
+    @Transactional(readOnly = true)
+    List<OrderItem> findAllByOrderID_IdIn(Collection<UUID> orderIds);
+    int countByStatus(String status);
+
+    @EntityGraph(attributePaths = "productID")
+    @Query("SELECT oi FROM OrderItem oi WHERE (oi.createdDate > :createdDate OR (oi.createdDate = :createdDate AND oi.id > :id)) " +
+            "ORDER BY oi.createdDate ASC, oi.id ASC")
+    List<OrderItem> findAllAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "productID")
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.status = :status AND (oi.createdDate > :createdDate OR (oi.createdDate = :createdDate AND oi.id > :id)) " +
+            "ORDER BY oi.createdDate ASC, oi.id ASC")
+    List<OrderItem> findAllByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 }
@@ -1,27 +1,43 @@
 package com.example.kalban_greenbag.repository;
 
 import com.example.kalban_greenbag.entity.Order;
-import jakarta.transaction.Transactional;
+import com.example.kalban_greenbag.entity.OrderDailyRollup;
+import com.example.kalban_greenbag.repository.projection.OrderSummary;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
+    String SELECT_SUMMARY = "SELECT o.id AS id, o.createdDate AS createdDate, o.modifiedDate AS modifiedDate, o.createdBy AS createdBy, " +
+            "o.modifiedBy AS modifiedBy, o.status AS status, o.userID.id AS userId, o.orderDate AS orderDate, o.totalAmount AS totalAmount, " +
+            "o.orderStatus AS orderStatus, o.orderCode AS orderCode, o.reason AS reason FROM Order o ";
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "ORDER BY o.createdDate DESC")
+    List<OrderSummary> findSummariesOrderByCreatedDateDesc(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE o.status = :status ORDER BY o.createdDate DESC")
+    List<OrderSummary> findSummariesByStatusOrderByCreatedDateDesc(@Param("status") String status, Pageable pageable);
 
-    Page<Order> findAllByOrderByCreatedDateDesc(Pageable pageable);
-    List<Order> findAllByStatusOrderByCreatedDateDesc(String status, Pageable pageable);
     Page<Order> findByOrderCode(long orderCode, Pageable pageable);
+    int countByStatus(String status);
 
     @Query("SELECT o FROM Order o WHERE o.userID.id = :userId AND o.status = 'ACTIVE' ORDER BY o.createdDate DESC")
     Page<Order> findAllByUserIdAndStatusActive(@Param("userId") UUID userId, Pageable pageable);
@@ -34,6 +50,20 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     Order findByOrderCode(long orderCode);
 
+    // Only orders checked out through PayOS have an order code; MoMo orders are never settled from here
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.orderStatus = :orderStatus AND o.createdDate < :createdBefore " +
+            "AND o.orderCode IS NOT NULL AND o.id > :afterId ORDER BY o.id")
+    List<Order> findAllPayOSByOrderStatusAfterId(@Param("status") String status, @Param("orderStatus") String orderStatus,
+                                                 @Param("createdBefore") Date createdBefore, @Param("afterId") UUID afterId,
+                                                 Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderCode = :orderCode")
+    Optional<Order> findByOrderCodeForUpdate(@Param("orderCode") long orderCode);
+
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.productID WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
     @Query("SELECT CASE WHEN COUNT(o) > 0 THEN TRUE ELSE FALSE END " +
             "FROM Order o WHERE o.userID.id = :userId AND o.status = :status")
     boolean existsByUserIdAndStatus(@Param("userId") UUID userId, @Param("status") String status);
@@ -43,9 +73,28 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     @Query("UPDATE Order o SET o.totalAmount = :totalAmount WHERE o.id = :orderId")
     void updateTotalAmount(@Param("orderId") UUID orderId, @Param("totalAmount") BigDecimal totalAmount);
 
-    List<Order> findByOrderDateBetween(Instant fromInstant, Instant toInstant);
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.totalAmount = o.totalAmount + :amount WHERE o.id = :orderId")
+    int addToTotalAmount(@Param("orderId") UUID orderId, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT new com.example.kalban_greenbag.entity.OrderDailyRollup(cast(o.createdDate as LocalDate), o.status, o.orderStatus, " +
+            "COUNT(o), COALESCE(SUM(o.totalAmount), 0)) FROM Order o WHERE o.createdDate >= :startDate AND o.createdDate < :endDate " +
+            "GROUP BY cast(o.createdDate as LocalDate), o.status, o.orderStatus")
+    List<OrderDailyRollup> aggregateDaily(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+    // Earliest day that has orders but no rollup rows; null when every order day is covered
+    @Query("SELECT MIN(cast(o.createdDate as LocalDate)) FROM Order o WHERE NOT EXISTS " +
+            "(SELECT 1 FROM OrderDailyRollup r WHERE r.day = cast(o.createdDate as LocalDate))")
+    LocalDate findFirstDayWithoutRollup();
 
-    @Query("SELECT o FROM Order o WHERE o.createdDate BETWEEN :startDate AND :endDate")
-    List<Order> findByDateRange(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE (o.createdDate < :createdDate OR (o.createdDate = :createdDate AND o.id < :id)) " +
+            "ORDER BY o.createdDate DESC, o.id DESC")
+    List<OrderSummary> findSummariesAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE o.status = :status AND (o.createdDate < :createdDate OR (o.createdDate = :createdDate AND o.id < :id)) " +
+            "ORDER BY o.createdDate DESC, o.id DESC")
+    List<OrderSummary> findSummariesByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 }
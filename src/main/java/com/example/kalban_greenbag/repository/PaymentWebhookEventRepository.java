@@ -0,0 +1,50 @@
+package com.example.kalban_greenbag.repository;
+
+import com.example.kalban_greenbag.entity.PaymentWebhookEvent;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, UUID> {
+
+    @Query("SELECT e.id FROM PaymentWebhookEvent e WHERE e.eventStatus = :eventStatus " +
+            "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.receivedAt")
+    List<UUID> findDueIdsByEventStatus(@Param("eventStatus") String eventStatus, @Param("now") Instant now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.eventStatus = :toStatus, e.claimedAt = :claimedAt, e.attempts = e.attempts + 1 " +
+            "WHERE e.id = :id AND e.eventStatus = :fromStatus")
+    int claim(@Param("id") UUID id, @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus,
+              @Param("claimedAt") Instant claimedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.eventStatus = :toStatus, e.lastError = :lastError, e.processedAt = :processedAt " +
+            "WHERE e.id = :id AND e.eventStatus = :fromStatus")
+    int finish(@Param("id") UUID id, @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus,
+               @Param("lastError") String lastError, @Param("processedAt") Instant processedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.eventStatus = :toStatus, e.lastError = :lastError, e.nextAttemptAt = :nextAttemptAt " +
+            "WHERE e.id = :id AND e.eventStatus = :fromStatus")
+    int reschedule(@Param("id") UUID id, @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus,
+                   @Param("lastError") String lastError, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    // Events claimed by a worker that died before finishing them
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.eventStatus = :toStatus WHERE e.eventStatus = :fromStatus AND e.claimedAt < :claimedBefore")
+    int resetStale(@Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus,
+                   @Param("claimedBefore") Instant claimedBefore);
+}
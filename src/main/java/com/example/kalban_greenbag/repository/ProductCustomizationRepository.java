@@ -3,17 +3,37 @@ package com.example.kalban_greenbag.repository;
 import com.example.kalban_greenbag.entity.Order;
 import com.example.kalban_greenbag.entity.ProductCustomization;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProductCustomizationRepository extends JpaRepository<ProductCustomization, UUID>{
+    @EntityGraph(attributePaths = "productID")
     List<ProductCustomization> findAllByOrderByCreatedDateDesc(Pageable pageable);
+    @EntityGraph(attributePaths = "productID")
     List<ProductCustomization> findAllByStatusOrderByCreatedDateDesc(String status, Pageable pageable);
+    @EntityGraph(attributePaths = "productID")
     List<ProductCustomization> findAllByUserIdOrderByCreatedDateDesc(UUID userId, Pageable pageable);
+    @EntityGraph(attributePaths = "productID")
+    Optional<ProductCustomization> findWithProductById(UUID id);
     int countByStatus(String status);
     int countByUserId(UUID id);
+
+    @EntityGraph(attributePaths = "productID")
+    @Query("SELECT pc FROM ProductCustomization pc WHERE (pc.createdDate < :createdDate OR (pc.createdDate = :createdDate AND pc.id < :id)) " +
+            "ORDER BY pc.createdDate DESC, pc.id DESC")
+    List<ProductCustomization> findAllAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "productID")
+    @Query("SELECT pc FROM ProductCustomization pc WHERE pc.status = :status AND (pc.createdDate < :createdDate OR (pc.createdDate = :createdDate AND pc.id < :id)) " +
+            "ORDER BY pc.createdDate DESC, pc.id DESC")
+    List<ProductCustomization> findAllByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 }
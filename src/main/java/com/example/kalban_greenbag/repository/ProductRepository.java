@@ -4,34 +4,71 @@ import com.example.kalban_greenbag.dto.response.product.ProductResponse;
 import com.example.kalban_greenbag.entity.Order;
 import com.example.kalban_greenbag.entity.Product;
 import com.example.kalban_greenbag.model.PagingModel;
-import jakarta.transaction.Transactional;
+import com.example.kalban_greenbag.repository.projection.ProductSummary;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
-    List<Product> findAllByOrderByCreatedDateDesc(Pageable pageable);
-    List<Product> findAllByStatusOrderByCreatedDateDesc(String status, Pageable pageable);
+    String SELECT_SUMMARY = "SELECT p.id AS id, p.createdDate AS createdDate, p.modifiedDate AS modifiedDate, p.createdBy AS createdBy, " +
+            "p.modifiedBy AS modifiedBy, p.status AS status, p.baseModelID.id AS baseModelID, p.productName AS productName, " +
+            "p.stock AS stock, p.img AS img, p.finalPrice AS finalPrice FROM Product p ";
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "ORDER BY p.createdDate DESC")
+    List<ProductSummary> findSummariesOrderByCreatedDateDesc(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE p.status = :status ORDER BY p.createdDate DESC")
+    List<ProductSummary> findSummariesByStatusOrderByCreatedDateDesc(@Param("status") String status, Pageable pageable);
+
     int countByStatus(String status);
     @Transactional
     @Modifying
     @Query("UPDATE Product p SET p.stock = p.stock - :stock WHERE p.id = :productId AND p.stock >= :stock")
     int reduceProductStockById(UUID productId, Integer stock);
 
-    @Query("SELECT p FROM Product p WHERE p.productName LIKE %:productName%")
-    List<Product> findAllByProductNameContaining(String productName, Pageable pageable);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :stock WHERE p.id = :productId")
+    int increaseProductStockById(@Param("productId") UUID productId, @Param("stock") Integer stock);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :productId")
+    Optional<Product> findByIdForUpdate(@Param("productId") UUID productId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.stockShards > 0")
+    List<UUID> findFlashSaleProductIds();
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE p.productName LIKE %:productName%")
+    List<ProductSummary> findSummariesByProductNameContaining(@Param("productName") String productName, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE p.finalPrice BETWEEN :minPrice AND :maxPrice")
+    List<ProductSummary> findSummariesByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE p.finalPrice BETWEEN :minPrice AND :maxPrice")
-    List<Product> findAllByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE (p.createdDate < :createdDate OR (p.createdDate = :createdDate AND p.id < :id)) " +
+            "ORDER BY p.createdDate DESC, p.id DESC")
+    List<ProductSummary> findSummariesAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE p.status = :status AND (p.createdDate < :createdDate OR (p.createdDate = :createdDate AND p.id < :id)) " +
+            "ORDER BY p.createdDate DESC, p.id DESC")
+    List<ProductSummary> findSummariesByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 }
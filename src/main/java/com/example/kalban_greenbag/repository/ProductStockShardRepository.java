@@ -0,0 +1,40 @@
+package com.example.kalban_greenbag.repository;
+
+import com.example.kalban_greenbag.entity.ProductStockShard;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, UUID> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.stock = s.stock - :quantity " +
+            "WHERE s.productId = :productId AND s.shardIndex = :shardIndex AND s.stock >= :quantity")
+    int take(@Param("productId") UUID productId, @Param("shardIndex") int shardIndex, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.stock = s.stock + :quantity WHERE s.productId = :productId AND s.shardIndex = :shardIndex")
+    int give(@Param("productId") UUID productId, @Param("shardIndex") int shardIndex, @Param("quantity") int quantity);
+
+    @Query("SELECT COALESCE(SUM(s.stock), 0) FROM ProductStockShard s WHERE s.productId = :productId")
+    long sumStock(@Param("productId") UUID productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.productId = :productId ORDER BY s.shardIndex")
+    List<ProductStockShard> findAllForUpdate(@Param("productId") UUID productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId")
+    void deleteAllByProductId(@Param("productId") UUID productId);
+}
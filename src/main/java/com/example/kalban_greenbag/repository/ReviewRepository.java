@@ -2,23 +2,61 @@ package com.example.kalban_greenbag.repository;
 
 import com.example.kalban_greenbag.entity.Product;
 import com.example.kalban_greenbag.entity.Review;
+import com.example.kalban_greenbag.repository.projection.ReviewSummary;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
-    List<Review> findAllByOrderByCreatedDate(Pageable pageable);
-    List<Review> findAllByStatusOrderByCreatedDate(String status, Pageable pageable);
+    String SELECT_SUMMARY = "SELECT r.id AS id, r.createdDate AS createdDate, r.modifiedDate AS modifiedDate, r.createdBy AS createdBy, " +
+            "r.modifiedBy AS modifiedBy, r.status AS status, r.productID.id AS productID, r.rating AS rating, r.comment AS comment, " +
+            "u.id AS userId, u.createdDate AS userCreatedDate, u.modifiedDate AS userModifiedDate, u.createdBy AS userCreatedBy, " +
+            "u.modifiedBy AS userModifiedBy, u.status AS userStatus, u.username AS username, u.email AS email, u.fullName AS fullName, " +
+            "ro.roleName AS roleName FROM Review r LEFT JOIN r.userID u LEFT JOIN u.role ro ";
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "ORDER BY r.createdDate ASC")
+    List<ReviewSummary> findSummariesOrderByCreatedDate(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE r.status = :status ORDER BY r.createdDate ASC")
+    List<ReviewSummary> findSummariesByStatusOrderByCreatedDate(@Param("status") String status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"userID", "userID.role"})
+    Optional<Review> findWithUserById(UUID id);
 
     int countByStatus(String status);
-    @Query("SELECT r FROM Review r WHERE r.productID.id = :id ORDER BY r.createdDate ASC")
-    List<Review> findAllByProductIdOrderByCreatedDate(UUID id, Pageable pageable);
+    int countByProductID_Id(UUID productId);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE r.productID.id = :id ORDER BY r.createdDate ASC")
+    List<ReviewSummary> findSummariesByProductIdOrderByCreatedDate(@Param("id") UUID id, Pageable pageable);
 
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN TRUE ELSE FALSE END FROM Review r WHERE r.userID.id = :userId AND r.productID.id = :productId")
     boolean existsByUserIdAndProductId(UUID userId, UUID productId);
+
+    @Query("SELECT r.productID.id FROM Review r WHERE r.userID.id = :userId AND r.productID.id IN :productIds")
+    Set<UUID> findReviewedProductIds(@Param("userId") UUID userId, @Param("productIds") Collection<UUID> productIds);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE (r.createdDate > :createdDate OR (r.createdDate = :createdDate AND r.id > :id)) " +
+            "ORDER BY r.createdDate ASC, r.id ASC")
+    List<ReviewSummary> findSummariesAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SUMMARY + "WHERE r.status = :status AND (r.createdDate > :createdDate OR (r.createdDate = :createdDate AND r.id > :id)) " +
+            "ORDER BY r.createdDate ASC, r.id ASC")
+    List<ReviewSummary> findSummariesByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
 }
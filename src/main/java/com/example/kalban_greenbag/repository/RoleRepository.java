@@ -2,12 +2,17 @@ package com.example.kalban_greenbag.repository;
 
 import com.example.kalban_greenbag.entity.Role;
 import com.example.kalban_greenbag.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
 @Repository
 public interface RoleRepository extends JpaRepository<Role, UUID> {
+    // Served from the query cache; Hibernate drops the cached result whenever Roles is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByRoleName(String name);
 }
@@ -0,0 +1,32 @@
+package com.example.kalban_greenbag.repository;
+
+import com.example.kalban_greenbag.entity.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    @Query("SELECT r FROM StockReservation r JOIN FETCH r.productID WHERE r.orderID.id = :orderId")
+    List<StockReservation> findAllByOrderId(@Param("orderId") UUID orderId);
+
+    @Query("SELECT DISTINCT r.orderID.id FROM StockReservation r WHERE r.reservationStatus = :reservationStatus AND r.expiresAt < :now")
+    List<UUID> findOrderIdsExpiredBefore(@Param("reservationStatus") String reservationStatus, @Param("now") Instant now, Pageable pageable);
+
+    @Query("SELECT MIN(r.expiresAt) FROM StockReservation r WHERE r.orderID.id = :orderId AND r.reservationStatus = :reservationStatus")
+    Instant findEarliestExpiry(@Param("orderId") UUID orderId, @Param("reservationStatus") String reservationStatus);
+
+    // Guarded transition, so a reservation is confirmed or released at most once even when callers race
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.reservationStatus = :toStatus, r.modifiedDate = CURRENT_TIMESTAMP " +
+            "WHERE r.id = :id AND r.reservationStatus = :fromStatus")
+    int transition(@Param("id") UUID id, @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus);
+}
@@ -3,8 +3,11 @@ package com.example.kalban_greenbag.repository;
 import com.example.kalban_greenbag.entity.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,4 +19,19 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findAllByOrderByCreatedDate(Pageable pageable);
     List<User> findAllByStatusOrderByCreatedDate(String status, Pageable pageable);
     int countByStatus(String status);
+
+    @Query("SELECT u FROM User u WHERE (u.createdDate > :createdDate OR (u.createdDate = :createdDate AND u.id > :id)) " +
+            "ORDER BY u.createdDate ASC, u.id ASC")
+    List<User> findAllAfterCursor(@Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.status = :status AND (u.createdDate > :createdDate OR (u.createdDate = :createdDate AND u.id > :id)) " +
+            "ORDER BY u.createdDate ASC, u.id ASC")
+    List<User> findAllByStatusAfterCursor(@Param("status") String status, @Param("createdDate") Date createdDate, @Param("id") UUID id, Pageable pageable);
+
+    // Rows of [id, tokenVersion]; users that never had their tokens revoked are left out
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findTokenVersions();
+
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0 AND u.modifiedDate >= :since")
+    List<Object[]> findTokenVersionsModifiedSince(@Param("since") Date since);
 }
@@ -0,0 +1,22 @@
+package com.example.kalban_greenbag.repository.projection;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Audit columns shared by the list projections. Queries returning a projection select these under the same
+ * aliases, so a page of summaries can be turned into responses and cursors like a page of entities.
+ */
+public interface BaseSummary {
+    UUID getId();
+
+    Date getCreatedDate();
+
+    Date getModifiedDate();
+
+    String getCreatedBy();
+
+    String getModifiedBy();
+
+    String getStatus();
+}
@@ -0,0 +1,20 @@
+package com.example.kalban_greenbag.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Order columns shown in list pages; the LOB shipping address is only read for a single order
+public interface OrderSummary extends BaseSummary {
+    UUID getUserId();
+
+    Instant getOrderDate();
+
+    BigDecimal getTotalAmount();
+
+    String getOrderStatus();
+
+    Long getOrderCode();
+
+    String getReason();
+}
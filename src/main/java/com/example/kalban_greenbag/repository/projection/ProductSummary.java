@@ -0,0 +1,17 @@
+package com.example.kalban_greenbag.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Product columns shown in list pages; the nvarchar(max) description is only read for a single product
+public interface ProductSummary extends BaseSummary {
+    UUID getBaseModelID();
+
+    String getProductName();
+
+    Integer getStock();
+
+    String getImg();
+
+    BigDecimal getFinalPrice();
+}
@@ -0,0 +1,33 @@
+package com.example.kalban_greenbag.repository.projection;
+
+import java.util.Date;
+import java.util.UUID;
+
+// A review with the author columns its response needs, read in one join instead of loading User and Role
+public interface ReviewSummary extends BaseSummary {
+    UUID getProductID();
+
+    Integer getRating();
+
+    String getComment();
+
+    UUID getUserId();
+
+    Date getUserCreatedDate();
+
+    Date getUserModifiedDate();
+
+    String getUserCreatedBy();
+
+    String getUserModifiedBy();
+
+    String getUserStatus();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getFullName();
+
+    String getRoleName();
+}
@@ -0,0 +1,70 @@
+package com.example.kalban_greenbag.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Opens after {@code failureThreshold} consecutive failures and rejects calls for {@code openMillis}. After that
+ * a single probe call is let through (half-open): its success closes the breaker, its failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+
+    private final long openNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return probeInFlight.compareAndSet(false, true);
+    }
+
+    // For an admitted call that ended without an outcome (rejected by the bulkhead, or its caller was interrupted)
+    public void release() {
+        probeInFlight.set(false);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+        probeInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.nanoTime();
+            state.set(State.OPEN);
+            consecutiveFailures.set(0);
+        }
+        probeInFlight.set(false);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.kalban_greenbag.resilience;
+
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.dto.response.metrics.GatewayStatsResponse;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Runs the calls to one payment gateway on that gateway's own bounded thread pool, so a slow gateway can only tie
+ * up its own threads and never the request threads that serve the rest of the API.
+ *
+ * A call must pass the circuit breaker and get one of {@code maxConcurrent} bulkhead permits (waiting at most
+ * {@code maxWaitMillis}), otherwise it fails fast with a 503. The caller waits at most {@code timeoutMillis} for
+ * the result. A permit is returned when the gateway call itself ends, so calls the caller gave up on still count
+ * against the limit for as long as they hold a thread.
+ *
+ * Timeouts, transport errors and failures on the gateway's side count against the circuit breaker. A call the
+ * gateway answered with a refusal, as told by {@code rejection}, counts as a sign of life instead.
+ */
+public class GatewayGuard {
+
+    private final String name;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Semaphore bulkhead;
+
+    private final int maxConcurrent;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long maxWaitMillis;
+
+    private final long timeoutMillis;
+
+    private final long hedgeDelayMillis;
+
+    private final Predicate<Exception> rejection;
+
+    private final AtomicLong calls = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong hedges = new AtomicLong();
+
+    public GatewayGuard(String name, int maxConcurrent, long maxWaitMillis, long timeoutMillis, long hedgeDelayMillis,
+                        int failureThreshold, long openMillis, Predicate<Exception> rejection) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMillis = maxWaitMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        this.rejection = rejection;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.bulkhead = new Semaphore(maxConcurrent);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // No queue: every admitted call gets a thread right away instead of waiting behind slow ones
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "gateway-" + name + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs a call once. Use this for anything that changes state at the gateway.
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        admitCircuit();
+        boolean recorded = false;
+        GuardedTask<T> future = null;
+        try {
+            future = start(task, null, maxWaitMillis);
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            recorded = true;
+            return result;
+        } catch (TimeoutException e) {
+            timeouts.incrementAndGet();
+            circuitBreaker.onFailure();
+            recorded = true;
+            throw unavailable(ConstError.Gateway.GATEWAY_TIMEOUT);
+        } catch (ExecutionException e) {
+            recorded = true;
+            throw fail(unwrap(e));
+        } finally {
+            if (future != null) {
+                future.cancel(true);
+            }
+            // Turned away by the bulkhead or interrupted before an answer: a half-open probe must not stay taken
+            if (!recorded) {
+                circuitBreaker.release();
+            }
+        }
+    }
+
+    /**
+     * Runs an idempotent read and, when it has not answered within {@code hedgeDelayMillis} or has already failed
+     * at the gateway, sends a second copy if a permit is free right away. The first successful answer wins and the
+     * other copy is cancelled. A rejection is returned as it is; a second copy would be rejected the same way.
+     */
+    public <T> T hedgedCall(Callable<T> task) throws Exception {
+        admitCircuit();
+        BlockingQueue<Future<T>> completed = new LinkedBlockingQueue<>();
+        List<Future<T>> futures = new ArrayList<>(2);
+        boolean recorded = false;
+        try {
+            futures.add(start(task, completed, maxWaitMillis));
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            long hedgeAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(hedgeDelayMillis, timeoutMillis));
+            boolean hedged = false;
+            int pending = 1;
+            Exception lastFailure = null;
+            while (pending > 0) {
+                Future<T> done = completed.poll((hedged ? deadline : hedgeAt) - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (!hedged) {
+                        hedged = true;
+                        pending += hedge(task, completed, futures);
+                        continue;
+                    }
+                    timeouts.incrementAndGet();
+                    circuitBreaker.onFailure();
+                    recorded = true;
+                    throw unavailable(ConstError.Gateway.GATEWAY_TIMEOUT);
+                }
+                pending--;
+                try {
+                    T result = done.get();
+                    circuitBreaker.onSuccess();
+                    recorded = true;
+                    return result;
+                } catch (ExecutionException e) {
+                    lastFailure = unwrap(e);
+                }
+                if (rejection.test(lastFailure)) {
+                    break;
+                }
+                // The first copy failed fast: send the second one now instead of at the hedge delay
+                if (!hedged) {
+                    hedged = true;
+                    pending += hedge(task, completed, futures);
+                }
+            }
+            recorded = true;
+            throw fail(lastFailure);
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+            if (!recorded) {
+                circuitBreaker.release();
+            }
+        }
+    }
+
+    public GatewayStatsResponse getStats() {
+        return GatewayStatsResponse.builder()
+                .gateway(name)
+                .circuitState(circuitBreaker.getState().name())
+                .maxConcurrent(maxConcurrent)
+                .inFlight(maxConcurrent - bulkhead.availablePermits())
+                .calls(calls.get())
+                .failures(failures.get())
+                .timeouts(timeouts.get())
+                .rejected(rejected.get())
+                .hedges(hedges.get())
+                .build();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void admitCircuit() throws BaseException {
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw unavailable(ConstError.Gateway.GATEWAY_CIRCUIT_OPEN);
+        }
+    }
+
+    private <T> GuardedTask<T> start(Callable<T> task, BlockingQueue<Future<T>> completed, long waitMillis)
+            throws BaseException, InterruptedException {
+        if (!bulkhead.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+            rejected.incrementAndGet();
+            throw unavailable(ConstError.Gateway.GATEWAY_BUSY);
+        }
+        GuardedTask<T> future = new GuardedTask<>(task, completed);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            // A thread that just released its permit may not be back in the pool yet
+            future.releasePermit();
+            rejected.incrementAndGet();
+            throw unavailable(ConstError.Gateway.GATEWAY_BUSY);
+        }
+        calls.incrementAndGet();
+        return future;
+    }
+
+    // Returns the number of copies started, 0 when there is no permit free for the hedge
+    private <T> int hedge(Callable<T> task, BlockingQueue<Future<T>> completed, List<Future<T>> futures)
+            throws InterruptedException {
+        try {
+            futures.add(start(task, completed, 0));
+            hedges.incrementAndGet();
+            return 1;
+        } catch (BaseException e) {
+            return 0;
+        }
+    }
+
+    // Only transport errors and gateway-side failures count against the breaker; a rejection shows it is up
+    private Exception fail(Exception failure) {
+        if (rejection.test(failure)) {
+            circuitBreaker.onSuccess();
+        } else {
+            failures.incrementAndGet();
+            circuitBreaker.onFailure();
+        }
+        return failure;
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof Exception exception ? exception : e;
+    }
+
+    private static BaseException unavailable(String message) {
+        return new BaseException(ErrorCode.ERROR_503.getCode(), message, ErrorCode.ERROR_503.getMessage());
+    }
+
+    /**
+     * Holds one bulkhead permit. It is returned when the gateway call ends, or on cancellation if the call never
+     * started, and never twice.
+     */
+    private final class GuardedTask<T> extends FutureTask<T> {
+
+        private final AtomicBoolean started;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private final BlockingQueue<Future<T>> completed;
+
+        private GuardedTask(Callable<T> task, BlockingQueue<Future<T>> completed) {
+            this(task, completed, new AtomicBoolean());
+        }
+
+        private GuardedTask(Callable<T> task, BlockingQueue<Future<T>> completed, AtomicBoolean started) {
+            super(() -> {
+                started.set(true);
+                return task.call();
+            });
+            this.started = started;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                releasePermit();
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (!started.get()) {
+                releasePermit();
+            }
+            if (completed != null && !isCancelled()) {
+                completed.offer(this);
+            }
+        }
+
+        private void releasePermit() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.kalban_greenbag.resilience;
+
+import java.io.IOException;
+
+/**
+ * The gateway answered and refused the request, e.g. with a 4xx status. It says nothing about the gateway's
+ * health, so {@link GatewayGuard} neither counts it against the circuit breaker nor retries it.
+ */
+public class GatewayRejectedException extends IOException {
+
+    private final int statusCode;
+
+    public GatewayRejectedException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.kalban_greenbag.sequence;
+
+import java.util.UUID;
+
+public interface EntityIdGenerator {
+    UUID next();
+}
@@ -0,0 +1,23 @@
+package com.example.kalban_greenbag.sequence;
+
+import java.util.UUID;
+
+/**
+ * Primary keys of new entities. Entities are not Spring beans, so the generator chosen by
+ * {@code entity.id.generator} is installed here at startup; until then SQL Server time-ordered ids are used.
+ */
+public final class EntityIds {
+
+    private static volatile EntityIdGenerator generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Layout.SQL_SERVER);
+
+    private EntityIds() {
+    }
+
+    public static UUID next() {
+        return generator.next();
+    }
+
+    public static void use(EntityIdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.kalban_greenbag.sequence;
+
+import com.example.kalban_greenbag.entity.OrderCodeSequence;
+import com.example.kalban_greenbag.repository.OrderCodeSequenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out PayOS order codes from blocks reserved in the OrderCodeSequence table (hi/lo). Each node reserves a
+ * block of {@code order.code.block-size} codes with one locked UPDATE and then serves them from memory, so codes
+ * are unique across nodes and increasing within a node, and only one call per block touches the database.
+ *
+ * Codes start at {@link #FIRST_CODE}, above the 6-digit codes the old timestamp scheme produced, and stop at
+ * {@link #LAST_CODE} so they keep fitting the 10-digit OrderCode column. Codes of a block that was not used up
+ * before a restart are skipped, never reused.
+ *
+ * The next block is reserved once half of the current one is handed out, by the caller that crosses the middle, so
+ * other callers keep drawing codes meanwhile and rarely wait for the database when a block runs out.
+ */
+@Component
+public class OrderCodeGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCodeGenerator.class);
+
+    public static final long FIRST_CODE = 1_000_000L;
+
+    public static final long LAST_CODE = 9_999_999_999L;
+
+    private static final String SEQUENCE_NAME = "OrderCode";
+
+    @Autowired
+    private OrderCodeSequenceRepository sequenceRepository;
+
+    @Value("${order.code.block-size:1000}")
+    private int blockSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Block block;
+
+    // The reservation of the block after the current one, guarded by this
+    private CompletableFuture<Block> nextBlock;
+
+    public OrderCodeGenerator(PlatformTransactionManager transactionManager) {
+        // The block must be committed even if the caller's transaction rolls back, or another node could get it too
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long next() {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long code = current.next.getAndIncrement();
+                if (code < current.end) {
+                    if (code == current.prefetchAt) {
+                        prefetch();
+                    }
+                    return code;
+                }
+            }
+            advance(current);
+        }
+    }
+
+    // The caller that crosses the middle of a block reserves the next one, while the others keep drawing codes
+    private void prefetch() {
+        try {
+            refill();
+        } catch (RuntimeException e) {
+            // This caller already has its code; whoever exhausts the block tries again
+            logger.warn("Failed to reserve the next block of order codes: {}", e.getMessage());
+        }
+    }
+
+    private void advance(Block current) {
+        if (block != current) {
+            // Another caller already moved on to the next block
+            return;
+        }
+        Block next = refill();
+        synchronized (this) {
+            if (block == current) {
+                block = next;
+            }
+            if (nextBlock != null && nextBlock.getNow(null) == block) {
+                nextBlock = null;
+            }
+        }
+    }
+
+    /*
+     * Returns the next block, reserving it in this thread unless another thread already is. The monitor is held only
+     * to hand out the pending reservation, never across its transaction.
+     */
+    private Block refill() {
+        CompletableFuture<Block> pending;
+        boolean reserve = false;
+        synchronized (this) {
+            pending = nextBlock;
+            if (pending == null) {
+                pending = nextBlock = new CompletableFuture<>();
+                reserve = true;
+            }
+        }
+        if (reserve) {
+            try {
+                pending.complete(reserveBlock());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    if (nextBlock == pending) {
+                        nextBlock = null;
+                    }
+                }
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Block reserveBlock() {
+        try {
+            return transactionTemplate.execute(transactionStatus -> reserveBlockInTransaction());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the sequence row first; the locked read finds it now
+            return transactionTemplate.execute(transactionStatus -> reserveBlockInTransaction());
+        }
+    }
+
+    private Block reserveBlockInTransaction() {
+        OrderCodeSequence sequence = sequenceRepository.findByNameForUpdate(SEQUENCE_NAME).orElse(null);
+        if (sequence == null) {
+            sequence = sequenceRepository.saveAndFlush(new OrderCodeSequence(SEQUENCE_NAME, FIRST_CODE));
+        }
+        long start = Math.max(sequence.getNextValue(), FIRST_CODE);
+        long end = Math.min(start + blockSize, LAST_CODE + 1);
+        if (start >= end) {
+            throw new IllegalStateException("Order codes are exhausted");
+        }
+        sequence.setNextValue(end);
+        return new Block(start, end);
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+
+        private final long end;
+
+        private final long prefetchAt;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = start + (end - start) / 2;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.kalban_greenbag.sequence;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * UUIDs that start with the creation time in milliseconds, so new rows are appended at the end of a clustered
+ * primary key index instead of splitting pages all over it.
+ *
+ * Within a millisecond a counter, seeded randomly, keeps the ids of this node strictly increasing. When the
+ * counter runs out, or the clock goes backwards, the generator keeps counting on the last millisecond it used.
+ * The remaining bits are random, as they were with {@link UUID#randomUUID()}.
+ *
+ * SQL Server does not sort uniqueidentifier values from the first byte. It compares the last six bytes first,
+ * then bytes 8-9, so {@link Layout#SQL_SERVER} puts the timestamp and the counter there. {@link Layout#RFC_9562}
+ * is a plain UUIDv7 for databases that compare ids byte by byte.
+ */
+public class TimeOrderedIdGenerator implements EntityIdGenerator {
+
+    public enum Layout {
+        SQL_SERVER(14),
+        RFC_9562(12);
+
+        private final int sequenceBits;
+
+        Layout(int sequenceBits) {
+            this.sequenceBits = sequenceBits;
+        }
+    }
+
+    private static final long TIMESTAMP_MASK = 0xFFFF_FFFF_FFFFL;
+
+    private static final long VARIANT_BITS = 0x8000_0000_0000_0000L;
+
+    private final Layout layout;
+
+    private final int maxSequence;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private long lastMillis;
+
+    private int sequence;
+
+    public TimeOrderedIdGenerator(Layout layout) {
+        this.layout = layout;
+        this.maxSequence = (1 << layout.sequenceBits) - 1;
+    }
+
+    @Override
+    public UUID next() {
+        long randomBits = random.nextLong();
+        long millis;
+        int counter;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // Seeded in the lower half so a busy millisecond still has room to count up
+                sequence = random.nextInt((maxSequence + 1) / 2);
+            } else if (sequence < maxSequence) {
+                sequence++;
+            } else {
+                lastMillis++;
+                sequence = 0;
+            }
+            millis = lastMillis;
+            counter = sequence;
+        }
+        return layout == Layout.SQL_SERVER
+                ? sqlServerId(millis, counter, randomBits)
+                : rfc9562Id(millis, counter, randomBits);
+    }
+
+    // Bytes 10-15 timestamp, 8-9 variant and counter, 0-7 random with version 8 (custom layout)
+    private static UUID sqlServerId(long millis, int counter, long randomBits) {
+        long mostSigBits = (randomBits & ~0xF000L) | 0x8000L;
+        long leastSigBits = VARIANT_BITS | ((long) counter << 48) | (millis & TIMESTAMP_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    // Bytes 0-5 timestamp, then version 7 and the counter, then variant and random
+    private static UUID rfc9562Id(long millis, int counter, long randomBits) {
+        long mostSigBits = ((millis & TIMESTAMP_MASK) << 16) | 0x7000L | counter;
+        long leastSigBits = VARIANT_BITS | (randomBits >>> 2);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.kalban_greenbag.service;
+
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.exception.BaseException;
+
+import java.util.UUID;
+
+public interface IFlashSaleService {
+    Boolean enable(UUID productId, Integer shards) throws BaseException;
+    Boolean disable(UUID productId) throws BaseException;
+    boolean takeStock(Product product, int quantity);
+    void returnStock(UUID productId, int quantity);
+    long availableStock(UUID productId);
+}
@@ -11,4 +11,8 @@ public interface IGenericService<T> {
     PagingModel<T> getAll(Integer page, Integer limit) throws BaseException;
 
     PagingModel<T> findAllByStatusTrue(Integer page, Integer limit) throws BaseException;
+
+    PagingModel<T> getAllByCursor(String cursor, Integer limit) throws BaseException;
+
+    PagingModel<T> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException;
 }
@@ -1,11 +1,14 @@
 package com.example.kalban_greenbag.service;
 
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.TokenClaims;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Map;
 
 public interface IJWTService {
+    TokenClaims parseToken(String token) throws BaseException;
+
     String extractUserName(String token) throws BaseException;
 
     String generateToken(UserDetails userDetails);
@@ -0,0 +1,13 @@
+package com.example.kalban_greenbag.service;
+
+import com.example.kalban_greenbag.entity.OrderDailyRollup;
+import com.example.kalban_greenbag.model.OrderRollupSnapshot;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IOrderDailyRollupService {
+    void record(OrderRollupSnapshot previous, OrderRollupSnapshot current);
+    List<OrderDailyRollup> findByDayRange(LocalDate fromDay, LocalDate toDay);
+    void rebuild(LocalDate fromDay, LocalDate toDay);
+}
@@ -1,6 +1,7 @@
 package com.example.kalban_greenbag.service;
 
 import com.example.kalban_greenbag.dto.request.order.AddOrderRequest;
+import com.example.kalban_greenbag.dto.request.order.CheckoutRequest;
 import com.example.kalban_greenbag.dto.request.order.UpdateOrderRequest;
 import com.example.kalban_greenbag.dto.response.order.OrderResponse;
 import com.example.kalban_greenbag.dto.response.order.OrderStatusTotalResponse;
@@ -17,8 +18,10 @@ import java.util.UUID;
 public interface IOrderService extends IGenericService<OrderResponse> {
     OrderResponse create(AddOrderRequest addOrderItemRequest) throws BaseException;
     OrderResponse update(UpdateOrderRequest updateOrderItemRequest) throws BaseException;
+    OrderResponse checkout(CheckoutRequest checkoutRequest) throws BaseException;
     Boolean changeStatus(UUID id) throws BaseException;
     void updateOrderTotalAmount(UUID orderId, BigDecimal totalAmount) throws BaseException;
+    void addToOrderTotalAmount(UUID orderId, BigDecimal amount) throws BaseException;
     PagingModel<OrderResponse> getOrderByOrderCode(long orderCode, Integer page, Integer limit) throws BaseException;
     PagingModel<OrderResponse> getOrderByUserId(UUID userId, Integer page, Integer limit, String status) throws BaseException;
     List<PieChartResponse> getPieChartDataForOrderStatus(LocalDate fromDate, LocalDate toDate) throws BaseException;
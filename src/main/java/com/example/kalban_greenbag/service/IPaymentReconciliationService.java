@@ -0,0 +1,8 @@
+package com.example.kalban_greenbag.service;
+
+import com.example.kalban_greenbag.dto.response.metrics.ReconciliationRunResponse;
+
+public interface IPaymentReconciliationService {
+    ReconciliationRunResponse reconcile();
+    ReconciliationRunResponse getLastRun();
+}
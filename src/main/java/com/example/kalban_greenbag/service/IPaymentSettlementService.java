@@ -0,0 +1,7 @@
+package com.example.kalban_greenbag.service;
+
+import com.example.kalban_greenbag.exception.BaseException;
+
+public interface IPaymentSettlementService {
+    boolean settle(long orderCode, String payOsStatus) throws BaseException;
+}
@@ -0,0 +1,8 @@
+package com.example.kalban_greenbag.service;
+
+import com.example.kalban_greenbag.exception.BaseException;
+import vn.payos.type.WebhookData;
+
+public interface IPaymentWebhookService {
+    boolean enqueue(WebhookData data) throws BaseException;
+}
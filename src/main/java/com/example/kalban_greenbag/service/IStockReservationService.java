@@ -0,0 +1,18 @@
+package com.example.kalban_greenbag.service;
+
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.exception.BaseException;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface IStockReservationService {
+    boolean tryHold(Order order, Collection<OrderItem> orderItems);
+    // False when a hold expired and its stock was sold before the payment arrived; nothing is taken then
+    boolean confirm(Order order) throws BaseException;
+    void release(UUID orderId) throws BaseException;
+    // When the order's holds run out, and so the latest moment its payment link may still be paid
+    Instant paymentDeadline(UUID orderId);
+}
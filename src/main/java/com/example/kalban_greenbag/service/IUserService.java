@@ -2,6 +2,7 @@ package com.example.kalban_greenbag.service;
 
 import com.example.kalban_greenbag.dto.request.user.CreateUserRequest;
 import com.example.kalban_greenbag.dto.request.user.LoginRequest;
+import com.example.kalban_greenbag.dto.request.user.RefreshTokenRequest;
 import com.example.kalban_greenbag.dto.request.user.UpdateUserRequest;
 import com.example.kalban_greenbag.dto.response.JwtAuthenticationResponse;
 import com.example.kalban_greenbag.dto.response.user.UserResponse;
@@ -9,7 +10,8 @@ import com.example.kalban_greenbag.exception.BaseException;
 import java.util.UUID;
 
 public interface IUserService extends IGenericService<UserResponse> {
-    JwtAuthenticationResponse login(LoginRequest loginRequest) throws BaseException;
+    JwtAuthenticationResponse login(LoginRequest loginRequest, String clientIp) throws BaseException;
+    JwtAuthenticationResponse refreshToken(RefreshTokenRequest refreshTokenRequest) throws BaseException;
     JwtAuthenticationResponse create(CreateUserRequest createUserRequest) throws BaseException;
     UserResponse updateUser(UUID userId, UpdateUserRequest updateUserRequest) throws BaseException;
 
@@ -1,8 +1,12 @@
 package com.example.kalban_greenbag.service.impl;
 
+import com.example.kalban_greenbag.cache.CacheRegion;
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.cache.SecondLevelCache;
 import com.example.kalban_greenbag.constant.ConstError;
-//import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
 import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.converter.BaseModelConverter;
 import com.example.kalban_greenbag.dto.request.base_model.AddBaseModelRequest;
 import com.example.kalban_greenbag.dto.request.base_model.UpdateBaseModelRequest;
 import com.example.kalban_greenbag.dto.response.base_model.BaseModelResponse;
@@ -10,21 +14,22 @@ import com.example.kalban_greenbag.entity.BaseModel;
 import com.example.kalban_greenbag.entity.Category;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
 import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.repository.BaseModelRepository;
 import com.example.kalban_greenbag.repository.CategoryRepository;
 import com.example.kalban_greenbag.service.IBaseModelService;
+import com.example.kalban_greenbag.utils.CursorUtil;
 import com.example.kalban_greenbag.utils.SecurityUtil;
-import com.example.kalban_greenbag.utils.ValidateUtil;
-import org.modelmapper.ModelMapper;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -37,10 +42,20 @@ public class BaseModelServiceImpl implements IBaseModelService {
     private BaseModelRepository baseModelRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private LocalCacheManager cacheManager;
 
-//    @Autowired
-//    private RedisTemplate<String, Object> redisTemplate;
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    private CacheRegion<UUID, BaseModelResponse> baseModelCache;
+
+    private CacheRegion<String, PagingModel<BaseModelResponse>> baseModelPageCache;
+
+    @PostConstruct
+    public void initCaches() {
+        baseModelCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL);
+        baseModelPageCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL_PAGE);
+    }
 
     public int totalItem() {
         return (int) baseModelRepository.count();
@@ -67,13 +82,11 @@ public class BaseModelServiceImpl implements IBaseModelService {
             newBaseModel.setImageURL(addBaseModelRequest.getImageURL());
             newBaseModel.setStatus(addBaseModelRequest.getStatus());
             BaseModel savedBaseModel = baseModelRepository.save(newBaseModel);
-            BaseModelResponse savedBaseModelResponse = modelMapper.map(savedBaseModel, BaseModelResponse.class);
+            BaseModelResponse savedBaseModelResponse = BaseModelConverter.toResponse(savedBaseModel);
 
-//            String pattern = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL + "*";
-//            Set<String> keysToDelete = redisTemplate.keys(pattern);
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            baseModelPageCache.clear();
+            // Category.baseModels is the inverse side, so its cached collection does not see the new base model
+            secondLevelCache.evictCollection(Category.class, "baseModels", category.getId());
 
             return savedBaseModelResponse;
 
@@ -113,6 +126,7 @@ public class BaseModelServiceImpl implements IBaseModelService {
             if (updateBaseModelRequest.getImageURL() != null) {
                 baseModel.setImageURL(updateBaseModelRequest.getImageURL());
             }
+            UUID previousCategoryId = baseModel.getCategory() == null ? null : baseModel.getCategory().getId();
             if (updateBaseModelRequest.getCategoryID() != null) {
                 Category category = categoryRepository.findById(updateBaseModelRequest.getCategoryID())
                         .orElseThrow(() -> new BaseException(
@@ -127,13 +141,16 @@ public class BaseModelServiceImpl implements IBaseModelService {
 
             BaseModel updatedBaseModel = baseModelRepository.save(baseModel);
 
-            BaseModelResponse updatedBaseModelResponse = modelMapper.map(updatedBaseModel, BaseModelResponse.class);
+            BaseModelResponse updatedBaseModelResponse = BaseModelConverter.toResponse(updatedBaseModel);
 
-//            String pattern = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL + "*";
-//            Set<String> keysToDelete = redisTemplate.keys(pattern);
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            baseModelCache.evict(updatedBaseModel.getId());
+            baseModelPageCache.clear();
+            UUID categoryId = updatedBaseModel.getCategory() == null ? null : updatedBaseModel.getCategory().getId();
+            if (!Objects.equals(previousCategoryId, categoryId)) {
+                // Moved between categories; neither cached Category.baseModels collection sees that
+                secondLevelCache.evictCollection(Category.class, "baseModels", previousCategoryId);
+                secondLevelCache.evictCollection(Category.class, "baseModels", categoryId);
+            }
 
             return updatedBaseModelResponse;
 
@@ -163,11 +180,8 @@ public class BaseModelServiceImpl implements IBaseModelService {
             baseModel.setModifiedBy(modifiedBy);
             baseModelRepository.save(baseModel);
 
-//            String pattern = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL + "*";
-//            Set<String> keysToDelete = redisTemplate.keys(pattern);
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            baseModelCache.evict(id);
+            baseModelPageCache.clear();
 
             return true;
 
@@ -184,25 +198,17 @@ public class BaseModelServiceImpl implements IBaseModelService {
     @Override
     public BaseModelResponse findById(UUID id) throws BaseException {
         try {
-//            String hashKeyForModel = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL + id.toString();
-
-//            BaseModelResponse baseModelResponseByRedis = (BaseModelResponse) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL, hashKeyForModel);
-//            if (baseModelResponseByRedis != null) {
-//                return baseModelResponseByRedis;
-//            }
-            Optional<BaseModel> modelOptional = baseModelRepository.findById(id);
-
-            if (!modelOptional.isPresent()) {
-                throw new BaseException(ErrorCode.ERROR_404.getCode(),
-                        ConstError.BaseModel.BASE_MODEL_NOT_FOUND,
-                        ErrorCode.ERROR_404.getMessage());
-            }
+            return baseModelCache.get(id, () -> {
+                Optional<BaseModel> modelOptional = baseModelRepository.findWithDetailsById(id);
 
-            BaseModel model = modelOptional.get();
-            BaseModelResponse baseModelResponse = modelMapper.map(model, BaseModelResponse.class);
-//            redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL, hashKeyForModel, baseModelResponse);
+                if (!modelOptional.isPresent()) {
+                    throw new BaseException(ErrorCode.ERROR_404.getCode(),
+                            ConstError.BaseModel.BASE_MODEL_NOT_FOUND,
+                            ErrorCode.ERROR_404.getMessage());
+                }
 
-            return baseModelResponse;
+                return BaseModelConverter.toResponse(modelOptional.get());
+            });
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -222,30 +228,27 @@ public class BaseModelServiceImpl implements IBaseModelService {
             if (limit == null || limit < 1) {
                 limit = 10;
             }
-            PagingModel result = new PagingModel();
-            result.setPage(page);
-            Pageable pageable = PageRequest.of(page - 1, limit);
+            int currentPage = page;
+            int pageSize = limit;
+            String pageKey = ConstHashKeyPrefix.PAGE_KEY_ALL + currentPage + ":" + pageSize;
 
-//            String hashKeyForBaseModel = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL + "all:" + page + ":" + limit;
+            return baseModelPageCache.get(pageKey, () -> {
+                PagingModel<BaseModelResponse> result = new PagingModel<>();
+                result.setPage(currentPage);
+                Pageable pageable = PageRequest.of(currentPage - 1, pageSize);
 
-            List<BaseModelResponse>  baseModelResponsesList = null;
-
-//            if (redisTemplate.opsForHash().hasKey(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL, hashKeyForBaseModel)) {
-//                baseModelResponsesList = (List<BaseModelResponse>) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL, hashKeyForBaseModel);
-//            } else {
                 List<BaseModel> baseModels = baseModelRepository.findAllByOrderByCreatedDate(pageable);
-                baseModelResponsesList = baseModels.stream()
-                        .map(baseModel -> modelMapper.map(baseModel, BaseModelResponse.class))
+                List<BaseModelResponse> baseModelResponsesList = baseModels.stream()
+                        .map(BaseModelConverter::toResponse)
                         .collect(Collectors.toList());
-//                redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL, hashKeyForBaseModel, baseModelResponsesList);
-//            }
 
-            result.setListResult(baseModelResponsesList);
+                result.setListResult(baseModelResponsesList);
 
-            result.setTotalPage(((int) Math.ceil((double) (totalItem()) / limit)));
-            result.setLimit(limit);
+                result.setTotalPage(((int) Math.ceil((double) (totalItem()) / pageSize)));
+                result.setLimit(pageSize);
 
-            return result;
+                return result;
+            });
         } catch (Exception baseException) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), baseException.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
@@ -260,33 +263,62 @@ public class BaseModelServiceImpl implements IBaseModelService {
             if (limit == null || limit < 1) {
                 limit = 10;
             }
-            PagingModel<BaseModelResponse> result = new PagingModel<>();
-            result.setPage(page);
-            Pageable pageable = PageRequest.of(page - 1, limit);
-
-//            String hashKeyForBaseModel = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL + "all:" + "active:" + page + ":" + limit;
+            int currentPage = page;
+            int pageSize = limit;
+            String pageKey = ConstHashKeyPrefix.PAGE_KEY_ACTIVE + currentPage + ":" + pageSize;
 
-            List<BaseModelResponse> baseModelResponseList;
+            return baseModelPageCache.get(pageKey, () -> {
+                PagingModel<BaseModelResponse> result = new PagingModel<>();
+                result.setPage(currentPage);
+                Pageable pageable = PageRequest.of(currentPage - 1, pageSize);
 
-//            if (redisTemplate.opsForHash().hasKey(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL, hashKeyForBaseModel)) {
-//                baseModelResponseList = (List<BaseModelResponse>) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL, hashKeyForBaseModel);
-//            } else {
                 List<BaseModel> baseModels = baseModelRepository.findAllByStatusOrderByCreatedDate(ConstStatus.ACTIVE_STATUS, pageable);
-                baseModelResponseList = baseModels.stream()
-                        .map(baseModel -> modelMapper.map(baseModel, BaseModelResponse.class))
+                List<BaseModelResponse> baseModelResponseList = baseModels.stream()
+                        .map(BaseModelConverter::toResponse)
                         .collect(Collectors.toList());
-//                redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL, hashKeyForBaseModel, baseModelResponseList);
-//            }
 
-            result.setListResult(baseModelResponseList);
+                result.setListResult(baseModelResponseList);
 
-            result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
-            result.setLimit(limit);
+                result.setTotalPage((int) Math.ceil((double) totalItem() / pageSize));
+                result.setLimit(pageSize);
 
-            return result;
+                return result;
+            });
         } catch (Exception baseException) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), baseException.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
     }
 
+    @Override
+    public PagingModel<BaseModelResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<BaseModel> baseModels = baseModelRepository.findAllAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(baseModels, pageSize, BaseModelConverter::toResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public PagingModel<BaseModelResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<BaseModel> baseModels = baseModelRepository.findAllByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(baseModels, pageSize, BaseModelConverter::toResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
 }
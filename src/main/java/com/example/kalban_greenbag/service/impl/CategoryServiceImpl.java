@@ -1,7 +1,9 @@
 package com.example.kalban_greenbag.service.impl;
 
+import com.example.kalban_greenbag.cache.CacheRegion;
+import com.example.kalban_greenbag.cache.LocalCacheManager;
 import com.example.kalban_greenbag.constant.ConstError;
-//import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
 import com.example.kalban_greenbag.converter.CategoryConverter;
 import com.example.kalban_greenbag.dto.request.category.AddCategoryRequest;
 import com.example.kalban_greenbag.dto.request.category.UpdateCategoryRequest;
@@ -11,19 +13,20 @@ import com.example.kalban_greenbag.entity.Category;
 import com.example.kalban_greenbag.constant.ConstStatus;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
 import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.repository.CategoryRepository;
 import com.example.kalban_greenbag.service.ICategoryService;
+import com.example.kalban_greenbag.utils.CursorUtil;
 import com.example.kalban_greenbag.utils.SecurityUtil;
 import com.example.kalban_greenbag.utils.ValidateUtil;
+import jakarta.annotation.PostConstruct;
 import org.apache.tomcat.util.net.openssl.ciphers.Authentication;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-//import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -41,7 +44,17 @@ public class CategoryServiceImpl implements ICategoryService {
     private JWTServiceImpl jwtServiceImpl;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private LocalCacheManager cacheManager;
+
+    private CacheRegion<UUID, CategoryResponse> categoryCache;
+
+    private CacheRegion<String, PagingModel<CategoryResponse>> categoryPageCache;
+
+    @PostConstruct
+    public void initCaches() {
+        categoryCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY);
+        categoryPageCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY_PAGE);
+    }
 
     public int totalItem() {
         return (int) categoryRepository.count();
@@ -58,12 +71,9 @@ public class CategoryServiceImpl implements ICategoryService {
             newCategory.setCreatedBy(username);
             Category savedCategory = categoryRepository.save(newCategory);
 
-            CategoryResponse savedCategoryResponse = modelMapper.map(savedCategory, CategoryResponse.class);
+            CategoryResponse savedCategoryResponse = CategoryConverter.entityToResponse(savedCategory);
 
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY + "*");
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            categoryPageCache.clear();
 
             return savedCategoryResponse;
 
@@ -100,12 +110,10 @@ public class CategoryServiceImpl implements ICategoryService {
             category.setModifiedBy(modifier);
             Category updatedCategory = categoryRepository.save(category);
 
-            CategoryResponse updatedCategoryResponse = modelMapper.map(updatedCategory, CategoryResponse.class);
+            CategoryResponse updatedCategoryResponse = CategoryConverter.entityToResponse(updatedCategory);
 
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY + "*");
-//            if (keysToDelete != null && !keysToDelete.isEmpty()) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            categoryCache.evict(updatedCategory.getId());
+            categoryPageCache.clear();
 
             return updatedCategoryResponse;
 
@@ -135,11 +143,9 @@ public class CategoryServiceImpl implements ICategoryService {
             category.setModifiedBy(modifier);
             categoryRepository.save(category);
 
-            // Delete all related cache entries
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY + "*");
-//            if (keysToDelete != null && !keysToDelete.isEmpty()) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            // Delete the cache entries this change touches
+            categoryCache.evict(categoryId);
+            categoryPageCache.clear();
 
             return true;
         } catch (Exception exception) {
@@ -155,23 +161,16 @@ public class CategoryServiceImpl implements ICategoryService {
     @Override
     public CategoryResponse findById(UUID id) throws BaseException {
         try {
-//            String hashKeyForCategory = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY + id.toString();
-//            CategoryResponse categoryResponseByRedis = (CategoryResponse) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY, hashKeyForCategory);
-//
-//            if (!Objects.isNull(categoryResponseByRedis)) {
-//                return categoryResponseByRedis;
-//            }
-
-            Optional<Category> categoryById = categoryRepository.findById(id);
-            boolean isCategoryExist = categoryById.isPresent();
-
-            if (!isCategoryExist) {
-                throw new BaseException(ErrorCode.ERROR_500.getCode(), ConstError.Category.CATEGORY_NOT_FOUND, ErrorCode.ERROR_404.getMessage());
-            }
+            return categoryCache.get(id, () -> {
+                Optional<Category> categoryById = categoryRepository.findById(id);
+                boolean isCategoryExist = categoryById.isPresent();
+
+                if (!isCategoryExist) {
+                    throw new BaseException(ErrorCode.ERROR_500.getCode(), ConstError.Category.CATEGORY_NOT_FOUND, ErrorCode.ERROR_404.getMessage());
+                }
 
-            CategoryResponse categoryResponse = modelMapper.map(categoryById.get(), CategoryResponse.class);
-//            redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY, hashKeyForCategory, categoryResponse);
-            return categoryResponse;
+                return CategoryConverter.entityToResponse(categoryById.get());
+            });
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -191,28 +190,25 @@ public class CategoryServiceImpl implements ICategoryService {
             if (limit == null || limit < 1) {
                 limit = 10;
             }
-            PagingModel result = new PagingModel();
-            result.setPage(page);
-            Pageable pageable = PageRequest.of(page - 1, limit);
-
-//            String hashKeyForSkill = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY + "all:" + page + ":" + limit;
+            int currentPage = page;
+            int pageSize = limit;
+            String pageKey = ConstHashKeyPrefix.PAGE_KEY_ALL + currentPage + ":" + pageSize;
 
-            List<CategoryResponse> categoryResponsesList = null;
+            return categoryPageCache.get(pageKey, () -> {
+                PagingModel<CategoryResponse> result = new PagingModel<>();
+                result.setPage(currentPage);
+                Pageable pageable = PageRequest.of(currentPage - 1, pageSize);
 
-//            if (redisTemplate.opsForHash().hasKey(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY, hashKeyForSkill)) {
-//                categoryResponsesList = (List<CategoryResponse>) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY, hashKeyForSkill);
-//            } else {
                 List<Category> categories = categoryRepository.findAllByOrderByCreatedDate(pageable);
-                categoryResponsesList = categories.stream().map(CategoryConverter::entityToResponse).toList();
-//                redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY, hashKeyForSkill, categoryResponsesList);
-//            }
+                List<CategoryResponse> categoryResponsesList = categories.stream().map(CategoryConverter::entityToResponse).toList();
 
-            result.setListResult(categoryResponsesList);
+                result.setListResult(categoryResponsesList);
 
-            result.setTotalPage(((int) Math.ceil((double) (totalItem()) / limit)));
-            result.setLimit(limit);
+                result.setTotalPage(((int) Math.ceil((double) (totalItem()) / pageSize)));
+                result.setLimit(pageSize);
 
-            return result;
+                return result;
+            });
         } catch (Exception baseException) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), baseException.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
@@ -227,30 +223,59 @@ public class CategoryServiceImpl implements ICategoryService {
             if (limit == null || limit < 1) {
                 limit = 10;
             }
-            PagingModel result = new PagingModel();
-            result.setPage(page);
-            Pageable pageable = PageRequest.of(page - 1, limit);
+            int currentPage = page;
+            int pageSize = limit;
+            String pageKey = ConstHashKeyPrefix.PAGE_KEY_ACTIVE + currentPage + ":" + pageSize;
 
-//            String hashKeyForSkill = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY + "all:"  + "active:" + page + ":" + limit;
+            return categoryPageCache.get(pageKey, () -> {
+                PagingModel<CategoryResponse> result = new PagingModel<>();
+                result.setPage(currentPage);
+                Pageable pageable = PageRequest.of(currentPage - 1, pageSize);
 
-            List<CategoryResponse> categoryResponsesList = null;
-
-//            if (redisTemplate.opsForHash().hasKey(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY, hashKeyForSkill)) {
-//                categoryResponsesList = (List<CategoryResponse>) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY, hashKeyForSkill);
-//            } else {
                 List<Category> categories = categoryRepository.findAllByStatusOrderByCreatedDate(ConstStatus.ACTIVE_STATUS, pageable);
-                categoryResponsesList = categories.stream().map(CategoryConverter::entityToResponse).toList();
-//                redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CATEGORY, hashKeyForSkill, categoryResponsesList);
-//            }
+                List<CategoryResponse> categoryResponsesList = categories.stream().map(CategoryConverter::entityToResponse).toList();
 
-            result.setListResult(categoryResponsesList);
+                result.setListResult(categoryResponsesList);
 
-            result.setTotalPage(((int) Math.ceil((double) (totalItem()) / limit)));
-            result.setLimit(limit);
+                result.setTotalPage(((int) Math.ceil((double) (totalItem()) / pageSize)));
+                result.setLimit(pageSize);
 
-            return result;
+                return result;
+            });
         } catch (Exception baseException) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), baseException.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
     }
+
+    @Override
+    public PagingModel<CategoryResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<Category> categories = categoryRepository.findAllAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(categories, pageSize, CategoryConverter::entityToResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public PagingModel<CategoryResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<Category> categories = categoryRepository.findAllByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(categories, pageSize, CategoryConverter::entityToResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
 }
@@ -1,11 +1,16 @@
 package com.example.kalban_greenbag.service.impl;
 
+import com.example.kalban_greenbag.cache.CacheRegion;
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.cache.SecondLevelCache;
 import com.example.kalban_greenbag.constant.ConstError;
-//import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
 import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.converter.CustomizationOptionConverter;
 import com.example.kalban_greenbag.converter.CategoryConverter;
 import com.example.kalban_greenbag.dto.request.customization_option.AddCustomizationOptionRequest;
 import com.example.kalban_greenbag.dto.request.customization_option.UpdateCustomizationOptionRequest;
+import com.example.kalban_greenbag.dto.response.base_model.BaseModelResponse;
 import com.example.kalban_greenbag.dto.response.category.CategoryResponse;
 import com.example.kalban_greenbag.dto.response.customization_option.CustomizationOptionResponse;
 import com.example.kalban_greenbag.entity.BaseModel;
@@ -13,13 +18,15 @@ import com.example.kalban_greenbag.entity.Category;
 import com.example.kalban_greenbag.entity.CustomizationOption;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
 import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.repository.BaseModelRepository;
 import com.example.kalban_greenbag.repository.CustomizationOptionRepository;
 import com.example.kalban_greenbag.service.ICustomizationOptionService;
+import com.example.kalban_greenbag.utils.CursorUtil;
 import com.example.kalban_greenbag.utils.SecurityUtil;
 import com.example.kalban_greenbag.utils.ValidateUtil;
-import org.modelmapper.ModelMapper;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -30,15 +37,34 @@ import java.util.*;
 @Service
 public class CustomizationOptionServiceImpl implements ICustomizationOptionService {
 
-    @Autowired
-    private ModelMapper modelMapper;
-
     @Autowired
     private BaseModelRepository baseModelRepository;
 
     @Autowired
     private CustomizationOptionRepository customizationOptionRepository;
 
+    @Autowired
+    private LocalCacheManager cacheManager;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    private CacheRegion<UUID, CustomizationOptionResponse> customizationOptionCache;
+
+    private CacheRegion<String, PagingModel<CustomizationOptionResponse>> customizationOptionPageCache;
+
+    private CacheRegion<UUID, BaseModelResponse> baseModelCache;
+
+    private CacheRegion<String, PagingModel<BaseModelResponse>> baseModelPageCache;
+
+    @PostConstruct
+    public void initCaches() {
+        customizationOptionCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION);
+        customizationOptionPageCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION_PAGE);
+        baseModelCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL);
+        baseModelPageCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL_PAGE);
+    }
+
     public int totalItem() {
         return (int) customizationOptionRepository.count();
     }
@@ -65,12 +91,10 @@ public class CustomizationOptionServiceImpl implements ICustomizationOptionServi
 
             CustomizationOption savedCustomization = customizationOptionRepository.save(newCustomization);
 
-            CustomizationOptionResponse savedCustomizationResponse = modelMapper.map(savedCustomization, CustomizationOptionResponse.class);
+            CustomizationOptionResponse savedCustomizationResponse = CustomizationOptionConverter.toResponse(savedCustomization);
 
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION + "*");
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            customizationOptionPageCache.clear();
+            evictBaseModel(baseModel);
 
             return savedCustomizationResponse;
 
@@ -104,6 +128,7 @@ public class CustomizationOptionServiceImpl implements ICustomizationOptionServi
             if (updateCustomizationOptionRequest.getAdditionalPrice() != null) {
                 existingCustomization.setAdditionalPrice(updateCustomizationOptionRequest.getAdditionalPrice());
             }
+            BaseModel previousBaseModel = existingCustomization.getBaseModelID();
             if (updateCustomizationOptionRequest.getBaseModelID() != null) {
                 BaseModel baseModel = baseModelRepository.findById(updateCustomizationOptionRequest.getBaseModelID())
                         .orElseThrow(() -> new BaseException(ErrorCode.ERROR_500.getCode(),
@@ -114,12 +139,12 @@ public class CustomizationOptionServiceImpl implements ICustomizationOptionServi
             existingCustomization.setModifiedBy(modifier);
             CustomizationOption updatedCustomization = customizationOptionRepository.save(existingCustomization);
 
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION + "*");
-//            if (keysToDelete != null && !keysToDelete.isEmpty()) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            customizationOptionCache.evict(updatedCustomization.getId());
+            customizationOptionPageCache.clear();
+            evictBaseModel(previousBaseModel);
+            evictBaseModel(updatedCustomization.getBaseModelID());
 
-            return modelMapper.map(updatedCustomization, CustomizationOptionResponse.class);
+            return CustomizationOptionConverter.toResponse(updatedCustomization);
 
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
@@ -147,10 +172,9 @@ public class CustomizationOptionServiceImpl implements ICustomizationOptionServi
 
             customizationOptionRepository.save(customizationOption);
 
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION + "*");
-//            if (keysToDelete != null && !keysToDelete.isEmpty()) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            customizationOptionCache.evict(id);
+            customizationOptionPageCache.clear();
+            evictBaseModel(customizationOption.getBaseModelID());
 
             return true;
         } catch (Exception exception) {
@@ -167,22 +191,14 @@ public class CustomizationOptionServiceImpl implements ICustomizationOptionServi
     @Override
     public CustomizationOptionResponse findById(UUID id) throws BaseException {
         try {
-//            String hashKeyForCustomizationOption = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION + id.toString();
-//            CustomizationOptionResponse customizationOptionByRedis = (CustomizationOptionResponse) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION, hashKeyForCustomizationOption);
-//
-//            if (!Objects.isNull(customizationOptionByRedis)) {
-//                return customizationOptionByRedis;
-//            }
-
-            Optional<CustomizationOption> customizationOptionById = customizationOptionRepository.findById(id);
-            if (!customizationOptionById.isPresent()) {
-                throw new BaseException(ErrorCode.ERROR_500.getCode(), ConstError.CustomizationOption.CUSTOMIZATION_OPTION_NOT_FOUND , ErrorCode.ERROR_500.getMessage());
-            }
-
-            CustomizationOptionResponse customizationOptionResponse = modelMapper.map(customizationOptionById.get(), CustomizationOptionResponse.class);
-//            redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION, hashKeyForCustomizationOption, customizationOptionResponse);
-
-            return customizationOptionResponse;
+            return customizationOptionCache.get(id, () -> {
+                Optional<CustomizationOption> customizationOptionById = customizationOptionRepository.findById(id);
+                if (!customizationOptionById.isPresent()) {
+                    throw new BaseException(ErrorCode.ERROR_500.getCode(), ConstError.CustomizationOption.CUSTOMIZATION_OPTION_NOT_FOUND , ErrorCode.ERROR_500.getMessage());
+                }
+
+                return CustomizationOptionConverter.toResponse(customizationOptionById.get());
+            });
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -200,30 +216,27 @@ public class CustomizationOptionServiceImpl implements ICustomizationOptionServi
             if (limit == null || limit < 1) {
                 limit = 10;
             }
-            PagingModel<CustomizationOptionResponse> result = new PagingModel<>();
-            result.setPage(page);
-            Pageable pageable = (Pageable) PageRequest.of(page - 1, limit);
+            int currentPage = page;
+            int pageSize = limit;
+            String pageKey = ConstHashKeyPrefix.PAGE_KEY_ALL + currentPage + ":" + pageSize;
 
-//            String hashKeyForAllCustomizationOptions = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION + "all:" + page + ":" + limit;
+            return customizationOptionPageCache.get(pageKey, () -> {
+                PagingModel<CustomizationOptionResponse> result = new PagingModel<>();
+                result.setPage(currentPage);
+                Pageable pageable = (Pageable) PageRequest.of(currentPage - 1, pageSize);
 
-            List<CustomizationOptionResponse> customizationOptionList;
-
-//            if (redisTemplate.opsForHash().hasKey(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION, hashKeyForAllCustomizationOptions)) {
-//                customizationOptionList = (List<CustomizationOptionResponse>) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION, hashKeyForAllCustomizationOptions);
-//            } else {
                 List<CustomizationOption> customizationOptions = customizationOptionRepository.findAllByOrderByCreatedDate(pageable);
-                customizationOptionList = customizationOptions.stream()
-                        .map(option -> modelMapper.map(option, CustomizationOptionResponse.class))
+                List<CustomizationOptionResponse> customizationOptionList = customizationOptions.stream()
+                        .map(CustomizationOptionConverter::toResponse)
                         .toList();
-//                redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION, hashKeyForAllCustomizationOptions, customizationOptionList);
-//            }
 
-            result.setListResult(customizationOptionList);
-            long totalItems = customizationOptionRepository.count();
-            result.setTotalPage((int) Math.ceil((double) totalItems / limit));
-            result.setLimit(limit);
+                result.setListResult(customizationOptionList);
+                long totalItems = customizationOptionRepository.count();
+                result.setTotalPage((int) Math.ceil((double) totalItems / pageSize));
+                result.setLimit(pageSize);
 
-            return result;
+                return result;
+            });
         } catch (Exception exception) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
@@ -240,35 +253,71 @@ public class CustomizationOptionServiceImpl implements ICustomizationOptionServi
             if (limit == null || limit < 1) {
                 limit = 10;
             }
-            PagingModel<CustomizationOptionResponse> result = new PagingModel<>();
-            result.setPage(page);
-            Pageable pageable = (Pageable) PageRequest.of(page - 1, limit);
-
-//            String hashKeyForActiveCustomizationOptions = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION + "all:active:" + page + ":" + limit;
+            int currentPage = page;
+            int pageSize = limit;
+            String pageKey = ConstHashKeyPrefix.PAGE_KEY_ACTIVE + currentPage + ":" + pageSize;
 
-            List<CustomizationOptionResponse> customizationOptionList;
+            return customizationOptionPageCache.get(pageKey, () -> {
+                PagingModel<CustomizationOptionResponse> result = new PagingModel<>();
+                result.setPage(currentPage);
+                Pageable pageable = (Pageable) PageRequest.of(currentPage - 1, pageSize);
 
-//            if (redisTemplate.opsForHash().hasKey(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION, hashKeyForActiveCustomizationOptions)) {
-//                customizationOptionList = (List<CustomizationOptionResponse>) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION, hashKeyForActiveCustomizationOptions);
-//            } else {
                 List<CustomizationOption> customizationOptions = customizationOptionRepository.findAllByStatusOrderByCreatedDate(ConstStatus.ACTIVE_STATUS, pageable);
-                customizationOptionList = customizationOptions.stream()
-                        .map(option -> modelMapper.map(option, CustomizationOptionResponse.class))
+                List<CustomizationOptionResponse> customizationOptionList = customizationOptions.stream()
+                        .map(CustomizationOptionConverter::toResponse)
                         .toList();
 
-//                redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_CUSTOMIZATION_OPTION, hashKeyForActiveCustomizationOptions, customizationOptionList);
-//            }
+                result.setListResult(customizationOptionList);
 
-            result.setListResult(customizationOptionList);
+                result.setTotalPage((int) Math.ceil((double) totalItem() / pageSize));
+                result.setLimit(pageSize);
 
-            result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
-            result.setLimit(limit);
+                return result;
+            });
+        } catch (Exception exception) {
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
 
-            return result;
+    @Override
+    public PagingModel<CustomizationOptionResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<CustomizationOption> customizationOptions = customizationOptionRepository.findAllAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(customizationOptions, pageSize, CustomizationOptionConverter::toResponse);
         } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
             throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
     }
 
+    @Override
+    public PagingModel<CustomizationOptionResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
 
+            List<CustomizationOption> customizationOptions = customizationOptionRepository.findAllByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(customizationOptions, pageSize, CustomizationOptionConverter::toResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    // BaseModelResponse embeds its customization options, so the owning base model entry is stale after an option write.
+    // The same goes for the base model's cached option collection, which Hibernate does not refresh from this side
+    private void evictBaseModel(BaseModel baseModel) {
+        if (baseModel != null) {
+            baseModelCache.evict(baseModel.getId());
+            baseModelPageCache.clear();
+            secondLevelCache.evictCollection(BaseModel.class, "customizationOptions", baseModel.getId());
+        }
+    }
 }
@@ -0,0 +1,208 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.cache.CacheRegion;
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.dto.response.product.ProductResponse;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.entity.ProductStockShard;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PagingModel;
+import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.repository.ProductStockShardRepository;
+import com.example.kalban_greenbag.service.IFlashSaleService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Flash-sale mode moves a product's stock out of its single Products row into N ProductStockShards rows. Buyers
+ * take stock from a random shard and walk to the neighbouring shards when it runs dry, so concurrent checkouts
+ * wait on N row locks instead of one. A periodic rebalance evens the shards out again so a purchase is not
+ * rejected while other shards still hold enough.
+ */
+@Service
+public class FlashSaleServiceImpl implements IFlashSaleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlashSaleServiceImpl.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LocalCacheManager cacheManager;
+
+    @Value("${flash-sale.max-shards:64}")
+    private int maxShards;
+
+    private CacheRegion<UUID, ProductResponse> productCache;
+
+    private CacheRegion<String, PagingModel<ProductResponse>> productPageCache;
+
+    @Value("${cache.product-page.ttl-seconds:30}")
+    private long productPageTtlSeconds;
+
+    @PostConstruct
+    public void initCaches() {
+        productCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_PRODUCT);
+        productPageCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_PRODUCT_PAGE, productPageTtlSeconds);
+    }
+
+    @Override
+    public Boolean enable(UUID productId, Integer shards) throws BaseException {
+        try {
+            if (shards == null || shards < 2 || shards > maxShards) {
+                throw new BaseException(ErrorCode.ERROR_400.getCode(), ConstError.Product.INVALID_SHARD_COUNT, ErrorCode.ERROR_400.getMessage());
+            }
+            String error = transactionTemplate.execute(transactionStatus -> {
+                Product product = productRepository.findByIdForUpdate(productId).orElse(null);
+                if (product == null) {
+                    return ConstError.Product.PRODUCT_NOT_FOUND;
+                }
+                if (isSharded(product)) {
+                    return ConstError.Product.FLASH_SALE_ALREADY_ENABLED;
+                }
+                int[] split = split(product.getStock() == null ? 0 : product.getStock(), shards);
+                List<ProductStockShard> rows = new ArrayList<>();
+                for (int shardIndex = 0; shardIndex < shards; shardIndex++) {
+                    rows.add(new ProductStockShard(productId, shardIndex, split[shardIndex]));
+                }
+                shardRepository.saveAll(rows);
+                product.setStock(0);
+                product.setStockShards(shards);
+                return null;
+            });
+            throwIfFailed(error);
+            evictProduct(productId);
+            return true;
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public Boolean disable(UUID productId) throws BaseException {
+        try {
+            String error = transactionTemplate.execute(transactionStatus -> {
+                Product product = productRepository.findByIdForUpdate(productId).orElse(null);
+                if (product == null) {
+                    return ConstError.Product.PRODUCT_NOT_FOUND;
+                }
+                if (!isSharded(product)) {
+                    return ConstError.Product.FLASH_SALE_NOT_ENABLED;
+                }
+                int remaining = shardRepository.findAllForUpdate(productId).stream()
+                        .mapToInt(ProductStockShard::getStock)
+                        .sum();
+                shardRepository.deleteAllByProductId(productId);
+                product.setStock((product.getStock() == null ? 0 : product.getStock()) + remaining);
+                product.setStockShards(0);
+                return null;
+            });
+            throwIfFailed(error);
+            evictProduct(productId);
+            return true;
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public boolean takeStock(Product product, int quantity) {
+        if (!isSharded(product)) {
+            return productRepository.reduceProductStockById(product.getId(), quantity) > 0;
+        }
+        int shards = product.getStockShards();
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int offset = 0; offset < shards; offset++) {
+            if (shardRepository.take(product.getId(), (start + offset) % shards, quantity) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void returnStock(UUID productId, int quantity) {
+        // Shard 0 exists for as long as the sale runs; the rebalance spreads the stock out again
+        if (shardRepository.give(productId, 0, quantity) == 0) {
+            productRepository.increaseProductStockById(productId, quantity);
+        }
+    }
+
+    @Override
+    public long availableStock(UUID productId) {
+        return shardRepository.sumStock(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${flash-sale.rebalance-interval-ms:5000}")
+    public void rebalance() {
+        for (UUID productId : productRepository.findFlashSaleProductIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(transactionStatus -> {
+                    List<ProductStockShard> shards = shardRepository.findAllForUpdate(productId);
+                    if (shards.isEmpty()) {
+                        return;
+                    }
+                    int[] split = split(shards.stream().mapToInt(ProductStockShard::getStock).sum(), shards.size());
+                    for (int i = 0; i < shards.size(); i++) {
+                        shards.get(i).setStock(split[i]);
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Failed to rebalance stock shards of product {}: {}", productId, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isSharded(Product product) {
+        return product.getStockShards() != null && product.getStockShards() > 0;
+    }
+
+    private static int[] split(int total, int shards) {
+        int[] split = new int[shards];
+        for (int i = 0; i < shards; i++) {
+            split[i] = total / shards + (i < total % shards ? 1 : 0);
+        }
+        return split;
+    }
+
+    private static void throwIfFailed(String error) throws BaseException {
+        if (error == null) {
+            return;
+        }
+        if (ConstError.Product.PRODUCT_NOT_FOUND.equals(error)) {
+            throw new BaseException(ErrorCode.ERROR_404.getCode(), error, ErrorCode.ERROR_404.getMessage());
+        }
+        throw new BaseException(ErrorCode.ERROR_400.getCode(), error, ErrorCode.ERROR_400.getMessage());
+    }
+
+    private void evictProduct(UUID productId) {
+        productCache.evict(productId);
+        productPageCache.clear();
+    }
+}
@@ -1,29 +1,87 @@
 package com.example.kalban_greenbag.service.impl;
 
 
+import com.example.kalban_greenbag.cache.CacheRegion;
+import com.example.kalban_greenbag.cache.LocalCacheManager;
 import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.constant.ConstJwt;
+import com.example.kalban_greenbag.entity.User;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.TokenClaims;
 import com.example.kalban_greenbag.service.IJWTService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
 public class JWTServiceImpl implements IJWTService {
+
+    private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(
+            Decoders.BASE64.decode("QVNERjEyMzQ1Njc4OTBxd2VydHl1aW9wYXNkZmdoamtsenhjdmJubQ==")); // Secret key
+
+    // Immutable and thread-safe, so one parser serves every request
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(SIGNING_KEY).build();
+
+    private static final long ACCESS_TOKEN_LIFETIME_MILLIS = 1000 * 60 * 60;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Autowired
+    private LocalCacheManager cacheManager;
+
+    // Access tokens also carry role and status, so requests are authenticated from the token alone
+    @Value("${jwt.self-contained:false}")
+    private boolean selfContained;
+
+    // Verified claims keyed by a digest of the token, so each token is verified once per cache lifetime
+    private CacheRegion<String, TokenClaims> claimsCache;
+
+    @PostConstruct
+    public void initCaches() {
+        claimsCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_JWT_CLAIMS);
+    }
+
+    @Override
+    public TokenClaims parseToken(String token) throws BaseException {
+        String key = HexFormat.of().formatHex(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        TokenClaims claims = claimsCache.get(key, () -> toTokenClaims(extractAllClaims(token)));
+        if (claims.isExpired(System.currentTimeMillis())) {
+            claimsCache.evict(key);
+            throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.TOKEN_EXPIRED, ErrorCode.ERROR_401.getMessage());
+        }
+        return claims;
+    }
+
     @Override
     public String extractUserName(String token) throws BaseException {
         try{
-            return extractClaims(token, Claims::getSubject);
+            return parseToken(token).getSubject();
         }catch (Exception baseException) {
             if (baseException instanceof BaseException) {
                 throw baseException;
@@ -35,9 +93,17 @@ public class JWTServiceImpl implements IJWTService {
 
     @Override
     public String generateToken(UserDetails userDetails) {
-        return Jwts.builder().setSubject(userDetails.getUsername())
+        JwtBuilder builder = Jwts.builder().setSubject(userDetails.getUsername());
+        if (userDetails instanceof User user) {
+            addUserClaims(builder, user);
+            if (selfContained) {
+                builder.claim(ConstJwt.Claim.ROLE, user.getRole().getRoleName())
+                        .claim(ConstJwt.Claim.STATUS, user.getStatus());
+            }
+        }
+        return builder
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_LIFETIME_MILLIS))
                 .signWith(getSigninKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -45,8 +111,8 @@ public class JWTServiceImpl implements IJWTService {
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) throws BaseException {
         try {
-            final String username = extractUserName(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            final TokenClaims claims = parseToken(token);
+            return claims.getSubject().equals(userDetails.getUsername()) && !claims.isExpired(System.currentTimeMillis());
         } catch (Exception baseException) {
             if (baseException instanceof BaseException) {
                 throw baseException;
@@ -58,29 +124,56 @@ public class JWTServiceImpl implements IJWTService {
 
     @Override
     public String generateRefreshToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder().setClaims(extraClaims).setSubject(userDetails.getUsername())
+        JwtBuilder builder = Jwts.builder().setClaims(extraClaims).setSubject(userDetails.getUsername())
+                .claim(ConstJwt.Claim.TOKEN_TYPE, ConstJwt.TokenType.REFRESH);
+        if (userDetails instanceof User user) {
+            addUserClaims(builder, user);
+        }
+        return builder
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 604800000))    //7 ngay
                 .signWith(getSigninKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private <T> T extractClaims(String token, Function<Claims, T> claimsResolvers){
-        final Claims claims = extractAllClaims(token);
-        return claimsResolvers.apply((claims));
+    private static void addUserClaims(JwtBuilder builder, User user) {
+        builder.claim(ConstJwt.Claim.USER_ID, user.getId().toString())
+                .claim(ConstJwt.Claim.TOKEN_VERSION, user.currentTokenVersion());
     }
-    private Claims extractAllClaims(String token){
-        return Jwts.parserBuilder().setSigningKey(getSigninKey()).build().parseClaimsJws(token).getBody();
+
+    private static TokenClaims toTokenClaims(Claims body) {
+        String userId = body.get(ConstJwt.Claim.USER_ID, String.class);
+        return new TokenClaims(
+                body.getSubject(),
+                body.getExpiration() == null ? Long.MAX_VALUE : body.getExpiration().getTime(),
+                userId == null ? null : UUID.fromString(userId),
+                body.get(ConstJwt.Claim.TOKEN_VERSION, Integer.class),
+                body.get(ConstJwt.Claim.ROLE, String.class),
+                body.get(ConstJwt.Claim.STATUS, String.class),
+                isRefreshToken(body, userId));
     }
 
-    public Key getSigninKey(){
-        byte[] key = Decoders.BASE64.decode("QVNERjEyMzQ1Njc4OTBxd2VydHl1aW9wYXNkZmdoamtsenhjdmJubQ=="); // Secret key
-        return Keys.hmacShaKeyFor(key);
+    private static boolean isRefreshToken(Claims body, String userId) {
+        String tokenType = body.get(ConstJwt.Claim.TOKEN_TYPE, String.class);
+        if (tokenType != null || userId != null) {
+            return ConstJwt.TokenType.REFRESH.equals(tokenType);
+        }
+        // Issued before the typ claim existed. Back then only refresh tokens outlived an access token, so those
+        // keep working until they expire; refreshToken still checks them against the user row.
+        return body.getIssuedAt() != null && body.getExpiration() != null
+                && body.getExpiration().getTime() - body.getIssuedAt().getTime() > ACCESS_TOKEN_LIFETIME_MILLIS;
     }
 
+    private Claims extractAllClaims(String token) throws BaseException {
+        try {
+            return PARSER.parseClaimsJws(token).getBody();
+        } catch (RuntimeException e) {
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), e.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
 
-    private boolean isTokenExpired(String token){
-        return extractClaims(token, Claims::getExpiration).before(new Date());
+    public Key getSigninKey(){
+        return SIGNING_KEY;
     }
 
     public String extractBearerToken(String authorizationHeader) {
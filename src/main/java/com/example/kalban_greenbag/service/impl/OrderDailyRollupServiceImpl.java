@@ -0,0 +1,178 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.entity.OrderDailyRollup;
+import com.example.kalban_greenbag.model.OrderRollupSnapshot;
+import com.example.kalban_greenbag.repository.OrderDailyRollupRepository;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.service.IOrderDailyRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one row per (day, status, orderStatus) with the order count and amount, so the dashboard charts read a
+ * handful of rows instead of every order in the range.
+ *
+ * Order writes move their contribution between buckets through {@link #record}. When an increment fails the days
+ * it touched are rebuilt from Orders straight away, and days whose rebuild also failed are retried by the nightly
+ * job, which rebuilds the most recent days as well to catch writes that bypassed the services. At startup every
+ * order day without rollup rows is filled from a GROUP BY over Orders, so a fresh table, a restart mid-backfill or
+ * two nodes starting together all end in the same state.
+ *
+ * Days are taken in {@code app.time-zone}, both here and in the database: Hibernate writes timestamps in that zone
+ * ({@code hibernate.jdbc.time_zone}), so the backfill's cast of CreatedDate to a date lands on the same day as the
+ * increments, whatever zone the JVM or the database server runs in.
+ */
+@Service
+public class OrderDailyRollupServiceImpl implements IOrderDailyRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderDailyRollupServiceImpl.class);
+
+    private static final String NONE = "";
+
+    @Autowired
+    private OrderDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${order.rollup.rebuild-days:2}")
+    private int rebuildDays;
+
+    @Value("${app.time-zone}")
+    private ZoneId zone;
+
+    // Days whose repair failed; rebuilt by the next nightly run whatever their age
+    private final Set<LocalDate> pendingRepairs = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void record(OrderRollupSnapshot previous, OrderRollupSnapshot current) {
+        try {
+            if (previous != null && previous.sameBucket(current)) {
+                apply(current, 0, current.getTotalAmount().subtract(previous.getTotalAmount()));
+                return;
+            }
+            if (previous != null) {
+                apply(previous, -1, previous.getTotalAmount().negate());
+            }
+            if (current != null) {
+                apply(current, 1, current.getTotalAmount());
+            }
+        } catch (RuntimeException e) {
+            // The order itself is already saved; recount the touched days so a half-applied move does not stick
+            logger.warn("Failed to update order rollup, rebuilding affected days: {}", e.getMessage());
+            Set<LocalDate> days = new TreeSet<>();
+            if (previous != null) {
+                days.add(dayOf(previous));
+            }
+            if (current != null) {
+                days.add(dayOf(current));
+            }
+            days.forEach(this::repair);
+        }
+    }
+
+    @Override
+    public List<OrderDailyRollup> findByDayRange(LocalDate fromDay, LocalDate toDay) {
+        return rollupRepository.findAllByDayBetween(fromDay, toDay);
+    }
+
+    @Override
+    public void rebuild(LocalDate fromDay, LocalDate toDay) {
+        Date start = Date.from(fromDay.atStartOfDay(zone).toInstant());
+        Date end = Date.from(toDay.plusDays(1).atStartOfDay(zone).toInstant());
+
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            rollupRepository.deleteAllByDayBetween(fromDay, toDay);
+            List<OrderDailyRollup> rows = orderRepository.aggregateDaily(start, end);
+            for (OrderDailyRollup row : rows) {
+                row.setStatus(Objects.toString(row.getStatus(), NONE));
+                row.setOrderStatus(Objects.toString(row.getOrderStatus(), NONE));
+            }
+            rollupRepository.saveAll(rows);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        LocalDate today = LocalDate.now(zone);
+        try {
+            // Rebuilding is idempotent, so start from the first uncovered day (all history on an empty table)
+            LocalDate fromDay = today.minusDays(rebuildDays);
+            LocalDate firstMissingDay = orderRepository.findFirstDayWithoutRollup();
+            if (firstMissingDay != null && firstMissingDay.isBefore(fromDay)) {
+                fromDay = firstMissingDay;
+            }
+            rebuild(fromDay, today);
+            logger.info("Order daily rollup backfilled from Orders since {}", fromDay);
+        } catch (RuntimeException e) {
+            // Another node may be backfilling the same days; whichever commits last leaves the same rows
+            logger.warn("Order daily rollup backfill failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${order.rollup.rebuild-cron:0 30 0 * * *}", zone = "${app.time-zone}")
+    public void rebuildRecentDays() {
+        LocalDate today = LocalDate.now(zone);
+        try {
+            rebuild(today.minusDays(rebuildDays), today.minusDays(1));
+        } catch (RuntimeException e) {
+            logger.warn("Order daily rollup rebuild failed: {}", e.getMessage());
+        }
+        for (LocalDate day : List.copyOf(pendingRepairs)) {
+            pendingRepairs.remove(day);
+            repair(day);
+        }
+    }
+
+    private void repair(LocalDate day) {
+        try {
+            rebuild(day, day);
+        } catch (RuntimeException e) {
+            pendingRepairs.add(day);
+            logger.warn("Order daily rollup repair of {} failed, retrying with the nightly rebuild: {}", day, e.getMessage());
+        }
+    }
+
+    private void apply(OrderRollupSnapshot bucket, long countDelta, BigDecimal amountDelta) {
+        if (countDelta == 0 && amountDelta.signum() == 0) {
+            return;
+        }
+        LocalDate day = dayOf(bucket);
+        String status = Objects.toString(bucket.getStatus(), NONE);
+        String orderStatus = Objects.toString(bucket.getOrderStatus(), NONE);
+        if (rollupRepository.increment(day, status, orderStatus, countDelta, amountDelta) > 0) {
+            return;
+        }
+        try {
+            rollupRepository.saveAndFlush(new OrderDailyRollup(day, status, orderStatus, countDelta, amountDelta));
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race to create the bucket; the row exists now
+            rollupRepository.increment(day, status, orderStatus, countDelta, amountDelta);
+        }
+    }
+
+    private LocalDate dayOf(OrderRollupSnapshot snapshot) {
+        return snapshot.getCreatedAt().atZone(zone).toLocalDate();
+    }
+}
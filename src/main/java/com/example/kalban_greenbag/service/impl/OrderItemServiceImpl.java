@@ -1,26 +1,29 @@
 package com.example.kalban_greenbag.service.impl;
 
+import com.example.kalban_greenbag.constant.ConstCounter;
 import com.example.kalban_greenbag.constant.ConstError;
-//import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
 import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.converter.OrderItemConverter;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
 import com.example.kalban_greenbag.dto.request.order_item.AddOrderItemRequest;
 import com.example.kalban_greenbag.dto.request.order_item.UpdateOrderItemRequest;
 import com.example.kalban_greenbag.dto.response.base_model.BaseModelResponse;
 import com.example.kalban_greenbag.dto.response.customization_option.CustomizationOptionResponse;
 import com.example.kalban_greenbag.dto.response.order_item.OrderItemResponse;
-import com.example.kalban_greenbag.dto.response.product.ProductResponse;
 import com.example.kalban_greenbag.entity.*;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
 import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.repository.OrderItemRepository;
 import com.example.kalban_greenbag.repository.OrderRepository;
 import com.example.kalban_greenbag.repository.ProductRepository;
 import com.example.kalban_greenbag.service.IOrderItemService;
 import com.example.kalban_greenbag.service.IOrderService;
+import com.example.kalban_greenbag.utils.CursorUtil;
 import com.example.kalban_greenbag.utils.SecurityUtil;
 import com.example.kalban_greenbag.utils.ValidateUtil;
-import org.modelmapper.ModelMapper;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -44,36 +47,37 @@ public class OrderItemServiceImpl implements IOrderItemService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private IOrderService orderService;
 
     @Autowired
-    private IOrderService orderService;
+    private RowCounterRegistry rowCounters;
+
+    @PostConstruct
+    public void initCounters() {
+        rowCounters.register(ConstCounter.ORDER_ITEM, orderItemRepository::count);
+        rowCounters.register(RowCounterRegistry.statusKey(ConstCounter.ORDER_ITEM, ConstStatus.ACTIVE_STATUS),
+                () -> orderItemRepository.countByStatus(ConstStatus.ACTIVE_STATUS));
+    }
 
     public int totalItem() {
-        return (int) orderItemRepository.count();
+        return (int) rowCounters.get(ConstCounter.ORDER_ITEM);
+    }
+
+    private int totalActiveItems() {
+        return (int) rowCounters.get(RowCounterRegistry.statusKey(ConstCounter.ORDER_ITEM, ConstStatus.ACTIVE_STATUS));
     }
 
     @Override
     public OrderItemResponse findById(UUID id) throws BaseException {
         try {
-//            String redisKey = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER_ITEM + id.toString();
-//
-            OrderItemResponse orderItemResponse = null;
-//            if (orderItemResponse != null) {
-//                return orderItemResponse;
-//            }
-
-            OrderItem orderItem = orderItemRepository.findById(id)
+            OrderItem orderItem = orderItemRepository.findWithProductById(id)
                     .orElseThrow(() -> new BaseException(
                             ErrorCode.ERROR_500.getCode(),
                             ConstError.OrderItem.ORDER_ITEM_NOT_FOUND,
                             ErrorCode.ERROR_500.getMessage()
                     ));
 
-            orderItemResponse = modelMapper.map(orderItem, OrderItemResponse.class);
-//            redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER_ITEM, redisKey, orderItemResponse);
-
-            return orderItemResponse;
+            return OrderItemConverter.toResponse(orderItem);
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -105,20 +109,13 @@ public class OrderItemServiceImpl implements IOrderItemService {
             // Fetch Order Items and map to response objects
             List<OrderItem> orderItems = orderItemRepository.findAllByOrderByCreatedDate(pageable);
             List<OrderItemResponse> orderItemResponseList = orderItems.stream()
-                    .map(orderItem -> {
-                        OrderItemResponse response = modelMapper.map(orderItem, OrderItemResponse.class);
-                        ProductResponse productResponse = modelMapper.map(orderItem.getProductID(), ProductResponse.class);
-                        response.setProduct(productResponse);
-                        response.setOrderID(orderItem.getOrderID().getId());
-                        return response;
-                    })
+                    .map(this::toOrderItemResponse)
                     .toList();
 
             result.setListResult(orderItemResponseList);
 
             // Set pagination data
-            long totalItems = orderItemRepository.count();
-            result.setTotalPage((int) Math.ceil((double) totalItems / limit));
+            result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
             result.setLimit(limit);
 
             return result;
@@ -147,19 +144,13 @@ public class OrderItemServiceImpl implements IOrderItemService {
             // Fetch Order Items with active status and map to response objects
             List<OrderItem> orderItems = orderItemRepository.findAllByStatusOrderByCreatedDate(ConstStatus.ACTIVE_STATUS, pageable);
             List<OrderItemResponse> orderItemResponseList = orderItems.stream()
-                    .map(orderItem -> {
-                        OrderItemResponse response = modelMapper.map(orderItem, OrderItemResponse.class);
-                        ProductResponse productResponse = modelMapper.map(orderItem.getProductID(), ProductResponse.class);
-                        response.setProduct(productResponse);
-                        response.setOrderID(orderItem.getOrderID().getId());
-                        return response;
-                    })
+                    .map(this::toOrderItemResponse)
                     .toList();
 
             result.setListResult(orderItemResponseList);
 
             // Set pagination data
-            result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
+            result.setTotalPage((int) Math.ceil((double) totalActiveItems() / limit));
             result.setLimit(limit);
 
             return result;
@@ -168,13 +159,45 @@ public class OrderItemServiceImpl implements IOrderItemService {
         }
     }
 
+    @Override
+    public PagingModel<OrderItemResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<OrderItem> orderItems = orderItemRepository.findAllAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(orderItems, pageSize, this::toOrderItemResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public PagingModel<OrderItemResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<OrderItem> orderItems = orderItemRepository.findAllByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(orderItems, pageSize, this::toOrderItemResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
 
 
     @Override
     public OrderItemResponse create(AddOrderItemRequest addOrderItemRequest) throws BaseException {
         try {
             Integer quantity = null;
-            BigDecimal unitPrice, totalAmountOfOrder = null;
+            BigDecimal unitPrice;
             String username = SecurityUtil.getCurrentUsername();
 
             Order order = orderRepository.findById(addOrderItemRequest.getOrderID())
@@ -193,8 +216,7 @@ public class OrderItemServiceImpl implements IOrderItemService {
 
             quantity = addOrderItemRequest.getQuantity();
             unitPrice = product.getFinalPrice().multiply(BigDecimal.valueOf(quantity));
-            totalAmountOfOrder = order.getTotalAmount().add(unitPrice);
-            orderService.updateOrderTotalAmount(order.getId(), totalAmountOfOrder);
+            orderService.addToOrderTotalAmount(order.getId(), unitPrice);
 
             OrderItem newOrderItem = new OrderItem();
             newOrderItem.setOrderID(order);
@@ -203,11 +225,8 @@ public class OrderItemServiceImpl implements IOrderItemService {
             newOrderItem.setUnitPrice(unitPrice);
             newOrderItem.setCreatedBy(username);
             OrderItem savedOrderItem = orderItemRepository.save(newOrderItem);
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER_ITEM + "*");
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
-            return modelMapper.map(savedOrderItem, OrderItemResponse.class);
+            rowCounters.onCreate(ConstCounter.ORDER_ITEM, savedOrderItem.getStatus());
+            return OrderItemConverter.toResponse(savedOrderItem);
 
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
@@ -266,12 +285,7 @@ public class OrderItemServiceImpl implements IOrderItemService {
 
             OrderItem updatedOrderItem = orderItemRepository.save(existingOrderItem);
 
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER_ITEM + "*");
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
-
-            return modelMapper.map(updatedOrderItem, OrderItemResponse.class);
+            return OrderItemConverter.toResponse(updatedOrderItem);
 
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
@@ -295,14 +309,11 @@ public class OrderItemServiceImpl implements IOrderItemService {
                             ConstError.OrderItem.ORDER_ITEM_NOT_FOUND,
                             ErrorCode.ERROR_500.getMessage()
                     ));
+            String previousStatus = existingOrderItem.getStatus();
 
             existingOrderItem.setStatus(ConstStatus.INACTIVE_STATUS);
             orderItemRepository.save(existingOrderItem);
-
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER_ITEM + "*");
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            rowCounters.onStatusChange(ConstCounter.ORDER_ITEM, previousStatus, existingOrderItem.getStatus());
 
             return true;
 
@@ -318,4 +329,7 @@ public class OrderItemServiceImpl implements IOrderItemService {
         }
     }
 
+    private OrderItemResponse toOrderItemResponse(OrderItem orderItem) {
+        return OrderItemConverter.toResponse(orderItem);
+    }
 }
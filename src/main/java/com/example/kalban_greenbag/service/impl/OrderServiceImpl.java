@@ -1,40 +1,55 @@
 package com.example.kalban_greenbag.service.impl;
 
+import com.example.kalban_greenbag.constant.ConstCounter;
 import com.example.kalban_greenbag.constant.ConstError;
-//import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
 import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.converter.OrderConverter;
+import com.example.kalban_greenbag.converter.OrderItemConverter;
 import com.example.kalban_greenbag.dto.request.order.AddOrderRequest;
+import com.example.kalban_greenbag.dto.request.order.CheckoutItemRequest;
+import com.example.kalban_greenbag.dto.request.order.CheckoutRequest;
 import com.example.kalban_greenbag.dto.request.order.UpdateOrderRequest;
 import com.example.kalban_greenbag.dto.response.order.OrderResponse;
 import com.example.kalban_greenbag.dto.response.order.OrderStatusTotalResponse;
 import com.example.kalban_greenbag.dto.response.order.PieChartResponse;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
 import com.example.kalban_greenbag.dto.response.order_item.OrderItemResponse;
 import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderDailyRollup;
 import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
 import com.example.kalban_greenbag.entity.User;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.OrderRollupSnapshot;
+import com.example.kalban_greenbag.model.PageCursor;
 import com.example.kalban_greenbag.model.PagingModel;
+import com.example.kalban_greenbag.repository.OrderItemRepository;
 import com.example.kalban_greenbag.repository.OrderRepository;
 import com.example.kalban_greenbag.repository.ProductRepository;
 import com.example.kalban_greenbag.repository.ReviewRepository;
 import com.example.kalban_greenbag.repository.UserRepository;
+import com.example.kalban_greenbag.repository.projection.OrderSummary;
+import com.example.kalban_greenbag.service.IOrderDailyRollupService;
 import com.example.kalban_greenbag.service.IOrderService;
 import com.example.kalban_greenbag.service.IProductService;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import com.example.kalban_greenbag.utils.CursorUtil;
 import com.example.kalban_greenbag.utils.SecurityUtil;
 import com.example.kalban_greenbag.utils.ValidateUtil;
 
-import java.text.DateFormat;
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.modelmapper.ModelMapper;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Duration;
@@ -57,31 +72,49 @@ public class OrderServiceImpl implements IOrderService {
 
 
     @Autowired
-    private ModelMapper modelMapper;
+    private RowCounterRegistry rowCounters;
 
-//    @Autowired
-//    private RedisTemplate<String, Object> redisTemplate;
+    @Autowired
+    private IOrderDailyRollupService orderDailyRollupService;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private IStockReservationService stockReservationService;
+
+    @PostConstruct
+    public void initCounters() {
+        rowCounters.register(ConstCounter.ORDER, orderRepository::count);
+        rowCounters.register(RowCounterRegistry.statusKey(ConstCounter.ORDER, ConstStatus.ACTIVE_STATUS),
+                () -> orderRepository.countByStatus(ConstStatus.ACTIVE_STATUS));
+    }
 
     public int totalItem() {
-        return (int) orderRepository.count();
+        return (int) rowCounters.get(ConstCounter.ORDER);
+    }
+
+    private int totalActiveItems() {
+        return (int) rowCounters.get(RowCounterRegistry.statusKey(ConstCounter.ORDER, ConstStatus.ACTIVE_STATUS));
     }
 
     @Override
     public OrderResponse findById(UUID id) throws BaseException {
         try {
-            OrderResponse orderResponse;
-
-
-            Order order = orderRepository.findById(id)
-                        .orElseThrow(() -> new BaseException(
-                                ErrorCode.ERROR_500.getCode(),
-                                ConstError.Order.ORDER_NOT_FOUND,
-                                ErrorCode.ERROR_500.getMessage()
-                        ));
-
-                orderResponse = modelMapper.map(order, OrderResponse.class);
-            return orderResponse;
+            Order order = orderRepository.findAllWithItemsByIdIn(List.of(id)).stream().findFirst()
+                    .orElseThrow(() -> new BaseException(
+                            ErrorCode.ERROR_500.getCode(),
+                            ConstError.Order.ORDER_NOT_FOUND,
+                            ErrorCode.ERROR_500.getMessage()
+                    ));
 
+            return OrderConverter.toDetailResponse(order);
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -108,13 +141,8 @@ public class OrderServiceImpl implements IOrderService {
             Pageable pageable = PageRequest.of(page - 1, limit);
 
             PagingModel<OrderResponse> result = new PagingModel<>();
-            List<OrderResponse> orderResponseList;
-
-                Page<Order> ordersPage = orderRepository.findAllByOrderByCreatedDateDesc(pageable);
-                orderResponseList = ordersPage.stream()
-                        .map(order -> modelMapper.map(order, OrderResponse.class))
-                        .toList();
-
+            List<OrderSummary> orders = orderRepository.findSummariesOrderByCreatedDateDesc(pageable);
+            List<OrderResponse> orderResponseList = toResponses(orders);
 
             result.setPage(page);
             result.setListResult(orderResponseList);
@@ -150,28 +178,12 @@ public class OrderServiceImpl implements IOrderService {
 
             Pageable pageable = PageRequest.of(page - 1, limit);
 
-//            String hashKeyForActiveOrders = ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER + "all:active:" + page + ":" + limit;
-
-            List<OrderResponse> orderResponseList;
-
-//            if (redisTemplate.opsForHash().hasKey(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER, hashKeyForActiveOrders)) {
-//                orderResponseList = (List<OrderResponse>) redisTemplate.opsForHash().get(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER, hashKeyForActiveOrders);
-//            } else {
-                List<Order> orders = orderRepository.findAllByStatusOrderByCreatedDateDesc(ConstStatus.ACTIVE_STATUS, pageable);
-                orderResponseList = orders.stream()
-                        .map(order -> {
-                            OrderResponse response = modelMapper.map(order, OrderResponse.class);
-                            response.setUserId(order.getUserID().getId());
-                            return response;
-                        })
-                        .toList();
-//
-//                redisTemplate.opsForHash().put(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER, hashKeyForActiveOrders, orderResponseList);
-//            }
+            List<OrderSummary> orders = orderRepository.findSummariesByStatusOrderByCreatedDateDesc(ConstStatus.ACTIVE_STATUS, pageable);
+            List<OrderResponse> orderResponseList = toResponses(orders);
 
             result.setListResult(orderResponseList);
 
-            result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
+            result.setTotalPage((int) Math.ceil((double) totalActiveItems() / limit));
             result.setLimit(limit);
 
             return result;
@@ -180,6 +192,40 @@ public class OrderServiceImpl implements IOrderService {
         }
     }
 
+    @Override
+    public PagingModel<OrderResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, true);
+
+            List<OrderSummary> orders = orderRepository.findSummariesAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            Map<UUID, Set<OrderItemResponse>> orderItems = itemsByOrder(orders);
+            return CursorUtil.toSummaryPage(orders, pageSize, order -> OrderConverter.toResponse(order, orderItems.get(order.getId())));
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public PagingModel<OrderResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, true);
+
+            List<OrderSummary> orders = orderRepository.findSummariesByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            Map<UUID, Set<OrderItemResponse>> orderItems = itemsByOrder(orders);
+            return CursorUtil.toSummaryPage(orders, pageSize, order -> OrderConverter.toResponse(order, orderItems.get(order.getId())));
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
 
     @Override
     public OrderResponse create(AddOrderRequest addOrderRequest) throws BaseException {
@@ -201,12 +247,107 @@ public class OrderServiceImpl implements IOrderService {
             newOrder.setShippingAddress(addOrderRequest.getShippingAddress());
             newOrder.setCreatedBy(username);
             Order savedOrder = orderRepository.save(newOrder);
+            rowCounters.onCreate(ConstCounter.ORDER, savedOrder.getStatus());
+            orderDailyRollupService.record(null, OrderRollupSnapshot.of(savedOrder));
 
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER + "*");
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
-            return modelMapper.map(savedOrder, OrderResponse.class);
+            return OrderConverter.toDetailResponse(savedOrder);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(
+                    ErrorCode.ERROR_500.getCode(),
+                    exception.getMessage(),
+                    ErrorCode.ERROR_500.getMessage()
+            );
+        }
+    }
+
+    @Override
+    public OrderResponse checkout(CheckoutRequest checkoutRequest) throws BaseException {
+        try {
+            String username = SecurityUtil.getCurrentUsername();
+            User user = userRepository.findById(checkoutRequest.getUserID())
+                    .orElseThrow(() -> new BaseException(
+                            ErrorCode.ERROR_404.getCode(),
+                            ConstError.User.USER_NOT_FOUND,
+                            ErrorCode.ERROR_404.getMessage()
+                    ));
+
+            // The same product may appear on several cart lines
+            Map<UUID, Integer> quantities = new LinkedHashMap<>();
+            for (CheckoutItemRequest item : checkoutRequest.getItems()) {
+                quantities.merge(item.getProductID(), item.getQuantity(), Integer::sum);
+            }
+
+            Map<UUID, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            Order newOrder = new Order();
+            newOrder.setUserID(user);
+            newOrder.setStatus(ConstStatus.ACTIVE_STATUS);
+            newOrder.setOrderStatus(ConstStatus.OrderStatus.ORDER_STATUS_PENDING);
+            newOrder.setOrderDate(Instant.now());
+            newOrder.setReason(checkoutRequest.getReason());
+            newOrder.setShippingAddress(checkoutRequest.getShippingAddress());
+            newOrder.setCreatedBy(username);
+
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            List<OrderItem> orderItems = new ArrayList<>();
+            for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+                Product product = products.get(entry.getKey());
+                if (product == null) {
+                    throw new BaseException(ErrorCode.ERROR_404.getCode(), ConstError.Product.PRODUCT_NOT_FOUND, ErrorCode.ERROR_404.getMessage());
+                }
+                if (!ConstStatus.ACTIVE_STATUS.equals(product.getStatus())) {
+                    throw new BaseException(ErrorCode.ERROR_400.getCode(), ConstError.Product.PRODUCT_NOT_AVAILABLE, ErrorCode.ERROR_400.getMessage());
+                }
+                int quantity = entry.getValue();
+                // Flash-sale products keep their stock in shard rows; the hold below checks those
+                boolean sharded = product.getStockShards() != null && product.getStockShards() > 0;
+                if (!sharded && (product.getStock() == null || product.getStock() < quantity)) {
+                    throw new BaseException(ErrorCode.ERROR_400.getCode(), ConstError.Product.PRODUCT_STOCK_NOT_ENOUGH, ErrorCode.ERROR_400.getMessage());
+                }
+
+                // Same convention as OrderItemServiceImpl.create: unitPrice holds the line total
+                BigDecimal linePrice = product.getFinalPrice().multiply(BigDecimal.valueOf(quantity));
+                totalAmount = totalAmount.add(linePrice);
+
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrderID(newOrder);
+                orderItem.setProductID(product);
+                orderItem.setName(product.getProductName());
+                orderItem.setImageURL(product.getImg());
+                orderItem.setQuantity(quantity);
+                orderItem.setUnitPrice(linePrice);
+                orderItem.setStatus(ConstStatus.ACTIVE_STATUS);
+                orderItem.setCreatedBy(username);
+                orderItems.add(orderItem);
+            }
+            newOrder.setTotalAmount(totalAmount);
+            newOrder.getOrderItems().addAll(orderItems);
+
+            // Order insert, batched item insert and stock holds commit together, or not at all
+            Boolean held = transactionTemplate.execute(transactionStatus -> {
+                orderRepository.save(newOrder);
+                orderItemRepository.saveAll(orderItems);
+                if (!stockReservationService.tryHold(newOrder, orderItems)) {
+                    transactionStatus.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(held)) {
+                throw new BaseException(ErrorCode.ERROR_400.getCode(), ConstError.Product.PRODUCT_STOCK_NOT_ENOUGH, ErrorCode.ERROR_400.getMessage());
+            }
+
+            rowCounters.onCreate(ConstCounter.ORDER, newOrder.getStatus());
+            for (OrderItem orderItem : orderItems) {
+                rowCounters.onCreate(ConstCounter.ORDER_ITEM, orderItem.getStatus());
+            }
+            orderDailyRollupService.record(null, OrderRollupSnapshot.of(newOrder));
+
+            return OrderConverter.toDetailResponse(newOrder);
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -229,6 +370,8 @@ public class OrderServiceImpl implements IOrderService {
                             ConstError.Order.ORDER_NOT_FOUND,
                             ErrorCode.ERROR_500.getMessage()
                     ));
+            String previousStatus = order.getStatus();
+            OrderRollupSnapshot previousRollup = OrderRollupSnapshot.of(order);
 
             if (updateOrderRequest.getOrderDate() != null) {
                 order.setOrderDate(updateOrderRequest.getOrderDate());
@@ -251,13 +394,10 @@ public class OrderServiceImpl implements IOrderService {
             order.setModifiedBy(SecurityUtil.getCurrentUsername());
 
             Order updatedOrder = orderRepository.save(order);
+            rowCounters.onStatusChange(ConstCounter.ORDER, previousStatus, updatedOrder.getStatus());
+            orderDailyRollupService.record(previousRollup, OrderRollupSnapshot.of(updatedOrder));
 
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER + "*");
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
-
-            return modelMapper.map(updatedOrder, OrderResponse.class);
+            return OrderConverter.toDetailResponse(updatedOrder);
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -279,15 +419,15 @@ public class OrderServiceImpl implements IOrderService {
                             ConstError.Order.ORDER_NOT_FOUND,
                             ErrorCode.ERROR_404.getMessage()
                     ));
+            String previousStatus = order.getStatus();
+            OrderRollupSnapshot previousRollup = OrderRollupSnapshot.of(order);
 
             order.setStatus(ConstStatus.INACTIVE_STATUS);
 
             orderRepository.save(order);
-
-//            Set<String> keysToDelete = redisTemplate.keys(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_ORDER + "*");
-//            if (ValidateUtil.IsNotNullOrEmptyForSet(keysToDelete)) {
-//                redisTemplate.delete(keysToDelete);
-//            }
+            stockReservationService.release(order.getId());
+            rowCounters.onStatusChange(ConstCounter.ORDER, previousStatus, order.getStatus());
+            orderDailyRollupService.record(previousRollup, OrderRollupSnapshot.of(order));
 
             return true;
         } catch (Exception exception) {
@@ -305,7 +445,11 @@ public class OrderServiceImpl implements IOrderService {
     @Override
     public void updateOrderTotalAmount(UUID orderId, BigDecimal totalAmount) throws BaseException {
         try{
+            OrderRollupSnapshot previousRollup = orderRepository.findById(orderId).map(OrderRollupSnapshot::of).orElse(null);
             orderRepository.updateTotalAmount(orderId, totalAmount);
+            if (previousRollup != null) {
+                orderDailyRollupService.record(previousRollup, previousRollup.withTotalAmount(totalAmount));
+            }
         } catch (Exception exception) {
             throw new BaseException(
                     ErrorCode.ERROR_500.getCode(),
@@ -315,6 +459,29 @@ public class OrderServiceImpl implements IOrderService {
         }
     }
 
+    @Override
+    public void addToOrderTotalAmount(UUID orderId, BigDecimal amount) throws BaseException {
+        try{
+            // Increment in the database so concurrent item adds cannot overwrite each other's total
+            if (orderRepository.addToTotalAmount(orderId, amount) == 0) {
+                throw new BaseException(ErrorCode.ERROR_404.getCode(), ConstError.Order.ORDER_NOT_FOUND, ErrorCode.ERROR_404.getMessage());
+            }
+            OrderRollupSnapshot bucket = orderRepository.findById(orderId).map(OrderRollupSnapshot::of).orElse(null);
+            if (bucket != null) {
+                orderDailyRollupService.record(bucket.withTotalAmount(BigDecimal.ZERO), bucket.withTotalAmount(amount));
+            }
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(
+                    ErrorCode.ERROR_500.getCode(),
+                    exception.getMessage(),
+                    ErrorCode.ERROR_500.getMessage()
+            );
+        }
+    }
+
     @Override
     public PagingModel<OrderResponse> getOrderByOrderCode(long orderCode, Integer page, Integer limit) throws BaseException {
         try {
@@ -334,12 +501,8 @@ public class OrderServiceImpl implements IOrderService {
                 throw new BaseException(ErrorCode.ERROR_500.getCode(), ConstError.Order.ORDER_NOT_FOUND, ErrorCode.ERROR_500.getMessage());
             }
 
-            List<OrderResponse> orderResponses = orderPage.stream()
-                    .map(order -> {
-                        OrderResponse response = modelMapper.map(order, OrderResponse.class);
-                        response.setUserId(order.getUserID().getId());
-                        return response;
-                    })
+            List<OrderResponse> orderResponses = withItems(orderPage.getContent()).stream()
+                    .map(OrderConverter::toResponse)
                     .toList();
 
             PagingModel<OrderResponse> result = new PagingModel<>();
@@ -385,10 +548,24 @@ public class OrderServiceImpl implements IOrderService {
                 return result;
             }
 
-            List<OrderResponse> orderResponses = orderPage.stream()
+            // Load items and products for the whole page in one query, then look up reviews in one more
+            List<UUID> orderIds = orderPage.stream().map(Order::getId).toList();
+            Map<UUID, Order> ordersWithItems = orderRepository.findAllWithItemsByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+            Set<UUID> productIds = ordersWithItems.values().stream()
+                .flatMap(order -> order.getOrderItems().stream())
+                .map(orderItem -> orderItem.getProductID().getId())
+                .collect(Collectors.toSet());
+            Set<UUID> reviewedProductIds = productIds.isEmpty()
+                ? Collections.emptySet()
+                : reviewRepository.findReviewedProductIds(userId, productIds);
+
+            List<OrderResponse> orderResponses = orderIds.stream()
+                .map(ordersWithItems::get)
+                .filter(Objects::nonNull)
                 .map(order -> {
-                    OrderResponse response = modelMapper.map(order, OrderResponse.class);
-                    response.setUserId(order.getUserID().getId());
+                    OrderResponse response = OrderConverter.toResponse(order);
 
                     Set<OrderItem> orderItems = order.getOrderItems();
 
@@ -396,9 +573,9 @@ public class OrderServiceImpl implements IOrderService {
                         .map(orderItem -> {
                             UUID productId = orderItem.getProductID().getId();
 
-                            boolean isReviewed = reviewRepository.existsByUserIdAndProductId(userId, productId);
+                            boolean isReviewed = reviewedProductIds.contains(productId);
 
-                            OrderItemResponse orderItemResponse = modelMapper.map(orderItem, OrderItemResponse.class);
+                            OrderItemResponse orderItemResponse = OrderItemConverter.toResponse(orderItem);
                             orderItemResponse.setIsReview(isReviewed);
 
                             return orderItemResponse;
@@ -424,24 +601,50 @@ public class OrderServiceImpl implements IOrderService {
         }
     }
 
+    // Items and their products for a whole page in one query, instead of one lazy load per order while mapping
+    private List<Order> withItems(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<UUID, Order> ordersWithItems = orderRepository.findAllWithItemsByIdIn(orders.stream().map(Order::getId).toList()).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity(), (first, second) -> first));
+        return orders.stream()
+                .map(order -> ordersWithItems.getOrDefault(order.getId(), order))
+                .toList();
+    }
+
+    private List<OrderResponse> toResponses(List<OrderSummary> orders) {
+        Map<UUID, Set<OrderItemResponse>> orderItems = itemsByOrder(orders);
+        return orders.stream()
+                .map(order -> OrderConverter.toResponse(order, orderItems.get(order.getId())))
+                .toList();
+    }
+
+    // Items of a page of order summaries, with their products, in one query; orders without items get an empty set
+    private Map<UUID, Set<OrderItemResponse>> itemsByOrder(List<OrderSummary> orders) {
+        Map<UUID, Set<OrderItemResponse>> orderItems = new HashMap<>();
+        if (orders.isEmpty()) {
+            return orderItems;
+        }
+        for (OrderSummary order : orders) {
+            orderItems.put(order.getId(), new LinkedHashSet<>());
+        }
+        for (OrderItem orderItem : orderItemRepository.findAllByOrderID_IdIn(orderItems.keySet())) {
+            orderItems.get(orderItem.getOrderID().getId()).add(OrderItemConverter.toResponse(orderItem));
+        }
+        return orderItems;
+    }
+
     @Override
     public List<PieChartResponse> getPieChartDataForOrderStatus(LocalDate fromDate, LocalDate toDate) throws BaseException {
         try {
-            // Convert LocalDate to Instant
-            Instant fromInstant = fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant toInstant = toDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-
-            // Fetch orders within the date range
-            List<Order> orders = orderRepository.findByOrderDateBetween(fromInstant, toInstant);
-
-            // Group orders by status and count
-            Map<String, Long> statusCountMap = orders.stream()
-                    .collect(Collectors.groupingBy(Order::getOrderStatus, Collectors.counting()));
+            // Sum the daily rollup rows per order status
+            Map<String, Long> statusCountMap = new HashMap<>();
+            for (OrderDailyRollup row : orderDailyRollupService.findByDayRange(fromDate, toDate)) {
+                statusCountMap.merge(emptyToNull(row.getOrderStatus()), row.getOrderCount(), Long::sum);
+            }
 
-            // Convert the map to List<PieChartResponse>
-            return statusCountMap.entrySet().stream()
-                    .map(entry -> new PieChartResponse(entry.getKey(), entry.getValue().intValue()))
-                    .collect(Collectors.toList());
+            return toPieChart(statusCountMap);
         } catch (Exception exception) {
             throw new BaseException(
                     ErrorCode.ERROR_500.getCode(),
@@ -454,21 +657,13 @@ public class OrderServiceImpl implements IOrderService {
     @Override
     public List<PieChartResponse> getPieChartDataForStatus(LocalDate fromDate, LocalDate toDate) throws BaseException {
         try {
-            // Convert LocalDate to Instant
-            Instant fromInstant = fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant toInstant = toDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-
-            // Fetch orders within the date range
-            List<Order> orders = orderRepository.findByOrderDateBetween(fromInstant, toInstant);
-
-            // Group orders by status and count
-            Map<String, Long> statusCountMap = orders.stream()
-                    .collect(Collectors.groupingBy(Order::getStatus, Collectors.counting()));
+            // Sum the daily rollup rows per status
+            Map<String, Long> statusCountMap = new HashMap<>();
+            for (OrderDailyRollup row : orderDailyRollupService.findByDayRange(fromDate, toDate)) {
+                statusCountMap.merge(emptyToNull(row.getStatus()), row.getOrderCount(), Long::sum);
+            }
 
-            // Convert the map to List<PieChartResponse>
-            return statusCountMap.entrySet().stream()
-                    .map(entry -> new PieChartResponse(entry.getKey(), entry.getValue().intValue()))
-                    .collect(Collectors.toList());
+            return toPieChart(statusCountMap);
         } catch (Exception exception) {
             throw new BaseException(
                     ErrorCode.ERROR_500.getCode(),
@@ -481,74 +676,45 @@ public class OrderServiceImpl implements IOrderService {
     @Override
     public List<OrderStatusTotalResponse> getTotalAmountAndCountByStatusAndDateRange(String startDate, String endDate) throws BaseException {
         try {
-            DateFormat dateFormatInput = new java.text.SimpleDateFormat("yyyy-MM-dd");
-            DateFormat dateFormatOutput = new java.text.SimpleDateFormat("MM-dd-yyyy");
-
-            // Chuyển đổi chuỗi ngày vào kiểu Date
-            Date start = dateFormatInput.parse(startDate);
-            Date end = dateFormatInput.parse(endDate);
-
-            // Đặt thời gian bắt đầu là đầu ngày
-            Calendar startCalendar = Calendar.getInstance();
-            startCalendar.setTime(start);
-            startCalendar.set(Calendar.HOUR_OF_DAY, 0);
-            startCalendar.set(Calendar.MINUTE, 0);
-            startCalendar.set(Calendar.SECOND, 0);
-            startCalendar.set(Calendar.MILLISECOND, 0);
-            start = startCalendar.getTime();
-
-            // Đặt thời gian kết thúc là cuối ngày
-            Calendar endCalendar = Calendar.getInstance();
-            endCalendar.setTime(end);
-            endCalendar.set(Calendar.HOUR_OF_DAY, 23);
-            endCalendar.set(Calendar.MINUTE, 59);
-            endCalendar.set(Calendar.SECOND, 59);
-            endCalendar.set(Calendar.MILLISECOND, 999);
-            end = endCalendar.getTime();
-
-            // Lấy danh sách các đơn hàng trong khoảng thời gian
-            List<Order> orders = orderRepository.findByDateRange(start, end);
-
-            // Tạo danh sách để lưu tổng số tiền theo ngày và đếm số lượng đơn hàng
-            Map<String, BigDecimal> pendingTotals = new HashMap<>();
-            Map<String, BigDecimal> completedTotals = new HashMap<>();
-            Map<String, Integer> pendingCounts = new HashMap<>();
-            Map<String, Integer> completedCounts = new HashMap<>();
-
-            // Tính tổng số tiền và đếm số lượng cho mỗi ngày
-            for (Order order : orders) {
-                String dateKey = dateFormatOutput.format(order.getCreatedDate()); // Định dạng ngày
-
-                // Tính tổng theo trạng thái và đếm
-                if (order.getOrderStatus().equals("PENDING")) {
-                    pendingTotals.put(dateKey, pendingTotals.getOrDefault(dateKey, BigDecimal.ZERO).add(order.getTotalAmount()));
-                    pendingCounts.put(dateKey, pendingCounts.getOrDefault(dateKey, 0) + 1);
-                } else if (order.getOrderStatus().equals("COMPLETED")) {
-                    completedTotals.put(dateKey, completedTotals.getOrDefault(dateKey, BigDecimal.ZERO).add(order.getTotalAmount()));
-                    completedCounts.put(dateKey, completedCounts.getOrDefault(dateKey, 0) + 1);
+            DateTimeFormatter dateFormatOutput = DateTimeFormatter.ofPattern("MM-dd-yyyy");
+
+            LocalDate start = LocalDate.parse(startDate);
+            LocalDate end = LocalDate.parse(endDate);
+
+            // Newest day first; a day appears when it has pending or completed orders
+            Map<LocalDate, OrderStatusTotalResponse> totalsByDay = new TreeMap<>(Comparator.reverseOrder());
+            for (OrderDailyRollup row : orderDailyRollupService.findByDayRange(start, end)) {
+                boolean pending = ConstStatus.PENDING.equals(row.getOrderStatus());
+                boolean completed = ConstStatus.COMPLETED_STATUS.equals(row.getOrderStatus());
+                if ((!pending && !completed) || row.getOrderCount() == 0) {
+                    continue;
+                }
+                OrderStatusTotalResponse response = totalsByDay.computeIfAbsent(row.getDay(), day ->
+                        new OrderStatusTotalResponse(day.format(dateFormatOutput), BigDecimal.ZERO, 0, BigDecimal.ZERO, 0));
+                if (pending) {
+                    response.setPendingTotal(response.getPendingTotal().add(row.getTotalAmount()));
+                    response.setPendingCount(response.getPendingCount() + (int) row.getOrderCount());
+                } else {
+                    response.setCompletedTotal(response.getCompletedTotal().add(row.getTotalAmount()));
+                    response.setCompletedCount(response.getCompletedCount() + (int) row.getOrderCount());
                 }
             }
 
-            // Chuẩn bị danh sách phản hồi
-            List<OrderStatusTotalResponse> responseList = new ArrayList<>();
-            for (String date : pendingTotals.keySet()) {
-                BigDecimal pendingTotal = pendingTotals.getOrDefault(date, BigDecimal.ZERO);
-                BigDecimal completedTotal = completedTotals.getOrDefault(date, BigDecimal.ZERO);
-                int pendingCount = pendingCounts.getOrDefault(date, 0);
-                int completedCount = completedCounts.getOrDefault(date, 0);
-                responseList.add(new OrderStatusTotalResponse(date, pendingTotal, pendingCount, completedTotal, completedCount));
-            }
-
-            // Sắp xếp danh sách phản hồi nếu cần (tùy chọn)
-            responseList.sort(Comparator.comparing(OrderStatusTotalResponse::getDate));
-
-            // Đảo ngược thứ tự của danh sách phản hồi
-            Collections.reverse(responseList);
-
-            return responseList;
+            return new ArrayList<>(totalsByDay.values());
         } catch (Exception e) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), "Failed to retrieve total amounts and counts.", e.getMessage());
         }
     }
 
+    private static List<PieChartResponse> toPieChart(Map<String, Long> statusCountMap) {
+        return statusCountMap.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new PieChartResponse(entry.getKey(), entry.getValue().intValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
 }
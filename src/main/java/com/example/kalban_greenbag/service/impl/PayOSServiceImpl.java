@@ -1,23 +1,25 @@
 package com.example.kalban_greenbag.service.impl;
 
 import com.example.kalban_greenbag.constant.ConstError;
-import com.example.kalban_greenbag.constant.ConstStatus;
 import com.example.kalban_greenbag.dto.PAYos.CreatePaymentLinkRequestBody;
-import com.example.kalban_greenbag.dto.response.order_item.OrderItemResponseData;
 import com.example.kalban_greenbag.entity.Order;
 import com.example.kalban_greenbag.entity.OrderItem;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
 import com.example.kalban_greenbag.repository.OrderItemRepository;
 import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.resilience.GatewayGuard;
+import com.example.kalban_greenbag.sequence.OrderCodeGenerator;
 import com.example.kalban_greenbag.service.IPayOSService;
-import com.example.kalban_greenbag.service.IProductService;
+import com.example.kalban_greenbag.service.IPaymentSettlementService;
+import com.example.kalban_greenbag.service.IPaymentWebhookService;
+import com.example.kalban_greenbag.service.IStockReservationService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.modelmapper.ModelMapper;
 import org.springdoc.api.ErrorMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import vn.payos.PayOS;
 import vn.payos.type.*;
@@ -31,13 +33,23 @@ public class PayOSServiceImpl implements IPayOSService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private IProductService productService;
+    private IPaymentSettlementService paymentSettlementService;
+
+    @Autowired
+    private IPaymentWebhookService paymentWebhookService;
 
     @Autowired
     private OrderItemRepository orderItemRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private OrderCodeGenerator orderCodeGenerator;
+
+    @Autowired
+    private IStockReservationService stockReservationService;
+
+    @Autowired
+    @Qualifier("payOSGatewayGuard")
+    private GatewayGuard payOSGatewayGuard;
 
     private final PayOS payOS;
 
@@ -52,7 +64,7 @@ public class PayOSServiceImpl implements IPayOSService {
             ObjectNode response = objectMapper.createObjectNode();
             int totalPrice;
             String returnUrl, cancelUrl;
-            List<OrderItemResponseData> orderItems = new ArrayList<>();
+            List<ItemData> items = new ArrayList<>();
             try {
                 final UUID orderId = requestBody.getOrderId();
                 Order order = orderRepository.findById(orderId)
@@ -63,28 +75,27 @@ public class PayOSServiceImpl implements IPayOSService {
                         ));
                 List<OrderItem> orderItemList = orderItemRepository.findByOrderID_Id(orderId);
                 for (OrderItem orderItem : orderItemList) {
-                    OrderItemResponseData orderItemResponseData = OrderItemResponseData.builder()
+                    items.add(ItemData.builder()
                             .name(orderItem.getProductID().getProductName())
                             .quantity(orderItem.getQuantity())
                             .price(orderItem.getUnitPrice().intValue())
-                            .build();
-                    orderItems.add(orderItemResponseData);
+                            .build());
                 }
                 totalPrice = order.getTotalAmount().intValue();
                 final String description = requestBody.getDescription();
                 returnUrl = requestBody.getReturnUrl();
                 cancelUrl = requestBody.getCancelUrl();
-                List<ItemData> items = modelMapper.map(orderItems, List.class);
-                String currentTimeString = String.valueOf(String.valueOf(new Date().getTime()));
-                long orderCode = Long.parseLong(currentTimeString.substring(currentTimeString.length() - 6));
+                long orderCode = orderCodeGenerator.next();
     //            ItemData item = ItemData.builder().name(productName).price(price).quantity(1).build();
                 order.setOrderCode(orderCode);
                 returnUrl += "?orderCode=" + orderCode;
                 cancelUrl += "?orderCode=" + orderCode;
                 orderRepository.save(order);
+                // The link closes when the stock hold runs out, so a buyer cannot pay for stock that was released
+                long expiredAt = stockReservationService.paymentDeadline(orderId).getEpochSecond();
                 PaymentData paymentData = PaymentData.builder().orderCode(orderCode).description(description).amount(totalPrice)
-                        .items(items).returnUrl(returnUrl).cancelUrl(cancelUrl).build();
-                CheckoutResponseData data = payOS.createPaymentLink(paymentData);
+                        .items(items).returnUrl(returnUrl).cancelUrl(cancelUrl).expiredAt(expiredAt).build();
+                CheckoutResponseData data = payOSGatewayGuard.call(() -> payOS.createPaymentLink(paymentData));
                 response.put("error", 0);
                 response.put("message", "success");
                 response.set("data", objectMapper.valueToTree(data));
@@ -103,7 +114,7 @@ public class PayOSServiceImpl implements IPayOSService {
             ObjectMapper objectMapper = new ObjectMapper();
             ObjectNode response = objectMapper.createObjectNode();
             try {
-                PaymentLinkData order = payOS.getPaymentLinkInformation(orderId);
+                PaymentLinkData order = payOSGatewayGuard.hedgedCall(() -> payOS.getPaymentLinkInformation(orderId));
                 response.set("data", objectMapper.valueToTree(order));
                 response.put("error", 0);
                 response.put("message", "ok");
@@ -123,21 +134,8 @@ public class PayOSServiceImpl implements IPayOSService {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode response = objectMapper.createObjectNode();
         try {
-            PaymentLinkData order = payOS.getPaymentLinkInformation(orderId);
-            Order orderToUpdate = orderRepository.findByOrderCode(orderId);
-
-            if (order.getStatus().equals(ConstStatus.PayOsStatus.PAYOS_STATUS_PAID)) {
-                orderToUpdate.setOrderStatus(ConstStatus.OrderStatus.ORDER_STATUS_PAID);
-                for (OrderItem orderItem : orderToUpdate.getOrderItems()) {
-                    checkAndReduceProductStock(orderItem);
-                }
-            } else if (order.getStatus().equals(ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED)) {
-                orderToUpdate.setStatus(ConstStatus.INACTIVE_STATUS);
-            } else {
-                orderToUpdate.setOrderStatus(ConstStatus.OrderStatus.ORDER_STATUS_PENDING);
-            }
-
-            orderRepository.save(orderToUpdate);
+            PaymentLinkData order = payOSGatewayGuard.hedgedCall(() -> payOS.getPaymentLinkInformation(orderId));
+            paymentSettlementService.settle(orderId, order.getStatus());
             response.set("data", objectMapper.valueToTree(order));
             response.put("error", 0);
             response.put("message", "ok");
@@ -160,7 +158,7 @@ public class PayOSServiceImpl implements IPayOSService {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode response = objectMapper.createObjectNode();
         try {
-            PaymentLinkData order = payOS.cancelPaymentLink(orderId, null);
+            PaymentLinkData order = payOSGatewayGuard.call(() -> payOS.cancelPaymentLink(orderId, null));
             response.set("data", objectMapper.valueToTree(order));
             response.put("error", 0);
             response.put("message", "ok");
@@ -179,7 +177,7 @@ public class PayOSServiceImpl implements IPayOSService {
         ObjectMapper objectMapper = new ObjectMapper();
         ObjectNode response = objectMapper.createObjectNode();
         try {
-            String str = payOS.confirmWebhook(requestBody.get("webhookUrl"));
+            String str = payOSGatewayGuard.call(() -> payOS.confirmWebhook(requestBody.get("webhookUrl")));
             response.set("data", objectMapper.valueToTree(str));
             response.put("error", 0);
             response.put("message", "ok");
@@ -201,11 +199,15 @@ public class PayOSServiceImpl implements IPayOSService {
         try {
             Webhook webhookBody = objectMapper.treeToValue(body, Webhook.class);
             WebhookData data = payOS.verifyPaymentWebhookData(webhookBody);
+            // Settlement runs on the webhook workers; PayOS only needs to know the event is stored
+            paymentWebhookService.enqueue(data);
             response.put("error", 0);
             response.put("message", "Webhook delivered successfully");
             response.set("data", objectMapper.valueToTree(data));
             return response;
 
+        } catch (BaseException e) {
+            throw e;
         } catch (JsonProcessingException e) {
             throw new BaseException(
                     ErrorCode.ERROR_500.getCode(),
@@ -222,16 +224,4 @@ public class PayOSServiceImpl implements IPayOSService {
         }
     }
 
-    private void checkAndReduceProductStock(OrderItem orderItem) throws BaseException {
-        boolean success = productService.reduceProductStock(orderItem.getProductID().getId(), orderItem.getQuantity());
-
-        if (!success) {
-            throw new BaseException(
-                    ErrorCode.ERROR_500.getCode(),
-                    ConstError.Product.PRODUCT_STOCK_NOT_ENOUGH,
-                    ErrorCode.ERROR_500.getMessage()
-            );
-        }
-    }
-
 }
@@ -0,0 +1,215 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.dto.response.metrics.ReconciliationRunResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.resilience.GatewayGuard;
+import com.example.kalban_greenbag.service.IPaymentReconciliationService;
+import com.example.kalban_greenbag.service.IPaymentSettlementService;
+import com.example.kalban_greenbag.utils.TokenBucket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vn.payos.PayOS;
+import vn.payos.type.PaymentLinkData;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Settles orders whose payment callback never arrived. Each run walks the ACTIVE/PENDING PayOS orders older than
+ * {@code payment.reconcile.min-age-minutes} in keyset batches and asks PayOS for their payment status, with at most
+ * {@code parallelism} calls in flight and no more than {@code requests-per-second} calls overall.
+ *
+ * Orders PayOS reports as PAID or CANCELLED go through the same settlement as the webhook and the polling endpoint;
+ * EXPIRED links, which close with the stock hold, cancel their order. Orders still unpaid after
+ * {@code expire-after-minutes} get their payment link cancelled and are cancelled themselves, which releases their
+ * stock hold.
+ */
+@Service
+public class PaymentReconciliationServiceImpl implements IPaymentReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationServiceImpl.class);
+
+    // Lowest uniqueidentifier, the keyset starting point
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private static final String EXPIRED_REASON = "Payment window expired";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IPaymentSettlementService paymentSettlementService;
+
+    @Autowired
+    private PayOS payOS;
+
+    @Autowired
+    @Qualifier("payOSGatewayGuard")
+    private GatewayGuard payOSGatewayGuard;
+
+    @Value("${payment.reconcile.batch-size:100}")
+    private int batchSize;
+
+    @Value("${payment.reconcile.parallelism:4}")
+    private int parallelism;
+
+    @Value("${payment.reconcile.requests-per-second:10}")
+    private double requestsPerSecond;
+
+    @Value("${payment.reconcile.min-age-minutes:5}")
+    private long minAgeMinutes;
+
+    @Value("${payment.reconcile.expire-after-minutes:60}")
+    private long expireAfterMinutes;
+
+    private ExecutorService executor;
+
+    private TokenBucket gatewayRate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicReference<ReconciliationRunResponse> lastRun = new AtomicReference<>();
+
+    @PostConstruct
+    public void startWorkers() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "payment-reconcile-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        gatewayRate = new TokenBucket(requestsPerSecond, parallelism);
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconcile.interval-ms:60000}",
+            initialDelayString = "${payment.reconcile.interval-ms:60000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @Override
+    public ReconciliationRunResponse reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return lastRun.get();
+        }
+        try {
+            Instant startedAt = Instant.now();
+            Date createdBefore = Date.from(startedAt.minus(minAgeMinutes, ChronoUnit.MINUTES));
+            Date expireBefore = Date.from(startedAt.minus(expireAfterMinutes, ChronoUnit.MINUTES));
+            RunCounters counters = new RunCounters();
+
+            UUID afterId = FIRST_ID;
+            while (true) {
+                List<Order> batch = orderRepository.findAllPayOSByOrderStatusAfterId(ConstStatus.ACTIVE_STATUS,
+                        ConstStatus.OrderStatus.ORDER_STATUS_PENDING, createdBefore, afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<CompletableFuture<Void>> tasks = new ArrayList<>(batch.size());
+                for (Order order : batch) {
+                    UUID orderId = order.getId();
+                    Long orderCode = order.getOrderCode();
+                    boolean expired = order.getCreatedDate().before(expireBefore);
+                    tasks.add(CompletableFuture.runAsync(() -> reconcileOrder(orderId, orderCode, expired, counters), executor));
+                }
+                CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+                counters.scanned.addAndGet(batch.size());
+                afterId = batch.get(batch.size() - 1).getId();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+
+            ReconciliationRunResponse run = ReconciliationRunResponse.builder()
+                    .startedAt(startedAt)
+                    .finishedAt(Instant.now())
+                    .scanned(counters.scanned.get())
+                    .settled(counters.settled.get())
+                    .expired(counters.expired.get())
+                    .errors(counters.errors.get())
+                    .build();
+            lastRun.set(run);
+            if (run.getScanned() > 0) {
+                logger.info("Payment reconciliation scanned {} orders: {} settled, {} expired, {} errors",
+                        run.getScanned(), run.getSettled(), run.getExpired(), run.getErrors());
+            }
+            return run;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public ReconciliationRunResponse getLastRun() {
+        return lastRun.get();
+    }
+
+    private void reconcileOrder(UUID orderId, long orderCode, boolean expired, RunCounters counters) {
+        try {
+            gatewayRate.acquire();
+            PaymentLinkData paymentLink = payOSGatewayGuard.hedgedCall(() -> payOS.getPaymentLinkInformation(orderCode));
+            String payOsStatus = paymentLink.getStatus();
+            if (ConstStatus.PayOsStatus.PAYOS_STATUS_PAID.equals(payOsStatus)
+                    || ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED.equals(payOsStatus)) {
+                if (paymentSettlementService.settle(orderCode, payOsStatus)) {
+                    counters.settled.incrementAndGet();
+                }
+            } else if (ConstStatus.PayOsStatus.PAYOS_STATUS_EXPIRED.equals(payOsStatus)) {
+                // PayOS closed the link when the stock hold ran out; there is nothing left to cancel there
+                if (paymentSettlementService.settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED)) {
+                    counters.expired.incrementAndGet();
+                }
+            } else if (expired) {
+                // Close the link first so the customer cannot pay for an order we are about to cancel
+                gatewayRate.acquire();
+                payOSGatewayGuard.call(() -> payOS.cancelPaymentLink(orderCode, EXPIRED_REASON));
+                if (paymentSettlementService.settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED)) {
+                    counters.expired.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            counters.errors.incrementAndGet();
+        } catch (Exception e) {
+            counters.errors.incrementAndGet();
+            logger.warn("Failed to reconcile payment of order {} (order code {}): {}", orderId, orderCode, e.getMessage());
+        }
+    }
+
+    private static final class RunCounters {
+
+        private final AtomicLong scanned = new AtomicLong();
+
+        private final AtomicLong settled = new AtomicLong();
+
+        private final AtomicLong expired = new AtomicLong();
+
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.constant.ConstCounter;
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.OrderRollupSnapshot;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.service.IOrderDailyRollupService;
+import com.example.kalban_greenbag.service.IPaymentSettlementService;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+/**
+ * Applies a PayOS payment status to its order. Used by both the polling endpoint and the webhook worker, so the
+ * order row is locked for the whole transition: a second delivery of the same status waits for the first one and
+ * then finds nothing left to change, which keeps stock from being taken twice.
+ */
+@Service
+public class PaymentSettlementServiceImpl implements IPaymentSettlementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSettlementServiceImpl.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IStockReservationService stockReservationService;
+
+    @Autowired
+    private RowCounterRegistry rowCounters;
+
+    @Autowired
+    private IOrderDailyRollupService orderDailyRollupService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public boolean settle(long orderCode, String payOsStatus) throws BaseException {
+        try {
+            Settlement settlement = transactionTemplate.execute(transactionStatus -> {
+                Order order = orderRepository.findByOrderCodeForUpdate(orderCode).orElse(null);
+                if (order == null) {
+                    return Settlement.NOT_FOUND;
+                }
+                String previousStatus = order.getStatus();
+                String previousOrderStatus = order.getOrderStatus();
+                OrderRollupSnapshot previousRollup = OrderRollupSnapshot.of(order);
+                try {
+                    if (ConstStatus.PayOsStatus.PAYOS_STATUS_PAID.equals(payOsStatus)) {
+                        if (!isPaid(previousOrderStatus)) {
+                            if (stockReservationService.confirm(order)) {
+                                order.setOrderStatus(ConstStatus.OrderStatus.ORDER_STATUS_PAID);
+                            } else {
+                                // Paid after the hold expired and the stock was sold meanwhile. Retrying cannot
+                                // bring the stock back, so the order is settled as needing a refund instead.
+                                order.setOrderStatus(ConstStatus.OrderStatus.ORDER_STATUS_REFUND_REQUIRED);
+                                logger.error("Order {} (order code {}) was paid after its stock was sold; it needs a refund",
+                                        order.getId(), order.getOrderCode());
+                            }
+                        }
+                    } else if (ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED.equals(payOsStatus)
+                            && !isPaid(previousOrderStatus)) {
+                        // A payment that landed first wins over a cancellation or expiry
+                        order.setStatus(ConstStatus.INACTIVE_STATUS);
+                        if (!ConstStatus.INACTIVE_STATUS.equals(previousStatus)) {
+                            stockReservationService.release(order.getId());
+                        }
+                    } else if (!isPaid(previousOrderStatus)) {
+                        // A late PENDING poll must not undo a payment that a webhook already settled
+                        order.setOrderStatus(ConstStatus.OrderStatus.ORDER_STATUS_PENDING);
+                    }
+                } catch (BaseException e) {
+                    transactionStatus.setRollbackOnly();
+                    return new Settlement(e);
+                }
+                if (Objects.equals(previousStatus, order.getStatus()) && Objects.equals(previousOrderStatus, order.getOrderStatus())) {
+                    return Settlement.UNCHANGED;
+                }
+                return new Settlement(previousStatus, order.getStatus(), previousRollup, OrderRollupSnapshot.of(order));
+            });
+
+            if (settlement == Settlement.NOT_FOUND) {
+                throw new BaseException(ErrorCode.ERROR_404.getCode(), ConstError.Order.ORDER_NOT_FOUND, ErrorCode.ERROR_404.getMessage());
+            }
+            if (settlement.failure != null) {
+                throw settlement.failure;
+            }
+            if (settlement == Settlement.UNCHANGED) {
+                return false;
+            }
+            rowCounters.onStatusChange(ConstCounter.ORDER, settlement.previousStatus, settlement.status);
+            orderDailyRollupService.record(settlement.previousRollup, settlement.rollup);
+            return true;
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    // Money was received for the order, whether or not its stock could be confirmed
+    private static boolean isPaid(String orderStatus) {
+        return ConstStatus.OrderStatus.ORDER_STATUS_PAID.equals(orderStatus)
+                || ConstStatus.OrderStatus.ORDER_STATUS_REFUND_REQUIRED.equals(orderStatus);
+    }
+
+    private static final class Settlement {
+
+        private static final Settlement NOT_FOUND = new Settlement(null, null, null, null);
+
+        private static final Settlement UNCHANGED = new Settlement(null, null, null, null);
+
+        private final String previousStatus;
+
+        private final String status;
+
+        private final OrderRollupSnapshot previousRollup;
+
+        private final OrderRollupSnapshot rollup;
+
+        private final BaseException failure;
+
+        private Settlement(String previousStatus, String status, OrderRollupSnapshot previousRollup, OrderRollupSnapshot rollup) {
+            this.previousStatus = previousStatus;
+            this.status = status;
+            this.previousRollup = previousRollup;
+            this.rollup = rollup;
+            this.failure = null;
+        }
+
+        private Settlement(BaseException failure) {
+            this.previousStatus = null;
+            this.status = null;
+            this.previousRollup = null;
+            this.rollup = null;
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.entity.PaymentWebhookEvent;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.repository.PaymentWebhookEventRepository;
+import com.example.kalban_greenbag.service.IPaymentSettlementService;
+import com.example.kalban_greenbag.service.IPaymentWebhookService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vn.payos.type.WebhookData;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable queue between the PayOS webhook and order settlement. A verified webhook is stored as a
+ * PaymentWebhookEvent and acknowledged right away; the (OrderCode, Reference) unique key drops redeliveries.
+ *
+ * Stored events are handed to a small worker pool. Workers claim an event with a guarded PENDING -> PROCESSING
+ * update, so an event submitted twice is still settled once. Events that did not fit in the pool's queue, failed
+ * with a retryable error or were left PROCESSING by a crashed node are picked up again by {@link #poll()}.
+ *
+ * A failed event waits {@code backoff-base-seconds}, doubling with every attempt up to {@code backoff-max-seconds},
+ * before it is retried, so an outage is not hammered with every poll and the attempts last through it.
+ */
+@Service
+public class PaymentWebhookServiceImpl implements IPaymentWebhookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentWebhookServiceImpl.class);
+
+    // PayOS reports a successful transfer with code "00"
+    private static final String PAYOS_SUCCESS_CODE = "00";
+
+    private static final int POLL_BATCH_SIZE = 100;
+
+    @Autowired
+    private PaymentWebhookEventRepository eventRepository;
+
+    @Autowired
+    private IPaymentSettlementService paymentSettlementService;
+
+    @Value("${payment.webhook.workers:4}")
+    private int workers;
+
+    @Value("${payment.webhook.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${payment.webhook.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${payment.webhook.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    @Value("${payment.webhook.backoff-base-seconds:5}")
+    private long backoffBaseSeconds;
+
+    @Value("${payment.webhook.backoff-max-seconds:600}")
+    private long backoffMaxSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void startWorkers() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payment-webhook-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Events that do not fit stay PENDING in the table for the next poll
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean enqueue(WebhookData data) throws BaseException {
+        if (data == null || data.getOrderCode() == null || data.getReference() == null) {
+            throw new BaseException(ErrorCode.ERROR_400.getCode(), ConstError.PayOS.INVALID_WEBHOOK_DATA, ErrorCode.ERROR_400.getMessage());
+        }
+        if (!PAYOS_SUCCESS_CODE.equals(data.getCode())) {
+            // Nothing to settle; the status poll still picks up cancellations
+            return false;
+        }
+        PaymentWebhookEvent event = new PaymentWebhookEvent(data.getOrderCode(), data.getReference(),
+                ConstStatus.PayOsStatus.PAYOS_STATUS_PAID, ConstStatus.WebhookEventStatus.PENDING);
+        try {
+            eventRepository.saveAndFlush(event);
+        } catch (DataIntegrityViolationException e) {
+            // Redelivery of a webhook we already stored
+            return false;
+        }
+        submit(event.getId());
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            eventRepository.resetStale(ConstStatus.WebhookEventStatus.PROCESSING, ConstStatus.WebhookEventStatus.PENDING,
+                    Instant.now().minus(claimTimeoutSeconds, ChronoUnit.SECONDS));
+            for (UUID eventId : eventRepository.findDueIdsByEventStatus(ConstStatus.WebhookEventStatus.PENDING,
+                    Instant.now(), PageRequest.of(0, POLL_BATCH_SIZE))) {
+                submit(eventId);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to poll payment webhook events: {}", e.getMessage());
+        }
+    }
+
+    private void submit(UUID eventId) {
+        try {
+            executor.execute(() -> process(eventId));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Payment webhook event {} left for the next poll", eventId);
+        }
+    }
+
+    private void process(UUID eventId) {
+        if (eventRepository.claim(eventId, ConstStatus.WebhookEventStatus.PENDING, ConstStatus.WebhookEventStatus.PROCESSING, Instant.now()) == 0) {
+            return;
+        }
+        PaymentWebhookEvent event = eventRepository.findById(eventId).orElse(null);
+        if (event == null) {
+            return;
+        }
+        try {
+            paymentSettlementService.settle(event.getOrderCode(), event.getPaymentStatus());
+            eventRepository.finish(eventId, ConstStatus.WebhookEventStatus.PROCESSING, ConstStatus.WebhookEventStatus.PROCESSED,
+                    null, Instant.now());
+        } catch (BaseException | RuntimeException e) {
+            // An unknown order code (e.g. the PayOS test webhook) will not appear later, so it is not retried
+            boolean permanent = e instanceof BaseException baseException
+                    && baseException.getErrorCode() == ErrorCode.ERROR_404.getCode();
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            String lastError = error.length() > 500 ? error.substring(0, 500) : error;
+            if (permanent || event.getAttempts() >= maxAttempts) {
+                eventRepository.finish(eventId, ConstStatus.WebhookEventStatus.PROCESSING, ConstStatus.WebhookEventStatus.FAILED,
+                        lastError, Instant.now());
+            } else {
+                eventRepository.reschedule(eventId, ConstStatus.WebhookEventStatus.PROCESSING, ConstStatus.WebhookEventStatus.PENDING,
+                        lastError, Instant.now().plusSeconds(backoffSeconds(event.getAttempts())));
+            }
+            logger.warn("Payment webhook event {} for order code {} failed (attempt {}): {}",
+                    eventId, event.getOrderCode(), event.getAttempts(), error);
+        }
+    }
+
+    // 5s, 10s, 20s, ... after the first, second, third failed attempt, capped at the maximum
+    private long backoffSeconds(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        return Math.min(backoffBaseSeconds << doublings, backoffMaxSeconds);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.kalban_greenbag.service.impl;
 
 import com.example.kalban_greenbag.constant.ConstError;
 import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.converter.ProductCustomizationConverter;
 import com.example.kalban_greenbag.dto.request.product_customization.AddProductCustomizationRequest;
 import com.example.kalban_greenbag.dto.request.product_customization.UpdateProductCustomizationRequest;
 import com.example.kalban_greenbag.dto.response.product_customization.ProductCustomizationResponse;
@@ -10,13 +11,14 @@ import com.example.kalban_greenbag.entity.Product;
 import com.example.kalban_greenbag.entity.ProductCustomization;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
 import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.repository.CustomizationOptionRepository;
 import com.example.kalban_greenbag.repository.ProductCustomizationRepository;
 import com.example.kalban_greenbag.repository.ProductRepository;
 import com.example.kalban_greenbag.service.IProductCustomizationService;
+import com.example.kalban_greenbag.utils.CursorUtil;
 import com.example.kalban_greenbag.utils.SecurityUtil;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -39,17 +41,14 @@ public class ProductCustomizationServiceImpl implements IProductCustomizationSer
     @Autowired
     private CustomizationOptionRepository customizationOptionRepository;
 
-    @Autowired
-    private ModelMapper modelMapper;
-
     @Override
     public ProductCustomizationResponse findById(UUID id) throws BaseException {
         try {
-            Optional<ProductCustomization> productCustomization = productCustomizationRepository.findById(id);
+            Optional<ProductCustomization> productCustomization = productCustomizationRepository.findWithProductById(id);
             if (productCustomization.isEmpty()) {
                 throw new BaseException(ErrorCode.ERROR_404.getCode(), ConstError.ProductCustomization.PRODUCT_CUSTOMIZATION_NOT_FOUND, ErrorCode.ERROR_500.getMessage());
             }
-            return modelMapper.map(productCustomization.get(), ProductCustomizationResponse.class);
+            return ProductCustomizationConverter.toResponse(productCustomization.get());
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -71,7 +70,7 @@ public class ProductCustomizationServiceImpl implements IProductCustomizationSer
 
             List<ProductCustomization> productCustomizationList = productCustomizationRepository.findAllByOrderByCreatedDateDesc(pageable);
             List<ProductCustomizationResponse> productCustomizationResponses = productCustomizationList.stream()
-                    .map(productCustomization -> modelMapper.map(productCustomization, ProductCustomizationResponse.class))
+                    .map(productCustomization -> ProductCustomizationConverter.toResponse(productCustomization))
                     .toList();
 
             result.setListResult(productCustomizationResponses);
@@ -101,7 +100,7 @@ public class ProductCustomizationServiceImpl implements IProductCustomizationSer
 
             List<ProductCustomization> productCustomizationList = productCustomizationRepository.findAllByStatusOrderByCreatedDateDesc(ConstStatus.ACTIVE_STATUS, pageable);
             List<ProductCustomizationResponse> productCustomizationResponses = productCustomizationList.stream()
-                    .map(productCustomization -> modelMapper.map(productCustomization, ProductCustomizationResponse.class))
+                    .map(productCustomization -> ProductCustomizationConverter.toResponse(productCustomization))
                     .toList();
 
             result.setListResult(productCustomizationResponses);
@@ -114,6 +113,38 @@ public class ProductCustomizationServiceImpl implements IProductCustomizationSer
         }
     }
 
+    @Override
+    public PagingModel<ProductCustomizationResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, true);
+
+            List<ProductCustomization> productCustomizationList = productCustomizationRepository.findAllAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(productCustomizationList, pageSize, productCustomization -> ProductCustomizationConverter.toResponse(productCustomization));
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public PagingModel<ProductCustomizationResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, true);
+
+            List<ProductCustomization> productCustomizationList = productCustomizationRepository.findAllByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(productCustomizationList, pageSize, productCustomization -> ProductCustomizationConverter.toResponse(productCustomization));
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
     private int totalActiveItems() {
         return (int) productCustomizationRepository.countByStatus(ConstStatus.ACTIVE_STATUS);
     }
@@ -145,7 +176,7 @@ public class ProductCustomizationServiceImpl implements IProductCustomizationSer
             newProductCustomization.setReason(null);
             ProductCustomization savedProductCustomization = productCustomizationRepository.save(newProductCustomization);
 
-            return modelMapper.map(savedProductCustomization, ProductCustomizationResponse.class);
+            return ProductCustomizationConverter.toResponse(savedProductCustomization);
         } catch (Exception exception) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
@@ -155,7 +186,7 @@ public class ProductCustomizationServiceImpl implements IProductCustomizationSer
     public ProductCustomizationResponse update(UpdateProductCustomizationRequest updateProductCustomizationRequest) throws BaseException {
         try {
             // Tìm ProductCustomization dựa trên ID từ request
-            ProductCustomization productCustomization = productCustomizationRepository.findById(updateProductCustomizationRequest.getId())
+            ProductCustomization productCustomization = productCustomizationRepository.findWithProductById(updateProductCustomizationRequest.getId())
                     .orElseThrow(() -> new BaseException(ErrorCode.ERROR_404.getCode(),
                             ConstError.ProductCustomization.PRODUCT_CUSTOMIZATION_NOT_FOUND,
                             ErrorCode.ERROR_404.getMessage()));
@@ -208,7 +239,7 @@ public class ProductCustomizationServiceImpl implements IProductCustomizationSer
             ProductCustomization updatedProductCustomization = productCustomizationRepository.save(productCustomization);
 
             // Trả về response đã được map từ entity
-            return modelMapper.map(updatedProductCustomization, ProductCustomizationResponse.class);
+            return ProductCustomizationConverter.toResponse(updatedProductCustomization);
 
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
@@ -252,7 +283,7 @@ public class ProductCustomizationServiceImpl implements IProductCustomizationSer
 
             List<ProductCustomization> productCustomizationList = productCustomizationRepository.findAllByUserIdOrderByCreatedDateDesc(userId, pageable);
             List<ProductCustomizationResponse> productCustomizationResponses = productCustomizationList.stream()
-                    .map(productCustomization -> modelMapper.map(productCustomization, ProductCustomizationResponse.class))
+                    .map(productCustomization -> ProductCustomizationConverter.toResponse(productCustomization))
                     .toList();
 
             result.setListResult(productCustomizationResponses);
@@ -1,21 +1,34 @@
 package com.example.kalban_greenbag.service.impl;
 
+import com.example.kalban_greenbag.cache.CacheRegion;
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstCounter;
 import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
 import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.converter.ProductConverter;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
 import com.example.kalban_greenbag.dto.request.product.CreateProductRequest;
 import com.example.kalban_greenbag.dto.request.product.UpdateProductRequest;
+import com.example.kalban_greenbag.dto.response.base_model.BaseModelResponse;
 import com.example.kalban_greenbag.dto.response.product.ProductResponse;
 import com.example.kalban_greenbag.entity.Product;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
 import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.repository.projection.ProductSummary;
+import com.example.kalban_greenbag.service.IFlashSaleService;
 import com.example.kalban_greenbag.service.IProductService;
+import com.example.kalban_greenbag.utils.CursorUtil;
 import com.example.kalban_greenbag.utils.SecurityUtil;
+import jakarta.annotation.PostConstruct;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -36,16 +49,53 @@ public class ProductServiceImpl implements IProductService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private LocalCacheManager cacheManager;
+
+    @Autowired
+    private RowCounterRegistry rowCounters;
+
+    @Autowired
+    private IFlashSaleService flashSaleService;
+
+    private CacheRegion<UUID, ProductResponse> productCache;
+
+    private CacheRegion<String, PagingModel<ProductResponse>> productPageCache;
+
+    // Pages show stock, which checkouts change without clearing them, so they expire sooner than other regions
+    @Value("${cache.product-page.ttl-seconds:30}")
+    private long productPageTtlSeconds;
+
+    private CacheRegion<UUID, BaseModelResponse> baseModelCache;
+
+    private CacheRegion<String, PagingModel<BaseModelResponse>> baseModelPageCache;
+
+    @PostConstruct
+    public void initCaches() {
+        productCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_PRODUCT);
+        productPageCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_PRODUCT_PAGE, productPageTtlSeconds);
+        baseModelCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL);
+        baseModelPageCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_BASE_MODEL_PAGE);
+
+        rowCounters.register(ConstCounter.PRODUCT, productRepository::count);
+        rowCounters.register(RowCounterRegistry.statusKey(ConstCounter.PRODUCT, ConstStatus.ACTIVE_STATUS),
+                () -> productRepository.countByStatus(ConstStatus.ACTIVE_STATUS));
+    }
+
     @Override
     public ProductResponse findById(UUID id) throws BaseException {
         try {
-            Optional<Product> product = productRepository.findById(id);
-            if (product.isEmpty()) {
-                throw new BaseException(ErrorCode.ERROR_404.getCode(), ConstError.Product.PRODUCT_NOT_FOUND, ErrorCode.ERROR_404.getMessage());
-            }
-            ProductResponse productResponse = modelMapper.map(product.get(), ProductResponse.class);
-            productResponse.setDescription(product.get().getDesciption());
-            return productResponse;
+            return productCache.get(id, () -> {
+                Optional<Product> product = productRepository.findById(id);
+                if (product.isEmpty()) {
+                    throw new BaseException(ErrorCode.ERROR_404.getCode(), ConstError.Product.PRODUCT_NOT_FOUND, ErrorCode.ERROR_404.getMessage());
+                }
+                ProductResponse productResponse = ProductConverter.toDetailResponse(product.get());
+                if (product.get().getStockShards() != null && product.get().getStockShards() > 0) {
+                    productResponse.setStock((int) flashSaleService.availableStock(id));
+                }
+                return productResponse;
+            });
         } catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -61,32 +111,34 @@ public class ProductServiceImpl implements IProductService {
                 page = 1;
                 limit = 10;
             }
-            PagingModel<ProductResponse> result = new PagingModel<>();
-            result.setPage(page);
-            Pageable pageable = PageRequest.of(page - 1, limit);
+            int currentPage = page;
+            int pageSize = limit;
+            String pageKey = ConstHashKeyPrefix.PAGE_KEY_ALL + currentPage + ":" + pageSize;
+            return productPageCache.get(pageKey, () -> loadAllProducts(currentPage, pageSize));
+        } catch (Exception exception) {
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
 
-            List<Product> productList = productRepository.findAllByOrderByCreatedDateDesc(pageable);
-            List<ProductResponse> productResponses = productList.stream()
-                    .map(product -> {
-                        ProductResponse productResponse = modelMapper.map(product, ProductResponse.class);
-                        productResponse.setDescription(product.getDesciption()); // Thêm dòng này để set description
-                        return productResponse;
-                    })
-                    .toList();
+    private PagingModel<ProductResponse> loadAllProducts(int page, int limit) {
+        PagingModel<ProductResponse> result = new PagingModel<>();
+        result.setPage(page);
+        Pageable pageable = PageRequest.of(page - 1, limit);
 
+        List<ProductSummary> productList = productRepository.findSummariesOrderByCreatedDateDesc(pageable);
+        List<ProductResponse> productResponses = productList.stream()
+                .map(ProductConverter::toResponse)
+                .toList();
 
-            result.setListResult(productResponses);
-            result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
-            result.setLimit(limit);
+        result.setListResult(productResponses);
+        result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
+        result.setLimit(limit);
 
-            return result;
-        } catch (Exception exception) {
-            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
-        }
+        return result;
     }
 
     public int totalItem() {
-        return (int) productRepository.count();
+        return (int) rowCounters.get(ConstCounter.PRODUCT);
     }
 
     @Override
@@ -96,31 +148,66 @@ public class ProductServiceImpl implements IProductService {
                 page = 1;
                 limit = 10;
             }
-            PagingModel<ProductResponse> result = new PagingModel<>();
-            result.setPage(page);
-            Pageable pageable = PageRequest.of(page - 1, limit);
+            int currentPage = page;
+            int pageSize = limit;
+            String pageKey = ConstHashKeyPrefix.PAGE_KEY_ACTIVE + currentPage + ":" + pageSize;
+            return productPageCache.get(pageKey, () -> loadActiveProducts(currentPage, pageSize));
+        } catch (Exception exception) {
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
 
-            List<Product> productList = productRepository.findAllByStatusOrderByCreatedDateDesc(ConstStatus.ACTIVE_STATUS, pageable);
-            List<ProductResponse> productResponses = productList.stream()
-                    .map(product -> {
-                        ProductResponse productResponse = modelMapper.map(product, ProductResponse.class);
-                        productResponse.setDescription(product.getDesciption()); // Thêm dòng này để set description
-                        return productResponse;
-                    })
-                    .toList();
+    @Override
+    public PagingModel<ProductResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, true);
 
-            result.setListResult(productResponses);
-            result.setTotalPage((int) Math.ceil((double) totalActiveItems() / limit));
-            result.setLimit(limit);
+            List<ProductSummary> productList = productRepository.findSummariesAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toSummaryPage(productList, pageSize, ProductConverter::toResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
 
-            return result;
+    @Override
+    public PagingModel<ProductResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, true);
+
+            List<ProductSummary> productList = productRepository.findSummariesByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toSummaryPage(productList, pageSize, ProductConverter::toResponse);
         } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
             throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
     }
 
+    private PagingModel<ProductResponse> loadActiveProducts(int page, int limit) {
+        PagingModel<ProductResponse> result = new PagingModel<>();
+        result.setPage(page);
+        Pageable pageable = PageRequest.of(page - 1, limit);
+
+        List<ProductSummary> productList = productRepository.findSummariesByStatusOrderByCreatedDateDesc(ConstStatus.ACTIVE_STATUS, pageable);
+        List<ProductResponse> productResponses = productList.stream()
+                .map(ProductConverter::toResponse)
+                .toList();
+
+        result.setListResult(productResponses);
+        result.setTotalPage((int) Math.ceil((double) totalActiveItems() / limit));
+        result.setLimit(limit);
+
+        return result;
+    }
+
     private int totalActiveItems() {
-        return (int) productRepository.countByStatus(ConstStatus.ACTIVE_STATUS);
+        return (int) rowCounters.get(RowCounterRegistry.statusKey(ConstCounter.PRODUCT, ConstStatus.ACTIVE_STATUS));
     }
 
     @Override
@@ -130,8 +217,12 @@ public class ProductServiceImpl implements IProductService {
             newProduct.setStatus(createProductRequest.getStatus());
             newProduct.setDesciption(createProductRequest.getDescription());
             Product savedProduct = productRepository.save(newProduct);
-            ProductResponse productResponse = modelMapper.map(savedProduct, ProductResponse.class);
-            productResponse.setDescription(newProduct.getDesciption());
+            rowCounters.onCreate(ConstCounter.PRODUCT, savedProduct.getStatus());
+            ProductResponse productResponse = ProductConverter.toDetailResponse(savedProduct);
+
+            productPageCache.clear();
+            evictBaseModelOf(savedProduct);
+
             return productResponse;
         } catch (Exception exception) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
@@ -146,6 +237,7 @@ public class ProductServiceImpl implements IProductService {
                     .orElseThrow(() -> new BaseException(ErrorCode.ERROR_404.getCode(),
                             ConstError.Product.PRODUCT_NOT_FOUND,
                             ErrorCode.ERROR_404.getMessage()));
+            String previousStatus = product.getStatus();
 
             // Update fields only if they are provided in the request
             if (updateProductRequest.getProductName() != null) {
@@ -176,10 +268,11 @@ public class ProductServiceImpl implements IProductService {
 
             // Save the updated product
             Product updatedProduct = productRepository.save(product);
+            rowCounters.onStatusChange(ConstCounter.PRODUCT, previousStatus, updatedProduct.getStatus());
+            evictProduct(updatedProduct);
 
             // Map the updated product to the response
-            ProductResponse productResponse = modelMapper.map(updatedProduct, ProductResponse.class);
-            productResponse.setDescription(product.getDesciption());
+            ProductResponse productResponse = ProductConverter.toDetailResponse(updatedProduct);
             return productResponse;
 
         } catch (Exception exception) {
@@ -197,9 +290,12 @@ public class ProductServiceImpl implements IProductService {
                     .orElseThrow(() -> new BaseException(ErrorCode.ERROR_404.getCode(),
                             ConstError.Product.PRODUCT_NOT_FOUND,
                             ErrorCode.ERROR_404.getMessage()));
+            String previousStatus = product.getStatus();
 
             product.setStatus(ConstStatus.INACTIVE_STATUS);
             productRepository.save(product);
+            rowCounters.onStatusChange(ConstCounter.PRODUCT, previousStatus, product.getStatus());
+            evictProduct(product);
 
             return true;
         } catch (Exception exception) {
@@ -214,6 +310,10 @@ public class ProductServiceImpl implements IProductService {
     public boolean reduceProductStock(UUID productId, Integer stock) throws BaseException {
         try {
             int rowsAffected = productRepository.reduceProductStockById(productId, stock);
+            if (rowsAffected > 0) {
+                productCache.evict(productId);
+                productPageCache.clear();
+            }
             return rowsAffected > 0;
         } catch (Exception exception) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(),
@@ -233,12 +333,9 @@ public class ProductServiceImpl implements IProductService {
             result.setPage(page);
             Pageable pageable = PageRequest.of(page - 1, limit);
 
-            List<Product> productList = productRepository.findAllByProductNameContaining(name, pageable);
+            List<ProductSummary> productList = productRepository.findSummariesByProductNameContaining(name, pageable);
             List<ProductResponse> productResponses = productList.stream()
-                    .map(product -> {
-                        ProductResponse productResponse = modelMapper.map(product, ProductResponse.class);
-                        return productResponse;
-                    })
+                    .map(ProductConverter::toResponse)
                     .toList();
 
             result.setListResult(productResponses);
@@ -264,12 +361,9 @@ public class ProductServiceImpl implements IProductService {
             result.setPage(page);
             Pageable pageable = PageRequest.of(page - 1, limit);
 
-            List<Product> productList = productRepository.findAllByPriceRange(minPrice, maxPrice, pageable);
+            List<ProductSummary> productList = productRepository.findSummariesByPriceRange(minPrice, maxPrice, pageable);
             List<ProductResponse> productResponses = productList.stream()
-                    .map(product -> {
-                        ProductResponse productResponse = modelMapper.map(product, ProductResponse.class);
-                        return productResponse;
-                    })
+                    .map(ProductConverter::toResponse)
                     .toList();
 
             result.setListResult(productResponses);
@@ -284,5 +378,17 @@ public class ProductServiceImpl implements IProductService {
         }
     }
 
+    private void evictProduct(Product product) {
+        productCache.evict(product.getId());
+        productPageCache.clear();
+        evictBaseModelOf(product);
+    }
 
+    // BaseModelResponse embeds its products, so the owning base model entry is stale after a product write
+    private void evictBaseModelOf(Product product) {
+        if (product.getBaseModelID() != null) {
+            baseModelCache.evict(product.getBaseModelID().getId());
+            baseModelPageCache.clear();
+        }
+    }
 }
@@ -1,7 +1,10 @@
 package com.example.kalban_greenbag.service.impl;
 
+import com.example.kalban_greenbag.constant.ConstCounter;
 import com.example.kalban_greenbag.constant.ConstError;
 import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.converter.ReviewConverter;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
 import com.example.kalban_greenbag.dto.request.review.CreateReviewRequest;
 import com.example.kalban_greenbag.dto.response.product.ProductResponse;
 import com.example.kalban_greenbag.dto.response.review.ReviewResponse;
@@ -10,15 +13,18 @@ import com.example.kalban_greenbag.entity.Product;
 import com.example.kalban_greenbag.entity.Review;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
 import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.repository.OrderRepository;
 import com.example.kalban_greenbag.repository.ProductRepository;
 import com.example.kalban_greenbag.repository.ReviewRepository;
 import com.example.kalban_greenbag.repository.UserRepository;
+import com.example.kalban_greenbag.repository.projection.ReviewSummary;
 import com.example.kalban_greenbag.service.IReviewService;
 import com.example.kalban_greenbag.service.IUserService;
+import com.example.kalban_greenbag.utils.CursorUtil;
 import com.example.kalban_greenbag.utils.SecurityUtil;
-import org.modelmapper.ModelMapper;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -35,9 +41,6 @@ public class ReviewServiceImpl implements IReviewService {
     @Autowired
     ReviewRepository reviewRepository;
 
-    @Autowired
-    ModelMapper modelMapper;
-
     @Autowired
     IUserService userService;
 
@@ -49,14 +52,25 @@ public class ReviewServiceImpl implements IReviewService {
 
     @Autowired
     ProductRepository productRepository;
+
+    @Autowired
+    RowCounterRegistry rowCounters;
+
+    @PostConstruct
+    public void initCounters() {
+        rowCounters.register(ConstCounter.REVIEW, reviewRepository::count);
+        rowCounters.register(RowCounterRegistry.statusKey(ConstCounter.REVIEW, ConstStatus.ACTIVE_STATUS),
+                () -> reviewRepository.countByStatus(ConstStatus.ACTIVE_STATUS));
+    }
+
     @Override
     public ReviewResponse findById(UUID id) throws BaseException {
         try{
-            Optional<Review> review = reviewRepository.findById(id);
+            Optional<Review> review = reviewRepository.findWithUserById(id);
             if (review.isEmpty()) {
                 throw new BaseException(ErrorCode.ERROR_404.getCode(), ConstError.Review.REVIEW_NOT_FOUND, ErrorCode.ERROR_404.getMessage());
             }
-            return modelMapper.map(review.get(), ReviewResponse.class);
+            return ReviewConverter.toResponse(review.get());
         }catch (Exception exception) {
             if (exception instanceof BaseException) {
                 throw exception;
@@ -76,9 +90,9 @@ public class ReviewServiceImpl implements IReviewService {
             result.setPage(page);
             Pageable pageable = PageRequest.of(page - 1, limit);
 
-            List<Review> reviewList = reviewRepository.findAllByOrderByCreatedDate(pageable);
+            List<ReviewSummary> reviewList = reviewRepository.findSummariesOrderByCreatedDate(pageable);
             List<ReviewResponse> reviewResponses = reviewList.stream()
-                    .map(review -> modelMapper.map(review, ReviewResponse.class))
+                    .map(review -> ReviewConverter.toResponse(review))
                     .toList();
             result.setListResult(reviewResponses);
             result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
@@ -90,7 +104,12 @@ public class ReviewServiceImpl implements IReviewService {
         }
     }
     public int totalItem() {
-        return (int) reviewRepository.count();
+        return (int) rowCounters.get(ConstCounter.REVIEW);
+    }
+
+    private int totalItemsByProduct(UUID productId) {
+        return (int) rowCounters.get(ConstCounter.REVIEW_BY_PRODUCT + productId,
+                () -> reviewRepository.countByProductID_Id(productId));
     }
 
     @Override
@@ -104,9 +123,9 @@ public class ReviewServiceImpl implements IReviewService {
             result.setPage(page);
             Pageable pageable = PageRequest.of(page - 1, limit);
 
-            List<Review> reviewList = reviewRepository.findAllByStatusOrderByCreatedDate(ConstStatus.ACTIVE_STATUS, pageable);
+            List<ReviewSummary> reviewList = reviewRepository.findSummariesByStatusOrderByCreatedDate(ConstStatus.ACTIVE_STATUS, pageable);
             List<ReviewResponse> reviewResponses = reviewList.stream()
-                    .map(review -> modelMapper.map(review, ReviewResponse.class))
+                    .map(review -> ReviewConverter.toResponse(review))
                     .toList();
 
             result.setListResult(reviewResponses);
@@ -118,8 +137,40 @@ public class ReviewServiceImpl implements IReviewService {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
     }
+
+    @Override
+    public PagingModel<ReviewResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<ReviewSummary> reviewList = reviewRepository.findSummariesAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toSummaryPage(reviewList, pageSize, review -> ReviewConverter.toResponse(review));
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public PagingModel<ReviewResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<ReviewSummary> reviewList = reviewRepository.findSummariesByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toSummaryPage(reviewList, pageSize, review -> ReviewConverter.toResponse(review));
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
     private int totalActiveItems() {
-        return (int) reviewRepository.countByStatus(ConstStatus.ACTIVE_STATUS);
+        return (int) rowCounters.get(RowCounterRegistry.statusKey(ConstCounter.REVIEW, ConstStatus.ACTIVE_STATUS));
     }
 
     @Override
@@ -147,7 +198,6 @@ public class ReviewServiceImpl implements IReviewService {
 
             // Ánh xạ CreateReviewRequest sang Review
             Review newReview = new Review();
-            newReview.setId(UUID.randomUUID());
             newReview.setRating(createReviewRequest.getRating());
             newReview.setComment(createReviewRequest.getComment());
             newReview.setProductID(product);
@@ -159,9 +209,11 @@ public class ReviewServiceImpl implements IReviewService {
 
             // Lưu Review vào cơ sở dữ liệu
             Review savedReview = reviewRepository.save(newReview);
+            rowCounters.onCreate(ConstCounter.REVIEW, savedReview.getStatus());
+            rowCounters.add(ConstCounter.REVIEW_BY_PRODUCT + product.getId(), 1);
 
             // Trả về ReviewResponse
-            return modelMapper.map(savedReview, ReviewResponse.class);
+            return ReviewConverter.toResponse(savedReview);
         } catch (Exception exception) {
             throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
@@ -175,6 +227,7 @@ public class ReviewServiceImpl implements IReviewService {
                     .orElseThrow(() -> new BaseException(ErrorCode.ERROR_404.getCode(),
                             ConstError.Review.REVIEW_NOT_FOUND,
                             ErrorCode.ERROR_404.getMessage()));
+            String previousStatus = review.getStatus();
 
             // Thay đổi trạng thái của review
             if (review.getStatus().equals(ConstStatus.ACTIVE_STATUS)) {
@@ -185,6 +238,7 @@ public class ReviewServiceImpl implements IReviewService {
 
             // Cập nhật trạng thái và lưu lại review
             reviewRepository.save(review);
+            rowCounters.onStatusChange(ConstCounter.REVIEW, previousStatus, review.getStatus());
 
             return true;
         } catch (Exception exception) {
@@ -206,12 +260,12 @@ public class ReviewServiceImpl implements IReviewService {
             result.setPage(page);
             Pageable pageable = PageRequest.of(page - 1, limit);
 
-            List<Review> reviewList = reviewRepository.findAllByProductIdOrderByCreatedDate(productId, pageable);
+            List<ReviewSummary> reviewList = reviewRepository.findSummariesByProductIdOrderByCreatedDate(productId, pageable);
             List<ReviewResponse> reviewResponses = reviewList.stream()
-                    .map(review -> modelMapper.map(review, ReviewResponse.class))
+                    .map(review -> ReviewConverter.toResponse(review))
                     .toList();
             result.setListResult(reviewResponses);
-            result.setTotalPage((int) Math.ceil((double) totalItem() / limit));
+            result.setTotalPage((int) Math.ceil((double) totalItemsByProduct(productId) / limit));
             result.setLimit(limit);
 
             return result;
@@ -0,0 +1,259 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.cache.CacheRegion;
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.dto.response.product.ProductResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.entity.StockReservation;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.repository.StockReservationRepository;
+import com.example.kalban_greenbag.service.IFlashSaleService;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stock is taken from Product.stock when an order is checked out and recorded as a HELD reservation. Payment
+ * confirms the reservation; cancellation or expiry releases it and puts the stock back.
+ *
+ * Every change goes through a guarded UPDATE (stock >= quantity, or the expected reservation status), so the
+ * database decides who wins and stock can never go negative, even across nodes. Products in flash-sale mode take
+ * their stock from shard rows instead, see {@link FlashSaleServiceImpl}.
+ */
+@Service
+public class StockReservationServiceImpl implements IStockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private IFlashSaleService flashSaleService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LocalCacheManager cacheManager;
+
+    @Value("${stock.reservation.ttl-minutes:15}")
+    private long ttlMinutes;
+
+    @Value("${stock.reservation.sold-out-ttl-millis:1000}")
+    private long soldOutTtlMillis;
+
+    // Short-lived record of failed holds, so a sold out product is rejected without another UPDATE
+    private final ConcurrentMap<UUID, SoldOut> soldOut = new ConcurrentHashMap<>();
+
+    private CacheRegion<UUID, ProductResponse> productCache;
+
+    @PostConstruct
+    public void initCaches() {
+        productCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_PRODUCT);
+    }
+
+    /**
+     * Must run inside the caller's transaction. When it returns false the stock already taken for earlier products
+     * of the order has been given back, so nothing is held and the caller may still commit.
+     */
+    @Override
+    public boolean tryHold(Order order, Collection<OrderItem> orderItems) {
+        // Sorted by product id so concurrent checkouts lock product rows in the same order
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        Map<UUID, Product> products = new HashMap<>();
+        for (OrderItem orderItem : orderItems) {
+            UUID productId = orderItem.getProductID().getId();
+            quantities.merge(productId, orderItem.getQuantity(), Integer::sum);
+            products.put(productId, orderItem.getProductID());
+        }
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            SoldOut mark = soldOut.get(entry.getKey());
+            if (mark != null && mark.until > now && entry.getValue() >= mark.quantity) {
+                return false;
+            }
+        }
+
+        Instant expiresAt = Instant.now().plus(ttlMinutes, ChronoUnit.MINUTES);
+        List<StockReservation> reservations = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            if (!flashSaleService.takeStock(products.get(entry.getKey()), entry.getValue())) {
+                soldOut.put(entry.getKey(), new SoldOut(entry.getValue(), now + soldOutTtlMillis));
+                for (StockReservation taken : reservations) {
+                    flashSaleService.returnStock(taken.getProductID().getId(), taken.getQuantity());
+                }
+                return false;
+            }
+            StockReservation reservation = new StockReservation();
+            reservation.setOrderID(order);
+            reservation.setProductID(products.get(entry.getKey()));
+            reservation.setQuantity(entry.getValue());
+            reservation.setReservationStatus(ConstStatus.ReservationStatus.HELD);
+            reservation.setExpiresAt(expiresAt);
+            reservation.setStatus(ConstStatus.ACTIVE_STATUS);
+            reservation.setCreatedBy(order.getCreatedBy());
+            reservations.add(reservation);
+        }
+        reservationRepository.saveAll(reservations);
+        evictProducts(quantities.keySet());
+        return true;
+    }
+
+    /**
+     * Joins the caller's transaction. A hold that cannot be taken again is undone by hand rather than by marking the
+     * transaction rollback-only, so when this returns false nothing has changed and the caller can still record the
+     * outcome.
+     */
+    @Override
+    public boolean confirm(Order order) throws BaseException {
+        try {
+            Set<UUID> touchedProducts = new HashSet<>();
+            Boolean confirmed = transactionTemplate.execute(transactionStatus -> {
+                List<StockReservation> reservations = reservationRepository.findAllByOrderId(order.getId());
+                if (reservations.isEmpty()) {
+                    // Orders built item by item never went through checkout; take all of their stock now or none
+                    if (!tryHold(order, order.getOrderItems())) {
+                        return false;
+                    }
+                    reservations = reservationRepository.findAllByOrderId(order.getId());
+                }
+                List<StockReservation> held = new ArrayList<>();
+                List<StockReservation> retaken = new ArrayList<>();
+                for (StockReservation reservation : reservations) {
+                    UUID reservationId = reservation.getId();
+                    if (reservationRepository.transition(reservationId, ConstStatus.ReservationStatus.HELD, ConstStatus.ReservationStatus.CONFIRMED) == 1) {
+                        held.add(reservation);
+                        continue;
+                    }
+                    // The hold expired before the payment arrived; take the stock again if it is still there.
+                    // A reservation that is already CONFIRMED matches neither transition and is left alone.
+                    if (reservationRepository.transition(reservationId, ConstStatus.ReservationStatus.RELEASED, ConstStatus.ReservationStatus.CONFIRMED) == 1) {
+                        if (!flashSaleService.takeStock(reservation.getProductID(), reservation.getQuantity())) {
+                            reservationRepository.transition(reservationId, ConstStatus.ReservationStatus.CONFIRMED, ConstStatus.ReservationStatus.RELEASED);
+                            undoConfirm(held, retaken);
+                            return false;
+                        }
+                        retaken.add(reservation);
+                        touchedProducts.add(reservation.getProductID().getId());
+                    }
+                }
+                return true;
+            });
+            evictProducts(touchedProducts);
+            return Boolean.TRUE.equals(confirmed);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    // Puts the order's reservations back the way confirm found them
+    private void undoConfirm(List<StockReservation> held, List<StockReservation> retaken) {
+        for (StockReservation reservation : held) {
+            reservationRepository.transition(reservation.getId(), ConstStatus.ReservationStatus.CONFIRMED, ConstStatus.ReservationStatus.HELD);
+        }
+        for (StockReservation reservation : retaken) {
+            reservationRepository.transition(reservation.getId(), ConstStatus.ReservationStatus.CONFIRMED, ConstStatus.ReservationStatus.RELEASED);
+            flashSaleService.returnStock(reservation.getProductID().getId(), reservation.getQuantity());
+        }
+    }
+
+    @Override
+    public void release(UUID orderId) throws BaseException {
+        try {
+            Set<UUID> releasedProducts = new HashSet<>();
+            transactionTemplate.executeWithoutResult(transactionStatus -> {
+                for (StockReservation reservation : reservationRepository.findAllByOrderId(orderId)) {
+                    if (reservationRepository.transition(reservation.getId(), ConstStatus.ReservationStatus.HELD, ConstStatus.ReservationStatus.RELEASED) == 1) {
+                        UUID productId = reservation.getProductID().getId();
+                        flashSaleService.returnStock(productId, reservation.getQuantity());
+                        releasedProducts.add(productId);
+                    }
+                }
+            });
+            for (UUID productId : releasedProducts) {
+                soldOut.remove(productId);
+            }
+            evictProducts(releasedProducts);
+        } catch (Exception exception) {
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public Instant paymentDeadline(UUID orderId) {
+        Instant earliestExpiry = reservationRepository.findEarliestExpiry(orderId, ConstStatus.ReservationStatus.HELD);
+        // Orders without a live hold take their stock when paid, so they get a full hold's worth of time
+        return earliestExpiry != null ? earliestExpiry : Instant.now().plus(ttlMinutes, ChronoUnit.MINUTES);
+    }
+
+    @Scheduled(fixedDelayString = "${stock.reservation.expiry-interval-ms:60000}")
+    public void releaseExpired() {
+        List<UUID> orderIds = reservationRepository.findOrderIdsExpiredBefore(ConstStatus.ReservationStatus.HELD, Instant.now(),
+                PageRequest.of(0, EXPIRY_BATCH_SIZE));
+        for (UUID orderId : orderIds) {
+            try {
+                release(orderId);
+            } catch (BaseException e) {
+                logger.warn("Failed to release expired stock reservations of order {}: {}", orderId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drops the cached products once the stock change is committed; evicting earlier would let a concurrent read
+     * cache the old stock again. Product pages are left to their short TTL, so a stock change does not empty them.
+     */
+    private void evictProducts(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productIds.forEach(productCache::evict);
+            return;
+        }
+        List<UUID> committedProductIds = List.copyOf(productIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committedProductIds.forEach(productCache::evict);
+            }
+        });
+    }
+
+    private static class SoldOut {
+        private final int quantity;
+        private final long until;
+
+        private SoldOut(int quantity, long until) {
+            this.quantity = quantity;
+            this.until = until;
+        }
+    }
+}
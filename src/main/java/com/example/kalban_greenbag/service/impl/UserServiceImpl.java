@@ -1,11 +1,17 @@
 package com.example.kalban_greenbag.service.impl;
 
+import com.example.kalban_greenbag.auth.LoginGuard;
+import com.example.kalban_greenbag.cache.TokenVersionRegistry;
+import com.example.kalban_greenbag.cache.UserPrincipalCache;
+import com.example.kalban_greenbag.constant.ConstCounter;
 import com.example.kalban_greenbag.constant.ConstError;
 import com.example.kalban_greenbag.constant.ConstStatus;
 import com.example.kalban_greenbag.converter.RoleConverter;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
 import com.example.kalban_greenbag.converter.UserConverter;
 import com.example.kalban_greenbag.dto.request.user.CreateUserRequest;
 import com.example.kalban_greenbag.dto.request.user.LoginRequest;
+import com.example.kalban_greenbag.dto.request.user.RefreshTokenRequest;
 import com.example.kalban_greenbag.dto.request.user.UpdateUserRequest;
 import com.example.kalban_greenbag.dto.response.JwtAuthenticationResponse;
 import com.example.kalban_greenbag.dto.response.user.UserResponse;
@@ -13,17 +19,20 @@ import com.example.kalban_greenbag.entity.Role;
 import com.example.kalban_greenbag.entity.User;
 import com.example.kalban_greenbag.enums.ErrorCode;
 import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
+import com.example.kalban_greenbag.model.TokenClaims;
 import com.example.kalban_greenbag.model.PagingModel;
 import com.example.kalban_greenbag.repository.UserRepository;
 import com.example.kalban_greenbag.service.IJWTService;
 import com.example.kalban_greenbag.service.IRoleService;
 import com.example.kalban_greenbag.service.IUserService;
+import com.example.kalban_greenbag.utils.CursorUtil;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -43,11 +52,24 @@ public class UserServiceImpl implements IUserService {
     @Autowired
     private IJWTService jwtService;
     @Autowired
-    AuthenticationManager authenticationManager;
+    private LoginGuard loginGuard;
     @Autowired
     PasswordEncoder passwordEncoder;
     @Autowired
     private IRoleService roleService;
+    @Autowired
+    private RowCounterRegistry rowCounters;
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @PostConstruct
+    public void initCounters() {
+        rowCounters.register(ConstCounter.USER, userRepository::count);
+        rowCounters.register(RowCounterRegistry.statusKey(ConstCounter.USER, ConstStatus.ACTIVE_STATUS),
+                () -> userRepository.countByStatus(ConstStatus.ACTIVE_STATUS));
+    }
 
     @Override
     public UserResponse findById(UUID id) throws BaseException {
@@ -95,10 +117,10 @@ public class UserServiceImpl implements IUserService {
         }
     }
     private int totalItem() {
-        return (int) userRepository.count();
+        return (int) rowCounters.get(ConstCounter.USER);
     }
     private int totalItemWithStatusActive() {
-        return  userRepository.countByStatus(ConstStatus.ACTIVE_STATUS);
+        return (int) rowCounters.get(RowCounterRegistry.statusKey(ConstCounter.USER, ConstStatus.ACTIVE_STATUS));
     }
 
     @Override
@@ -127,23 +149,98 @@ public class UserServiceImpl implements IUserService {
     }
 
     @Override
-    public JwtAuthenticationResponse login(LoginRequest loginRequest) throws BaseException {
-        User user = findByEmailOrUserName(loginRequest.getEmailOrUsername());
-        // Check if the account is disabled
-        if (user.getStatus().equals(ConstStatus.INACTIVE_STATUS)) {
-            throw new BaseException(ErrorCode.ERROR_500.getCode(), "User is disabled", ErrorCode.ERROR_500.getMessage());
+    public PagingModel<UserResponse> getAllByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<User> users = userRepository.findAllAfterCursor(pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(users, pageSize, UserConverter::toResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
+
+    @Override
+    public PagingModel<UserResponse> findAllByStatusTrueByCursor(String cursor, Integer limit) throws BaseException {
+        try {
+            int pageSize = CursorUtil.normalizeLimit(limit);
+            PageCursor pageCursor = CursorUtil.decode(cursor, false);
+
+            List<User> users = userRepository.findAllByStatusAfterCursor(ConstStatus.ACTIVE_STATUS, pageCursor.getCreatedDate(), pageCursor.getId(), CursorUtil.seekPageable(pageSize));
+            return CursorUtil.toPage(users, pageSize, UserConverter::toResponse);
+        } catch (Exception exception) {
+            if (exception instanceof BaseException) {
+                throw exception;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), exception.getMessage(), ErrorCode.ERROR_500.getMessage());
         }
+    }
+
+    @Override
+    public JwtAuthenticationResponse login(LoginRequest loginRequest, String clientIp) throws BaseException {
+        try {
+            loginGuard.admit(clientIp);
+            User user = findByEmailOrUserName(loginRequest.getEmailOrUsername());
+            // Check if the account is disabled
+            if (user.getStatus().equals(ConstStatus.INACTIVE_STATUS)) {
+                throw new BaseException(ErrorCode.ERROR_500.getCode(), ConstError.User.USER_DISABLED, ErrorCode.ERROR_500.getMessage());
+            }
 //        if (!user.getRole().getName().equals(loginRequest.getLoginWithRole())) {
 //            throw new BaseException(ErrorCode.ERROR_500.getCode(), "Role is not match", ErrorCode.ERROR_500.getMessage());
 //        }
 
-        // Authenticate the user
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getUsername(), loginRequest.getPassword()));
+            // The user loaded above is checked directly, instead of letting the AuthenticationManager load it again
+            String accountKey = user.getId().toString();
+            loginGuard.checkAccount(accountKey);
+            if (!loginGuard.verifyPassword(accountKey, loginRequest.getPassword(), user.getPassword())) {
+                throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.BAD_CREDENTIALS, ErrorCode.ERROR_401.getMessage());
+            }
+
+            // Set the authentication in the SecurityContext
+            Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            return MappingjwtAuthenticationRespone(user);
+        } catch (Exception baseException) {
+            if (baseException instanceof BaseException) {
+                throw baseException;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), baseException.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
+    }
 
-        // Set the authentication in the SecurityContext
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        return MappingjwtAuthenticationRespone(user);
+    @Override
+    public JwtAuthenticationResponse refreshToken(RefreshTokenRequest refreshTokenRequest) throws BaseException {
+        try {
+            TokenClaims claims = jwtService.parseToken(refreshTokenRequest.getRefreshToken());
+            if (!claims.isRefreshToken()) {
+                throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.INVALID_REFRESH_TOKEN, ErrorCode.ERROR_401.getMessage());
+            }
+            Optional<User> userOptional = claims.getUserId() != null
+                    ? userRepository.findById(claims.getUserId())
+                    : userRepository.findByUsername(claims.getSubject());
+            if (userOptional.isEmpty()) {
+                throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.USER_NOT_FOUND, ErrorCode.ERROR_401.getMessage());
+            }
+            User user = userOptional.get();
+            int tokenVersion = claims.getTokenVersion() == null ? 0 : claims.getTokenVersion();
+            if (tokenVersion != user.currentTokenVersion()) {
+                throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.TOKEN_REVOKED, ErrorCode.ERROR_401.getMessage());
+            }
+            if (ConstStatus.INACTIVE_STATUS.equals(user.getStatus())) {
+                throw new BaseException(ErrorCode.ERROR_401.getCode(), ConstError.User.USER_DISABLED, ErrorCode.ERROR_401.getMessage());
+            }
+            // New tokens are built from the current row, so role and status claims are brought up to date here
+            return MappingjwtAuthenticationRespone(user);
+        } catch (Exception baseException) {
+            if (baseException instanceof BaseException) {
+                throw baseException;
+            }
+            throw new BaseException(ErrorCode.ERROR_500.getCode(), baseException.getMessage(), ErrorCode.ERROR_500.getMessage());
+        }
     }
 
     @Override
@@ -171,6 +268,7 @@ public class UserServiceImpl implements IUserService {
             user.setRole(role);
 
             userRepository.save(user);
+            rowCounters.onCreate(ConstCounter.USER, user.getStatus());
             return MappingjwtAuthenticationRespone(user);
         }catch (Exception baseException) {
             if (baseException instanceof BaseException) {
@@ -240,6 +338,7 @@ public class UserServiceImpl implements IUserService {
                 throw new BaseException(ErrorCode.ERROR_500.getCode(), ConstError.User.USER_NOT_FOUND, ErrorCode.ERROR_500.getMessage());
             }
             User user = userOptional.get();
+            String previousUsername = user.getUsername();
 
             // Cập nhật các trường không null từ UpdateUserRequest
             if (updateUserRequest.getUsername() != null) {
@@ -249,6 +348,11 @@ public class UserServiceImpl implements IUserService {
             if (updateUserRequest.getPassword() != null) {
                 user.setPassword(passwordEncoder.encode(updateUserRequest.getPassword())); // Mã hóa mật khẩu
             }
+            // Tokens carry the username and role, so issued ones stop working when either changes
+            if (updateUserRequest.getUsername() != null || updateUserRequest.getPassword() != null
+                    || updateUserRequest.getRoleName() != null) {
+                user.revokeTokens();
+            }
             if (updateUserRequest.getEmail() != null) {
                 user.setEmail(updateUserRequest.getEmail());
             }
@@ -268,6 +372,9 @@ public class UserServiceImpl implements IUserService {
 
             // Lưu lại thông tin người dùng đã cập nhật
             userRepository.save(user);
+            tokenVersionRegistry.record(user.getId(), user.currentTokenVersion());
+            userPrincipalCache.evict(previousUsername);
+            userPrincipalCache.evict(user.getUsername());
             return UserConverter.toResponse(user);
         } catch (Exception baseException) {
             if (baseException instanceof BaseException) {
@@ -1,69 +1,47 @@
 package com.example.kalban_greenbag.service.momo;
 
 import com.example.kalban_greenbag.constant.MoMoConstant;
+import com.example.kalban_greenbag.dto.momo.MoMoPaymentStatusResponse;
 import com.example.kalban_greenbag.dto.momo.OrderRequestDTO;
+import com.example.kalban_greenbag.exception.BaseException;
 import com.example.kalban_greenbag.utils.MoMoUtil;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
 public class GetPaymentStatusService {
 
-    public Map<String, Object> getStatus(OrderRequestDTO requestDTO) throws IOException {
+    @Autowired
+    private MoMoGatewayClient gatewayClient;
 
-        JSONObject json = new JSONObject();
+    @Autowired
+    private MoMoSigner signer;
+
+    public MoMoPaymentStatusResponse getStatus(OrderRequestDTO requestDTO) throws IOException, BaseException {
+
+        Map<String, Object> json = new LinkedHashMap<>();
         json.put("partnerCode", MoMoConstant.PARTNER_CODE);
         json.put("accessKey", MoMoConstant.ACCESS_KEY);
         json.put("requestId", String.valueOf(System.currentTimeMillis()));
         json.put("orderId", requestDTO.getOrderId());
         json.put("requestType", MoMoConstant.CHECK_STATUS_TYPE);
 
-        String data = "partnerCode=" + MoMoConstant.PARTNER_CODE
-                + "&accessKey=" + json.get("accessKey")
-                + "&requestId=" + json.get("requestId")
-                + "&orderId=" + json.get("orderId")
-                + "&requestType=" + json.get("requestType");
+        String data = MoMoUtil.signatureData()
+                .add("partnerCode", MoMoConstant.PARTNER_CODE)
+                .add("accessKey", json.get("accessKey"))
+                .add("requestId", json.get("requestId"))
+                .add("orderId", json.get("orderId"))
+                .add("requestType", json.get("requestType"))
+                .build();
 
-        String signatureKey = MoMoUtil.computeHmacSha256(data, MoMoConstant.SECRET_KEY);
+        String signatureKey = signer.sign(data);
         json.put("signature", signatureKey);
 
-        CloseableHttpClient client = HttpClients.createDefault();
-        HttpPost post = new HttpPost(MoMoConstant.CREATE_ORDER_URL);
-
-        StringEntity stringEntity = new StringEntity(json.toString());
-        post.setHeader("content-type", "application/json");
-        post.setEntity(stringEntity);
-
-        CloseableHttpResponse res = client.execute(post);
-        BufferedReader rd = new BufferedReader(new InputStreamReader(res.getEntity().getContent()));
-        StringBuilder resultJsonStr = new StringBuilder();
-        String line;
-        while ((line = rd.readLine()) != null) {
-
-            resultJsonStr.append(line);
-        }
-
-        JSONObject object = new JSONObject(resultJsonStr.toString());
-        Map<String, Object> result = new HashMap<>();
-        for (Iterator<String> it = object.keys(); it.hasNext(); ) {
-
-            String key = it.next();
-            result.put(key, object.get(key));
-        }
-
-        return result;
+        return gatewayClient.postIdempotent(MoMoConstant.CREATE_ORDER_URL, json, MoMoPaymentStatusResponse.class);
 
     }
 
@@ -0,0 +1,109 @@
+package com.example.kalban_greenbag.service.momo;
+
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.http.HttpClientPoolMetrics;
+import com.example.kalban_greenbag.resilience.GatewayGuard;
+import com.example.kalban_greenbag.resilience.GatewayRejectedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts JSON to the MoMo gateway over the shared pooled client and parses the reply straight from the response
+ * stream into the given type. The response is always closed, which hands the connection back to the pool.
+ */
+@Component
+public class MoMoGatewayClient {
+
+    @Autowired
+    private CloseableHttpClient httpClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HttpClientPoolMetrics metrics;
+
+    @Autowired
+    @Qualifier("momoGatewayGuard")
+    private GatewayGuard momoGatewayGuard;
+
+    @Value("${http.client.total-timeout-ms:15000}")
+    private long totalTimeoutMs;
+
+    // The socket timeout only bounds each read; this aborts requests whose whole exchange takes too long
+    private final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "momo-request-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public <T> T post(String url, Object body, Class<T> responseType) throws IOException, BaseException {
+        return guarded(() -> momoGatewayGuard.call(() -> execute(url, body, responseType)));
+    }
+
+    // For reads that are safe to send twice; a slow answer is hedged with a second request
+    public <T> T postIdempotent(String url, Object body, Class<T> responseType) throws IOException, BaseException {
+        return guarded(() -> momoGatewayGuard.hedgedCall(() -> execute(url, body, responseType)));
+    }
+
+    private <T> T guarded(Callable<T> guardedCall) throws IOException, BaseException {
+        try {
+            return guardedCall.call();
+        } catch (IOException | BaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private <T> T execute(String url, Object body, Class<T> responseType) throws IOException {
+        HttpPost post = new HttpPost(url);
+        post.setEntity(new ByteArrayEntity(objectMapper.writeValueAsBytes(body), ContentType.APPLICATION_JSON));
+        metrics.recordRequest();
+        ScheduledFuture<?> deadline = deadlines.schedule(post::abort, totalTimeoutMs, TimeUnit.MILLISECONDS);
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            if (statusCode / 100 == 4) {
+                EntityUtils.consume(entity);
+                throw new GatewayRejectedException("MoMo gateway rejected the request with HTTP " + statusCode, statusCode);
+            }
+            if (statusCode / 100 != 2 || entity == null) {
+                EntityUtils.consume(entity);
+                throw new IOException("MoMo gateway returned HTTP " + statusCode);
+            }
+            try (InputStream content = entity.getContent()) {
+                return objectMapper.readValue(content, responseType);
+            }
+        } catch (IOException e) {
+            metrics.recordFailure();
+            throw e;
+        } finally {
+            deadline.cancel(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deadlines.shutdownNow();
+    }
+}
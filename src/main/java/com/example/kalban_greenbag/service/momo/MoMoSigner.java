@@ -0,0 +1,63 @@
+package com.example.kalban_greenbag.service.momo;
+
+import com.example.kalban_greenbag.constant.MoMoConstant;
+import com.example.kalban_greenbag.utils.MoMoUtil;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Map;
+
+/**
+ * HMAC-SHA256 signatures for MoMo requests and callbacks. Each thread keeps one Mac initialised with the secret
+ * key; doFinal resets it, so it is ready for the next signature without another getInstance/init.
+ */
+@Component
+public class MoMoSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    // Order in which MoMo signs the parameters of the redirect and notify callbacks
+    private static final String[] CALLBACK_FIELDS = {"partnerCode", "accessKey", "requestId", "amount", "orderId",
+            "orderInfo", "orderType", "transId", "message", "localMessage", "responseTime", "errorCode", "payType",
+            "extraData"};
+
+    private final SecretKeySpec secretKey = new SecretKeySpec(MoMoConstant.SECRET_KEY.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    public String sign(String data) {
+        return MoMoUtil.toHex(mac.get().doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public boolean verify(String data, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        // Constant-time comparison so the check does not leak how much of a forged signature matched
+        return MessageDigest.isEqual(sign(data).getBytes(StandardCharsets.US_ASCII),
+                signature.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public boolean verifyCallback(Map<String, ?> params) {
+        MoMoUtil.SignatureData data = MoMoUtil.signatureData();
+        for (String field : CALLBACK_FIELDS) {
+            data.add(field, params.get(field));
+        }
+        Object signature = params.get("signature");
+        return verify(data.build(), signature == null ? null : signature.toString());
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(secretKey);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+}
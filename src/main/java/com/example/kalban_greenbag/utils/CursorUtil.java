@@ -0,0 +1,87 @@
+package com.example.kalban_greenbag.utils;
+
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.entity.BaseEntity;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.PageCursor;
+import com.example.kalban_greenbag.model.PagingModel;
+import com.example.kalban_greenbag.repository.projection.BaseSummary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+public class CursorUtil {
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    // Seek starting points that sort before (ascending) or after (descending) every real created_date
+    private static final Date ASCENDING_START = new Date(0L);
+    private static final Date DESCENDING_START = new Date(253402214400000L);
+    private static final UUID START_ID = new UUID(0L, 0L);
+
+    private static final int CURSOR_BYTES = Long.BYTES * 3;
+
+    public static PageCursor decode(String cursor, boolean descending) throws BaseException {
+        if (!ValidateUtil.IsNotNullOrBlank(cursor)) {
+            return new PageCursor(descending ? DESCENDING_START : ASCENDING_START, START_ID);
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != CURSOR_BYTES) {
+                throw new IllegalArgumentException("Unexpected cursor length");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Date createdDate = new Date(buffer.getLong());
+            return new PageCursor(createdDate, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (IllegalArgumentException exception) {
+            throw new BaseException(ErrorCode.ERROR_400.getCode(), ConstError.Input.INVALID_CURSOR, ErrorCode.ERROR_400.getMessage());
+        }
+    }
+
+    public static String encode(Date createdDate, UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_BYTES);
+        buffer.putLong(createdDate.getTime());
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static int normalizeLimit(Integer limit) {
+        return limit == null || limit < 1 ? DEFAULT_LIMIT : limit;
+    }
+
+    // One row more than the page size, so we know whether a next page exists without a COUNT
+    public static Pageable seekPageable(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    public static <E extends BaseEntity, R> PagingModel<R> toPage(List<E> rows, int limit, Function<E, R> mapper) {
+        return toPage(rows, limit, mapper, BaseEntity::getCreatedDate, BaseEntity::getId);
+    }
+
+    public static <S extends BaseSummary, R> PagingModel<R> toSummaryPage(List<S> rows, int limit, Function<S, R> mapper) {
+        return toPage(rows, limit, mapper, BaseSummary::getCreatedDate, BaseSummary::getId);
+    }
+
+    private static <E, R> PagingModel<R> toPage(List<E> rows, int limit, Function<E, R> mapper,
+                                                Function<E, Date> createdDateOf, Function<E, UUID> idOf) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        PagingModel<R> result = new PagingModel<>();
+        result.setListResult(pageRows.stream().map(mapper).toList());
+        result.setLimit(limit);
+        if (hasNext) {
+            E last = pageRows.get(pageRows.size() - 1);
+            result.setNextCursor(encode(createdDateOf.apply(last), idOf.apply(last)));
+        }
+        return result;
+    }
+}
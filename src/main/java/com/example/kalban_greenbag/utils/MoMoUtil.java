@@ -1,37 +1,43 @@
 package com.example.kalban_greenbag.utils;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-
 public class MoMoUtil {
-    public static String computeHmacSha256(String message, String secretKey) {
 
-        try {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
-            Mac sha256_HMAC = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secret_key = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            sha256_HMAC.init(secret_key);
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(hex);
+    }
 
-            byte[] hashBytes = sha256_HMAC.doFinal(message.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
+    /**
+     * Builds the "key1=value1&key2=value2" string MoMo signs, in the order the keys are added. Null values are
+     * written as empty strings, the way MoMo treats missing fields.
+     */
+    public static SignatureData signatureData() {
+        return new SignatureData();
+    }
 
-            for (byte hashByte : hashBytes) {
+    public static class SignatureData {
 
-                String hex = Integer.toHexString(0xff & hashByte);
-                if (hex.length() == 1) {
+        private final StringBuilder data = new StringBuilder(256);
 
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+        public SignatureData add(String key, Object value) {
+            if (data.length() > 0) {
+                data.append('&');
             }
-
-            return hexString.toString();
-        } catch (Exception e) {
-
-            e.printStackTrace();
-            return null;
+            data.append(key).append('=');
+            if (value != null) {
+                data.append(value);
+            }
+            return this;
         }
 
+        public String build() {
+            return data.toString();
+        }
     }
 }
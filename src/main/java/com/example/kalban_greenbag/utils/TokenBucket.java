@@ -0,0 +1,67 @@
+package com.example.kalban_greenbag.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the GCRA form of a token bucket): each
+ * permit pushes it forward by one refill interval, and a caller may go ahead while it is at most {@code burst}
+ * intervals in the future.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * (burst - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquireOrDelay() == 0;
+    }
+
+    // Takes a permit and returns 0, or returns how many nanoseconds are left until the next permit is available
+    public long tryAcquireOrDelay() {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = theoreticalArrival.get();
+            long delay = arrival - burstNanos - now;
+            if (delay > 0) {
+                return delay;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, Math.max(arrival, now) + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // A full bucket holds no state beyond its settings, so it can be dropped and created again later
+    public boolean isFull() {
+        return theoreticalArrival.get() <= System.nanoTime();
+    }
+
+    // Reserves a permit right away and sleeps until it becomes valid, so waiting callers keep their order
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = theoreticalArrival.get();
+            long start = Math.max(arrival, now);
+            if (theoreticalArrival.compareAndSet(arrival, start + intervalNanos)) {
+                long waitNanos = start - burstNanos - now;
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+                return;
+            }
+        }
+    }
+}
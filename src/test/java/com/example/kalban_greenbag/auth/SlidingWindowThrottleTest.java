@@ -0,0 +1,83 @@
+package com.example.kalban_greenbag.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowThrottleTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    @Test
+    void concurrentAttemptsNeverExceedTheLimit() throws Exception {
+        SlidingWindowThrottle throttle = new SlidingWindowThrottle(100, WINDOW_MILLIS);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> clients = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                clients.add(executor.submit(() -> {
+                    start.await();
+                    int acquired = 0;
+                    for (int j = 0; j < 50; j++) {
+                        if (throttle.tryAcquire("10.0.0.1")) {
+                            acquired++;
+                        }
+                        // Nothing is idle yet, so eviction running alongside must not drop the key
+                        throttle.evictIdle();
+                    }
+                    return acquired;
+                }));
+            }
+            start.countDown();
+
+            int acquired = 0;
+            for (Future<Integer> client : clients) {
+                acquired += client.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(acquired).isEqualTo(100);
+            assertThat(throttle.tryAcquire("10.0.0.1")).isFalse();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void evictIdleDropsOnlyKeysWithoutRecentEvents() throws Exception {
+        SlidingWindowThrottle throttle = new SlidingWindowThrottle(5, 200);
+        throttle.record("idle");
+        Thread.sleep(450);
+        throttle.record("active");
+
+        throttle.evictIdle();
+
+        assertThat(throttle.size()).isEqualTo(1);
+        throttle.record("active");
+        throttle.record("active");
+        throttle.record("active");
+        throttle.record("active");
+        assertThat(throttle.isLimited("active")).isTrue();
+        assertThat(throttle.isLimited("idle")).isFalse();
+    }
+
+    @Test
+    void resetClearsTheKey() {
+        SlidingWindowThrottle throttle = new SlidingWindowThrottle(2, WINDOW_MILLIS);
+        throttle.record("account");
+        throttle.record("account");
+        assertThat(throttle.isLimited("account")).isTrue();
+
+        throttle.reset("account");
+
+        assertThat(throttle.isLimited("account")).isFalse();
+        assertThat(throttle.size()).isZero();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.kalban_greenbag.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of one class from its JUnit entry point, so a single benchmark can be picked with
+ * {@code mvn test -Pbenchmark -Dtest=...}. Forks, warmup and measurement come from the class annotations.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static void run(Class<?> benchmarkClass) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(benchmarkClass.getName() + "\\.")
+                .build())
+                .run();
+    }
+}
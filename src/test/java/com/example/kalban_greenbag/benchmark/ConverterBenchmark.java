@@ -0,0 +1,125 @@
+package com.example.kalban_greenbag.benchmark;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.converter.OrderConverter;
+import com.example.kalban_greenbag.converter.ProductConverter;
+import com.example.kalban_greenbag.dto.response.order.OrderResponse;
+import com.example.kalban_greenbag.dto.response.product.ProductResponse;
+import com.example.kalban_greenbag.entity.BaseEntity;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping with the hand-written converters against the shared ModelMapper they replaced, for a
+ * product and for an order with its items and their products, as the order list pages return them.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ConverterBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 5;
+
+    // One instance for the whole application, as the ModelMapper bean was
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private Product product;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        product = product(0);
+        order = new Order();
+        fill(order);
+        order.setOrderDate(Instant.now());
+        order.setTotalAmount(BigDecimal.valueOf(750_000));
+        order.setShippingAddress("12 Nguyen Hue, District 1, Ho Chi Minh City");
+        order.setOrderStatus(ConstStatus.OrderStatus.ORDER_STATUS_PENDING);
+        order.setOrderCode(1_000_001L);
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItem orderItem = new OrderItem();
+            fill(orderItem);
+            orderItem.setOrderID(order);
+            orderItem.setProductID(product(i));
+            orderItem.setQuantity(i + 1);
+            orderItem.setUnitPrice(BigDecimal.valueOf(150_000));
+            order.getOrderItems().add(orderItem);
+        }
+        // The first map builds ModelMapper's type maps; keep that out of the measurement
+        modelMapper.map(product, ProductResponse.class);
+        modelMapper.map(order, OrderResponse.class);
+    }
+
+    @Benchmark
+    public ProductResponse handWrittenProduct() {
+        return ProductConverter.toResponse(product);
+    }
+
+    @Benchmark
+    public ProductResponse modelMapperProduct() {
+        return modelMapper.map(product, ProductResponse.class);
+    }
+
+    @Benchmark
+    public OrderResponse handWrittenOrder() {
+        return OrderConverter.toResponse(order);
+    }
+
+    @Benchmark
+    public OrderResponse modelMapperOrder() {
+        return modelMapper.map(order, OrderResponse.class);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        Benchmarks.run(ConverterBenchmark.class);
+    }
+
+    private static Product product(int number) {
+        Product product = new Product();
+        fill(product);
+        product.setProductName("Canvas tote " + number);
+        product.setDesciption("Reusable canvas tote bag with reinforced handles");
+        product.setImg("https://example.com/products/" + number + ".png");
+        product.setStock(100);
+        product.setFinalPrice(BigDecimal.valueOf(150_000));
+        return product;
+    }
+
+    private static void fill(BaseEntity entity) {
+        entity.setId(UUID.randomUUID());
+        entity.setCreatedDate(new Date());
+        entity.setModifiedDate(new Date());
+        entity.setCreatedBy("admin");
+        entity.setModifiedBy("admin");
+        entity.setStatus(ConstStatus.ACTIVE_STATUS);
+    }
+}
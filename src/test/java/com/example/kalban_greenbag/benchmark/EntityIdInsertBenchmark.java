@@ -0,0 +1,152 @@
+package com.example.kalban_greenbag.benchmark;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.repository.OrderItemRepository;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.sequence.EntityIdGenerator;
+import com.example.kalban_greenbag.sequence.EntityIds;
+import com.example.kalban_greenbag.sequence.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts orders with one item each through the repositories, in batched transactions, once with random ids and
+ * once with time-ordered ids, and reports rows per second and the disk space of both tables and their indexes.
+ * Each run gets its own H2 file database, which reuses freed pages at once ({@code RETENTION_TIME=0}) so the
+ * page splits of random inserts do not grow the file past what H2 handles.
+ *
+ * <p>H2 compares UUIDs from the first byte, so the time-ordered run uses the RFC 9562 layout. SQL Server compares
+ * the last six bytes first, which is why production uses {@link TimeOrderedIdGenerator.Layout#SQL_SERVER}; on H2
+ * that layout sorts like random ids.
+ *
+ * <p>{@code mvn test -Pbenchmark -Dtest=EntityIdInsertBenchmark [-Dbenchmark.orders=1000000]}
+ */
+@Tag("benchmark")
+// Printing two million statements would cost more than running them
+@DataJpaTest(showSql = false,
+        properties = "spring.datasource.url=jdbc:h2:file:./target/benchmark/${random.uuid};MODE=MSSQLServer;NON_KEYWORDS=DAY,VALUE;RETENTION_TIME=0")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class EntityIdInsertBenchmark {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 1_000_000);
+
+    private static final int ORDERS_PER_TRANSACTION = 1_000;
+
+    private static final AtomicLong NEXT_ORDER_CODE = new AtomicLong(1_000_000);
+
+    private static final Map<String, String> RESULTS = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restoreDefaultGenerator() {
+        EntityIds.use(new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Layout.SQL_SERVER));
+    }
+
+    @AfterAll
+    static void report() {
+        RESULTS.forEach((generator, result) -> System.out.printf("%-12s %s%n", generator, result));
+    }
+
+    // Runs second, so it has the warmer JIT
+    @Test
+    @org.junit.jupiter.api.Order(2)
+    void randomIds() {
+        insert("random", UUID::randomUUID);
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(1)
+    void timeOrderedIds() {
+        insert("time-ordered", new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Layout.RFC_9562));
+    }
+
+    private void insert(String name, EntityIdGenerator generator) {
+        EntityIds.use(generator);
+
+        long started = System.nanoTime();
+        for (int inserted = 0; inserted < ORDERS; inserted += ORDERS_PER_TRANSACTION) {
+            int count = Math.min(ORDERS_PER_TRANSACTION, ORDERS - inserted);
+            transactionTemplate.executeWithoutResult(transactionStatus -> insertBatch(count));
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        assertThat(orderRepository.count()).isEqualTo(ORDERS);
+        assertThat(orderItemRepository.count()).isEqualTo(ORDERS);
+
+        jdbcTemplate.execute("CHECKPOINT SYNC");
+        long orderBytes = diskSpaceUsed("ORDERS");
+        long itemBytes = diskSpaceUsed("ORDER_ITEMS");
+        RESULTS.put(name, String.format("%,d rows in %.1fs (%,.0f rows/s), orders %,d KB, order items %,d KB",
+                2L * ORDERS, seconds, 2 * ORDERS / seconds, orderBytes / 1024, itemBytes / 1024));
+    }
+
+    private void insertBatch(int count) {
+        List<Order> orders = new ArrayList<>(count);
+        List<OrderItem> orderItems = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setOrderCode(NEXT_ORDER_CODE.getAndIncrement());
+            order.setOrderDate(Instant.now());
+            order.setTotalAmount(BigDecimal.TEN);
+            order.setShippingAddress("Benchmark address");
+            order.setStatus(ConstStatus.ACTIVE_STATUS);
+            orders.add(order);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrderID(order);
+            orderItem.setName("Benchmark item");
+            orderItem.setQuantity(1);
+            orderItem.setUnitPrice(BigDecimal.TEN);
+            orderItem.setStatus(ConstStatus.ACTIVE_STATUS);
+            orderItems.add(orderItem);
+        }
+        orderRepository.saveAll(orders);
+        orderItemRepository.saveAll(orderItems);
+    }
+
+    // Table and index pages together
+    private long diskSpaceUsed(String table) {
+        return jdbcTemplate.queryForObject("SELECT DISK_SPACE_USED('" + table + "')", Long.class);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.kalban_greenbag.benchmark;
+
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.service.IFlashSaleService;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import com.example.kalban_greenbag.service.impl.FlashSaleServiceImpl;
+import com.example.kalban_greenbag.service.impl.StockReservationServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout throughput on one hot product with its stock in the product row and split over shard rows. Every buyer
+ * runs the checkout transaction (order insert, stock hold, reservation insert) in a loop for a fixed time, so the
+ * row lock is held for as long as it is in production. Not a JMH benchmark: the work is database-bound and needs
+ * the Spring context, so it reports checkouts per second once per mode.
+ *
+ * <p>{@code mvn test -Pbenchmark -Dtest=FlashSaleStockBenchmark [-Dbenchmark.buyers=64 -Dbenchmark.seconds=10]}
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StockReservationServiceImpl.class, FlashSaleServiceImpl.class, LocalCacheManager.class})
+public class FlashSaleStockBenchmark {
+
+    private static final int BUYERS = Integer.getInteger("benchmark.buyers", 64);
+
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+
+    private static final int STOCK = 10_000_000;
+
+    private static final AtomicLong NEXT_ORDER_CODE = new AtomicLong(1_000_000);
+
+    @Autowired
+    private IStockReservationService stockReservationService;
+
+    @Autowired
+    private IFlashSaleService flashSaleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void run() throws Exception {
+        long singleRow = measure("single row", 0);
+        long eightShards = measure("8 shards", 8);
+        long thirtyTwoShards = measure("32 shards", 32);
+
+        System.out.printf("%d buyers for %ds each: single row %d, 8 shards %d, 32 shards %d checkouts/s%n",
+                BUYERS, SECONDS, singleRow, eightShards, thirtyTwoShards);
+    }
+
+    // Returns checkouts per second; also checks that no unit was lost or sold twice
+    private long measure(String mode, int shards) throws Exception {
+        UUID productId = persistProduct("Hot product, " + mode);
+        if (shards > 0) {
+            flashSaleService.enable(productId, shards);
+        }
+        Product product = productRepository.findById(productId).orElseThrow();
+
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        long checkouts = 0;
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+            List<Future<Long>> buyers = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                buyers.add(executor.submit(() -> {
+                    start.await();
+                    long held = 0;
+                    while (System.nanoTime() < deadline) {
+                        if (checkout(product)) {
+                            held++;
+                        }
+                    }
+                    return held;
+                }));
+            }
+            start.countDown();
+            for (Future<Long> buyer : buyers) {
+                checkouts += buyer.get(SECONDS + 60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(flashSaleService.availableStock(productId) + productRepository.findById(productId).orElseThrow().getStock())
+                .as("stock left in %s mode", mode)
+                .isEqualTo(STOCK - checkouts);
+        return checkouts / SECONDS;
+    }
+
+    private boolean checkout(Product product) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(transactionStatus -> {
+            Order order = new Order();
+            order.setOrderCode(NEXT_ORDER_CODE.getAndIncrement());
+            order.setStatus(ConstStatus.ACTIVE_STATUS);
+            orderRepository.save(order);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProductID(product);
+            orderItem.setQuantity(1);
+            if (!stockReservationService.tryHold(order, List.of(orderItem))) {
+                transactionStatus.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
+    }
+
+    private UUID persistProduct(String name) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setFinalPrice(BigDecimal.TEN);
+        product.setStock(STOCK);
+        product.setStatus(ConstStatus.ACTIVE_STATUS);
+        return productRepository.save(product).getId();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.kalban_greenbag.benchmark;
+
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.model.TokenClaims;
+import com.example.kalban_greenbag.service.impl.JWTServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticating a request from its bearer token: JWTServiceImpl.parseToken, which verifies each token once and then
+ * serves its claims from the cache, against verifying the signature on every request as before.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtParseBenchmark {
+
+    private JWTServiceImpl jwtService;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        LocalCacheManager cacheManager = new LocalCacheManager();
+        ReflectionTestUtils.setField(cacheManager, "maxEntries", 10_000);
+        ReflectionTestUtils.setField(cacheManager, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(cacheManager, "localOnlyRegions", Set.of());
+
+        jwtService = new JWTServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "cacheManager", cacheManager);
+        jwtService.initCaches();
+
+        token = jwtService.generateToken(User.withUsername("buyer@example.com").password("unused").roles("CUSTOMER").build());
+    }
+
+    @Benchmark
+    public TokenClaims cachedClaims() throws BaseException {
+        return jwtService.parseToken(token);
+    }
+
+    // What every authenticated request paid before: a new parser and a full signature check
+    @Benchmark
+    public Claims verifyEveryRequest() {
+        return Jwts.parserBuilder().setSigningKey(jwtService.getSigninKey()).build().parseClaimsJws(token).getBody();
+    }
+
+    @Test
+    void run() throws RunnerException {
+        Benchmarks.run(JwtParseBenchmark.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.kalban_greenbag.benchmark;
+
+import com.example.kalban_greenbag.constant.MoMoConstant;
+import com.example.kalban_greenbag.service.momo.MoMoSigner;
+import com.example.kalban_greenbag.utils.MoMoUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing a payment request with the per-thread Mac against the getInstance and init per signature it replaced.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class MoMoSignerBenchmark {
+
+    private final MoMoSigner signer = new MoMoSigner();
+
+    private final String data = MoMoUtil.signatureData()
+            .add("partnerCode", MoMoConstant.PARTNER_CODE)
+            .add("accessKey", MoMoConstant.ACCESS_KEY)
+            .add("requestId", "1729206000000")
+            .add("amount", "150000")
+            .add("orderId", "1729206000000")
+            .add("orderInfo", "Thanh toan don hang 1729206000000")
+            .add("returnUrl", "https://example.com/momo/return")
+            .add("notifyUrl", "https://example.com/momo/notify")
+            .add("extraData", "")
+            .build();
+
+    @Benchmark
+    public String perThreadMac() {
+        return signer.sign(data);
+    }
+
+    @Benchmark
+    public String newMacPerSignature() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(MoMoConstant.SECRET_KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return MoMoUtil.toHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void run() throws RunnerException {
+        Benchmarks.run(MoMoSignerBenchmark.class);
+    }
+}
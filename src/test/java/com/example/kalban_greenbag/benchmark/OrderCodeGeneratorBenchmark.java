@@ -0,0 +1,111 @@
+package com.example.kalban_greenbag.benchmark;
+
+import com.example.kalban_greenbag.repository.OrderCodeSequenceRepository;
+import com.example.kalban_greenbag.sequence.OrderCodeGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order codes drawn by concurrent checkouts against the database, once from blocks of 1,000 and once with a block
+ * size of one, which is the old per-order sequence: a locked read and update of the sequence row for every order.
+ *
+ * <p>{@code mvn test -Pbenchmark -Dtest=OrderCodeGeneratorBenchmark}
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderCodeGeneratorBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCodeGeneratorBenchmark.class);
+
+    private static final int THREADS = 16;
+
+    private static final int CODES_PER_THREAD = 2_000;
+
+    @Autowired
+    private OrderCodeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        sequenceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void blocksOutrunThePerOrderSequence() throws Exception {
+        // Warm up both paths before timing them
+        draw(newGenerator(1), 100);
+        draw(newGenerator(1_000), 100);
+
+        double perOrder = draw(newGenerator(1), CODES_PER_THREAD);
+        double blocks = draw(newGenerator(1_000), CODES_PER_THREAD);
+
+        logger.info("{} threads drawing order codes: per-order sequence {} codes/s, blocks of 1,000 {} codes/s",
+                THREADS, Math.round(perOrder), Math.round(blocks));
+        assertThat(blocks).isGreaterThan(10 * perOrder);
+    }
+
+    // Codes per second over all threads
+    private double draw(OrderCodeGenerator generator, int codesPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Set<Long> seen = ConcurrentHashMap.newKeySet();
+            List<Future<?>> threads = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                threads.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < codesPerThread; j++) {
+                        seen.add(generator.next());
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> thread : threads) {
+                thread.get(300, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            assertThat(seen).hasSize(THREADS * codesPerThread);
+            return THREADS * codesPerThread / seconds;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private OrderCodeGenerator newGenerator(int blockSize) {
+        OrderCodeGenerator generator = new OrderCodeGenerator(transactionManager);
+        ReflectionTestUtils.setField(generator, "sequenceRepository", sequenceRepository);
+        ReflectionTestUtils.setField(generator, "blockSize", blockSize);
+        return generator;
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.kalban_greenbag.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisSharedCacheTierTest {
+
+    // RedisSharedCacheTier.MIN_BACKOFF_MILLIS plus some slack
+    private static final long FIRST_BACKOFF_MILLIS = 1_200;
+
+    private JedisPool jedisPool;
+    private Jedis jedis;
+    private RedisSharedCacheTier tier;
+    private CacheRegion<String, String> region;
+    private final AtomicInteger loads = new AtomicInteger();
+    private int subscribedNodes;
+
+    @BeforeEach
+    void setUp() {
+        jedisPool = mock(JedisPool.class);
+        jedis = mock(Jedis.class);
+        // No evicts or clears recorded yet
+        when(jedis.mget(any(String[].class))).thenReturn(Arrays.asList(null, null));
+        tier = new RedisSharedCacheTier(jedisPool, "cache:invalidation");
+        region = new CacheRegion<>("Products:", 100, 60_000, tier, "node-a");
+    }
+
+    @Test
+    void fallsBackToLocalOnlyWhileRedisIsDown() throws Exception {
+        when(jedisPool.getResource()).thenThrow(new JedisConnectionException("Connection refused"));
+
+        assertThat(region.get("1", () -> load("product-1"))).isEqualTo("product-1");
+        assertThat(tier.isAvailable()).isFalse();
+
+        // Served from the local tier, and a different key goes straight to the loader without touching Redis
+        assertThat(region.get("1", () -> load("stale"))).isEqualTo("product-1");
+        assertThat(region.get("2", () -> load("product-2"))).isEqualTo("product-2");
+        region.put("3", "product-3");
+        region.evict("2");
+
+        assertThat(loads).hasValue(2);
+        verify(jedisPool, times(1)).getResource();
+    }
+
+    @Test
+    void recoversAfterTheBackoffWindow() throws Exception {
+        when(jedisPool.getResource())
+                .thenThrow(new JedisConnectionException("Connection refused"))
+                .thenReturn(jedis);
+
+        region.get("1", () -> load("product-1"));
+        assertThat(tier.isAvailable()).isFalse();
+
+        Thread.sleep(FIRST_BACKOFF_MILLIS);
+        assertThat(tier.isAvailable()).isTrue();
+
+        assertThat(region.get("2", () -> load("product-2"))).isEqualTo("product-2");
+        verify(jedis).get(any(byte[].class));
+        verify(jedis).psetex(any(byte[].class), anyLong(), any(byte[].class));
+        assertThat(tier.isAvailable()).isTrue();
+    }
+
+    @Test
+    void failureWhileWritingOpensTheBackoffWindow() throws Exception {
+        when(jedisPool.getResource()).thenReturn(jedis);
+        when(jedis.psetex(any(byte[].class), anyLong(), any(byte[].class)))
+                .thenThrow(new JedisConnectionException("Broken pipe"));
+
+        assertThat(region.get("1", () -> load("product-1"))).isEqualTo("product-1");
+        assertThat(tier.isAvailable()).isFalse();
+
+        assertThat(region.get("2", () -> load("product-2"))).isEqualTo("product-2");
+        verify(jedis, times(1)).get(any(byte[].class));
+        verify(jedis, never()).publish(any(String.class), any(String.class));
+    }
+
+    @Test
+    void evictOnOneNodeReachesTheOtherOverPubSub() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        LocalCacheManager nodeA = node(redis);
+        LocalCacheManager nodeB = node(redis);
+        CacheRegion<String, String> regionA = nodeA.getRegion("Products:");
+        CacheRegion<String, String> regionB = nodeB.getRegion("Products:");
+
+        assertThat(regionA.get("1", () -> load("v1"))).isEqualTo("v1");
+        // Node B is served from the shared tier without loading
+        assertThat(regionB.get("1", () -> load("unused"))).isEqualTo("v1");
+        assertThat(regionB.getIfPresent("1")).isEqualTo("v1");
+
+        regionA.evict("1");
+
+        assertThat(regionB.getIfPresent("1")).isNull();
+        assertThat(regionB.get("1", () -> load("v2"))).isEqualTo("v2");
+        assertThat(regionA.get("1", () -> load("unused"))).isEqualTo("v2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadThatRacedWithAnotherNodesEvictDoesNotReachTheSharedTier() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        LocalCacheManager nodeA = node(redis);
+        LocalCacheManager nodeB = node(redis);
+        CacheRegion<String, String> regionA = nodeA.getRegion("Products:");
+        CacheRegion<String, String> regionB = nodeB.getRegion("Products:");
+        redis.holdMessages();
+
+        // Node A reads v1 from the database; node B commits v2 and evicts before A's write, and its message is late
+        String loadedByA = regionA.get("1", () -> {
+            regionB.evict("1");
+            return load("v1");
+        });
+
+        assertThat(loadedByA).isEqualTo("v1");
+        assertThat(redis.values).isEmpty();
+        assertThat(regionB.get("1", () -> load("v2"))).isEqualTo("v2");
+
+        // The late message then drops node A's local copy as well
+        redis.deliverMessages();
+        assertThat(regionA.get("1", () -> load("unused"))).isEqualTo("v2");
+    }
+
+    @Test
+    void clearOnOneNodeDropsLoadsStartedBeforeIt() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        CacheRegion<String, String> regionA = node(redis).getRegion("Products:");
+        CacheRegion<String, String> regionB = node(redis).getRegion("Products:");
+        redis.holdMessages();
+
+        regionA.get("1", () -> {
+            regionB.clear();
+            return load("v1");
+        });
+
+        assertThat(redis.values).isEmpty();
+    }
+
+    private LocalCacheManager node(FakeRedis redis) throws InterruptedException {
+        JedisPool pool = mock(JedisPool.class);
+        when(pool.getResource()).thenAnswer(invocation -> redis.connect());
+        LocalCacheManager node = new LocalCacheManager();
+        ReflectionTestUtils.setField(node, "maxEntries", 100);
+        ReflectionTestUtils.setField(node, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(node, "localOnlyRegions", Set.of());
+        ReflectionTestUtils.setField(node, "sharedCacheTier", new RedisSharedCacheTier(pool, "cache:invalidation"));
+        node.init();
+        redis.awaitSubscribers(++subscribedNodes);
+        return node;
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    /**
+     * The handful of Redis commands the tier uses, kept in memory and shared by every connection handed out, with
+     * pub/sub delivered on the publishing thread unless messages are held back to simulate a slow subscriber.
+     */
+    private static final class FakeRedis {
+
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+        private final Map<String, Long> counters = new ConcurrentHashMap<>();
+        private final List<JedisPubSub> subscribers = new CopyOnWriteArrayList<>();
+        private final List<String> heldMessages = new CopyOnWriteArrayList<>();
+        private volatile boolean holding;
+
+        void holdMessages() {
+            holding = true;
+        }
+
+        void deliverMessages() {
+            holding = false;
+            heldMessages.forEach(this::deliver);
+            heldMessages.clear();
+        }
+
+        void awaitSubscribers(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (subscribers.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(subscribers).hasSize(count);
+        }
+
+        private void deliver(String message) {
+            subscribers.forEach(subscriber -> subscriber.onMessage("cache:invalidation", message));
+        }
+
+        Jedis connect() {
+            return new Jedis() {
+                @Override
+                public byte[] get(byte[] key) {
+                    return values.get(new String(key, StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public String psetex(byte[] key, long milliseconds, byte[] value) {
+                    values.put(new String(key, StandardCharsets.UTF_8), value);
+                    return "OK";
+                }
+
+                @Override
+                public long del(byte[] key) {
+                    return values.remove(new String(key, StandardCharsets.UTF_8)) == null ? 0 : 1;
+                }
+
+                @Override
+                public long incr(String key) {
+                    return counters.merge(key, 1L, Long::sum);
+                }
+
+                @Override
+                public long pexpire(String key, long milliseconds) {
+                    return 1;
+                }
+
+                @Override
+                public List<String> mget(String... keys) {
+                    return Arrays.stream(keys)
+                            .map(key -> counters.containsKey(key) ? counters.get(key).toString() : null)
+                            .toList();
+                }
+
+                @Override
+                public ScanResult<String> scan(String cursor, ScanParams params) {
+                    return new ScanResult<>(ScanParams.SCAN_POINTER_START, List.copyOf(values.keySet()));
+                }
+
+                @Override
+                public long unlink(String... keys) {
+                    Arrays.stream(keys).forEach(values::remove);
+                    return keys.length;
+                }
+
+                @Override
+                public long publish(String channel, String message) {
+                    if (holding) {
+                        heldMessages.add(message);
+                    } else {
+                        deliver(message);
+                    }
+                    return subscribers.size();
+                }
+
+                @Override
+                public void subscribe(JedisPubSub jedisPubSub, String... channels) {
+                    subscribers.add(jedisPubSub);
+                    // A real subscription blocks its connection until unsubscribed
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
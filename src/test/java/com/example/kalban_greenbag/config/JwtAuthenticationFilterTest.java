@@ -0,0 +1,127 @@
+package com.example.kalban_greenbag.config;
+
+import com.example.kalban_greenbag.cache.TokenVersionRegistry;
+import com.example.kalban_greenbag.cache.UserPrincipalCache;
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.model.TokenClaims;
+import com.example.kalban_greenbag.model.UserPrincipal;
+import com.example.kalban_greenbag.service.IJWTService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private JwtAuthenticationFilter filter;
+    private IJWTService jwtService;
+    private UserPrincipalCache userPrincipalCache;
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtService = mock(IJWTService.class);
+        userPrincipalCache = mock(UserPrincipalCache.class);
+        tokenVersionRegistry = new TokenVersionRegistry();
+        when(jwtService.isTokenValid(eq(TOKEN), any())).thenReturn(true);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userPrincipalCache", userPrincipalCache);
+        ReflectionTestUtils.setField(filter, "tokenVersionRegistry", tokenVersionRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void activeSelfContainedTokenAuthenticates() throws Exception {
+        when(jwtService.parseToken(TOKEN)).thenReturn(selfContained(ConstStatus.ACTIVE_STATUS, 0));
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("buyer");
+    }
+
+    @Test
+    void inactiveStatusClaimIsRejected() throws Exception {
+        when(jwtService.parseToken(TOKEN)).thenReturn(selfContained(ConstStatus.INACTIVE_STATUS, 0));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentAsString()).contains(ConstError.User.USER_DISABLED);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void inactiveCachedPrincipalIsRejected() throws Exception {
+        when(jwtService.parseToken(TOKEN)).thenReturn(new TokenClaims("buyer", Long.MAX_VALUE, USER_ID, 0, null, null, false));
+        when(userPrincipalCache.get("buyer")).thenReturn(new UserPrincipal(USER_ID, "buyer", ConstStatus.INACTIVE_STATUS, "CUSTOMER"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void tokenWithoutVersionIsRejected() throws Exception {
+        when(jwtService.parseToken(TOKEN)).thenReturn(new TokenClaims("buyer", Long.MAX_VALUE, null, null, null, null, false));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentAsString()).contains(ConstError.User.TOKEN_REVOKED);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void tokenOlderThanTheRevocationIsRejected() throws Exception {
+        tokenVersionRegistry.record(USER_ID, 2);
+        when(jwtService.parseToken(TOKEN)).thenReturn(selfContained(ConstStatus.ACTIVE_STATUS, 1));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentAsString()).contains(ConstError.User.TOKEN_REVOKED);
+    }
+
+    private static TokenClaims selfContained(String status, int tokenVersion) {
+        return new TokenClaims("buyer", Long.MAX_VALUE, USER_ID, tokenVersion, "CUSTOMER", status, false);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/order");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        return request;
+    }
+}
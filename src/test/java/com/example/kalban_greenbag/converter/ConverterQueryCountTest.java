@@ -0,0 +1,212 @@
+package com.example.kalban_greenbag.converter;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.dto.response.order.OrderResponse;
+import com.example.kalban_greenbag.dto.response.order_item.OrderItemResponse;
+import com.example.kalban_greenbag.dto.response.product.ProductResponse;
+import com.example.kalban_greenbag.dto.response.review.ReviewResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.entity.Review;
+import com.example.kalban_greenbag.entity.Role;
+import com.example.kalban_greenbag.entity.User;
+import com.example.kalban_greenbag.repository.OrderItemRepository;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.repository.ReviewRepository;
+import com.example.kalban_greenbag.repository.projection.ProductSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mapping an entity to its response must not load anything: what the repository fetched is mapped, lazy
+ * associations and attributes are left out. Each test loads through the repository first and counts only the
+ * statements issued while converting.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ConverterQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private User user;
+    private Order order;
+    private Review review;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("CUSTOMER");
+        entityManager.persist(role);
+
+        user = new User();
+        user.setUsername("buyer");
+        user.setEmail("buyer@example.com");
+        user.setPassword("password");
+        user.setRole(role);
+        entityManager.persist(user);
+
+        products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setFinalPrice(BigDecimal.valueOf(100 + i));
+            product.setStock(50);
+            product.setDesciption("Description " + i);
+            product.setStatus(ConstStatus.ACTIVE_STATUS);
+            entityManager.persist(product);
+            products.add(product);
+        }
+
+        order = new Order();
+        order.setUserID(user);
+        order.setOrderDate(Instant.now());
+        order.setTotalAmount(BigDecimal.valueOf(303));
+        order.setShippingAddress("Shipping address");
+        order.setStatus(ConstStatus.ACTIVE_STATUS);
+        order.setOrderCode(1_000_000L);
+        entityManager.persist(order);
+        for (Product product : products) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrderID(order);
+            orderItem.setProductID(product);
+            orderItem.setName(product.getProductName());
+            orderItem.setQuantity(1);
+            orderItem.setUnitPrice(product.getFinalPrice());
+            entityManager.persist(orderItem);
+        }
+
+        review = new Review();
+        review.setUserID(user);
+        review.setProductID(products.get(0));
+        review.setRating(5);
+        review.setComment("Great bag");
+        entityManager.persist(review);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void orderWithFetchedItemsMapsWithoutStatements() {
+        Order loaded = orderRepository.findAllWithItemsByIdIn(List.of(order.getId())).get(0);
+
+        OrderResponse response = mapCounting(() -> OrderConverter.toResponse(loaded));
+
+        assertThat(response.getUserId()).isEqualTo(user.getId());
+        assertThat(response.getOrderItems()).hasSize(products.size());
+        assertThat(response.getOrderItems()).allSatisfy(orderItem -> assertThat(orderItem.getProduct()).isNotNull());
+    }
+
+    @Test
+    void lazyOrderMapsWithoutStatementsAndLeavesItemsOut() {
+        Order loaded = orderRepository.findById(order.getId()).orElseThrow();
+
+        OrderResponse response = mapCounting(() -> OrderConverter.toResponse(loaded));
+
+        assertThat(response.getUserId()).isEqualTo(user.getId());
+        assertThat(response.getTotalAmount()).isEqualByComparingTo("303");
+        assertThat(response.getOrderItems()).isNull();
+        assertThat(response.getShippingAddress()).isNull();
+    }
+
+    @Test
+    void orderItemsWithTheirProductMapWithoutStatements() {
+        List<OrderItem> loaded = orderItemRepository.findByOrderID_Id(order.getId());
+
+        List<OrderItemResponse> responses = mapCounting(() -> loaded.stream().map(OrderItemConverter::toResponse).toList());
+
+        assertThat(responses).hasSize(products.size());
+        assertThat(responses).allSatisfy(orderItem -> {
+            assertThat(orderItem.getOrderID()).isEqualTo(order.getId());
+            assertThat(orderItem.getProduct().getProductName()).startsWith("Product ");
+        });
+    }
+
+    @Test
+    void reviewMapsItsUserOnlyWhenFetched() {
+        Review withUser = reviewRepository.findWithUserById(review.getId()).orElseThrow();
+        ReviewResponse fetched = mapCounting(() -> ReviewConverter.toResponse(withUser));
+        assertThat(fetched.getUser().getUsername()).isEqualTo("buyer");
+
+        entityManager.clear();
+        Review lazy = reviewRepository.findById(review.getId()).orElseThrow();
+        ReviewResponse unfetched = mapCounting(() -> ReviewConverter.toResponse(lazy));
+        assertThat(unfetched.getUser()).isNull();
+        assertThat(unfetched.getProductID()).isEqualTo(products.get(0).getId());
+    }
+
+    @Test
+    void productListMappingLeavesTheLazyDescriptionOut() {
+        Product loaded = productRepository.findById(products.get(0).getId()).orElseThrow();
+
+        ProductResponse response = mapCounting(() -> ProductConverter.toResponse(loaded));
+        assertThat(response.getProductName()).isEqualTo("Product 0");
+        assertThat(response.getDescription()).isNull();
+
+        // The detail mapping is the one place that reads it, with its own statement
+        Statistics statistics = statistics();
+        ProductResponse detail = ProductConverter.toDetailResponse(loaded);
+        assertThat(detail.getDescription()).isEqualTo("Description 0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void summariesMapWithoutStatements() {
+        List<ProductSummary> loaded = productRepository.findSummariesOrderByCreatedDateDesc(PageRequest.of(0, 10));
+
+        List<ProductResponse> responses = mapCounting(() -> loaded.stream().map(ProductConverter::toResponse).toList());
+
+        assertThat(responses).hasSize(products.size());
+    }
+
+    private <T> T mapCounting(Supplier<T> mapping) {
+        Statistics statistics = statistics();
+        T response = mapping.get();
+        assertThat(statistics.getPrepareStatementCount()).as("statements issued while mapping").isZero();
+        return response;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+}
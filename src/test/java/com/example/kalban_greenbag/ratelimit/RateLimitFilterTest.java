@@ -0,0 +1,153 @@
+package com.example.kalban_greenbag.ratelimit;
+
+import com.example.kalban_greenbag.constant.ConstAPI;
+import com.example.kalban_greenbag.constant.ConstError;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+    private RateLimitPolicy authPolicy;
+    private RateLimitPolicy catalogPolicy;
+
+    @BeforeEach
+    void setUp() {
+        // One permit every two seconds, like the payment group
+        authPolicy = new RateLimitPolicy("auth", 0.5, 2, Set.of("POST"), List.of(ConstAPI.AuthenticationAPI.LOGIN_WITH_PASSWORD_USERNAME));
+        catalogPolicy = new RateLimitPolicy("catalog", 0.5, 1, Set.of("GET"), List.of(ConstAPI.ProductAPI.GET_ALL_PRODUCT));
+
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "rateLimiter", new LocalRateLimiter());
+        ReflectionTestUtils.setField(filter, "policies", List.of(authPolicy, catalogPolicy));
+        ReflectionTestUtils.setField(filter, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void policyMatchesItsMethodsAndPathPrefixes() {
+        assertThat(catalogPolicy.matches("GET", "api/v1/product")).isTrue();
+        assertThat(catalogPolicy.matches("GET", "api/v1/product/7f1c9a52")).isTrue();
+        assertThat(catalogPolicy.matches("POST", "api/v1/product")).isFalse();
+        assertThat(catalogPolicy.matches("GET", "api/v1/order")).isFalse();
+        assertThat(catalogPolicy.getIntervalNanos()).isEqualTo(2_000_000_000L);
+    }
+
+    @Test
+    void policyRejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> new RateLimitPolicy("auth", 0, 1, Set.of("POST"), List.of("api")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimitPolicy("auth", 1, 0, Set.of("POST"), List.of("api")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void requestOverTheBurstGets429WithRetryAfter() throws Exception {
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(loginRequest("10.0.0.1"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        // Rounded up to whole seconds: the next permit is just under two seconds away
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains(ConstError.RateLimit.TOO_MANY_REQUESTS);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(authPolicy.getStats().getAllowed()).isEqualTo(2);
+        assertThat(authPolicy.getStats().getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void anonymousCallersAreLimitedPerClientAddress() throws Exception {
+        login("10.0.0.1");
+        login("10.0.0.1");
+
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authenticatedCallersAreLimitedPerUserAcrossAddresses() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of()));
+        login("10.0.0.1");
+        login("10.0.0.2");
+
+        assertThat(login("10.0.0.3").getStatus()).isEqualTo(429);
+
+        // The address bucket is untouched, so an anonymous caller behind it is still served
+        SecurityContextHolder.clearContext();
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void groupsHaveSeparateBuckets() throws Exception {
+        MockHttpServletRequest catalogRequest = new MockHttpServletRequest("GET", "/" + ConstAPI.ProductAPI.GET_ALL_PRODUCT);
+        catalogRequest.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(catalogRequest, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(200);
+
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void unmatchedRoutesAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + ConstAPI.OrderAPI.GET_ALL_ORDERS);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void contextPathIsIgnoredWhenMatching() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/shop/" + ConstAPI.AuthenticationAPI.LOGIN_WITH_PASSWORD_USERNAME);
+        request.setContextPath("/shop");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(authPolicy.getStats().getAllowed()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledFilterLetsEverythingThrough() throws Exception {
+        ReflectionTestUtils.setField(filter, "enabled", false);
+        for (int i = 0; i < 5; i++) {
+            assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(authPolicy.getStats().getAllowed()).isZero();
+    }
+
+    private MockHttpServletResponse login(String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(remoteAddr), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest loginRequest(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/" + ConstAPI.AuthenticationAPI.LOGIN_WITH_PASSWORD_USERNAME);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.kalban_greenbag.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The Redis buckets are driven through the script; when Redis cannot be reached the limiter falls back to the local
+ * buckets and stays off Redis for its backoff instead of failing or rejecting requests.
+ */
+class RedisRateLimiterTest {
+
+    private static final String SHA = "0123456789abcdef";
+
+    private JedisPool jedisPool;
+    private Jedis jedis;
+    private LocalRateLimiter fallback;
+    private RedisRateLimiter rateLimiter;
+    private RateLimitPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        jedisPool = mock(JedisPool.class);
+        jedis = mock(Jedis.class);
+        when(jedisPool.getResource()).thenReturn(jedis);
+        when(jedis.scriptLoad(anyString())).thenReturn(SHA);
+        fallback = new LocalRateLimiter();
+        rateLimiter = new RedisRateLimiter(jedisPool, fallback);
+        // Ten permits per second: 100 ms apart, with a burst of three
+        policy = new RateLimitPolicy("auth", 10, 3, Set.of("POST"), List.of("api/v1/auth"));
+    }
+
+    @Test
+    void scriptGetsTheIntervalAndBurstInMicroseconds() {
+        when(jedis.evalsha(eq(SHA), anyList(), anyList())).thenReturn(0L);
+
+        assertThat(rateLimiter.tryAcquire("auth:ip:10.0.0.1", policy)).isZero();
+
+        verify(jedis).evalsha(SHA, List.of("ratelimit:auth:ip:10.0.0.1"), List.of("100000", "200000"));
+        assertThat(rateLimiter.getMode()).isEqualTo("redis");
+    }
+
+    @Test
+    void scriptDelayIsReturnedInNanoseconds() {
+        when(jedis.evalsha(eq(SHA), anyList(), anyList())).thenReturn(1_500L);
+
+        assertThat(rateLimiter.tryAcquire("auth:ip:10.0.0.1", policy)).isEqualTo(1_500_000L);
+    }
+
+    @Test
+    void flushedScriptIsLoadedAgain() {
+        when(jedis.evalsha(eq(SHA), anyList(), anyList()))
+                .thenThrow(new JedisNoScriptException("NOSCRIPT"))
+                .thenReturn(0L);
+
+        assertThat(rateLimiter.tryAcquire("auth:ip:10.0.0.1", policy)).isZero();
+
+        verify(jedis, times(2)).scriptLoad(anyString());
+        assertThat(rateLimiter.getFallbacks()).isZero();
+    }
+
+    @Test
+    void unreachableRedisFallsBackToLocalBuckets() {
+        when(jedisPool.getResource()).thenThrow(new JedisConnectionException("Connection refused"));
+
+        // The local bucket enforces the same policy: three at once, then a wait
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("auth:ip:10.0.0.1", policy)).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("auth:ip:10.0.0.1", policy)).isPositive();
+
+        // Only the first call tried Redis; the rest waited out the backoff locally
+        verify(jedisPool, times(1)).getResource();
+        assertThat(rateLimiter.getFallbacks()).isEqualTo(4);
+        assertThat(rateLimiter.getMode()).isEqualTo("redis-fallback-local");
+        assertThat(rateLimiter.getTrackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void redisIsUsedAgainOnceTheBackoffHasPassed() {
+        when(jedisPool.getResource())
+                .thenThrow(new JedisConnectionException("Connection refused"))
+                .thenReturn(jedis);
+        when(jedis.evalsha(eq(SHA), anyList(), anyList())).thenReturn(0L);
+        rateLimiter.tryAcquire("auth:ip:10.0.0.1", policy);
+
+        ReflectionTestUtils.setField(rateLimiter, "unavailableUntil", 1L);
+        assertThat(rateLimiter.tryAcquire("auth:ip:10.0.0.1", policy)).isZero();
+
+        assertThat(rateLimiter.getMode()).isEqualTo("redis");
+        assertThat(rateLimiter.getFallbacks()).isEqualTo(1);
+        // The backoff starts over for the next outage
+        assertThat(ReflectionTestUtils.getField(rateLimiter, "backoffMillis")).isEqualTo(1_000L);
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.kalban_greenbag.resilience;
+
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.exception.BaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GatewayGuardTest {
+
+    private static final long TIMEOUT_MS = 1000;
+
+    private static final long HEDGE_DELAY_MS = 500;
+
+    private static final int FAILURE_THRESHOLD = 2;
+
+    private static final int MAX_CONCURRENT = 4;
+
+    private static final long MAX_WAIT_MS = 100;
+
+    private static final long OPEN_MS = 200;
+
+    private final FaultInjectingGateway gateway = new FaultInjectingGateway();
+
+    private final GatewayGuard guard = guard("test", 30_000);
+
+    private final List<GatewayGuard> extraGuards = new ArrayList<>();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        guard.shutdown();
+        extraGuards.forEach(GatewayGuard::shutdown);
+    }
+
+    @Test
+    void hedgedCallSendsTheSecondCopyRightAwayWhenTheFirstFailsFast() throws Exception {
+        gateway.script(Fault.CONNECTION_RESET, Fault.NONE);
+        long started = System.nanoTime();
+
+        assertThat(guard.hedgedCall(gateway)).isEqualTo("ok");
+
+        assertThat((System.nanoTime() - started) / 1_000_000).isLessThan(HEDGE_DELAY_MS);
+        assertThat(gateway.calls).hasValue(2);
+        assertThat(guard.getStats().getHedges()).isEqualTo(1);
+        assertThat(guard.getStats().getFailures()).isZero();
+    }
+
+    @Test
+    void hedgedCallSendsTheSecondCopyAfterTheDelayWhenTheFirstIsSlow() throws Exception {
+        gateway.script(Fault.SLOW, Fault.NONE);
+        long started = System.nanoTime();
+
+        assertThat(guard.hedgedCall(gateway)).isEqualTo("ok");
+
+        assertThat((System.nanoTime() - started) / 1_000_000).isBetween(HEDGE_DELAY_MS, TIMEOUT_MS);
+        assertThat(guard.getStats().getHedges()).isEqualTo(1);
+    }
+
+    @Test
+    void hedgedCallFailsWhenBothCopiesFail() {
+        gateway.script(Fault.SERVER_ERROR, Fault.SERVER_ERROR);
+
+        assertThatThrownBy(() -> guard.hedgedCall(gateway)).isInstanceOf(IOException.class).hasMessageContaining("503");
+
+        assertThat(gateway.calls).hasValue(2);
+        assertThat(guard.getStats().getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectionIsNeitherHedgedNorCountedAgainstTheBreaker() throws Exception {
+        for (int i = 0; i < FAILURE_THRESHOLD * 2; i++) {
+            gateway.script(Fault.REJECTED);
+            assertThatThrownBy(() -> guard.call(gateway)).isInstanceOf(GatewayRejectedException.class);
+        }
+        gateway.script(Fault.REJECTED, Fault.NONE);
+        assertThatThrownBy(() -> guard.hedgedCall(gateway)).isInstanceOf(GatewayRejectedException.class);
+
+        assertThat(gateway.calls).hasValue(FAILURE_THRESHOLD * 2 + 1);
+        assertThat(guard.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED.name());
+        assertThat(guard.getStats().getFailures()).isZero();
+        assertThat(guard.getStats().getHedges()).isZero();
+    }
+
+    @Test
+    void rejectionBetweenTransportFailuresResetsTheCount() {
+        gateway.script(Fault.CONNECTION_RESET, Fault.REJECTED, Fault.SERVER_ERROR);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> guard.call(gateway)).isInstanceOf(IOException.class);
+        }
+
+        assertThat(guard.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED.name());
+    }
+
+    @Test
+    void transportAndServerFailuresOpenTheBreaker() {
+        gateway.script(Fault.CONNECTION_RESET, Fault.SERVER_ERROR, Fault.NONE);
+        assertThatThrownBy(() -> guard.call(gateway)).isInstanceOf(ConnectException.class);
+        assertThatThrownBy(() -> guard.call(gateway)).isInstanceOf(IOException.class);
+
+        assertThat(guard.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN.name());
+        assertThatThrownBy(() -> guard.call(gateway))
+                .isInstanceOf(BaseException.class)
+                .hasMessage(ConstError.Gateway.GATEWAY_CIRCUIT_OPEN);
+        assertThat(gateway.calls).hasValue(2);
+    }
+
+    @Test
+    void timeoutsOpenTheBreaker() {
+        gateway.script(Fault.HANG, Fault.HANG);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> guard.call(gateway))
+                    .isInstanceOf(BaseException.class)
+                    .hasMessage(ConstError.Gateway.GATEWAY_TIMEOUT);
+        }
+
+        assertThat(guard.getStats().getTimeouts()).isEqualTo(FAILURE_THRESHOLD);
+        assertThat(guard.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN.name());
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndItsSuccessClosesTheBreaker() throws Exception {
+        GatewayGuard recovering = openedGuard();
+        gateway.script(Fault.SLOW);
+
+        Future<String> probe = callers.submit(() -> recovering.call(gateway));
+        awaitCalls(FAILURE_THRESHOLD + 1);
+        // Only the probe goes through while it is in flight
+        assertThatThrownBy(() -> recovering.call(gateway))
+                .isInstanceOf(BaseException.class)
+                .hasMessage(ConstError.Gateway.GATEWAY_CIRCUIT_OPEN);
+
+        assertThat(probe.get()).isEqualTo("ok");
+        assertThat(recovering.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED.name());
+    }
+
+    @Test
+    void failedHalfOpenProbeOpensTheBreakerAgain() throws Exception {
+        GatewayGuard recovering = openedGuard();
+        gateway.script(Fault.SERVER_ERROR);
+
+        assertThatThrownBy(() -> recovering.call(gateway)).isInstanceOf(IOException.class);
+
+        assertThat(recovering.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN.name());
+    }
+
+    @Test
+    void interruptedHalfOpenProbeFreesTheProbeForTheNextCall() throws Exception {
+        GatewayGuard recovering = openedGuard();
+        gateway.script(Fault.HANG);
+
+        interruptWhileWaiting(() -> recovering.call(gateway));
+
+        assertThat(recovering.call(gateway)).isEqualTo("ok");
+        assertThat(recovering.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED.name());
+    }
+
+    @Test
+    void interruptedHedgedProbeFreesTheProbeForTheNextCall() throws Exception {
+        GatewayGuard recovering = openedGuard();
+        gateway.script(Fault.HANG, Fault.HANG);
+
+        interruptWhileWaiting(() -> recovering.hedgedCall(gateway));
+
+        assertThat(recovering.hedgedCall(gateway)).isEqualTo("ok");
+        assertThat(recovering.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED.name());
+    }
+
+    @Test
+    void saturatedBulkheadTurnsCallsAwayWithoutCountingAgainstTheBreaker() throws Exception {
+        stall(guard);
+        long started = System.nanoTime();
+
+        assertThatThrownBy(() -> guard.call(gateway))
+                .isInstanceOf(BaseException.class)
+                .hasMessage(ConstError.Gateway.GATEWAY_BUSY);
+
+        assertThat((System.nanoTime() - started) / 1_000_000).isLessThan(TIMEOUT_MS);
+        assertThat(guard.getStats().getInFlight()).isEqualTo(MAX_CONCURRENT);
+        assertThat(guard.getStats().getRejected()).isEqualTo(1);
+        assertThat(guard.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED.name());
+        assertThat(gateway.calls).hasValue(MAX_CONCURRENT);
+    }
+
+    @Test
+    void stalledGatewayStarvesNeitherRequestThreadsNorTheOtherGateway() throws Exception {
+        GatewayGuard momo = guard("momo", 30_000);
+        ExecutorService requestThreads = Executors.newFixedThreadPool(MAX_CONCURRENT * 2);
+        try {
+            // Twice as many checkouts as the PayOS pool holds, all waiting on a gateway that does not answer
+            gateway.script(Collections.nCopies(MAX_CONCURRENT * 2, Fault.HANG).toArray(new Fault[0]));
+            List<Future<String>> checkouts = new ArrayList<>();
+            for (int i = 0; i < MAX_CONCURRENT * 2; i++) {
+                checkouts.add(requestThreads.submit(() -> guard.call(gateway)));
+            }
+            awaitCalls(MAX_CONCURRENT);
+
+            // The other gateway has its own pool and answers right away
+            assertThat(momo.call(() -> "paid")).isEqualTo("paid");
+            assertThat(momo.getStats().getRejected()).isZero();
+
+            // Request threads are handed back within the timeout, so a catalog read queued behind them still runs
+            long started = System.nanoTime();
+            assertThat(requestThreads.submit(() -> "catalog").get(TIMEOUT_MS * 2, TimeUnit.MILLISECONDS)).isEqualTo("catalog");
+            assertThat((System.nanoTime() - started) / 1_000_000).isLessThan(TIMEOUT_MS * 2);
+            for (Future<String> checkout : checkouts) {
+                assertThatThrownBy(checkout::get).hasCauseInstanceOf(BaseException.class);
+            }
+            assertThat(gateway.calls).hasValue(MAX_CONCURRENT);
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    private GatewayGuard guard(String name, long openMillis) {
+        return new GatewayGuard(name, MAX_CONCURRENT, MAX_WAIT_MS, TIMEOUT_MS, HEDGE_DELAY_MS,
+                FAILURE_THRESHOLD, openMillis, exception -> exception instanceof GatewayRejectedException);
+    }
+
+    // A guard whose breaker opened on failures and has just become half-open
+    private GatewayGuard openedGuard() throws InterruptedException {
+        GatewayGuard recovering = guard("recovering", OPEN_MS);
+        extraGuards.add(recovering);
+        gateway.script(Collections.nCopies(FAILURE_THRESHOLD, Fault.SERVER_ERROR).toArray(new Fault[0]));
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> recovering.call(gateway)).isInstanceOf(IOException.class);
+        }
+        assertThat(recovering.getStats().getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN.name());
+        Thread.sleep(OPEN_MS + 50);
+        return recovering;
+    }
+
+    // Fills every permit of the guard with a call that hangs past the test
+    private void stall(GatewayGuard stalled) throws InterruptedException {
+        gateway.script(Collections.nCopies(MAX_CONCURRENT, Fault.HANG).toArray(new Fault[0]));
+        for (int i = 0; i < MAX_CONCURRENT; i++) {
+            callers.submit(() -> stalled.call(gateway));
+        }
+        awaitCalls(MAX_CONCURRENT);
+    }
+
+    // Runs the probe on a caller thread and interrupts that thread while it waits for the hanging gateway
+    private void interruptWhileWaiting(Callable<String> probe) throws InterruptedException {
+        AtomicReference<Exception> outcome = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                probe.call();
+            } catch (Exception e) {
+                outcome.set(e);
+            }
+        });
+        caller.start();
+        awaitCalls(FAILURE_THRESHOLD + 1);
+        caller.interrupt();
+        caller.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(outcome.get()).isInstanceOf(InterruptedException.class);
+    }
+
+    private void awaitCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gateway.calls.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(gateway.calls).hasValue(expected);
+    }
+
+    private enum Fault {
+        NONE, CONNECTION_RESET, SERVER_ERROR, REJECTED, SLOW, HANG
+    }
+
+    /**
+     * Stands in for the gateway: each call takes the next scripted fault, and answers normally once the script
+     * runs out.
+     */
+    private static final class FaultInjectingGateway implements Callable<String> {
+
+        private final ConcurrentLinkedQueue<Fault> faults = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        void script(Fault... script) {
+            faults.addAll(List.of(script));
+        }
+
+        @Override
+        public String call() throws Exception {
+            calls.incrementAndGet();
+            Fault fault = faults.poll();
+            switch (fault == null ? Fault.NONE : fault) {
+                case CONNECTION_RESET -> throw new ConnectException("Connection reset");
+                case SERVER_ERROR -> throw new IOException("Gateway returned HTTP 503");
+                case REJECTED -> throw new GatewayRejectedException("Gateway rejected the request with HTTP 400", 400);
+                case SLOW -> Thread.sleep(TIMEOUT_MS - 100);
+                case HANG -> Thread.sleep(TIMEOUT_MS * 10);
+                default -> {
+                }
+            }
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.kalban_greenbag.sequence;
+
+import com.example.kalban_greenbag.entity.OrderCodeSequence;
+import com.example.kalban_greenbag.repository.OrderCodeSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two generators stand in for two nodes sharing one OrderCodeSequence row. The stubbed transaction manager holds a
+ * lock for the length of each transaction, the way the locked SELECT holds the row in the database.
+ */
+class OrderCodeGeneratorTest {
+
+    private static final int BLOCK_SIZE = 100;
+
+    private static final int THREADS = 16;
+
+    private static final int CODES_PER_THREAD = 12_500;
+
+    private final AtomicReference<OrderCodeSequence> row = new AtomicReference<>();
+
+    private final ReentrantLock rowLock = new ReentrantLock();
+
+    private OrderCodeSequenceRepository sequenceRepository;
+
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        sequenceRepository = mock(OrderCodeSequenceRepository.class);
+        when(sequenceRepository.findByNameForUpdate("OrderCode")).thenAnswer(invocation -> Optional.ofNullable(row.get()));
+        when(sequenceRepository.saveAndFlush(any(OrderCodeSequence.class))).thenAnswer(invocation -> {
+            row.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            rowLock.lock();
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> {
+            rowLock.unlock();
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            rowLock.unlock();
+            return null;
+        }).when(transactionManager).rollback(any());
+    }
+
+    @Test
+    void codesAreUniqueAndInRangeAcrossNodesAndBlocks() throws Exception {
+        List<OrderCodeGenerator> nodes = List.of(newGenerator(), newGenerator());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> draws = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                OrderCodeGenerator generator = nodes.get(i % nodes.size());
+                draws.add(executor.submit(() -> {
+                    start.await();
+                    long[] codes = new long[CODES_PER_THREAD];
+                    for (int j = 0; j < codes.length; j++) {
+                        codes[j] = generator.next();
+                    }
+                    return codes;
+                }));
+            }
+            start.countDown();
+
+            Set<Long> seen = ConcurrentHashMap.newKeySet();
+            for (Future<long[]> draw : draws) {
+                long[] codes = draw.get(60, TimeUnit.SECONDS);
+                for (int j = 0; j < codes.length; j++) {
+                    assertThat(codes[j]).isBetween(OrderCodeGenerator.FIRST_CODE, OrderCodeGenerator.LAST_CODE);
+                    assertThat(seen.add(codes[j])).as("duplicate code %d", codes[j]).isTrue();
+                    if (j > 0) {
+                        // Increasing within a node, so also within each thread
+                        assertThat(codes[j]).isGreaterThan(codes[j - 1]);
+                    }
+                }
+            }
+            assertThat(seen).hasSize(THREADS * CODES_PER_THREAD);
+            // Every code came from a reserved block, and blocks were reserved well past the codes drawn
+            assertThat(row.get().getNextValue()).isGreaterThanOrEqualTo(OrderCodeGenerator.FIRST_CODE + THREADS * CODES_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nextBlockIsReservedWhileTheCurrentOneIsStillServed() throws Exception {
+        OrderCodeGenerator generator = newGenerator();
+        generator.next();
+        CountDownLatch reserving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(sequenceRepository.findByNameForUpdate("OrderCode")).thenAnswer(invocation -> {
+            reserving.countDown();
+            release.await();
+            return Optional.ofNullable(row.get());
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int i = 1; i < BLOCK_SIZE / 2; i++) {
+                generator.next();
+            }
+            // The caller drawing the middle code reserves the next block
+            Future<Long> prefetching = executor.submit(generator::next);
+            assertThat(reserving.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The rest of the block is served while that reservation is in flight
+            for (int i = BLOCK_SIZE / 2 + 1; i < BLOCK_SIZE; i++) {
+                assertThat(generator.next()).isEqualTo(OrderCodeGenerator.FIRST_CODE + i);
+            }
+            assertThat(prefetching.isDone()).isFalse();
+            release.countDown();
+            assertThat(prefetching.get(5, TimeUnit.SECONDS)).isEqualTo(OrderCodeGenerator.FIRST_CODE + BLOCK_SIZE / 2);
+
+            // Moving on to the reserved block needs no further transaction
+            assertThat(generator.next()).isEqualTo(OrderCodeGenerator.FIRST_CODE + BLOCK_SIZE);
+            verify(transactionManager, times(2)).getTransaction(any());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedPrefetchIsRetriedWhenTheBlockRunsOut() {
+        OrderCodeGenerator generator = newGenerator();
+        generator.next();
+        when(sequenceRepository.findByNameForUpdate("OrderCode"))
+                .thenThrow(new IllegalStateException("Connection is closed"))
+                .thenAnswer(invocation -> Optional.ofNullable(row.get()));
+
+        // The caller that tried the reservation still gets its code
+        for (int i = 1; i < BLOCK_SIZE; i++) {
+            assertThat(generator.next()).isEqualTo(OrderCodeGenerator.FIRST_CODE + i);
+        }
+        assertThat(generator.next()).isEqualTo(OrderCodeGenerator.FIRST_CODE + BLOCK_SIZE);
+    }
+
+    @Test
+    void stopsAtTheLastTenDigitCode() {
+        row.set(new OrderCodeSequence("OrderCode", OrderCodeGenerator.LAST_CODE - 150));
+        OrderCodeGenerator generator = newGenerator();
+
+        long last = 0;
+        for (int i = 0; i < 151; i++) {
+            last = generator.next();
+        }
+
+        assertThat(last).isEqualTo(OrderCodeGenerator.LAST_CODE);
+        assertThatThrownBy(generator::next).isInstanceOf(IllegalStateException.class);
+    }
+
+    private OrderCodeGenerator newGenerator() {
+        OrderCodeGenerator generator = new OrderCodeGenerator(transactionManager);
+        ReflectionTestUtils.setField(generator, "sequenceRepository", sequenceRepository);
+        ReflectionTestUtils.setField(generator, "blockSize", BLOCK_SIZE);
+        return generator;
+    }
+}
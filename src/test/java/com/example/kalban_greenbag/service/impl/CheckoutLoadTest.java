@@ -0,0 +1,305 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
+import com.example.kalban_greenbag.dto.request.order.AddOrderRequest;
+import com.example.kalban_greenbag.dto.request.order.CheckoutItemRequest;
+import com.example.kalban_greenbag.dto.request.order.CheckoutRequest;
+import com.example.kalban_greenbag.dto.request.order_item.AddOrderItemRequest;
+import com.example.kalban_greenbag.dto.response.order.OrderResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.entity.Role;
+import com.example.kalban_greenbag.entity.StockReservation;
+import com.example.kalban_greenbag.entity.User;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.repository.OrderItemRepository;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.repository.RoleRepository;
+import com.example.kalban_greenbag.repository.StockReservationRepository;
+import com.example.kalban_greenbag.repository.UserRepository;
+import com.example.kalban_greenbag.service.IOrderDailyRollupService;
+import com.example.kalban_greenbag.service.IProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the statements one cart costs through checkout against the legacy create-order-then-add-items flow, then
+ * runs many concurrent checkouts over a small set of products and checks that every order total matches its items
+ * and that the stock taken matches the quantities held. Run with {@code mvn test -Pbenchmark -Dtest=CheckoutLoadTest}.
+ *
+ * Checkout leaves orderCode empty until a payment link is created. H2 in SQL Server mode treats two NULLs in the
+ * unique OrderCode column as duplicates, which the filtered index in production does not, so this test runs on H2's
+ * default mode, where NULLs are distinct and the unique constraints still reject repeated codes.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid};DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;NON_KEYWORDS=DAY,VALUE")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderServiceImpl.class, OrderItemServiceImpl.class, StockReservationServiceImpl.class,
+        FlashSaleServiceImpl.class, LocalCacheManager.class})
+class CheckoutLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutLoadTest.class);
+
+    private static final int CART_SIZE = 5;
+
+    private static final int PRODUCTS = 10;
+
+    private static final int STOCK = 1_000;
+
+    private static final int BUYERS = 32;
+
+    private static final int CHECKOUTS_PER_BUYER = 20;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderItemServiceImpl orderItemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private IProductService productService;
+
+    @MockBean
+    private RowCounterRegistry rowCounters;
+
+    @MockBean
+    private IOrderDailyRollupService orderDailyRollupService;
+
+    private User user;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("CUSTOMER");
+        roleRepository.save(role);
+
+        user = new User();
+        user.setUsername("buyer");
+        user.setEmail("buyer@example.com");
+        user.setPassword("password");
+        user.setRole(role);
+        userRepository.save(user);
+
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setFinalPrice(BigDecimal.valueOf(100 + i));
+            product.setStock(STOCK);
+            product.setStatus(ConstStatus.ACTIVE_STATUS);
+            products.add(productRepository.save(product));
+        }
+        authenticate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        // Nothing rolls back here, so clear the tables for the next test in this context
+        reservationRepository.deleteAllInBatch();
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void checkoutUsesFewerStatementsThanTheLegacyFlow() throws Exception {
+        List<Product> cart = products.subList(0, CART_SIZE);
+
+        // The legacy client sends one request for the order and one per item
+        long legacy = statementsFor(() -> {
+            OrderResponse order = inRequest(() -> orderService.create(AddOrderRequest.builder()
+                    .userID(user.getId())
+                    .status(ConstStatus.ACTIVE_STATUS)
+                    .orderStatus(ConstStatus.OrderStatus.ORDER_STATUS_PENDING)
+                    .totalAmount(BigDecimal.ZERO)
+                    .shippingAddress("Legacy address")
+                    .build()));
+            for (Product product : cart) {
+                inRequest(() -> orderItemService.create(AddOrderItemRequest.builder()
+                        .orderID(order.getId())
+                        .productID(product.getId())
+                        .quantity(1)
+                        .status(ConstStatus.ACTIVE_STATUS)
+                        .build()));
+            }
+            return order;
+        });
+        long checkout = statementsFor(() -> inRequest(() -> orderService.checkout(cartOf(cart))));
+
+        logger.info("Statements for a {}-item cart: legacy {}, checkout {}", CART_SIZE, legacy, checkout);
+        // The legacy flow re-reads the order and product and updates the total for every item
+        assertThat(legacy).isGreaterThanOrEqualTo(2 + 4L * CART_SIZE);
+        // Checkout still takes each product's stock with its own guarded UPDATE, but everything else is one
+        // statement for the whole cart
+        assertThat(checkout).isLessThanOrEqualTo(5 + CART_SIZE);
+        assertThat(checkout).isLessThan(legacy);
+    }
+
+    @Test
+    void concurrentCheckoutsKeepTotalsAndStockConsistent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> buyers = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                buyers.add(executor.submit(() -> {
+                    authenticate();
+                    start.await();
+                    int placed = 0;
+                    for (int j = 0; j < CHECKOUTS_PER_BUYER; j++) {
+                        List<Product> cart = new ArrayList<>(products);
+                        Collections.shuffle(cart, ThreadLocalRandom.current());
+                        List<Product> picked = cart.subList(0, 1 + ThreadLocalRandom.current().nextInt(CART_SIZE));
+                        inRequest(() -> orderService.checkout(cartOf(picked)));
+                        placed++;
+                    }
+                    return placed;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+
+            int placed = 0;
+            for (Future<Integer> buyer : buyers) {
+                placed += buyer.get(120, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            logger.info("{} checkouts by {} buyers in {} s ({} checkouts/s)", placed, BUYERS, String.format("%.2f", seconds),
+                    Math.round(placed / seconds));
+            assertThat(placed).isEqualTo(BUYERS * CHECKOUTS_PER_BUYER);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Order> orders = orderRepository.findAll();
+        assertThat(orders).hasSize(BUYERS * CHECKOUTS_PER_BUYER);
+        Map<UUID, BigDecimal> itemTotals = orderItemRepository.findAll().stream()
+                .collect(Collectors.groupingBy(orderItem -> orderItem.getOrderID().getId(),
+                        Collectors.reducing(BigDecimal.ZERO, OrderItem::getUnitPrice, BigDecimal::add)));
+        for (Order order : orders) {
+            assertThat(order.getTotalAmount()).isEqualByComparingTo(itemTotals.get(order.getId()));
+        }
+
+        Map<UUID, Integer> held = new HashMap<>();
+        for (StockReservation reservation : reservationRepository.findAll()) {
+            held.merge(reservation.getProductID().getId(), reservation.getQuantity(), Integer::sum);
+        }
+        for (Product product : products) {
+            int stock = productRepository.findById(product.getId()).orElseThrow().getStock();
+            assertThat(STOCK - stock).as("stock taken from %s", product.getProductName())
+                    .isEqualTo(held.getOrDefault(product.getId(), 0));
+        }
+    }
+
+    private long statementsFor(Request<?> request) throws BaseException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Open-in-view keeps one EntityManager for the whole web request, so the products checkout reads before its
+    // transaction are still managed when the items referencing them are inserted
+    private <T> T inRequest(Request<T> request) throws BaseException {
+        EntityManagerHolder holder = new EntityManagerHolder(entityManagerFactory.createEntityManager());
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, holder);
+        try {
+            return request.run();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            holder.getEntityManager().close();
+        }
+    }
+
+    private CheckoutRequest cartOf(List<Product> cart) {
+        return CheckoutRequest.builder()
+                .userID(user.getId())
+                .shippingAddress("Checkout address")
+                .items(cart.stream()
+                        .map(product -> CheckoutItemRequest.builder().productID(product.getId()).quantity(1).build())
+                        .toList())
+                .build();
+    }
+
+    // SecurityContextHolder is thread-local, so every buyer thread signs in on its own
+    private void authenticate() {
+        org.springframework.security.core.userdetails.User principal = new org.springframework.security.core.userdetails.User(
+                "buyer", "password", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+    }
+
+    private interface Request<T> {
+        T run() throws BaseException;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderDailyRollup;
+import com.example.kalban_greenbag.model.OrderRollupSnapshot;
+import com.example.kalban_greenbag.repository.OrderDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderDailyRollupServiceImpl.class)
+class OrderDailyRollupServiceImplTest {
+
+    private long nextOrderCode = 1_000_000;
+
+    @Autowired
+    private OrderDailyRollupServiceImpl rollupService;
+
+    @SpyBean
+    private OrderDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Value("${app.time-zone}")
+    private ZoneId zone;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now(zone);
+        persistOrder(today.minusDays(30), 100);
+        persistOrder(today.minusDays(30), 50);
+        persistOrder(today.minusDays(1), 20);
+        persistOrder(today, 10);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void backfillCoversOldDaysEvenWhenTodayAlreadyHasRows() {
+        // An increment that arrived before the backfill ran
+        rollupRepository.saveAndFlush(new OrderDailyRollup(today, ConstStatus.ACTIVE_STATUS,
+                ConstStatus.OrderStatus.ORDER_STATUS_PENDING, 1L, BigDecimal.TEN));
+
+        rollupService.backfill();
+
+        assertThat(rows()).containsExactly(
+                row(today.minusDays(30), 2, "150.00"),
+                row(today.minusDays(1), 1, "20.00"),
+                row(today, 1, "10.00"));
+    }
+
+    @Test
+    void backfillIsIdempotent() {
+        rollupService.backfill();
+        List<String> first = rows();
+
+        rollupService.backfill();
+
+        assertThat(rows()).isEqualTo(first).hasSize(3);
+    }
+
+    @Test
+    void failedIncrementRebuildsTheDaysItTouched() {
+        rollupService.backfill();
+        LocalDate day = today.minusDays(30);
+        persistOrder(day, 5);
+        entityManager.flush();
+        doThrow(new QueryTimeoutException("Lock request time out period exceeded"))
+                .when(rollupRepository).increment(any(), anyString(), anyString(), anyLong(), any());
+
+        rollupService.record(null, new OrderRollupSnapshot(noonOf(day), ConstStatus.ACTIVE_STATUS,
+                ConstStatus.OrderStatus.ORDER_STATUS_PENDING, BigDecimal.valueOf(5)));
+
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(rows()).contains(row(day, 3, "155.00"));
+    }
+
+    @Test
+    void incrementsAndRebuildsPutAnOrderAfterMidnightOnTheSameDay() {
+        // Half past midnight in the business zone is still the previous day in UTC
+        LocalDate day = today.minusDays(10);
+        Instant createdAt = day.atTime(0, 30).atZone(zone).toInstant();
+        assertThat(createdAt.atZone(ZoneOffset.UTC).toLocalDate()).isEqualTo(day.minusDays(1));
+        Order order = persistOrder(createdAt, 7);
+        entityManager.flush();
+        entityManager.clear();
+
+        rollupService.record(null, OrderRollupSnapshot.of(entityManager.find(Order.class, order.getId())));
+        List<String> incremented = rows();
+        rollupService.rebuild(day.minusDays(1), day.plusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(incremented).containsExactly(row(day, 1, "7.00"));
+        assertThat(rows()).containsExactly(row(day, 1, "7.00"));
+    }
+
+    private void persistOrder(LocalDate day, long totalAmount) {
+        persistOrder(noonOf(day), totalAmount);
+    }
+
+    private Order persistOrder(Instant createdAt, long totalAmount) {
+        Order order = new Order();
+        order.setStatus(ConstStatus.ACTIVE_STATUS);
+        order.setTotalAmount(BigDecimal.valueOf(totalAmount));
+        order.setOrderCode(nextOrderCode++);
+        entityManager.persist(order);
+        entityManager.flush();
+        // created_date is not updatable through the entity, so move the order to its day with a bulk update
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Order o SET o.createdDate = :createdDate WHERE o.id = :id")
+                .setParameter("createdDate", Date.from(createdAt))
+                .setParameter("id", order.getId())
+                .executeUpdate();
+        return order;
+    }
+
+    private Instant noonOf(LocalDate day) {
+        return day.atTime(LocalTime.NOON).atZone(zone).toInstant();
+    }
+
+    private List<String> rows() {
+        return rollupRepository.findAll().stream()
+                .sorted(Comparator.comparing(OrderDailyRollup::getDay))
+                .map(rollup -> row(rollup.getDay(), rollup.getOrderCount(), rollup.getTotalAmount().setScale(2).toPlainString()))
+                .toList();
+    }
+
+    private static String row(LocalDate day, long orderCount, String totalAmount) {
+        return day + " " + orderCount + " " + totalAmount;
+    }
+}
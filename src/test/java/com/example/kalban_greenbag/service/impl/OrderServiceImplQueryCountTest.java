@@ -0,0 +1,163 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
+import com.example.kalban_greenbag.dto.response.order.OrderResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.entity.Review;
+import com.example.kalban_greenbag.entity.Role;
+import com.example.kalban_greenbag.entity.User;
+import com.example.kalban_greenbag.model.PagingModel;
+import com.example.kalban_greenbag.service.IOrderDailyRollupService;
+import com.example.kalban_greenbag.service.IProductService;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards against N+1 regressions in the "my orders" page: the statement count must not grow with the number of
+ * orders or items on the page.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderServiceImpl.class)
+class OrderServiceImplQueryCountTest {
+
+    // Page of orders, items with their products in one fetch join, reviewed product ids
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private IProductService productService;
+
+    @MockBean
+    private RowCounterRegistry rowCounters;
+
+    @MockBean
+    private IOrderDailyRollupService orderDailyRollupService;
+
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private IStockReservationService stockReservationService;
+
+    private long nextOrderCode = 1_000_000;
+    private Role role;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        role = new Role();
+        role.setRoleName("CUSTOMER");
+        entityManager.persist(role);
+
+        products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setFinalPrice(BigDecimal.valueOf(100 + i));
+            product.setStock(50);
+            product.setDesciption("Description " + i);
+            entityManager.persist(product);
+            products.add(product);
+        }
+    }
+
+    @Test
+    void pageOfOneOrderUsesAFixedNumberOfStatements() throws Exception {
+        User user = persistUserWithOrders("single", 1);
+
+        assertThat(statementsFor(user, 1)).isEqualTo(STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void pageOfManyOrdersUsesTheSameNumberOfStatements() throws Exception {
+        User user = persistUserWithOrders("many", PAGE_SIZE - 1);
+
+        assertThat(statementsFor(user, PAGE_SIZE - 1)).isEqualTo(STATEMENTS_PER_PAGE);
+    }
+
+    private long statementsFor(User user, int expectedOrders) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        PagingModel<OrderResponse> page = orderService.getOrderByUserId(user.getId(), 1, PAGE_SIZE, null);
+        assertThat(page.getListResult()).hasSize(expectedOrders);
+        page.getListResult().forEach(order -> assertThat(order.getOrderItems()).hasSize(products.size()));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistUserWithOrders(String username, int orderCount) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setRole(role);
+        entityManager.persist(user);
+
+        for (int i = 0; i < orderCount; i++) {
+            Order order = new Order();
+            order.setUserID(user);
+            order.setOrderDate(Instant.now());
+            order.setTotalAmount(BigDecimal.valueOf(300));
+            order.setShippingAddress("Address " + i);
+            order.setStatus(ConstStatus.ACTIVE_STATUS);
+            order.setOrderCode(nextOrderCode++);
+            entityManager.persist(order);
+
+            for (Product product : products) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrderID(order);
+                orderItem.setProductID(product);
+                orderItem.setName(product.getProductName());
+                orderItem.setQuantity(1);
+                orderItem.setUnitPrice(product.getFinalPrice());
+                entityManager.persist(orderItem);
+            }
+        }
+
+        Review review = new Review();
+        review.setUserID(user);
+        review.setProductID(products.get(0));
+        review.setRating(5);
+        entityManager.persist(review);
+        return user;
+    }
+}
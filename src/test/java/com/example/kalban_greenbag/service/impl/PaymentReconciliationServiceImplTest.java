@@ -0,0 +1,163 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.config.GatewayResilienceConfig;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.dto.response.metrics.ReconciliationRunResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.service.IPaymentSettlementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import vn.payos.PayOS;
+import vn.payos.type.PaymentLinkData;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * One run over pending orders of every kind, MoMo ones included, with PayOS stubbed and a batch size of two so the keyset paging spans
+ * several batches.
+ */
+@DataJpaTest(properties = {"payment.reconcile.batch-size=2", "payment.reconcile.requests-per-second=1000"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PaymentReconciliationServiceImpl.class, GatewayResilienceConfig.class})
+class PaymentReconciliationServiceImplTest {
+
+    private static final long PAID = 1001;
+
+    private static final long UNPAID_EXPIRED = 1002;
+
+    private static final long GATEWAY_ERROR = 1003;
+
+    private static final long UNPAID_RECENT = 1004;
+
+    private static final long CANCELLED = 1005;
+
+    private static final long TOO_NEW = 1006;
+
+    @Autowired
+    private PaymentReconciliationServiceImpl reconciliationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private PayOS payOS;
+
+    @MockBean
+    private IPaymentSettlementService paymentSettlementService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        persistPendingOrder(PAID, 10);
+        persistPendingOrder(UNPAID_EXPIRED, 120);
+        persistPendingOrder(GATEWAY_ERROR, 10);
+        persistPendingOrder(UNPAID_RECENT, 10);
+        persistPendingOrder(CANCELLED, 10);
+        persistPendingOrder(TOO_NEW, 1);
+        // MoMo checkout never creates a PayOS link, so the order has no order code
+        persistPendingOrder(null, 120);
+
+        when(payOS.getPaymentLinkInformation(PAID)).thenReturn(paymentLink(PAID, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID));
+        when(payOS.getPaymentLinkInformation(UNPAID_EXPIRED)).thenReturn(paymentLink(UNPAID_EXPIRED, ConstStatus.PayOsStatus.PAYOS_STATUS_PENDING));
+        when(payOS.getPaymentLinkInformation(GATEWAY_ERROR)).thenThrow(new IllegalStateException("PayOS returned 500"));
+        when(payOS.getPaymentLinkInformation(UNPAID_RECENT)).thenReturn(paymentLink(UNPAID_RECENT, ConstStatus.PayOsStatus.PAYOS_STATUS_PENDING));
+        when(payOS.getPaymentLinkInformation(CANCELLED)).thenReturn(paymentLink(CANCELLED, ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED));
+        when(paymentSettlementService.settle(anyLong(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    void settlesExpiresAndCountsErrorsInOneRun() throws Exception {
+        ReconciliationRunResponse run = reconciliationService.reconcile();
+
+        assertThat(run.getScanned()).isEqualTo(5);
+        assertThat(run.getSettled()).isEqualTo(2);
+        assertThat(run.getExpired()).isEqualTo(1);
+        assertThat(run.getErrors()).isEqualTo(1);
+        assertThat(reconciliationService.getLastRun()).isSameAs(run);
+
+        // Settled with the status PayOS reported
+        verify(paymentSettlementService).settle(PAID, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID);
+        verify(paymentSettlementService).settle(CANCELLED, ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED);
+        // Expired: the link is closed before the order is cancelled
+        verify(payOS).cancelPaymentLink(eq(UNPAID_EXPIRED), anyString());
+        verify(paymentSettlementService).settle(UNPAID_EXPIRED, ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED);
+        // Still inside its payment window, or too new to be looked at
+        verify(payOS, never()).cancelPaymentLink(eq(UNPAID_RECENT), anyString());
+        verify(paymentSettlementService, never()).settle(eq(UNPAID_RECENT), anyString());
+        verify(payOS, never()).getPaymentLinkInformation(TOO_NEW);
+        verify(paymentSettlementService, never()).settle(eq(GATEWAY_ERROR), anyString());
+    }
+
+    @Test
+    void pendingMoMoOrderIsLeftAlone() throws Exception {
+        ReconciliationRunResponse run = reconciliationService.reconcile();
+
+        // Past the payment window, yet neither scanned nor cancelled: only the PayOS orders were settled
+        assertThat(run.getScanned()).isEqualTo(5);
+        verify(paymentSettlementService).settle(PAID, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID);
+        verify(paymentSettlementService).settle(CANCELLED, ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED);
+        verify(paymentSettlementService).settle(UNPAID_EXPIRED, ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED);
+        verifyNoMoreInteractions(paymentSettlementService);
+    }
+
+    @Test
+    void settlementThatFindsNothingToChangeIsNotCounted() throws Exception {
+        when(paymentSettlementService.settle(anyLong(), anyString())).thenReturn(false);
+
+        ReconciliationRunResponse run = reconciliationService.reconcile();
+
+        assertThat(run.getScanned()).isEqualTo(5);
+        assertThat(run.getSettled()).isZero();
+        assertThat(run.getExpired()).isZero();
+        assertThat(run.getErrors()).isEqualTo(1);
+    }
+
+    private void persistPendingOrder(Long orderCode, long ageMinutes) {
+        Order order = new Order();
+        order.setOrderCode(orderCode);
+        order.setStatus(ConstStatus.ACTIVE_STATUS);
+        order.setOrderStatus(ConstStatus.OrderStatus.ORDER_STATUS_PENDING);
+        entityManager.persist(order);
+        entityManager.flush();
+        // created_date is not updatable through the entity, so age the order with a bulk update
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Order o SET o.createdDate = :createdDate WHERE o.id = :id")
+                .setParameter("createdDate", Date.from(Instant.now().minus(ageMinutes, ChronoUnit.MINUTES)))
+                .setParameter("id", order.getId())
+                .executeUpdate();
+        // The bulk update bypasses the persistence context, so drop the managed copy with the old date
+        entityManager.clear();
+    }
+
+    private static PaymentLinkData paymentLink(long orderCode, String status) {
+        return PaymentLinkData.builder()
+                .id("link-" + orderCode)
+                .orderCode(orderCode)
+                .amount(10_000)
+                .amountPaid(ConstStatus.PayOsStatus.PAYOS_STATUS_PAID.equals(status) ? 10_000 : 0)
+                .amountRemaining(ConstStatus.PayOsStatus.PAYOS_STATUS_PAID.equals(status) ? 0 : 10_000)
+                .status(status)
+                .createdAt(Instant.now().toString())
+                .transactions(List.of())
+                .build();
+    }
+}
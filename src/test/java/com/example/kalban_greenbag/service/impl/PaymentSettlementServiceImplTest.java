@@ -0,0 +1,161 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.entity.StockReservation;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.repository.StockReservationRepository;
+import com.example.kalban_greenbag.service.IOrderDailyRollupService;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A payment that arrives after its stock hold was released: the stock is taken again when it is still there, and the
+ * order is settled as needing a refund when it was sold in the meantime, instead of failing on every retry.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PaymentSettlementServiceImpl.class, StockReservationServiceImpl.class, FlashSaleServiceImpl.class, LocalCacheManager.class})
+class PaymentSettlementServiceImplTest {
+
+    private static final AtomicLong NEXT_ORDER_CODE = new AtomicLong(1_000_000);
+
+    @Autowired
+    private PaymentSettlementServiceImpl paymentSettlementService;
+
+    @Autowired
+    private IStockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private RowCounterRegistry rowCounters;
+
+    @MockBean
+    private IOrderDailyRollupService orderDailyRollupService;
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void paymentAfterTheHoldExpiredTakesTheStockAgain() throws Exception {
+        UUID productId = persistProduct(5);
+        Order order = checkout(productId, 2);
+        stockReservationService.release(order.getId());
+        assertThat(stock(productId)).isEqualTo(5);
+
+        assertThat(paymentSettlementService.settle(order.getOrderCode(), ConstStatus.PayOsStatus.PAYOS_STATUS_PAID)).isTrue();
+
+        assertThat(orderStatus(order)).isEqualTo(ConstStatus.OrderStatus.ORDER_STATUS_PAID);
+        assertThat(stock(productId)).isEqualTo(3);
+        assertThat(reservationStatuses(order)).containsOnly(ConstStatus.ReservationStatus.CONFIRMED);
+    }
+
+    @Test
+    void paymentAfterTheStockWasResoldNeedsARefund() throws Exception {
+        UUID productId = persistProduct(2);
+        Order late = checkout(productId, 2);
+        stockReservationService.release(late.getId());
+        checkout(productId, 2);
+
+        assertThat(paymentSettlementService.settle(late.getOrderCode(), ConstStatus.PayOsStatus.PAYOS_STATUS_PAID)).isTrue();
+
+        assertThat(orderStatus(late)).isEqualTo(ConstStatus.OrderStatus.ORDER_STATUS_REFUND_REQUIRED);
+        assertThat(stock(productId)).isZero();
+        assertThat(reservationStatuses(late)).containsOnly(ConstStatus.ReservationStatus.RELEASED);
+
+        // Redelivery finds nothing to change, and the money received keeps a cancellation from closing the order
+        assertThat(paymentSettlementService.settle(late.getOrderCode(), ConstStatus.PayOsStatus.PAYOS_STATUS_PAID)).isFalse();
+        assertThat(paymentSettlementService.settle(late.getOrderCode(), ConstStatus.PayOsStatus.PAYOS_STATUS_CANCELLED)).isFalse();
+        assertThat(orderStatus(late)).isEqualTo(ConstStatus.OrderStatus.ORDER_STATUS_REFUND_REQUIRED);
+    }
+
+    @Test
+    void paymentDeadlineIsTheHoldExpiry() {
+        UUID productId = persistProduct(5);
+        Order order = checkout(productId, 1);
+        Instant expiresAt = transactionTemplate.execute(transactionStatus ->
+                reservationRepository.findAllByOrderId(order.getId()).get(0).getExpiresAt());
+
+        assertThat(stockReservationService.paymentDeadline(order.getId())).isEqualTo(expiresAt);
+        assertThat(Duration.between(Instant.now(), expiresAt)).isBetween(Duration.ofMinutes(14), Duration.ofMinutes(15));
+    }
+
+    private Order checkout(UUID productId, int quantity) {
+        return transactionTemplate.execute(transactionStatus -> {
+            Order order = new Order();
+            order.setOrderCode(NEXT_ORDER_CODE.getAndIncrement());
+            order.setStatus(ConstStatus.ACTIVE_STATUS);
+            orderRepository.save(order);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProductID(productRepository.findById(productId).orElseThrow());
+            orderItem.setQuantity(quantity);
+            assertThat(stockReservationService.tryHold(order, List.of(orderItem))).isTrue();
+            return order;
+        });
+    }
+
+    private String orderStatus(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getOrderStatus();
+    }
+
+    private int stock(UUID productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    private List<String> reservationStatuses(Order order) {
+        return reservationRepository.findAllByOrderId(order.getId()).stream()
+                .map(StockReservation::getReservationStatus)
+                .toList();
+    }
+
+    private UUID persistProduct(int stock) {
+        Product product = new Product();
+        product.setProductName("Bag");
+        product.setFinalPrice(BigDecimal.TEN);
+        product.setStock(stock);
+        product.setStatus(ConstStatus.ACTIVE_STATUS);
+        return productRepository.save(product).getId();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.entity.PaymentWebhookEvent;
+import com.example.kalban_greenbag.enums.ErrorCode;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.repository.PaymentWebhookEventRepository;
+import com.example.kalban_greenbag.service.IPaymentSettlementService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import vn.payos.type.WebhookData;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Each stored webhook is settled exactly once: redeliveries are dropped by the unique key, an event left PROCESSING
+ * by a crashed worker is picked up again, and a failed settlement waits out its backoff before it is retried.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(PaymentWebhookServiceImpl.class)
+class PaymentWebhookServiceImplTest {
+
+    private static final AtomicLong NEXT_ORDER_CODE = new AtomicLong(1_000_000);
+
+    private static final Duration AWAIT = Duration.ofSeconds(10);
+
+    @Autowired
+    private PaymentWebhookServiceImpl paymentWebhookService;
+
+    @Autowired
+    private PaymentWebhookEventRepository eventRepository;
+
+    @MockBean
+    private IPaymentSettlementService paymentSettlementService;
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void redeliveredWebhookIsSettledOnce() throws Exception {
+        long orderCode = NEXT_ORDER_CODE.getAndIncrement();
+        when(paymentSettlementService.settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID)).thenReturn(true);
+
+        assertThat(paymentWebhookService.enqueue(webhook(orderCode, "FT001"))).isTrue();
+        assertThat(paymentWebhookService.enqueue(webhook(orderCode, "FT001"))).isFalse();
+        paymentWebhookService.poll();
+
+        PaymentWebhookEvent event = awaitStatus(onlyEventId(), ConstStatus.WebhookEventStatus.PROCESSED);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(eventRepository.count()).isEqualTo(1);
+        verify(paymentSettlementService, times(1)).settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID);
+    }
+
+    @Test
+    void eventLeftProcessingByACrashedWorkerIsSettledByThePoll() throws Exception {
+        long orderCode = NEXT_ORDER_CODE.getAndIncrement();
+        // Claimed an hour ago by a node that died before finishing it
+        PaymentWebhookEvent stale = new PaymentWebhookEvent(orderCode, "FT002", ConstStatus.PayOsStatus.PAYOS_STATUS_PAID,
+                ConstStatus.WebhookEventStatus.PROCESSING);
+        stale.setAttempts(1);
+        stale.setClaimedAt(Instant.now().minus(1, ChronoUnit.HOURS));
+        UUID eventId = eventRepository.saveAndFlush(stale).getId();
+
+        paymentWebhookService.poll();
+
+        PaymentWebhookEvent event = awaitStatus(eventId, ConstStatus.WebhookEventStatus.PROCESSED);
+        assertThat(event.getAttempts()).isEqualTo(2);
+        verify(paymentSettlementService, times(1)).settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID);
+    }
+
+    @Test
+    void recentlyClaimedEventIsLeftToItsWorker() throws Exception {
+        PaymentWebhookEvent claimed = new PaymentWebhookEvent(NEXT_ORDER_CODE.getAndIncrement(), "FT003",
+                ConstStatus.PayOsStatus.PAYOS_STATUS_PAID, ConstStatus.WebhookEventStatus.PROCESSING);
+        claimed.setAttempts(1);
+        claimed.setClaimedAt(Instant.now());
+        UUID eventId = eventRepository.saveAndFlush(claimed).getId();
+
+        paymentWebhookService.poll();
+
+        assertThat(eventRepository.findById(eventId).orElseThrow().getEventStatus())
+                .isEqualTo(ConstStatus.WebhookEventStatus.PROCESSING);
+        verify(paymentSettlementService, times(0)).settle(anyLong(), anyString());
+    }
+
+    @Test
+    void failedSettlementIsRetriedAfterItsBackoff() throws Exception {
+        long orderCode = NEXT_ORDER_CODE.getAndIncrement();
+        when(paymentSettlementService.settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID))
+                .thenThrow(new IllegalStateException("Deadlock victim"))
+                .thenReturn(true);
+
+        Instant before = Instant.now();
+        paymentWebhookService.enqueue(webhook(orderCode, "FT004"));
+        UUID eventId = onlyEventId();
+        PaymentWebhookEvent failed = awaitStatus(eventId, ConstStatus.WebhookEventStatus.PENDING, 1);
+        assertThat(failed.getLastError()).isEqualTo("Deadlock victim");
+        // Five seconds after the first attempt, the configured base
+        assertThat(failed.getNextAttemptAt()).isBetween(before.plusSeconds(5), Instant.now().plusSeconds(5));
+
+        // Not due yet: the poll leaves it alone
+        paymentWebhookService.poll();
+        Thread.sleep(200);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getAttempts()).isEqualTo(1);
+        verify(paymentSettlementService, times(1)).settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID);
+
+        failed.setNextAttemptAt(Instant.now().minusSeconds(1));
+        eventRepository.saveAndFlush(failed);
+        paymentWebhookService.poll();
+
+        PaymentWebhookEvent event = awaitStatus(eventId, ConstStatus.WebhookEventStatus.PROCESSED);
+        assertThat(event.getAttempts()).isEqualTo(2);
+        verify(paymentSettlementService, times(2)).settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID);
+    }
+
+    @Test
+    void backoffDoublesWithEveryAttempt() throws Exception {
+        long orderCode = NEXT_ORDER_CODE.getAndIncrement();
+        when(paymentSettlementService.settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID))
+                .thenThrow(new IllegalStateException("Deadlock victim"));
+        PaymentWebhookEvent retried = new PaymentWebhookEvent(orderCode, "FT005", ConstStatus.PayOsStatus.PAYOS_STATUS_PAID,
+                ConstStatus.WebhookEventStatus.PENDING);
+        retried.setAttempts(3);
+        UUID eventId = eventRepository.saveAndFlush(retried).getId();
+
+        Instant before = Instant.now();
+        paymentWebhookService.poll();
+
+        // Fourth attempt: 5s doubled three times
+        PaymentWebhookEvent event = awaitStatus(eventId, ConstStatus.WebhookEventStatus.PENDING, 4);
+        assertThat(event.getNextAttemptAt()).isBetween(before.plusSeconds(40), Instant.now().plusSeconds(40));
+    }
+
+    @Test
+    void unknownOrderCodeFailsWithoutRetry() throws Exception {
+        long orderCode = NEXT_ORDER_CODE.getAndIncrement();
+        when(paymentSettlementService.settle(orderCode, ConstStatus.PayOsStatus.PAYOS_STATUS_PAID))
+                .thenThrow(new BaseException(ErrorCode.ERROR_404.getCode(), "Order not found", ErrorCode.ERROR_404.getMessage()));
+
+        paymentWebhookService.enqueue(webhook(orderCode, "FT006"));
+
+        PaymentWebhookEvent event = awaitStatus(onlyEventId(), ConstStatus.WebhookEventStatus.FAILED);
+        assertThat(event.getNextAttemptAt()).isNull();
+        assertThat(event.getProcessedAt()).isNotNull();
+    }
+
+    private UUID onlyEventId() {
+        return eventRepository.findAll().get(0).getId();
+    }
+
+    private PaymentWebhookEvent awaitStatus(UUID eventId, String eventStatus) throws InterruptedException {
+        return awaitStatus(eventId, eventStatus, 1);
+    }
+
+    // Workers finish asynchronously; wait for the event to reach the status after the given number of attempts
+    private PaymentWebhookEvent awaitStatus(UUID eventId, String eventStatus, int attempts) throws InterruptedException {
+        Instant deadline = Instant.now().plus(AWAIT);
+        while (true) {
+            PaymentWebhookEvent event = eventRepository.findById(eventId).orElseThrow();
+            if (eventStatus.equals(event.getEventStatus()) && event.getAttempts() >= attempts) {
+                return event;
+            }
+            assertThat(Instant.now()).as("event %s reaching %s", eventId, eventStatus).isBefore(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static WebhookData webhook(long orderCode, String reference) {
+        return WebhookData.builder()
+                .orderCode(orderCode)
+                .reference(reference)
+                .amount(100_000)
+                .description("Order " + orderCode)
+                .accountNumber("0123456789")
+                .transactionDateTime("2024-08-01 10:00:00")
+                .currency("VND")
+                .paymentLinkId(UUID.randomUUID().toString())
+                .code("00")
+                .desc("success")
+                .build();
+    }
+}
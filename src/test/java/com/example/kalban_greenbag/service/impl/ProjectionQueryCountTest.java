@@ -0,0 +1,239 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.counter.RowCounterRegistry;
+import com.example.kalban_greenbag.dto.response.order.OrderResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.entity.Review;
+import com.example.kalban_greenbag.entity.Role;
+import com.example.kalban_greenbag.entity.User;
+import com.example.kalban_greenbag.model.PagingModel;
+import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.repository.ReviewRepository;
+import com.example.kalban_greenbag.repository.projection.ProductSummary;
+import com.example.kalban_greenbag.repository.projection.ReviewSummary;
+import com.example.kalban_greenbag.service.IOrderDailyRollupService;
+import com.example.kalban_greenbag.service.IProductService;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The product, review and order list pages read projections: one statement per page as before, but no managed
+ * entities, where the entity queries they replaced loaded every row on the page (and, for reviews, each author and
+ * role) into the persistence context. Each comparison runs the replaced entity query against the same rows.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderServiceImpl.class)
+class ProjectionQueryCountTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final int PRODUCTS = 3;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private IProductService productService;
+
+    @MockBean
+    private RowCounterRegistry rowCounters;
+
+    @MockBean
+    private IOrderDailyRollupService orderDailyRollupService;
+
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private IStockReservationService stockReservationService;
+
+    private long nextOrderCode = 1_000_000;
+    private User user;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName("CUSTOMER");
+        entityManager.persist(role);
+
+        user = new User();
+        user.setUsername("buyer");
+        user.setEmail("buyer@example.com");
+        user.setPassword("password");
+        user.setRole(role);
+        entityManager.persist(user);
+
+        products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductName("Product " + i);
+            product.setFinalPrice(BigDecimal.valueOf(100 + i));
+            product.setStock(50);
+            product.setDesciption("Description " + i);
+            product.setStatus(ConstStatus.ACTIVE_STATUS);
+            entityManager.persist(product);
+            products.add(product);
+
+            Review review = new Review();
+            review.setUserID(user);
+            review.setProductID(product);
+            review.setRating(5);
+            review.setComment("Review " + i);
+            review.setStatus(ConstStatus.ACTIVE_STATUS);
+            entityManager.persist(review);
+        }
+    }
+
+    @Test
+    void productPageLoadsNoEntities() {
+        flushAndClear();
+
+        Measured<List<ProductSummary>> projection = measure(() ->
+                productRepository.findSummariesOrderByCreatedDateDesc(PageRequest.of(0, PAGE_SIZE)));
+        Measured<List<Product>> entities = measure(() -> entityManager.getEntityManager()
+                .createQuery("SELECT p FROM Product p ORDER BY p.createdDate DESC", Product.class)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList());
+
+        assertThat(projection.result).hasSize(PRODUCTS);
+        assertThat(projection.statements).isEqualTo(1).isEqualTo(entities.statements);
+        assertThat(projection.entityLoads).isZero();
+        assertThat(entities.entityLoads).isEqualTo(PRODUCTS);
+    }
+
+    @Test
+    void reviewPageReadsItsAuthorsWithoutLoadingThem() {
+        flushAndClear();
+
+        Measured<List<ReviewSummary>> projection = measure(() ->
+                reviewRepository.findSummariesOrderByCreatedDate(PageRequest.of(0, PAGE_SIZE)));
+        // The entity graph the review lists used before
+        Measured<List<Review>> entities = measure(() -> entityManager.getEntityManager()
+                .createQuery("SELECT r FROM Review r LEFT JOIN FETCH r.userID u LEFT JOIN FETCH u.role ORDER BY r.createdDate", Review.class)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList());
+
+        assertThat(projection.result).hasSize(PRODUCTS)
+                .allSatisfy(review -> {
+                    assertThat(review.getUsername()).isEqualTo("buyer");
+                    assertThat(review.getRoleName()).isEqualTo("CUSTOMER");
+                });
+        assertThat(projection.statements).isEqualTo(1).isEqualTo(entities.statements);
+        assertThat(projection.entityLoads).isZero();
+        // Every review, plus its author and the author's role
+        assertThat(entities.entityLoads).isEqualTo(PRODUCTS + 2);
+    }
+
+    @Test
+    void orderPageUsesTheSameStatementsWhateverItsSize() throws Exception {
+        persistOrders(1);
+        flushAndClear();
+        Measured<PagingModel<OrderResponse>> single = measure(() -> orderPage());
+
+        persistOrders(PAGE_SIZE - 2);
+        flushAndClear();
+        Measured<PagingModel<OrderResponse>> full = measure(() -> orderPage());
+
+        assertThat(single.result.getListResult()).hasSize(1);
+        assertThat(full.result.getListResult()).hasSize(PAGE_SIZE - 1)
+                .allSatisfy(order -> assertThat(order.getOrderItems()).hasSize(PRODUCTS));
+        // Order summaries, then the page's items with their products
+        assertThat(single.statements).isEqualTo(2).isEqualTo(full.statements);
+        // Only the items and their products become entities; the orders themselves stay projections
+        assertThat(statistics().getEntityStatistics(Order.class.getName()).getLoadCount()).isZero();
+        assertThat(full.entityLoads).isEqualTo((PAGE_SIZE - 1) * PRODUCTS + PRODUCTS);
+    }
+
+    private PagingModel<OrderResponse> orderPage() {
+        try {
+            return orderService.getAll(1, PAGE_SIZE);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void persistOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setUserID(user);
+            order.setOrderDate(Instant.now());
+            order.setTotalAmount(BigDecimal.valueOf(303));
+            order.setShippingAddress("Address " + i);
+            order.setStatus(ConstStatus.ACTIVE_STATUS);
+            order.setOrderCode(nextOrderCode++);
+            entityManager.persist(order);
+
+            for (Product product : products) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrderID(order);
+                orderItem.setProductID(product);
+                orderItem.setName(product.getProductName());
+                orderItem.setQuantity(1);
+                orderItem.setUnitPrice(product.getFinalPrice());
+                entityManager.persist(orderItem);
+            }
+        }
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Each measurement starts from an empty persistence context so nothing is served from the first-level cache
+    private <T> Measured<T> measure(Supplier<T> query) {
+        entityManager.clear();
+        Statistics statistics = statistics();
+        T result = query.get();
+        return new Measured<>(result, statistics.getPrepareStatementCount(), statistics.getEntityLoadCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private record Measured<T>(T result, long statements, long entityLoads) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.cache.CacheRegion;
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstHashKeyPrefix;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.dto.response.product.ProductResponse;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.model.PagingModel;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.repository.StockReservationRepository;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A stock hold drops only the held product from the cache, and only once its transaction has committed; product
+ * pages are left to their TTL.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StockReservationServiceImpl.class, FlashSaleServiceImpl.class, LocalCacheManager.class})
+class StockReservationCacheEvictionTest {
+
+    private static final String PAGE_KEY = "1:10";
+
+    private static final AtomicLong NEXT_ORDER_CODE = new AtomicLong(1_000_000);
+
+    @Autowired
+    private IStockReservationService stockReservationService;
+
+    @Autowired
+    private LocalCacheManager cacheManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private CacheRegion<UUID, ProductResponse> productCache;
+
+    private CacheRegion<String, PagingModel<ProductResponse>> productPageCache;
+
+    private UUID heldProductId;
+
+    private UUID otherProductId;
+
+    @BeforeEach
+    void setUp() {
+        productCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_PRODUCT);
+        productPageCache = cacheManager.getRegion(ConstHashKeyPrefix.HASH_KEY_PREFIX_FOR_PRODUCT_PAGE);
+        heldProductId = persistProduct("Held bag");
+        otherProductId = persistProduct("Other bag");
+        productCache.put(heldProductId, new ProductResponse());
+        productCache.put(otherProductId, new ProductResponse());
+        productPageCache.put(PAGE_KEY, new PagingModel<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.clearAll();
+        reservationRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void holdEvictsTheHeldProductAfterCommit() {
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            assertThat(stockReservationService.tryHold(persistOrder(), List.of(orderItem(heldProductId)))).isTrue();
+            // Still uncommitted: a read now would see the old stock, so the cached copy is kept until commit
+            assertThat(productCache.getIfPresent(heldProductId)).isNotNull();
+        });
+
+        assertThat(productCache.getIfPresent(heldProductId)).isNull();
+        assertThat(productCache.getIfPresent(otherProductId)).isNotNull();
+        assertThat(productPageCache.getIfPresent(PAGE_KEY)).isNotNull();
+    }
+
+    @Test
+    void rolledBackHoldLeavesTheCacheAlone() {
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            assertThat(stockReservationService.tryHold(persistOrder(), List.of(orderItem(heldProductId)))).isTrue();
+            transactionStatus.setRollbackOnly();
+        });
+
+        assertThat(productCache.getIfPresent(heldProductId)).isNotNull();
+    }
+
+    @Test
+    void releaseOutsideATransactionEvictsRightAway() throws Exception {
+        Order order = transactionTemplate.execute(transactionStatus -> {
+            Order held = persistOrder();
+            stockReservationService.tryHold(held, List.of(orderItem(heldProductId)));
+            return held;
+        });
+        productCache.put(heldProductId, new ProductResponse());
+
+        stockReservationService.release(order.getId());
+
+        assertThat(productCache.getIfPresent(heldProductId)).isNull();
+        assertThat(productPageCache.getIfPresent(PAGE_KEY)).isNotNull();
+    }
+
+    private Order persistOrder() {
+        Order order = new Order();
+        order.setOrderCode(NEXT_ORDER_CODE.getAndIncrement());
+        order.setStatus(ConstStatus.ACTIVE_STATUS);
+        return orderRepository.save(order);
+    }
+
+    private OrderItem orderItem(UUID productId) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setProductID(productRepository.findById(productId).orElseThrow());
+        orderItem.setQuantity(1);
+        return orderItem;
+    }
+
+    private UUID persistProduct(String name) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setFinalPrice(BigDecimal.TEN);
+        product.setStock(5);
+        product.setStatus(ConstStatus.ACTIVE_STATUS);
+        return productRepository.save(product).getId();
+    }
+}
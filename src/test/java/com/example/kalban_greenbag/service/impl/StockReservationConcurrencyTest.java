@@ -0,0 +1,161 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.entity.Order;
+import com.example.kalban_greenbag.entity.OrderItem;
+import com.example.kalban_greenbag.entity.Product;
+import com.example.kalban_greenbag.entity.ProductStockShard;
+import com.example.kalban_greenbag.repository.OrderRepository;
+import com.example.kalban_greenbag.repository.ProductRepository;
+import com.example.kalban_greenbag.repository.ProductStockShardRepository;
+import com.example.kalban_greenbag.repository.StockReservationRepository;
+import com.example.kalban_greenbag.service.IFlashSaleService;
+import com.example.kalban_greenbag.service.IStockReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many buyers check out the last units of one product at the same moment. Each checkout runs in its own committed
+ * transaction against the guarded UPDATE, so exactly as many holds succeed as there were units and the stock never
+ * goes below zero.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StockReservationServiceImpl.class, FlashSaleServiceImpl.class, LocalCacheManager.class})
+class StockReservationConcurrencyTest {
+
+    private static final int BUYERS = 64;
+
+    private static final int STOCK = 20;
+
+    private static final AtomicLong NEXT_ORDER_CODE = new AtomicLong(1_000_000);
+
+    @Autowired
+    private IStockReservationService stockReservationService;
+
+    @Autowired
+    private IFlashSaleService flashSaleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void singleRowStockIsNeverOversold() throws Exception {
+        UUID productId = persistProduct("Single row product");
+
+        assertThat(hammer(productId)).isEqualTo(STOCK);
+
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isZero();
+        assertThat(heldQuantity(productId)).isEqualTo(STOCK);
+    }
+
+    @Test
+    void shardedStockIsNeverOversold() throws Exception {
+        UUID productId = persistProduct("Flash sale product");
+        flashSaleService.enable(productId, 8);
+
+        assertThat(hammer(productId)).isEqualTo(STOCK);
+
+        assertThat(shardRepository.findAll()).filteredOn(shard -> shard.getProductId().equals(productId))
+                .extracting(ProductStockShard::getStock)
+                .containsOnly(0);
+        assertThat(heldQuantity(productId)).isEqualTo(STOCK);
+    }
+
+    // Runs BUYERS concurrent one-unit checkouts and returns how many of them got a hold
+    private int hammer(UUID productId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> checkouts = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                checkouts.add(executor.submit(() -> {
+                    start.await();
+                    return checkout(productId);
+                }));
+            }
+            start.countDown();
+
+            int held = 0;
+            for (Future<Boolean> checkout : checkouts) {
+                if (checkout.get(60, TimeUnit.SECONDS)) {
+                    held++;
+                }
+            }
+            return held;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean checkout(UUID productId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(transactionStatus -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+            Order order = new Order();
+            order.setOrderCode(NEXT_ORDER_CODE.getAndIncrement());
+            order.setStatus(ConstStatus.ACTIVE_STATUS);
+            orderRepository.save(order);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProductID(product);
+            orderItem.setQuantity(1);
+            if (!stockReservationService.tryHold(order, List.of(orderItem))) {
+                transactionStatus.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
+    }
+
+    private int heldQuantity(UUID productId) {
+        return transactionTemplate.execute(transactionStatus -> reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getProductID().getId().equals(productId))
+                .filter(reservation -> ConstStatus.ReservationStatus.HELD.equals(reservation.getReservationStatus()))
+                .mapToInt(reservation -> reservation.getQuantity())
+                .sum());
+    }
+
+    private UUID persistProduct(String name) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setFinalPrice(BigDecimal.TEN);
+        product.setStock(STOCK);
+        product.setStatus(ConstStatus.ACTIVE_STATUS);
+        return productRepository.save(product).getId();
+    }
+}
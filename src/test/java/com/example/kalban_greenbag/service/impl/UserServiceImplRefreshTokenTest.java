@@ -0,0 +1,132 @@
+package com.example.kalban_greenbag.service.impl;
+
+import com.example.kalban_greenbag.cache.LocalCacheManager;
+import com.example.kalban_greenbag.constant.ConstError;
+import com.example.kalban_greenbag.constant.ConstStatus;
+import com.example.kalban_greenbag.dto.request.user.RefreshTokenRequest;
+import com.example.kalban_greenbag.dto.response.JwtAuthenticationResponse;
+import com.example.kalban_greenbag.entity.Role;
+import com.example.kalban_greenbag.entity.User;
+import com.example.kalban_greenbag.exception.BaseException;
+import com.example.kalban_greenbag.repository.UserRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh tokens issued before the typ, uid and ver claims existed keep working after the rollout, and are still
+ * checked against the user row. Old access tokens carry no typ either and must not pass as refresh tokens.
+ */
+class UserServiceImplRefreshTokenTest {
+
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+
+    private UserServiceImpl userService;
+    private JWTServiceImpl jwtService;
+    private UserRepository userRepository;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        LocalCacheManager cacheManager = new LocalCacheManager();
+        ReflectionTestUtils.setField(cacheManager, "maxEntries", 100);
+        ReflectionTestUtils.setField(cacheManager, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(cacheManager, "localOnlyRegions", Set.of());
+        jwtService = new JWTServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "cacheManager", cacheManager);
+        jwtService.initCaches();
+
+        userRepository = mock(UserRepository.class);
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "jwtService", jwtService);
+
+        Role role = new Role();
+        role.setRoleName("CUSTOMER");
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("alice");
+        user.setStatus(ConstStatus.ACTIVE_STATUS);
+        user.setRole(role);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void legacyRefreshTokenIsExchangedForCurrentTokens() throws Exception {
+        JwtAuthenticationResponse response = userService.refreshToken(request(legacyToken(7 * 24 * HOUR_MILLIS)));
+
+        // The new refresh token is a current one, with its type and version
+        assertThat(jwtService.parseToken(response.getRefreshToken()).isRefreshToken()).isTrue();
+        assertThat(jwtService.parseToken(response.getRefreshToken()).getTokenVersion()).isZero();
+    }
+
+    @Test
+    void legacyRefreshTokenIsRevokedWithTheUsersTokens() {
+        user.revokeTokens();
+
+        assertThatThrownBy(() -> userService.refreshToken(request(legacyToken(7 * 24 * HOUR_MILLIS))))
+                .isInstanceOf(BaseException.class)
+                .hasMessage(ConstError.User.TOKEN_REVOKED);
+    }
+
+    @Test
+    void legacyRefreshTokenOfADisabledUserIsRefused() {
+        user.setStatus(ConstStatus.INACTIVE_STATUS);
+
+        assertThatThrownBy(() -> userService.refreshToken(request(legacyToken(7 * 24 * HOUR_MILLIS))))
+                .isInstanceOf(BaseException.class)
+                .hasMessage(ConstError.User.USER_DISABLED);
+    }
+
+    @Test
+    void legacyAccessTokenIsNotARefreshToken() {
+        assertThatThrownBy(() -> userService.refreshToken(request(legacyToken(HOUR_MILLIS))))
+                .isInstanceOf(BaseException.class)
+                .hasMessage(ConstError.User.INVALID_REFRESH_TOKEN);
+    }
+
+    @Test
+    void currentAccessTokenIsNotARefreshToken() {
+        assertThatThrownBy(() -> userService.refreshToken(request(jwtService.generateToken(user))))
+                .isInstanceOf(BaseException.class)
+                .hasMessage(ConstError.User.INVALID_REFRESH_TOKEN);
+    }
+
+    @Test
+    void currentRefreshTokenIsExchanged() throws Exception {
+        String refreshToken = jwtService.generateRefreshToken(new HashMap<>(), user);
+
+        assertThat(userService.refreshToken(request(refreshToken)).getUsername()).isEqualTo("alice");
+    }
+
+    // Shaped like the tokens issued before the rollout: subject, issued-at and expiry only
+    private String legacyToken(long lifetimeMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject("alice")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + lifetimeMillis))
+                .signWith(jwtService.getSigninKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static RefreshTokenRequest request(String refreshToken) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+}
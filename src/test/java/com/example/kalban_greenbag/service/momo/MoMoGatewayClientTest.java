@@ -0,0 +1,150 @@
+package com.example.kalban_greenbag.service.momo;
+
+import com.example.kalban_greenbag.config.HttpClientConfig;
+import com.example.kalban_greenbag.http.HttpClientPoolMetrics;
+import com.example.kalban_greenbag.resilience.GatewayGuard;
+import com.example.kalban_greenbag.resilience.GatewayRejectedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the gateway client against a local HTTP server standing in for MoMo, with the pooled client built the way
+ * {@link HttpClientConfig} builds it.
+ */
+class MoMoGatewayClientTest {
+
+    private static final long TOTAL_TIMEOUT_MS = 500;
+
+    private static final byte[] REPLY = "{\"resultCode\":0,\"message\":\"Successful.\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private CloseableHttpClient httpClient;
+    private HttpClientPoolMetrics metrics;
+    private GatewayGuard gatewayGuard;
+    private MoMoGatewayClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v2/gateway/api/create", this::reply);
+        server.createContext("/v2/gateway/api/slow", this::trickle);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxTotal", 50);
+        ReflectionTestUtils.setField(config, "maxPerRoute", 20);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 3000);
+        ReflectionTestUtils.setField(config, "connectionRequestTimeoutMs", 2000);
+        // Longer than the whole test, so only the total deadline can end the slow response
+        ReflectionTestUtils.setField(config, "socketTimeoutMs", 10_000);
+        ReflectionTestUtils.setField(config, "keepAliveMs", 30_000L);
+        PoolingHttpClientConnectionManager connectionManager = config.httpConnectionManager();
+        httpClient = config.httpClient(connectionManager);
+        metrics = config.httpClientPoolMetrics(connectionManager);
+
+        gatewayGuard = new GatewayGuard("momo", 10, 100, 5000, 10_000, 5, 30_000,
+                exception -> exception instanceof GatewayRejectedException);
+
+        client = new MoMoGatewayClient();
+        ReflectionTestUtils.setField(client, "httpClient", httpClient);
+        ReflectionTestUtils.setField(client, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(client, "metrics", metrics);
+        ReflectionTestUtils.setField(client, "momoGatewayGuard", gatewayGuard);
+        ReflectionTestUtils.setField(client, "totalTimeoutMs", TOTAL_TIMEOUT_MS);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.shutdown();
+        gatewayGuard.shutdown();
+        httpClient.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void sequentialRequestsReuseOnePooledConnection() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Map<?, ?> reply = client.post(url("create"), Map.of("orderId", "order-" + i), Map.class);
+            assertThat(reply.get("resultCode")).isEqualTo(0);
+        }
+
+        assertThat(metrics.getStats().getRequests()).isEqualTo(20);
+        assertThat(metrics.getStats().getConnectionsOpened()).isEqualTo(1);
+        assertThat(metrics.getStats().getLeasedConnections()).isZero();
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    void deadlineAbortsAResponseThatKeepsTrickling() {
+        long started = System.nanoTime();
+
+        assertThatThrownBy(() -> client.post(url("slow"), Map.of("orderId", "slow"), Map.class))
+                .isInstanceOf(IOException.class);
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        // Aborted by the deadline, well before the gateway guard's 5s timeout or the server finishing
+        assertThat(elapsedMs).isBetween(TOTAL_TIMEOUT_MS, 3000L);
+        assertThat(metrics.getStats().getFailures()).isEqualTo(1);
+        assertThat(metrics.getStats().getLeasedConnections()).isZero();
+    }
+
+    private void reply(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, REPLY.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(REPLY);
+        }
+    }
+
+    // Sends a byte every 100ms for 10s: no single read waits long enough for the socket timeout
+    private void trickle(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write('{');
+            body.flush();
+            for (int i = 0; i < 100; i++) {
+                Thread.sleep(100);
+                body.write(' ');
+                body.flush();
+            }
+            body.write('}');
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String url(String path) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v2/gateway/api/" + path;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.kalban_greenbag.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void burstIsTakenAtOnceThenOnePermitPerInterval() throws Exception {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquireOrDelay()).isZero();
+        }
+
+        // The next permit is one interval after the first one was taken
+        long delayNanos = bucket.tryAcquireOrDelay();
+        assertThat(delayNanos).isPositive().isLessThanOrEqualTo(INTERVAL_NANOS);
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        TimeUnit.NANOSECONDS.sleep(delayNanos);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void idleTimeRefillsNoMoreThanTheBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, 3);
+        assertThat(bucket.isFull()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.isFull()).isFalse();
+
+        // Ten intervals idle, but only three permits fit in the bucket
+        Thread.sleep(100);
+        assertThat(bucket.isFull()).isTrue();
+        int acquired = 0;
+        while (bucket.tryAcquire()) {
+            acquired++;
+        }
+        assertThat(acquired).isEqualTo(3);
+    }
+
+    @Test
+    void acquireWaitsForTheNextPermit() throws Exception {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.acquire();
+
+        long start = System.nanoTime();
+        bucket.acquire();
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(INTERVAL_NANOS - TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanTheBurst() throws Exception {
+        // Slow enough that nothing refills while the test runs
+        TokenBucket bucket = new TokenBucket(0.001, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> callers = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                callers.add(executor.submit(() -> {
+                    start.await();
+                    int acquired = 0;
+                    for (int j = 0; j < 50; j++) {
+                        if (bucket.tryAcquire()) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            start.countDown();
+
+            int acquired = 0;
+            for (Future<Integer> caller : callers) {
+                acquired += caller.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(acquired).isEqualTo(100);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}